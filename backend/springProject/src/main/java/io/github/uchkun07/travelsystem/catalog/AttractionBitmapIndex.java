@@ -0,0 +1,357 @@
+package io.github.uchkun07.travelsystem.catalog;
+
+import io.github.uchkun07.travelsystem.util.PageCursor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * 景点属性位图索引
+ * 以景点ID为位偏移，对类型（主类型 + 关联类型）、标签、城市、状态、审核状态分别建立取值 → 位图的倒排表，
+ * 过滤条件在内存中按位与/或求解，SQL 只负责最终分页结果的回表（或直接由目录组装）。
+ *
+ * <p>分面统计采用多选分面语义：统计某一维度各取值的数量时排除该维度自身的条件，
+ * 使已勾选的类型/城市不会把其他选项的计数清零。标签为全部命中模式时按钻取语义保留标签条件。</p>
+ *
+ * <p>景点ID为自增主键，分布稠密，直接使用 {@link BitSet} 即可达到压缩位图的空间效率。</p>
+ *
+ * <p>另维护按（人气, ID）降序的有序集合，人气游标分页从游标位置向后遍历并按命中位图过滤，
+ * 每页只访问游标之后的少量景点，无需对全部命中结果排序。</p>
+ */
+@Slf4j
+@Component
+public class AttractionBitmapIndex implements AttractionCatalogListener {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final BitSet all = new BitSet();
+    private final Map<Integer, BitSet> statusBits = new HashMap<>();
+    private final Map<Integer, BitSet> auditBits = new HashMap<>();
+    private final Map<Integer, BitSet> cityBits = new HashMap<>();
+    private final Map<Integer, BitSet> typeBits = new HashMap<>();
+    private final Map<Integer, BitSet> tagBits = new HashMap<>();
+    /** 全部景点按人气降序、ID降序排列 */
+    private final TreeSet<PopularityKey> popularityOrder = new TreeSet<>();
+    /** 已索引的投影，增量更新时用于撤销旧取值 */
+    private final Map<Long, AttractionCardEntry> indexed = new HashMap<>();
+    private volatile boolean ready;
+
+    /**
+     * 分面统计结果
+     *
+     * @param total  满足全部条件的景点数
+     * @param types  类型ID → 数量（按数量降序）
+     * @param cities 城市ID → 数量（按数量降序）
+     * @param tags   标签ID → 数量（按数量降序）
+     */
+    public record Facets(int total,
+                         Map<Integer, Integer> types,
+                         Map<Integer, Integer> cities,
+                         Map<Integer, Integer> tags) {
+    }
+
+    /**
+     * 人气游标分页结果
+     *
+     * @param attractionIds 游标之后命中条件的景点ID（按人气降序、ID降序）
+     * @param total         满足全部条件的景点数
+     */
+    public record PopularitySeek(List<Long> attractionIds, int total) {
+    }
+
+    private record PopularityKey(long popularity, long attractionId) implements Comparable<PopularityKey> {
+
+        @Override
+        public int compareTo(PopularityKey other) {
+            int cmp = Long.compare(other.popularity, popularity);
+            return cmp != 0 ? cmp : Long.compare(other.attractionId, attractionId);
+        }
+    }
+
+    /**
+     * 索引是否已完成首次构建
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 求解过滤条件
+     *
+     * @return 命中景点ID位图（调用方独占，可自由修改）
+     */
+    public BitSet match(AttractionFilter filter) {
+        lock.readLock().lock();
+        try {
+            return evaluate(filter, null, null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 人气降序游标分页：从游标之后沿有序集合遍历，收集命中过滤条件的景点直到 limit 个
+     *
+     * @param scope 额外限定的景点ID范围（如文本检索命中集合），为 null 时不限
+     * @param after 上一页最后一条的（人气, ID），为 null 时从第一条开始
+     */
+    public PopularitySeek seekByPopularity(AttractionFilter filter, BitSet scope, PageCursor after, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet matched = evaluate(filter, null, scope);
+            Iterable<PopularityKey> tail = after == null
+                    ? popularityOrder
+                    : popularityOrder.tailSet(new PopularityKey(after.sortValue(), after.id()), false);
+            List<Long> ids = new ArrayList<>(Math.max(0, limit));
+            if (limit > 0 && !matched.isEmpty()) {
+                for (PopularityKey key : tail) {
+                    if (matched.get((int) key.attractionId())) {
+                        ids.add(key.attractionId());
+                        if (ids.size() >= limit) {
+                            break;
+                        }
+                    }
+                }
+            }
+            return new PopularitySeek(ids, matched.cardinality());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 分面统计
+     *
+     * @param scope 额外限定的景点ID范围（如文本检索命中集合），为 null 时不限
+     */
+    public Facets facets(AttractionFilter filter, BitSet scope) {
+        lock.readLock().lock();
+        try {
+            BitSet matched = evaluate(filter, null, scope);
+            Map<Integer, Integer> types = countBy(typeBits, evaluate(filter, Dimension.TYPE, scope));
+            Map<Integer, Integer> cities = countBy(cityBits, evaluate(filter, Dimension.CITY, scope));
+            BitSet tagBase = filter.tagMatchAll() ? matched : evaluate(filter, Dimension.TAG, scope);
+            Map<Integer, Integer> tags = countBy(tagBits, tagBase);
+            int total = matched.cardinality();
+            return new Facets(total, types, cities, tags);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onReload(Collection<AttractionCardEntry> entries) {
+        lock.writeLock().lock();
+        try {
+            all.clear();
+            statusBits.clear();
+            auditBits.clear();
+            cityBits.clear();
+            typeBits.clear();
+            tagBits.clear();
+            popularityOrder.clear();
+            indexed.clear();
+            for (AttractionCardEntry entry : entries) {
+                add(entry);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("景点位图索引重建完成, docs={}, types={}, cities={}, tags={}",
+                entries.size(), typeBits.size(), cityBits.size(), tagBits.size());
+    }
+
+    @Override
+    public void onUpsert(AttractionCardEntry entry) {
+        lock.writeLock().lock();
+        try {
+            AttractionCardEntry old = indexed.get(entry.getAttractionId());
+            if (old != null && sameAttributes(old, entry)
+                    && popularityOf(old) == popularityOf(entry)) {
+                return;
+            }
+            if (old != null) {
+                remove(old);
+            }
+            add(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onRemove(Long attractionId) {
+        lock.writeLock().lock();
+        try {
+            AttractionCardEntry old = indexed.get(attractionId);
+            if (old != null) {
+                remove(old);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private enum Dimension {
+        TYPE, CITY, TAG
+    }
+
+    /**
+     * @param skip  忽略的维度（分面统计用），为 null 时应用全部条件
+     * @param scope 额外限定的景点ID范围，为 null 时不限
+     */
+    private BitSet evaluate(AttractionFilter filter, Dimension skip, BitSet scope) {
+        BitSet result = (BitSet) all.clone();
+        if (scope != null) {
+            result.and(scope);
+        }
+        if (filter.status() != null) {
+            result.and(bitsOf(statusBits, filter.status()));
+        }
+        if (filter.auditStatus() != null) {
+            result.and(bitsOf(auditBits, filter.auditStatus()));
+        }
+        if (skip != Dimension.CITY && !filter.cityIds().isEmpty()) {
+            result.and(union(cityBits, filter.cityIds()));
+        }
+        if (skip != Dimension.TYPE && !filter.typeIds().isEmpty()) {
+            result.and(union(typeBits, filter.typeIds()));
+        }
+        if (skip != Dimension.TAG && !filter.tagIds().isEmpty()) {
+            if (filter.tagMatchAll()) {
+                for (Integer tagId : filter.tagIds()) {
+                    result.and(bitsOf(tagBits, tagId));
+                }
+            } else {
+                result.and(union(tagBits, filter.tagIds()));
+            }
+        }
+        return result;
+    }
+
+    private BitSet union(Map<Integer, BitSet> postings, Collection<Integer> values) {
+        BitSet union = new BitSet();
+        for (Integer value : values) {
+            BitSet bits = postings.get(value);
+            if (bits != null) {
+                union.or(bits);
+            }
+        }
+        return union;
+    }
+
+    private BitSet bitsOf(Map<Integer, BitSet> postings, Integer value) {
+        BitSet bits = postings.get(value);
+        return bits == null ? new BitSet() : bits;
+    }
+
+    private Map<Integer, Integer> countBy(Map<Integer, BitSet> postings, BitSet base) {
+        List<Map.Entry<Integer, Integer>> counts = new ArrayList<>();
+        if (!base.isEmpty()) {
+            for (Map.Entry<Integer, BitSet> posting : postings.entrySet()) {
+                BitSet bits = (BitSet) posting.getValue().clone();
+                bits.and(base);
+                int count = bits.cardinality();
+                if (count > 0) {
+                    counts.add(Map.entry(posting.getKey(), count));
+                }
+            }
+        }
+        counts.sort(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        Map<Integer, Integer> result = new LinkedHashMap<>(counts.size() * 2);
+        for (Map.Entry<Integer, Integer> count : counts) {
+            result.put(count.getKey(), count.getValue());
+        }
+        return result;
+    }
+
+    private void add(AttractionCardEntry entry) {
+        Integer bit = bitOf(entry.getAttractionId());
+        if (bit == null) {
+            return;
+        }
+        all.set(bit);
+        apply(statusBits, entry.getStatus(), bit, true);
+        apply(auditBits, entry.getAuditStatus(), bit, true);
+        apply(cityBits, entry.getCityId(), bit, true);
+        applyAll(typeBits, entry, AttractionCardEntry::getTypeIds, bit, true);
+        applyAll(tagBits, entry, AttractionCardEntry::getTagIds, bit, true);
+        popularityOrder.add(new PopularityKey(popularityOf(entry), entry.getAttractionId()));
+        indexed.put(entry.getAttractionId(), entry);
+    }
+
+    private void remove(AttractionCardEntry entry) {
+        Integer bit = bitOf(entry.getAttractionId());
+        if (bit == null) {
+            return;
+        }
+        all.clear(bit);
+        apply(statusBits, entry.getStatus(), bit, false);
+        apply(auditBits, entry.getAuditStatus(), bit, false);
+        apply(cityBits, entry.getCityId(), bit, false);
+        applyAll(typeBits, entry, AttractionCardEntry::getTypeIds, bit, false);
+        applyAll(tagBits, entry, AttractionCardEntry::getTagIds, bit, false);
+        popularityOrder.remove(new PopularityKey(popularityOf(entry), entry.getAttractionId()));
+        indexed.remove(entry.getAttractionId());
+    }
+
+    private void applyAll(Map<Integer, BitSet> postings, AttractionCardEntry entry,
+                          Function<AttractionCardEntry, List<Integer>> values, int bit, boolean set) {
+        List<Integer> ids = values.apply(entry);
+        if (ids == null) {
+            return;
+        }
+        for (Integer id : ids) {
+            apply(postings, id, bit, set);
+        }
+    }
+
+    private void apply(Map<Integer, BitSet> postings, Integer value, int bit, boolean set) {
+        if (value == null) {
+            return;
+        }
+        if (set) {
+            postings.computeIfAbsent(value, k -> new BitSet()).set(bit);
+            return;
+        }
+        BitSet bits = postings.get(value);
+        if (bits != null) {
+            bits.clear(bit);
+            if (bits.isEmpty()) {
+                postings.remove(value);
+            }
+        }
+    }
+
+    private boolean sameAttributes(AttractionCardEntry a, AttractionCardEntry b) {
+        return Objects.equals(a.getStatus(), b.getStatus())
+                && Objects.equals(a.getAuditStatus(), b.getAuditStatus())
+                && Objects.equals(a.getCityId(), b.getCityId())
+                && Objects.equals(a.getTypeIds(), b.getTypeIds())
+                && Objects.equals(a.getTagIds(), b.getTagIds());
+    }
+
+    private long popularityOf(AttractionCardEntry entry) {
+        return entry.getPopularity() != null ? entry.getPopularity() : 0;
+    }
+
+    private Integer bitOf(Long attractionId) {
+        if (attractionId == null || attractionId < 0 || attractionId > Integer.MAX_VALUE) {
+            return null;
+        }
+        return attractionId.intValue();
+    }
+}
@@ -0,0 +1,632 @@
+package io.github.uchkun07.travelsystem.catalog;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import io.github.uchkun07.travelsystem.dto.AttractionCounterDelta;
+import io.github.uchkun07.travelsystem.entity.Attraction;
+import io.github.uchkun07.travelsystem.entity.AttractionTagRelation;
+import io.github.uchkun07.travelsystem.entity.AttractionType;
+import io.github.uchkun07.travelsystem.entity.AttractionTypeRelation;
+import io.github.uchkun07.travelsystem.entity.City;
+import io.github.uchkun07.travelsystem.mapper.AttractionMapper;
+import io.github.uchkun07.travelsystem.mapper.AttractionTagRelationMapper;
+import io.github.uchkun07.travelsystem.mapper.AttractionTypeMapper;
+import io.github.uchkun07.travelsystem.mapper.AttractionTypeRelationMapper;
+import io.github.uchkun07.travelsystem.mapper.CityMapper;
+import io.github.uchkun07.travelsystem.service.IAttractionCounterService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 景点卡片内存目录
+ * 启动时全量加载景点卡片投影（景点 + 城市名称 + 类型名称 + 标签），
+ * 景点/城市/类型/标签变更后在事务提交后增量刷新，卡片类接口读取时不再访问数据库。
+ * 多节点部署时依赖定时全量重建兜底，保证最终一致。
+ * 派生索引通过 {@link AttractionCatalogListener} 订阅目录变更。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AttractionCardCatalog {
+
+    /** IN 查询单批最大ID数量 */
+    private static final int LOAD_BATCH_SIZE = 1000;
+    /** 回源未找到的景点ID记录时长 */
+    private static final long MISS_TTL_MS = 60_000;
+    /** 未找到记录的最大数量，超过后整体清空 */
+    private static final int MAX_MISS_SIZE = 10_000;
+
+    private final AttractionMapper attractionMapper;
+    private final CityMapper cityMapper;
+    private final AttractionTypeMapper attractionTypeMapper;
+    private final AttractionTypeRelationMapper attractionTypeRelationMapper;
+    private final AttractionTagRelationMapper attractionTagRelationMapper;
+
+    @Qualifier("generalAsyncExecutor")
+    private final Executor generalAsyncExecutor;
+
+    /** 派生索引（搜索、筛选等），延迟获取以避免循环依赖 */
+    private final ObjectProvider<AttractionCatalogListener> listeners;
+
+    /** 计数聚合服务，加载时合并尚未落库的计数增量 */
+    private final ObjectProvider<IAttractionCounterService> attractionCounterService;
+
+    private final AtomicLong version = new AtomicLong();
+    private final Object rebuildLock = new Object();
+
+    private volatile Map<Long, AttractionCardEntry> entries = new ConcurrentHashMap<>();
+    private volatile Map<Integer, String> cityNames = Collections.emptyMap();
+    private volatile Map<Integer, String> typeNames = Collections.emptyMap();
+    private volatile boolean loaded;
+
+    /** 回源未找到的景点ID -> 过期时间，已删除或不存在的ID短期内不再重复查询数据库 */
+    private final Map<Long, Long> recentMisses = new ConcurrentHashMap<>();
+
+    /** 全量重建期间发生增量变更的景点ID，重建完成后补刷，避免被旧快照覆盖 */
+    private Set<Long> changedDuringRebuild;
+
+    @PostConstruct
+    public void init() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // 启动阶段数据库不可用时不阻塞应用，首次读取时再加载
+            log.warn("景点卡片目录初始化失败，将在首次访问时重试", e);
+        }
+    }
+
+    /**
+     * 定时全量重建，兜底其他节点写入造成的差异
+     */
+    @Scheduled(cron = "0 */10 * * * ?")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("景点卡片目录定时重建失败", e);
+        }
+    }
+
+    /**
+     * 全量重建目录
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            doRebuild();
+        }
+    }
+
+    private void doRebuild() {
+        synchronized (this) {
+            changedDuringRebuild = ConcurrentHashMap.newKeySet();
+        }
+        try {
+            Map<Integer, String> newCityNames = loadAllCityNames();
+            Map<Integer, String> newTypeNames = loadAllTypeNames();
+
+            List<Attraction> attractions = attractionMapper.selectList(cardColumns(new LambdaQueryWrapper<>()));
+            Map<Long, List<Integer>> relationTypeIds = groupRelationTypeIds(
+                    attractionTypeRelationMapper.selectList(new LambdaQueryWrapper<AttractionTypeRelation>()
+                            .select(AttractionTypeRelation::getAttractionId, AttractionTypeRelation::getTypeId)));
+            Map<Long, List<Integer>> relationTagIds = groupRelationTagIds(
+                    attractionTagRelationMapper.selectList(new LambdaQueryWrapper<AttractionTagRelation>()
+                            .select(AttractionTagRelation::getAttractionId, AttractionTagRelation::getTagId)));
+
+            Map<Long, AttractionCounterDelta> pendingCounters = loadPendingCounters(null);
+            Map<Long, AttractionCardEntry> newEntries = new ConcurrentHashMap<>(Math.max(16, attractions.size() * 2));
+            for (Attraction attraction : attractions) {
+                newEntries.put(attraction.getAttractionId(), withCounters(project(attraction,
+                        relationTypeIds.get(attraction.getAttractionId()),
+                        relationTagIds.get(attraction.getAttractionId()), newCityNames, newTypeNames),
+                        pendingCounters.get(attraction.getAttractionId())));
+            }
+
+            Set<Long> pending;
+            synchronized (this) {
+                cityNames = newCityNames;
+                typeNames = newTypeNames;
+                entries = newEntries;
+                pending = changedDuringRebuild;
+                changedDuringRebuild = null;
+                recentMisses.clear();
+                loaded = true;
+                version.incrementAndGet();
+                notifyListeners(listener -> listener.onReload(newEntries.values()));
+            }
+            if (!pending.isEmpty()) {
+                reloadAttractions(pending);
+            }
+            log.info("景点卡片目录重建完成, size={}, version={}", newEntries.size(), version.get());
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changedDuringRebuild = null;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 当前目录版本号，每次全量重建或增量变更后递增
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * 获取单个景点卡片投影，目录缺失时回源加载
+     */
+    public AttractionCardEntry get(Long attractionId) {
+        if (attractionId == null) {
+            return null;
+        }
+        List<AttractionCardEntry> result = getAll(Collections.singletonList(attractionId));
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    /**
+     * 按给定ID顺序批量获取卡片投影，不存在的景点会被跳过
+     * 目录缺失的ID回源加载一次，仍未找到的在 {@link #MISS_TTL_MS} 内不再回源。
+     */
+    public List<AttractionCardEntry> getAll(Collection<Long> attractionIds) {
+        if (CollectionUtils.isEmpty(attractionIds)) {
+            return new ArrayList<>();
+        }
+        ensureLoaded();
+
+        Map<Long, AttractionCardEntry> current = entries;
+        long now = System.currentTimeMillis();
+        List<Long> missingIds = attractionIds.stream()
+                .filter(id -> id != null && !current.containsKey(id) && !recentlyMissed(id, now))
+                .distinct()
+                .collect(Collectors.toList());
+        if (!missingIds.isEmpty()) {
+            // 其他节点新建的景点可能尚未同步到本地目录，按需补齐
+            reloadAttractions(missingIds);
+            Map<Long, AttractionCardEntry> reloaded = entries;
+            if (recentMisses.size() + missingIds.size() > MAX_MISS_SIZE) {
+                recentMisses.clear();
+            }
+            for (Long id : missingIds) {
+                if (!reloaded.containsKey(id)) {
+                    recentMisses.put(id, now + MISS_TTL_MS);
+                }
+            }
+        }
+
+        Map<Long, AttractionCardEntry> latest = entries;
+        List<AttractionCardEntry> result = new ArrayList<>(attractionIds.size());
+        for (Long id : attractionIds) {
+            AttractionCardEntry entry = id == null ? null : latest.get(id);
+            if (entry != null) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    private boolean recentlyMissed(Long attractionId, long now) {
+        Long expireAt = recentMisses.get(attractionId);
+        if (expireAt == null) {
+            return false;
+        }
+        if (expireAt > now) {
+            return true;
+        }
+        recentMisses.remove(attractionId, expireAt);
+        return false;
+    }
+
+    /**
+     * 当前目录中全部卡片投影（只读视图）
+     */
+    public Collection<AttractionCardEntry> snapshot() {
+        ensureLoaded();
+        return Collections.unmodifiableCollection(entries.values());
+    }
+
+    public String getCityName(Integer cityId) {
+        ensureLoaded();
+        return cityId == null ? null : cityNames.get(cityId);
+    }
+
+    public String getTypeName(Integer typeId) {
+        ensureLoaded();
+        return typeId == null ? null : typeNames.get(typeId);
+    }
+
+    /**
+     * 景点新增/修改后刷新（当前事务提交后执行）
+     */
+    public void refreshAttractionAfterCommit(Long attractionId) {
+        if (attractionId == null) {
+            return;
+        }
+        afterCommit(() -> reloadAttractions(Collections.singletonList(attractionId)));
+    }
+
+    /**
+     * 批量新增/变更后刷新（当前事务提交后按批加载）
+     */
+    public void refreshAttractionsAfterCommit(Collection<Long> attractionIds) {
+        if (CollectionUtils.isEmpty(attractionIds)) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(attractionIds);
+        afterCommit(() -> reloadAttractions(ids));
+    }
+
+    /**
+     * 景点删除后移除（当前事务提交后执行）
+     */
+    public void removeAttractionAfterCommit(Long attractionId) {
+        if (attractionId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            synchronized (this) {
+                markChanged(Collections.singletonList(attractionId));
+                if (entries.remove(attractionId) != null) {
+                    version.incrementAndGet();
+                    notifyListeners(listener -> listener.onRemove(attractionId));
+                }
+            }
+        });
+    }
+
+    /**
+     * 城市新增/修改/删除后刷新城市名称（当前事务提交后执行）
+     */
+    public void refreshCitiesAfterCommit(Collection<Integer> cityIds) {
+        if (CollectionUtils.isEmpty(cityIds)) {
+            return;
+        }
+        List<Integer> ids = new ArrayList<>(cityIds);
+        afterCommit(() -> reloadCities(ids));
+    }
+
+    /**
+     * 类型新增/修改/删除后刷新类型名称及受影响的景点（当前事务提交后执行）
+     */
+    public void refreshTypesAfterCommit(Collection<Integer> typeIds) {
+        if (CollectionUtils.isEmpty(typeIds)) {
+            return;
+        }
+        List<Integer> ids = new ArrayList<>(typeIds);
+        afterCommit(() -> reloadTypes(ids));
+    }
+
+    /**
+     * 标签删除后刷新（标签关联会级联删除，受影响景点需重新加载；当前事务提交后执行）
+     */
+    public void refreshTagsAfterCommit(Collection<Integer> tagIds) {
+        if (CollectionUtils.isEmpty(tagIds)) {
+            return;
+        }
+        Set<Integer> ids = new HashSet<>(tagIds);
+        afterCommit(() -> {
+            List<Long> affectedIds = entries.values().stream()
+                    .filter(entry -> entry.getTagIds().stream().anyMatch(ids::contains))
+                    .map(AttractionCardEntry::getAttractionId)
+                    .collect(Collectors.toList());
+            if (!affectedIds.isEmpty()) {
+                reloadAttractions(affectedIds);
+            }
+        });
+    }
+
+    /**
+     * 本地累加计数（浏览量/收藏量），仅更新计数字段，不回调监听器
+     */
+    public void applyCounterDelta(Long attractionId, long browseDelta, long favoriteDelta) {
+        if (attractionId == null) {
+            return;
+        }
+        entries.computeIfPresent(attractionId, (id, entry) ->
+                withCounters(entry, new AttractionCounterDelta(browseDelta, favoriteDelta)));
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (rebuildLock) {
+            if (!loaded) {
+                doRebuild();
+            }
+        }
+    }
+
+    private void reloadAttractions(Collection<Long> attractionIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(attractionIds));
+        for (int from = 0; from < ids.size(); from += LOAD_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + LOAD_BATCH_SIZE, ids.size()));
+            List<Attraction> attractions = attractionMapper.selectList(
+                    cardColumns(new LambdaQueryWrapper<Attraction>()).in(Attraction::getAttractionId, batch));
+            Map<Long, List<Integer>> relationTypeIds = groupRelationTypeIds(
+                    attractionTypeRelationMapper.selectList(new LambdaQueryWrapper<AttractionTypeRelation>()
+                            .select(AttractionTypeRelation::getAttractionId, AttractionTypeRelation::getTypeId)
+                            .in(AttractionTypeRelation::getAttractionId, batch)));
+            Map<Long, List<Integer>> relationTagIds = groupRelationTagIds(
+                    attractionTagRelationMapper.selectList(new LambdaQueryWrapper<AttractionTagRelation>()
+                            .select(AttractionTagRelation::getAttractionId, AttractionTagRelation::getTagId)
+                            .in(AttractionTagRelation::getAttractionId, batch)));
+            Map<Long, AttractionCounterDelta> pendingCounters = loadPendingCounters(batch);
+
+            synchronized (this) {
+                markChanged(batch);
+                Map<Integer, String> currentCityNames = cityNames;
+                Map<Integer, String> currentTypeNames = typeNames;
+                Set<Long> found = new LinkedHashSet<>();
+                for (Attraction attraction : attractions) {
+                    found.add(attraction.getAttractionId());
+                    recentMisses.remove(attraction.getAttractionId());
+                    AttractionCardEntry entry = withCounters(project(attraction,
+                            relationTypeIds.get(attraction.getAttractionId()),
+                            relationTagIds.get(attraction.getAttractionId()), currentCityNames, currentTypeNames),
+                            pendingCounters.get(attraction.getAttractionId()));
+                    entries.put(attraction.getAttractionId(), entry);
+                    notifyListeners(listener -> listener.onUpsert(entry));
+                }
+                for (Long id : batch) {
+                    if (!found.contains(id) && entries.remove(id) != null) {
+                        notifyListeners(listener -> listener.onRemove(id));
+                    }
+                }
+                version.incrementAndGet();
+            }
+        }
+    }
+
+    private void reloadCities(List<Integer> cityIds) {
+        Map<Integer, String> loadedNames = cityMapper.selectList(new LambdaQueryWrapper<City>()
+                        .select(City::getCityId, City::getCityName)
+                        .in(City::getCityId, cityIds))
+                .stream()
+                .collect(Collectors.toMap(City::getCityId, City::getCityName, (a, b) -> a));
+
+        synchronized (this) {
+            Map<Integer, String> newCityNames = new HashMap<>(cityNames);
+            for (Integer cityId : cityIds) {
+                String name = loadedNames.get(cityId);
+                if (name != null) {
+                    newCityNames.put(cityId, name);
+                } else {
+                    newCityNames.remove(cityId);
+                }
+            }
+            cityNames = newCityNames;
+
+            // 城市名称仅影响卡片展示字段，直接在内存中重新投影
+            Set<Integer> affected = new HashSet<>(cityIds);
+            List<AttractionCardEntry> changed = new ArrayList<>();
+            entries.replaceAll((id, entry) -> {
+                if (entry.getCityId() == null || !affected.contains(entry.getCityId())) {
+                    return entry;
+                }
+                AttractionCardEntry updated = entry.toBuilder().cityName(newCityNames.get(entry.getCityId())).build();
+                changed.add(updated);
+                return updated;
+            });
+            markChanged(changed.stream().map(AttractionCardEntry::getAttractionId).collect(Collectors.toList()));
+            version.incrementAndGet();
+            changed.forEach(entry -> notifyListeners(listener -> listener.onUpsert(entry)));
+        }
+    }
+
+    private void reloadTypes(List<Integer> typeIds) {
+        Map<Integer, String> loadedNames = attractionTypeMapper.selectList(new LambdaQueryWrapper<AttractionType>()
+                        .select(AttractionType::getTypeId, AttractionType::getTypeName)
+                        .in(AttractionType::getTypeId, typeIds))
+                .stream()
+                .collect(Collectors.toMap(AttractionType::getTypeId, AttractionType::getTypeName, (a, b) -> a));
+
+        List<Long> affectedIds;
+        synchronized (this) {
+            Map<Integer, String> newTypeNames = new HashMap<>(typeNames);
+            for (Integer typeId : typeIds) {
+                String name = loadedNames.get(typeId);
+                if (name != null) {
+                    newTypeNames.put(typeId, name);
+                } else {
+                    newTypeNames.remove(typeId);
+                }
+            }
+            typeNames = newTypeNames;
+            version.incrementAndGet();
+
+            affectedIds = entries.values().stream()
+                    .filter(entry -> entry.getTypeIds().stream().anyMatch(typeIds::contains))
+                    .map(AttractionCardEntry::getAttractionId)
+                    .collect(Collectors.toList());
+        }
+
+        // 删除类型会级联删除关联关系，因此受影响的景点需回源重新加载
+        if (!affectedIds.isEmpty()) {
+            reloadAttractions(affectedIds);
+        }
+    }
+
+    private Map<Long, AttractionCounterDelta> loadPendingCounters(List<Long> attractionIds) {
+        IAttractionCounterService counterService = attractionCounterService.getIfAvailable();
+        if (counterService == null) {
+            return Collections.emptyMap();
+        }
+        try {
+            return attractionIds == null
+                    ? counterService.getAllPendingAttractionDeltas()
+                    : counterService.getPendingAttractionDeltas(attractionIds);
+        } catch (Exception e) {
+            log.warn("读取未落库计数失败，按数据库计数加载", e);
+            return Collections.emptyMap();
+        }
+    }
+
+    private AttractionCardEntry withCounters(AttractionCardEntry entry, AttractionCounterDelta delta) {
+        if (delta == null || (delta.getBrowseDelta() == 0 && delta.getFavoriteDelta() == 0)) {
+            return entry;
+        }
+        long browse = (entry.getBrowseCount() != null ? entry.getBrowseCount() : 0) + delta.getBrowseDelta();
+        long favorite = (entry.getFavoriteCount() != null ? entry.getFavoriteCount() : 0) + delta.getFavoriteDelta();
+        return entry.toBuilder()
+                .browseCount((int) Math.max(0, browse))
+                .favoriteCount((int) Math.max(0, favorite))
+                .build();
+    }
+
+    private void notifyListeners(Consumer<AttractionCatalogListener> action) {
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                action.accept(listener);
+            } catch (Exception e) {
+                log.warn("景点卡片目录监听器处理失败, listener={}", listener.getClass().getSimpleName(), e);
+            }
+        });
+    }
+
+    private void markChanged(Collection<Long> attractionIds) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.addAll(attractionIds);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        Runnable task = () -> {
+            try {
+                action.run();
+            } catch (Exception e) {
+                log.warn("景点卡片目录增量刷新失败，等待定时重建", e);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generalAsyncExecutor.execute(task);
+                }
+            });
+        } else {
+            generalAsyncExecutor.execute(task);
+        }
+    }
+
+    private Map<Integer, String> loadAllCityNames() {
+        return cityMapper.selectList(new LambdaQueryWrapper<City>()
+                        .select(City::getCityId, City::getCityName))
+                .stream()
+                .collect(Collectors.toMap(City::getCityId, City::getCityName, (a, b) -> a));
+    }
+
+    private Map<Integer, String> loadAllTypeNames() {
+        return attractionTypeMapper.selectList(new LambdaQueryWrapper<AttractionType>()
+                        .select(AttractionType::getTypeId, AttractionType::getTypeName))
+                .stream()
+                .collect(Collectors.toMap(AttractionType::getTypeId, AttractionType::getTypeName, (a, b) -> a));
+    }
+
+    private LambdaQueryWrapper<Attraction> cardColumns(LambdaQueryWrapper<Attraction> wrapper) {
+        return wrapper.select(
+                Attraction::getAttractionId,
+                Attraction::getName,
+                Attraction::getSubtitle,
+                Attraction::getTypeId,
+                Attraction::getCityId,
+                Attraction::getLatitude,
+                Attraction::getLongitude,
+                Attraction::getMainImageUrl,
+                Attraction::getAverageRating,
+                Attraction::getBrowseCount,
+                Attraction::getFavoriteCount,
+                Attraction::getPopularity,
+                Attraction::getTicketPrice,
+                Attraction::getBestSeason,
+                Attraction::getStatus,
+                Attraction::getAuditStatus);
+    }
+
+    private Map<Long, List<Integer>> groupRelationTypeIds(List<AttractionTypeRelation> relations) {
+        Map<Long, List<Integer>> result = new HashMap<>();
+        for (AttractionTypeRelation relation : relations) {
+            List<Integer> typeIds = result.computeIfAbsent(relation.getAttractionId(), k -> new ArrayList<>(2));
+            if (!typeIds.contains(relation.getTypeId())) {
+                typeIds.add(relation.getTypeId());
+            }
+        }
+        return result;
+    }
+
+    private Map<Long, List<Integer>> groupRelationTagIds(List<AttractionTagRelation> relations) {
+        Map<Long, List<Integer>> result = new HashMap<>();
+        for (AttractionTagRelation relation : relations) {
+            List<Integer> tagIds = result.computeIfAbsent(relation.getAttractionId(), k -> new ArrayList<>(4));
+            if (!tagIds.contains(relation.getTagId())) {
+                tagIds.add(relation.getTagId());
+            }
+        }
+        return result;
+    }
+
+    private AttractionCardEntry project(Attraction attraction,
+                                        List<Integer> relationTypeIds,
+                                        List<Integer> relationTagIds,
+                                        Map<Integer, String> cityNameMap,
+                                        Map<Integer, String> typeNameMap) {
+        LinkedHashSet<Integer> effectiveTypeIds = new LinkedHashSet<>();
+        if (attraction.getTypeId() != null) {
+            effectiveTypeIds.add(attraction.getTypeId());
+        }
+        if (relationTypeIds != null) {
+            effectiveTypeIds.addAll(relationTypeIds);
+        }
+        List<String> effectiveTypeNames = effectiveTypeIds.stream()
+                .map(typeNameMap::get)
+                .filter(StringUtils::hasText)
+                .collect(Collectors.toList());
+
+        return AttractionCardEntry.builder()
+                .attractionId(attraction.getAttractionId())
+                .name(attraction.getName())
+                .subtitle(attraction.getSubtitle())
+                .typeId(attraction.getTypeId())
+                .typeName(attraction.getTypeId() == null ? null : typeNameMap.get(attraction.getTypeId()))
+                .typeIds(List.copyOf(effectiveTypeIds))
+                .typeNames(List.copyOf(effectiveTypeNames))
+                .tagIds(relationTagIds == null ? List.of() : List.copyOf(relationTagIds))
+                .cityId(attraction.getCityId())
+                .cityName(attraction.getCityId() == null ? null : cityNameMap.get(attraction.getCityId()))
+                .latitude(attraction.getLatitude())
+                .longitude(attraction.getLongitude())
+                .mainImageUrl(attraction.getMainImageUrl())
+                .averageRating(attraction.getAverageRating())
+                .browseCount(attraction.getBrowseCount())
+                .favoriteCount(attraction.getFavoriteCount())
+                .popularity(attraction.getPopularity())
+                .ticketPrice(attraction.getTicketPrice())
+                .bestSeason(attraction.getBestSeason())
+                .status(attraction.getStatus())
+                .auditStatus(attraction.getAuditStatus())
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.uchkun07.travelsystem.catalog;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 景点卡片投影（不可变）
+ * 景点基础字段 + 城市名称 + 已解析的类型名称 + 标签ID，供卡片类接口直接组装响应。
+ */
+@Value
+@Builder(toBuilder = true)
+public class AttractionCardEntry {
+
+    Long attractionId;
+
+    String name;
+
+    String subtitle;
+
+    /** 主类型ID */
+    Integer typeId;
+
+    /** 主类型名称 */
+    String typeName;
+
+    /** 有效类型ID（主类型在前，其后为关联表中的类型） */
+    List<Integer> typeIds;
+
+    /** 有效类型名称（与typeIds顺序一致，已过滤不存在的类型） */
+    List<String> typeNames;
+
+    /** 标签ID（关联表） */
+    List<Integer> tagIds;
+
+    Integer cityId;
+
+    String cityName;
+
+    /** 纬度（空间网格索引使用） */
+    BigDecimal latitude;
+
+    /** 经度 */
+    BigDecimal longitude;
+
+    String mainImageUrl;
+
+    BigDecimal averageRating;
+
+    Integer browseCount;
+
+    Integer favoriteCount;
+
+    Integer popularity;
+
+    BigDecimal ticketPrice;
+
+    /** 最佳观光季节（推荐候选池解析为季节标记） */
+    String bestSeason;
+
+    /** 景点状态（1=正常，0=下架） */
+    Integer status;
+
+    /** 审核状态（1=待审核，2=已通过，3=已驳回） */
+    Integer auditStatus;
+
+    /**
+     * 类型名称拼接展示，如 "自然风光 / 历史古迹"
+     */
+    public String getTypeDisplay() {
+        return typeNames == null ? "" : String.join(" / ", typeNames);
+    }
+
+    /**
+     * 是否对C端可见（已审核通过且启用）
+     */
+    public boolean isPublished() {
+        return Integer.valueOf(1).equals(status) && Integer.valueOf(2).equals(auditStatus);
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.uchkun07.travelsystem.catalog;
+
+import java.util.Collection;
+
+/**
+ * 景点卡片目录变更监听器
+ * 由派生索引实现，目录全量重建或增量变更时同步回调（在目录写锁内执行，实现需保持轻量且不可回调目录）。
+ * 浏览量、收藏量等计数字段的累加不会触发回调。
+ */
+public interface AttractionCatalogListener {
+
+    /**
+     * 目录全量重建完成
+     *
+     * @param entries 全部卡片投影
+     */
+    void onReload(Collection<AttractionCardEntry> entries);
+
+    /**
+     * 景点新增或变更
+     */
+    void onUpsert(AttractionCardEntry entry);
+
+    /**
+     * 景点被删除
+     */
+    void onRemove(Long attractionId);
+}
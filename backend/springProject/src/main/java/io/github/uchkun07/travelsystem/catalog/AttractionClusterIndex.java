@@ -0,0 +1,414 @@
+package io.github.uchkun07.travelsystem.catalog;
+
+import io.github.uchkun07.travelsystem.config.PerformanceProperties;
+import io.github.uchkun07.travelsystem.util.LocalLruCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 地图标注聚合索引
+ * 采用 Web 墨卡托瓦片坐标：缩放级别 z 下全球划分为 2^z × 2^z 个瓦片，每个瓦片再划分为
+ * cellsPerTile × cellsPerTile 个聚合单元，同一单元内的景点聚合为一个标注（数量、质心、人气最高的景点）。
+ * 由于相邻级别的单元严格一分为四，各级聚合构成层级网格。
+ *
+ * <p>只收录C端可见（已审核通过且启用）的景点。按瓦片计算的聚合结果缓存在本地，
+ * 景点坐标、可见性、名称或人气变化时只失效新旧位置在各级别下所在的瓦片。</p>
+ */
+@Slf4j
+@Component
+public class AttractionClusterIndex implements AttractionCatalogListener {
+
+    /** 墨卡托投影可表示的最大纬度 */
+    private static final double MAX_MERCATOR_LATITUDE = 85.05112878;
+
+    /** 点分桶所用的瓦片级别（1024 × 1024） */
+    private static final int BUCKET_ZOOM = 10;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final int cellsPerTile;
+    private final int minZoom;
+    private final int maxZoom;
+    private final long tileTtlMillis;
+    private final LocalLruCache tileCache;
+
+    /** BUCKET_ZOOM 级瓦片 → 瓦片内景点 */
+    private final Map<Long, List<Marker>> buckets = new HashMap<>();
+    private final Map<Long, Marker> markers = new HashMap<>();
+    private volatile boolean ready;
+
+    public AttractionClusterIndex(PerformanceProperties performanceProperties) {
+        PerformanceProperties.Geo geo = performanceProperties.getGeo();
+        this.cellsPerTile = Math.max(1, Math.min(64, geo.getClusterCellsPerTile()));
+        this.minZoom = Math.max(0, Math.min(geo.getClusterMinZoom(), 22));
+        this.maxZoom = Math.max(this.minZoom, Math.min(geo.getClusterMaxZoom(), 22));
+        this.tileTtlMillis = Math.max(1, geo.getClusterTileTtlSec()) * 1000;
+        this.tileCache = new LocalLruCache(geo.getClusterTileCacheSize(), tileTtlMillis);
+    }
+
+    /**
+     * 聚合标注
+     *
+     * @param latitude     质心纬度
+     * @param longitude    质心经度
+     * @param count        聚合的景点数
+     * @param attractionId 人气最高的景点ID
+     * @param name         人气最高的景点名称
+     */
+    public record Cluster(double latitude, double longitude, int count, long attractionId, String name) {
+    }
+
+    private record Marker(long attractionId, String name, int popularity,
+                          double latitude, double longitude, double x, double y) {
+    }
+
+    /**
+     * 索引是否已完成首次构建
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 实际生效的缩放级别（限定在配置范围内）
+     */
+    public int effectiveZoom(int zoom) {
+        return Math.max(minZoom, Math.min(maxZoom, zoom));
+    }
+
+    /**
+     * 给定范围在某级别下覆盖的瓦片数（跨越 180° 经线时 minLng 大于 maxLng）
+     */
+    public long tileCount(double minLat, double minLng, double maxLat, double maxLng, int zoom) {
+        int z = effectiveZoom(zoom);
+        long rows = tileY(minLat, z) - tileY(maxLat, z) + 1;
+        long cols = 0;
+        for (double[] range : longitudeRanges(minLng, maxLng)) {
+            cols += tileX(range[1], z) - tileX(range[0], z) + 1;
+        }
+        return rows * cols;
+    }
+
+    /**
+     * 查询范围内的聚合标注
+     *
+     * @return 质心落在范围内的聚合，按数量降序
+     */
+    public List<Cluster> clusters(double minLat, double minLng, double maxLat, double maxLng, int zoom) {
+        int z = effectiveZoom(zoom);
+        int yFrom = tileY(maxLat, z);
+        int yTo = tileY(minLat, z);
+        List<double[]> ranges = longitudeRanges(minLng, maxLng);
+        List<Long> tiles = new ArrayList<>();
+        for (double[] range : ranges) {
+            for (long x = tileX(range[0], z); x <= tileX(range[1], z); x++) {
+                for (long y = yFrom; y <= yTo; y++) {
+                    tiles.add((x << 32) | y);
+                }
+            }
+        }
+
+        List<Cluster> result = new ArrayList<>();
+        for (List<Cluster> tile : loadTiles(z, tiles).values()) {
+            for (Cluster cluster : tile) {
+                if (cluster.latitude() >= minLat && cluster.latitude() <= maxLat
+                        && ranges.stream().anyMatch(r -> cluster.longitude() >= r[0] && cluster.longitude() <= r[1])) {
+                    result.add(cluster);
+                }
+            }
+        }
+        result.sort((a, b) -> a.count() != b.count()
+                ? Integer.compare(b.count(), a.count())
+                : Long.compare(a.attractionId(), b.attractionId()));
+        return result;
+    }
+
+    @Override
+    public void onReload(Collection<AttractionCardEntry> entries) {
+        lock.writeLock().lock();
+        try {
+            buckets.clear();
+            markers.clear();
+            for (AttractionCardEntry entry : entries) {
+                Marker marker = toMarker(entry);
+                if (marker != null) {
+                    add(marker);
+                }
+            }
+            tileCache.clear();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("地图聚合索引重建完成, markers={}, buckets={}, zoom={}~{}", markers.size(), buckets.size(), minZoom, maxZoom);
+    }
+
+    @Override
+    public void onUpsert(AttractionCardEntry entry) {
+        Marker marker = toMarker(entry);
+        lock.writeLock().lock();
+        try {
+            Marker old = markers.get(entry.getAttractionId());
+            if (Objects.equals(old, marker)) {
+                return;
+            }
+            if (old != null) {
+                remove(old);
+                invalidateTiles(old);
+            }
+            if (marker != null) {
+                add(marker);
+                invalidateTiles(marker);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onRemove(Long attractionId) {
+        lock.writeLock().lock();
+        try {
+            Marker old = markers.get(attractionId);
+            if (old != null) {
+                remove(old);
+                invalidateTiles(old);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 批量获取瓦片聚合（优先读缓存）
+     * 未命中的瓦片一次性计算：计算与写缓存均在读锁内完成，失效操作持有写锁，不会写回过期结果。
+     *
+     * @param tiles 瓦片坐标，编码为 (x << 32) | y
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Long, List<Cluster>> loadTiles(int z, List<Long> tiles) {
+        Map<Long, List<Cluster>> result = new HashMap<>(tiles.size() * 2);
+        List<Long> missing = new ArrayList<>();
+        for (Long tile : tiles) {
+            LocalLruCache.Entry cached = tileCache.get(tileKey(z, tile));
+            if (cached != null) {
+                result.put(tile, (List<Cluster>) cached.value());
+            } else {
+                missing.add(tile);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Map<Long, Accumulator>> computed = accumulate(z, missing);
+            for (Long tile : missing) {
+                Map<Long, Accumulator> cells = computed.get(tile);
+                List<Cluster> clusters = cells == null ? Collections.emptyList()
+                        : cells.values().stream().map(Accumulator::toCluster).toList();
+                tileCache.put(tileKey(z, tile), clusters, tileTtlMillis);
+                result.put(tile, clusters);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * 把落在给定瓦片内的景点累加到各自的聚合单元
+     *
+     * @return 瓦片 → (单元 → 累加器)，无景点的瓦片不出现
+     */
+    private Map<Long, Map<Long, Accumulator>> accumulate(int z, List<Long> tiles) {
+        Map<Long, Map<Long, Accumulator>> result = new HashMap<>();
+        double scale = (double) (1L << z) * cellsPerTile;
+        Consumer<Marker> collector = marker -> {
+            long cellX = (long) Math.floor(marker.x() * scale);
+            long cellY = (long) Math.floor(marker.y() * scale);
+            long tile = ((cellX / cellsPerTile) << 32) | (cellY / cellsPerTile);
+            result.computeIfAbsent(tile, k -> new HashMap<>())
+                    .computeIfAbsent((cellX << 32) | cellY, k -> new Accumulator())
+                    .add(marker);
+        };
+
+        if (z >= BUCKET_ZOOM) {
+            // 每个瓦片落在单个分桶内，按瓦片坐标精确过滤
+            int shift = z - BUCKET_ZOOM;
+            long n = 1L << z;
+            for (Long tile : tiles) {
+                long x = tile >>> 32;
+                long y = tile & 0xFFFFFFFFL;
+                List<Marker> bucket = buckets.get(bucketKey((int) (x >> shift), (int) (y >> shift)));
+                if (bucket == null) {
+                    continue;
+                }
+                for (Marker marker : bucket) {
+                    if ((long) Math.floor(marker.x() * n) == x && (long) Math.floor(marker.y() * n) == y) {
+                        collector.accept(marker);
+                    }
+                }
+            }
+            return result;
+        }
+
+        int shift = BUCKET_ZOOM - z;
+        long span = 1L << shift;
+        if ((long) tiles.size() * span * span > buckets.size()) {
+            // 瓦片覆盖的分桶数多于非空分桶数时，遍历一次非空分桶
+            Set<Long> wanted = new HashSet<>(tiles);
+            for (Map.Entry<Long, List<Marker>> bucket : buckets.entrySet()) {
+                long bx = bucket.getKey() >>> 32;
+                long by = bucket.getKey() & 0xFFFFFFFFL;
+                if (wanted.contains(((bx >> shift) << 32) | (by >> shift))) {
+                    bucket.getValue().forEach(collector);
+                }
+            }
+            return result;
+        }
+        for (Long tile : tiles) {
+            long x = tile >>> 32;
+            long y = tile & 0xFFFFFFFFL;
+            for (long bx = x << shift; bx < (x + 1) << shift; bx++) {
+                for (long by = y << shift; by < (y + 1) << shift; by++) {
+                    List<Marker> bucket = buckets.get(bucketKey((int) bx, (int) by));
+                    if (bucket != null) {
+                        bucket.forEach(collector);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private void add(Marker marker) {
+        markers.put(marker.attractionId(), marker);
+        buckets.computeIfAbsent(bucketOf(marker), k -> new ArrayList<>()).add(marker);
+    }
+
+    private void remove(Marker marker) {
+        markers.remove(marker.attractionId());
+        long key = bucketOf(marker);
+        List<Marker> bucket = buckets.get(key);
+        if (bucket != null) {
+            bucket.removeIf(m -> m.attractionId() == marker.attractionId());
+            if (bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    /**
+     * 失效景点所在位置在各级别下的瓦片
+     */
+    private void invalidateTiles(Marker marker) {
+        for (int z = minZoom; z <= maxZoom; z++) {
+            long n = 1L << z;
+            int x = (int) Math.min(n - 1, (long) Math.floor(marker.x() * n));
+            int y = (int) Math.min(n - 1, (long) Math.floor(marker.y() * n));
+            tileCache.invalidate(tileKey(z, x, y));
+        }
+    }
+
+    private Marker toMarker(AttractionCardEntry entry) {
+        if (entry.getAttractionId() == null || !entry.isPublished()
+                || !AttractionGeoIndex.isValidCoordinate(entry.getLatitude(), entry.getLongitude())) {
+            return null;
+        }
+        double lat = entry.getLatitude().doubleValue();
+        double lng = entry.getLongitude().doubleValue();
+        return new Marker(entry.getAttractionId(), entry.getName(),
+                entry.getPopularity() == null ? 0 : entry.getPopularity(),
+                lat, lng, mercatorX(lng), mercatorY(lat));
+    }
+
+    private long bucketOf(Marker marker) {
+        long n = 1L << BUCKET_ZOOM;
+        int x = (int) Math.min(n - 1, (long) Math.floor(marker.x() * n));
+        int y = (int) Math.min(n - 1, (long) Math.floor(marker.y() * n));
+        return bucketKey(x, y);
+    }
+
+    private static long bucketKey(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    private static String tileKey(int z, long x, long y) {
+        return z + "/" + x + "/" + y;
+    }
+
+    private static String tileKey(int z, Long tile) {
+        return tileKey(z, tile >>> 32, tile & 0xFFFFFFFFL);
+    }
+
+    private static int tileX(double longitude, int z) {
+        long n = 1L << z;
+        return (int) Math.max(0, Math.min(n - 1, (long) Math.floor(mercatorX(longitude) * n)));
+    }
+
+    private static int tileY(double latitude, int z) {
+        long n = 1L << z;
+        return (int) Math.max(0, Math.min(n - 1, (long) Math.floor(mercatorY(latitude) * n)));
+    }
+
+    /**
+     * 经度范围，跨越 180° 经线时拆为两段
+     */
+    private static List<double[]> longitudeRanges(double minLng, double maxLng) {
+        if (minLng <= maxLng) {
+            return List.of(new double[]{minLng, maxLng});
+        }
+        return List.of(new double[]{minLng, 180}, new double[]{-180, maxLng});
+    }
+
+    /**
+     * 墨卡托坐标 [0, 1)
+     */
+    private static double mercatorX(double longitude) {
+        return Math.min(Math.nextDown(1.0), (Math.max(-180, Math.min(180, longitude)) + 180) / 360);
+    }
+
+    private static double mercatorY(double latitude) {
+        double lat = Math.toRadians(Math.max(-MAX_MERCATOR_LATITUDE, Math.min(MAX_MERCATOR_LATITUDE, latitude)));
+        double y = (1 - Math.log(Math.tan(lat) + 1 / Math.cos(lat)) / Math.PI) / 2;
+        return Math.max(0, Math.min(Math.nextDown(1.0), y));
+    }
+
+    /**
+     * 单元内聚合：数量、坐标和、人气最高的景点
+     */
+    private static final class Accumulator {
+        private int count;
+        private double latSum;
+        private double lngSum;
+        private Marker top;
+
+        private void add(Marker marker) {
+            count++;
+            latSum += marker.latitude();
+            lngSum += marker.longitude();
+            if (top == null || marker.popularity() > top.popularity()
+                    || (marker.popularity() == top.popularity() && marker.attractionId() < top.attractionId())) {
+                top = marker;
+            }
+        }
+
+        private Cluster toCluster() {
+            return new Cluster(latSum / count, lngSum / count, count, top.attractionId(), top.name());
+        }
+    }
+}
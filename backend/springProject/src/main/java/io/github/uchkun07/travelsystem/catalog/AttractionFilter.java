@@ -0,0 +1,40 @@
+package io.github.uchkun07.travelsystem.catalog;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 景点位图过滤条件
+ * 不同维度之间为 AND；同一维度的多个取值为 OR（标签可通过 tagMatchAll 改为 AND）。
+ * 维度为 null 或空集合表示不限。
+ *
+ * @param status      景点状态
+ * @param auditStatus 审核状态
+ * @param cityIds     城市ID
+ * @param typeIds     类型ID（主类型或关联类型任一命中）
+ * @param tagIds      标签ID
+ * @param tagMatchAll 标签是否需要全部命中
+ */
+public record AttractionFilter(Integer status,
+                               Integer auditStatus,
+                               Collection<Integer> cityIds,
+                               Collection<Integer> typeIds,
+                               Collection<Integer> tagIds,
+                               boolean tagMatchAll) {
+
+    public AttractionFilter {
+        cityIds = cityIds == null ? List.of() : cityIds;
+        typeIds = typeIds == null ? List.of() : typeIds;
+        tagIds = tagIds == null ? List.of() : tagIds;
+    }
+
+    /**
+     * 仅C端可见（已审核通过且启用）的景点
+     */
+    public static AttractionFilter published(Collection<Integer> cityIds,
+                                             Collection<Integer> typeIds,
+                                             Collection<Integer> tagIds,
+                                             boolean tagMatchAll) {
+        return new AttractionFilter(1, 2, cityIds, typeIds, tagIds, tagMatchAll);
+    }
+}
@@ -0,0 +1,449 @@
+package io.github.uchkun07.travelsystem.catalog;
+
+import io.github.uchkun07.travelsystem.config.PerformanceProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * 景点空间网格索引
+ * 按经纬度把景点划入等角度网格单元，附近查询只扫描与查询范围相交的单元，
+ * 先用经纬度包围范围粗筛，最终候选才计算哈弗辛距离。
+ *
+ * <p>半径模式扫描半径包围范围内的单元；最近K个模式从查询点所在单元按环向外扩展，
+ * 当下一环的最小可能距离已超过当前第K近的距离（或超过最大半径）时停止。</p>
+ *
+ * <p>索引只负责坐标，状态/类型等条件由调用方以 ID 谓词传入（通常来自位图索引）。</p>
+ */
+@Slf4j
+@Component
+public class AttractionGeoIndex implements AttractionCatalogListener {
+
+    /** 地球平均半径(km) */
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final double cellSize;
+    private final int rows;
+    private final int cols;
+    /** 网格单元：行列号编码 → 单元内景点 */
+    private final Map<Long, Cell> cells = new HashMap<>();
+    /** 已索引的坐标，增量更新时用于定位旧单元 */
+    private final Map<Long, Point> points = new HashMap<>();
+    private volatile boolean ready;
+
+    public AttractionGeoIndex(PerformanceProperties performanceProperties) {
+        double configured = performanceProperties.getGeo().getCellSizeDeg();
+        this.cellSize = configured > 0 && configured <= 10 ? configured : 0.1;
+        this.rows = (int) Math.ceil(180 / cellSize);
+        this.cols = (int) Math.ceil(360 / cellSize);
+    }
+
+    /**
+     * 查询命中
+     *
+     * @param attractionId 景点ID
+     * @param distanceKm   与查询点的球面距离(km)
+     */
+    public record Hit(long attractionId, double distanceKm) {
+    }
+
+    private record Point(double latitude, double longitude, long cellKey) {
+    }
+
+    /**
+     * 索引是否已完成首次构建
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 已索引（有坐标）的景点数
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return points.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 半径查询
+     *
+     * @param accept 景点ID过滤条件
+     * @param limit  最多返回条数
+     * @return 按距离升序的命中
+     */
+    public List<Hit> withinRadius(double latitude, double longitude, double radiusKm,
+                                  LongPredicate accept, int limit) {
+        TopHits top = new TopHits(limit);
+        if (radiusKm < 0 || limit <= 0) {
+            return top.sorted();
+        }
+        double dLat = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+        double minLat = Math.max(-90, latitude - dLat);
+        double maxLat = Math.min(90, latitude + dLat);
+        double dLng = maxLongitudeDelta(radiusKm, Math.max(Math.abs(minLat), Math.abs(maxLat)));
+
+        lock.readLock().lock();
+        try {
+            int rowFrom = rowOf(minLat);
+            int rowTo = rowOf(maxLat);
+            long colFrom = (long) Math.floor((longitude - dLng + 180) / cellSize);
+            long colTo = (long) Math.floor((longitude + dLng + 180) / cellSize);
+            long colSpan = dLng >= 180 ? cols : Math.min(cols, colTo - colFrom + 1);
+            long cellCount = (long) (rowTo - rowFrom + 1) * colSpan;
+
+            if (cellCount > cells.size()) {
+                // 查询范围覆盖的单元比非空单元还多时，直接遍历非空单元
+                for (Cell cell : cells.values()) {
+                    scan(cell, latitude, longitude, radiusKm, minLat, maxLat, dLng, accept, top);
+                }
+            } else {
+                for (int row = rowFrom; row <= rowTo; row++) {
+                    for (long col = colFrom; col < colFrom + colSpan; col++) {
+                        Cell cell = cells.get(cellKey(row, Math.floorMod(col, cols)));
+                        if (cell != null) {
+                            scan(cell, latitude, longitude, radiusKm, minLat, maxLat, dLng, accept, top);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return top.sorted();
+    }
+
+    /**
+     * 最近K个查询
+     *
+     * @param maxRadiusKm 搜索半径上限
+     * @param accept      景点ID过滤条件
+     * @return 按距离升序的命中（不超过 k 条）
+     */
+    public List<Hit> nearest(double latitude, double longitude, int k, double maxRadiusKm, LongPredicate accept) {
+        TopHits top = new TopHits(k);
+        if (k <= 0 || maxRadiusKm < 0) {
+            return top.sorted();
+        }
+        int centerRow = rowOf(latitude);
+        int centerCol = colOf(longitude);
+        // 列方向环绕，偏移限定在 [minColOffset, maxColOffset] 内避免重复扫描同一列
+        int minColOffset = -((cols - 1) / 2);
+        int maxColOffset = cols / 2;
+
+        lock.readLock().lock();
+        try {
+            if (points.isEmpty()) {
+                return top.sorted();
+            }
+            for (int ring = 0; ring <= Math.max(rows, maxColOffset); ring++) {
+                if (ring > 0) {
+                    double bound = ringLowerBoundKm(latitude, ring);
+                    if (bound > maxRadiusKm || (top.isFull() && bound > top.worstDistance())) {
+                        break;
+                    }
+                }
+                int colLow = Math.max(-ring, minColOffset);
+                int colHigh = Math.min(ring, maxColOffset);
+                // 上下两行
+                for (int dr : ring == 0 ? new int[]{0} : new int[]{-ring, ring}) {
+                    for (int dc = colLow; dc <= colHigh; dc++) {
+                        scanCell(centerRow + dr, centerCol + dc, latitude, longitude, maxRadiusKm, accept, top);
+                    }
+                }
+                // 左右两列（不含上下两行已扫描的角）
+                if (ring > 0) {
+                    for (int dc : new int[]{-ring, ring}) {
+                        if (dc < minColOffset || dc > maxColOffset) {
+                            continue;
+                        }
+                        for (int dr = -ring + 1; dr <= ring - 1; dr++) {
+                            scanCell(centerRow + dr, centerCol + dc, latitude, longitude, maxRadiusKm, accept, top);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return top.sorted();
+    }
+
+    @Override
+    public void onReload(Collection<AttractionCardEntry> entries) {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            points.clear();
+            for (AttractionCardEntry entry : entries) {
+                add(entry);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("景点空间网格索引重建完成, points={}, cells={}, cellSizeDeg={}", points.size(), cells.size(), cellSize);
+    }
+
+    @Override
+    public void onUpsert(AttractionCardEntry entry) {
+        lock.writeLock().lock();
+        try {
+            Point old = points.get(entry.getAttractionId());
+            if (old != null && entry.getLatitude() != null && entry.getLongitude() != null
+                    && old.latitude() == entry.getLatitude().doubleValue()
+                    && old.longitude() == entry.getLongitude().doubleValue()) {
+                return;
+            }
+            remove(entry.getAttractionId());
+            add(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onRemove(Long attractionId) {
+        lock.writeLock().lock();
+        try {
+            remove(attractionId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 哈弗辛公式计算两点球面距离(km)
+     */
+    public static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    /**
+     * 坐标是否合法
+     */
+    public static boolean isValidCoordinate(BigDecimal latitude, BigDecimal longitude) {
+        return latitude != null && longitude != null
+                && Math.abs(latitude.doubleValue()) <= 90 && Math.abs(longitude.doubleValue()) <= 180;
+    }
+
+    private void scanCell(int row, int col, double latitude, double longitude, double radiusKm,
+                          LongPredicate accept, TopHits top) {
+        if (row < 0 || row >= rows) {
+            return;
+        }
+        Cell cell = cells.get(cellKey(row, Math.floorMod(col, cols)));
+        if (cell == null) {
+            return;
+        }
+        for (int i = 0; i < cell.size; i++) {
+            long id = cell.ids[i];
+            if (!accept.test(id)) {
+                continue;
+            }
+            double distance = haversineKm(latitude, longitude, cell.lats[i], cell.lngs[i]);
+            if (distance <= radiusKm) {
+                top.offer(id, distance);
+            }
+        }
+    }
+
+    private void scan(Cell cell, double latitude, double longitude, double radiusKm,
+                      double minLat, double maxLat, double dLng, LongPredicate accept, TopHits top) {
+        for (int i = 0; i < cell.size; i++) {
+            double lat = cell.lats[i];
+            // 包围范围粗筛
+            if (lat < minLat || lat > maxLat || Math.abs(normalizeLongitude(cell.lngs[i] - longitude)) > dLng) {
+                continue;
+            }
+            long id = cell.ids[i];
+            if (!accept.test(id)) {
+                continue;
+            }
+            double distance = haversineKm(latitude, longitude, lat, cell.lngs[i]);
+            if (distance <= radiusKm) {
+                top.offer(id, distance);
+            }
+        }
+    }
+
+    /**
+     * 半径 r 内的点与查询点的最大经度差(度)
+     * 由 haversine 的下界 d ≥ 2R·asin(cosφmax·sin(Δλ/2)) 反解得到。
+     *
+     * @param maxAbsLat 查询范围内的最大纬度绝对值
+     */
+    private double maxLongitudeDelta(double radiusKm, double maxAbsLat) {
+        double cos = Math.cos(Math.toRadians(maxAbsLat));
+        double halfAngle = radiusKm / (2 * EARTH_RADIUS_KM);
+        if (cos <= 1e-12 || halfAngle >= Math.PI / 2) {
+            return 180;
+        }
+        double sin = Math.sin(halfAngle) / cos;
+        return sin >= 1 ? 180 : Math.toDegrees(2 * Math.asin(sin));
+    }
+
+    /**
+     * 第 ring 环内任意点与查询点距离的下界(km)
+     * 环内的点至少在纬度或经度方向上相隔 (ring - 1) 个单元。
+     */
+    private double ringLowerBoundKm(double latitude, int ring) {
+        double gapDeg = (ring - 1) * cellSize;
+        if (gapDeg <= 0) {
+            return 0;
+        }
+        double latBound = gapDeg * KM_PER_DEGREE;
+        double maxAbsLat = Math.min(90, Math.abs(latitude) + (ring + 1) * cellSize);
+        double cos = Math.cos(Math.toRadians(maxAbsLat));
+        double halfLng = Math.toRadians(Math.min(gapDeg, 180)) / 2;
+        double lngBound = 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.max(0, cos) * Math.sin(halfLng)));
+        return Math.min(latBound, lngBound);
+    }
+
+    private void add(AttractionCardEntry entry) {
+        if (entry.getAttractionId() == null || !isValidCoordinate(entry.getLatitude(), entry.getLongitude())) {
+            return;
+        }
+        double lat = entry.getLatitude().doubleValue();
+        double lng = entry.getLongitude().doubleValue();
+        long key = cellKey(rowOf(lat), colOf(lng));
+        cells.computeIfAbsent(key, k -> new Cell()).add(entry.getAttractionId(), lat, lng);
+        points.put(entry.getAttractionId(), new Point(lat, lng, key));
+    }
+
+    private void remove(Long attractionId) {
+        Point old = points.remove(attractionId);
+        if (old == null) {
+            return;
+        }
+        Cell cell = cells.get(old.cellKey());
+        if (cell != null) {
+            cell.remove(attractionId);
+            if (cell.size == 0) {
+                cells.remove(old.cellKey());
+            }
+        }
+    }
+
+    private int rowOf(double latitude) {
+        return Math.min(rows - 1, Math.max(0, (int) Math.floor((latitude + 90) / cellSize)));
+    }
+
+    private int colOf(double longitude) {
+        return Math.floorMod((long) Math.floor((longitude + 180) / cellSize), cols);
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    private static double normalizeLongitude(double delta) {
+        double d = delta % 360;
+        if (d > 180) {
+            d -= 360;
+        } else if (d < -180) {
+            d += 360;
+        }
+        return d;
+    }
+
+    /**
+     * 网格单元：列式存储景点ID与坐标，扫描时不访问卡片投影
+     */
+    private static final class Cell {
+        private long[] ids = new long[4];
+        private double[] lats = new double[4];
+        private double[] lngs = new double[4];
+        private int size;
+
+        private void add(long id, double lat, double lng) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                lats = Arrays.copyOf(lats, capacity);
+                lngs = Arrays.copyOf(lngs, capacity);
+            }
+            ids[size] = id;
+            lats[size] = lat;
+            lngs[size] = lng;
+            size++;
+        }
+
+        private void remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    // 与末尾元素交换后删除
+                    size--;
+                    ids[i] = ids[size];
+                    lats[i] = lats[size];
+                    lngs[i] = lngs[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 距离最近的前 N 个命中（大顶堆）
+     */
+    private static final class TopHits {
+        private final int limit;
+        private final PriorityQueue<Hit> heap;
+
+        private TopHits(int limit) {
+            this.limit = Math.max(0, limit);
+            this.heap = new PriorityQueue<>(Math.max(1, Math.min(this.limit, 1024)),
+                    Comparator.comparingDouble(Hit::distanceKm).reversed());
+        }
+
+        private void offer(long id, double distanceKm) {
+            if (limit == 0) {
+                return;
+            }
+            if (heap.size() < limit) {
+                heap.offer(new Hit(id, distanceKm));
+            } else if (distanceKm < heap.peek().distanceKm()) {
+                heap.poll();
+                heap.offer(new Hit(id, distanceKm));
+            }
+        }
+
+        private boolean isFull() {
+            return heap.size() >= limit;
+        }
+
+        private double worstDistance() {
+            return heap.isEmpty() ? Double.MAX_VALUE : heap.peek().distanceKm();
+        }
+
+        private List<Hit> sorted() {
+            List<Hit> hits = new ArrayList<>(heap);
+            hits.sort(Comparator.comparingDouble(Hit::distanceKm).thenComparingLong(Hit::attractionId));
+            return hits;
+        }
+    }
+}
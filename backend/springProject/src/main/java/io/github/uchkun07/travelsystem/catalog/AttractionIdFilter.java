@@ -0,0 +1,281 @@
+package io.github.uchkun07.travelsystem.catalog;
+
+import io.github.uchkun07.travelsystem.util.CacheConstants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 已发布景点ID位图过滤器
+ * 以景点ID为偏移量的稠密位图，用于在查询详情前拦截不存在的ID，降低缓存穿透。
+ *
+ * <p>Redis 中保存全局位图（SETBIT/GETBIT），本地保存一份镜像：本地命中零网络往返，
+ * 本地未命中时再查一次 Redis（覆盖其他节点新发布的景点）。
+ * 景点发布、下线、删除时通过目录回调增量维护，并记录变更日志；定时全量重建写入临时 key 后 RENAME 原子替换，
+ * 重建过程中不存在过滤器缺失的窗口，替换后回放变更日志补回重建期间的增量变更。</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@SuppressWarnings("null")
+public class AttractionIdFilter implements AttractionCatalogListener {
+
+    private static final String BUILDING_SUFFIX = ":building:";
+    private static final long BUILDING_TTL_SECONDS = 300;
+    private static final long LOCK_TTL_SECONDS = 300;
+    /** 回放变更日志时向前多取的时间，容忍节点间时钟偏差 */
+    private static final long CHANGE_CLOCK_SKEW_MS = 60_000;
+    /** 变更日志保留时长，重建时清理更早的记录 */
+    private static final long CHANGE_RETAIN_MS = TimeUnit.HOURS.toMillis(2);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Qualifier("generalAsyncExecutor")
+    private final Executor generalAsyncExecutor;
+
+    /** 本地镜像，写时复制，读取无需加锁 */
+    private volatile BitSet localBits = new BitSet();
+    private volatile boolean ready;
+    private final Object rebuildLock = new Object();
+    /** 全量重建期间本节点的增量变更（偏移量 -> 是否发布），替换本地镜像时补上 */
+    private Map<Integer, Boolean> changedDuringRebuild;
+
+    /**
+     * 判断景点ID是否可能存在（已发布）
+     * 过滤器尚未初始化或 Redis 异常时放行，避免误判404。
+     */
+    public boolean mightContain(Long attractionId) {
+        if (attractionId == null || attractionId <= 0 || attractionId > Integer.MAX_VALUE) {
+            return false;
+        }
+        int offset = attractionId.intValue();
+        if (ready && localBits.get(offset)) {
+            return true;
+        }
+        try {
+            if (!ready && !Boolean.TRUE.equals(stringRedisTemplate.hasKey(CacheConstants.ATTR_ID_FILTER_KEY))) {
+                return true;
+            }
+            boolean hit = Boolean.TRUE.equals(
+                    stringRedisTemplate.opsForValue().getBit(CacheConstants.ATTR_ID_FILTER_KEY, offset));
+            if (hit && ready) {
+                // 其他节点新发布的景点，同步到本地镜像
+                updateLocal(offset, true);
+            }
+            return hit;
+        } catch (Exception e) {
+            log.warn("景点ID过滤器读取失败，降级放行 attractionId={}", attractionId, e);
+            return true;
+        }
+    }
+
+    /**
+     * 全量重建：写入本次重建独有的临时 key 后原子替换，同时替换本地镜像
+     * 多节点同时触发时只有持锁节点写入 Redis；加载ID到替换位图之间的增量变更
+     * （本节点的变更记录在内存，所有节点的变更记录在 Redis 变更日志）在替换后补写，避免被旧快照覆盖。
+     *
+     * @param loader 加载全部已发布景点ID，在开始记录增量变更之后调用
+     */
+    public void rebuild(Supplier<Collection<Long>> loader) {
+        synchronized (rebuildLock) {
+            long startedAt = System.currentTimeMillis();
+            synchronized (this) {
+                changedDuringRebuild = new HashMap<>();
+            }
+            try {
+                Collection<Long> attractionIds = loader.get();
+                if (attractionIds.isEmpty()) {
+                    return;
+                }
+                BitSet bits = toBitSet(attractionIds);
+                Map<Integer, Boolean> replayed = writeRedis(bits, startedAt);
+                synchronized (this) {
+                    replayed.forEach(bits::set);
+                    changedDuringRebuild.forEach(bits::set);
+                    replaceLocal(bits);
+                }
+                log.info("景点ID过滤器重建完成, size={}, replayed={}", bits.cardinality(), replayed.size());
+            } finally {
+                synchronized (this) {
+                    changedDuringRebuild = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * 持锁写入 Redis 位图并回放变更日志
+     *
+     * @return 回放的变更（偏移量 -> 是否发布）；未获得锁或 Redis 异常时为空
+     */
+    private Map<Integer, Boolean> writeRedis(BitSet bits, long startedAt) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean locked = stringRedisTemplate.opsForValue().setIfAbsent(
+                    CacheConstants.LOCK_ATTR_ID_FILTER, token, LOCK_TTL_SECONDS, TimeUnit.SECONDS);
+            if (!Boolean.TRUE.equals(locked)) {
+                return Collections.emptyMap();
+            }
+        } catch (Exception e) {
+            log.warn("获取景点ID过滤器重建锁失败", e);
+            return Collections.emptyMap();
+        }
+
+        try {
+            byte[] bitmap = toRedisBitmap(bits);
+            byte[] key = CacheConstants.ATTR_ID_FILTER_KEY.getBytes(StandardCharsets.UTF_8);
+            byte[] buildingKey = (CacheConstants.ATTR_ID_FILTER_KEY + BUILDING_SUFFIX + token)
+                    .getBytes(StandardCharsets.UTF_8);
+            stringRedisTemplate.execute((RedisCallback<Void>) connection -> {
+                // 临时 key 带过期时间，RENAME 失败时自动清理；RENAME 会带上过期时间，替换后再取消
+                connection.stringCommands().set(buildingKey, bitmap, Expiration.seconds(BUILDING_TTL_SECONDS),
+                        RedisStringCommands.SetOption.upsert());
+                connection.keyCommands().rename(buildingKey, key);
+                connection.keyCommands().persist(key);
+                return null;
+            });
+
+            Map<Integer, Boolean> replayed = new HashMap<>();
+            Set<ZSetOperations.TypedTuple<String>> changes = stringRedisTemplate.opsForZSet().rangeByScoreWithScores(
+                    CacheConstants.ATTR_ID_FILTER_CHANGE_KEY, startedAt - CHANGE_CLOCK_SKEW_MS, Double.POSITIVE_INFINITY);
+            if (changes != null) {
+                // 按时间升序，同一景点以最后一次变更为准
+                for (ZSetOperations.TypedTuple<String> change : changes) {
+                    String member = change.getValue();
+                    int split = member == null ? -1 : member.lastIndexOf(':');
+                    if (split > 0) {
+                        replayed.put(Integer.parseInt(member.substring(0, split)), member.endsWith(":1"));
+                    }
+                }
+            }
+            if (!replayed.isEmpty()) {
+                stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    replayed.forEach((offset, published) -> connection.stringCommands().setBit(key, offset, published));
+                    return null;
+                });
+            }
+            stringRedisTemplate.opsForZSet().removeRangeByScore(
+                    CacheConstants.ATTR_ID_FILTER_CHANGE_KEY, 0, startedAt - CHANGE_RETAIN_MS);
+            log.info("景点ID过滤器 Redis 位图已替换, bytes={}", bitmap.length);
+            return replayed;
+        } catch (Exception e) {
+            log.warn("景点ID过滤器写入 Redis 失败，仅刷新本地镜像", e);
+            return Collections.emptyMap();
+        } finally {
+            try {
+                if (token.equals(stringRedisTemplate.opsForValue().get(CacheConstants.LOCK_ATTR_ID_FILTER))) {
+                    stringRedisTemplate.delete(CacheConstants.LOCK_ATTR_ID_FILTER);
+                }
+            } catch (Exception e) {
+                log.warn("释放景点ID过滤器重建锁失败", e);
+            }
+        }
+    }
+
+    @Override
+    public void onReload(Collection<AttractionCardEntry> entries) {
+        replaceLocal(toBitSet(entries.stream()
+                .filter(AttractionCardEntry::isPublished)
+                .map(AttractionCardEntry::getAttractionId)
+                .toList()));
+    }
+
+    @Override
+    public void onUpsert(AttractionCardEntry entry) {
+        update(entry.getAttractionId(), entry.isPublished());
+    }
+
+    @Override
+    public void onRemove(Long attractionId) {
+        update(attractionId, false);
+    }
+
+    /**
+     * 增量维护：本地镜像同步更新，Redis 写入异步执行（回调位于目录锁内，不做网络调用）
+     */
+    private void update(Long attractionId, boolean published) {
+        if (attractionId == null || attractionId <= 0 || attractionId > Integer.MAX_VALUE) {
+            return;
+        }
+        int offset = attractionId.intValue();
+        if (!updateLocal(offset, published)) {
+            return;
+        }
+        generalAsyncExecutor.execute(() -> {
+            try {
+                // 先记变更日志再写位图：位图写入被并发重建覆盖时，重建节点一定能从日志中补回
+                long now = System.currentTimeMillis();
+                stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    StringRedisConnection conn = (StringRedisConnection) connection;
+                    conn.zAdd(CacheConstants.ATTR_ID_FILTER_CHANGE_KEY, now, offset + (published ? ":1" : ":0"));
+                    conn.setBit(CacheConstants.ATTR_ID_FILTER_KEY, offset, published);
+                    return null;
+                });
+            } catch (Exception e) {
+                log.warn("景点ID过滤器增量更新失败，等待定时重建 attractionId={}", attractionId, e);
+            }
+        });
+    }
+
+    /**
+     * @return 本地位是否发生变化
+     */
+    private synchronized boolean updateLocal(int offset, boolean value) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.put(offset, value);
+        }
+        BitSet current = localBits;
+        if (current.get(offset) == value) {
+            return false;
+        }
+        BitSet copy = (BitSet) current.clone();
+        copy.set(offset, value);
+        localBits = copy;
+        return true;
+    }
+
+    private synchronized void replaceLocal(BitSet bits) {
+        localBits = bits;
+        ready = true;
+    }
+
+    private BitSet toBitSet(Collection<Long> attractionIds) {
+        BitSet bits = new BitSet();
+        for (Long id : attractionIds) {
+            if (id != null && id > 0 && id <= Integer.MAX_VALUE) {
+                bits.set(id.intValue());
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Redis 位图按字节高位在前编址（偏移 0 为首字节最高位），与 BitSet.toByteArray 的低位在前相反
+     */
+    private byte[] toRedisBitmap(BitSet bits) {
+        byte[] bitmap = new byte[(bits.length() + 7) >>> 3];
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            bitmap[i >>> 3] |= (byte) (0x80 >>> (i & 7));
+        }
+        return bitmap;
+    }
+}
@@ -0,0 +1,324 @@
+package io.github.uchkun07.travelsystem.catalog;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 景点名称 n-gram 倒排索引
+ * 对景点名称、副标题建立文本索引，对城市名称建立城市索引（单字 + 二元组），
+ * 查询时先按 n-gram 倒排表求交得到候选，再做子串校验与打分，替代 LIKE '%x%' 全表扫描。
+ *
+ * <p>文档以递增槽位编号存储，倒排表按槽位有序追加；景点变更时分配新槽位并标记旧槽位失效，
+ * 失效槽位在目录全量重建时整体回收。</p>
+ */
+@Slf4j
+@Component
+public class AttractionSearchIndex implements AttractionCatalogListener {
+
+    /** 名称完全相同 */
+    private static final double SCORE_NAME_EXACT = 20;
+    /** 名称前缀匹配 */
+    private static final double SCORE_NAME_PREFIX = 12;
+    /** 名称包含 */
+    private static final double SCORE_NAME_CONTAINS = 8;
+    /** 副标题包含 */
+    private static final double SCORE_SUBTITLE_CONTAINS = 3;
+    /** 城市名称包含 */
+    private static final double SCORE_CITY_CONTAINS = 1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Postings> textPostings = new HashMap<>();
+    private final Map<String, Postings> cityPostings = new HashMap<>();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final BitSet deadSlots = new BitSet();
+
+    private long[] slotIds = new long[0];
+    private String[] slotNames = new String[0];
+    private String[] slotSubtitles = new String[0];
+    private String[] slotCities = new String[0];
+    private int nextSlot;
+    private volatile boolean ready;
+
+    /**
+     * 索引是否已完成首次构建
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 按关键字检索景点
+     *
+     * @param keyword     名称/副标题关键字，可为空
+     * @param cityKeyword 城市名称关键字，可为空
+     * @return 命中的景点ID及得分（按得分降序）；两个关键字都为空时返回 null，表示不做文本过滤
+     */
+    public Map<Long, Double> search(String keyword, String cityKeyword) {
+        String text = normalize(keyword);
+        String city = normalize(cityKeyword);
+        if (text.isEmpty() && city.isEmpty()) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            int[] candidates = null;
+            if (!text.isEmpty()) {
+                candidates = candidates(textPostings, text);
+            }
+            if (!city.isEmpty()) {
+                int[] cityCandidates = candidates(cityPostings, city);
+                candidates = candidates == null ? cityCandidates : intersect(candidates, cityCandidates);
+            }
+
+            List<Map.Entry<Long, Double>> hits = new ArrayList<>();
+            for (int slot : candidates) {
+                if (deadSlots.get(slot)) {
+                    continue;
+                }
+                double score = 0;
+                if (!text.isEmpty()) {
+                    double textScore = scoreText(slotNames[slot], slotSubtitles[slot], text);
+                    if (textScore <= 0) {
+                        continue;
+                    }
+                    score += textScore;
+                }
+                if (!city.isEmpty()) {
+                    if (!slotCities[slot].contains(city)) {
+                        continue;
+                    }
+                    score += SCORE_CITY_CONTAINS;
+                }
+                hits.add(Map.entry(slotIds[slot], score));
+            }
+
+            hits.sort(Map.Entry.<Long, Double>comparingByValue().reversed());
+            Map<Long, Double> result = new LinkedHashMap<>(hits.size() * 2);
+            for (Map.Entry<Long, Double> hit : hits) {
+                result.put(hit.getKey(), hit.getValue());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onReload(Collection<AttractionCardEntry> entries) {
+        lock.writeLock().lock();
+        try {
+            textPostings.clear();
+            cityPostings.clear();
+            slotById.clear();
+            deadSlots.clear();
+            int capacity = Math.max(16, entries.size() + entries.size() / 4);
+            slotIds = new long[capacity];
+            slotNames = new String[capacity];
+            slotSubtitles = new String[capacity];
+            slotCities = new String[capacity];
+            nextSlot = 0;
+            for (AttractionCardEntry entry : entries) {
+                add(entry);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("景点搜索索引重建完成, docs={}, textGrams={}, cityGrams={}",
+                entries.size(), textPostings.size(), cityPostings.size());
+    }
+
+    @Override
+    public void onUpsert(AttractionCardEntry entry) {
+        lock.writeLock().lock();
+        try {
+            Integer oldSlot = slotById.get(entry.getAttractionId());
+            if (oldSlot != null) {
+                if (normalize(entry.getName()).equals(slotNames[oldSlot])
+                        && normalize(entry.getSubtitle()).equals(slotSubtitles[oldSlot])
+                        && normalize(entry.getCityName()).equals(slotCities[oldSlot])) {
+                    // 检索字段未变化（如仅计数变化），无需重建倒排
+                    return;
+                }
+                deadSlots.set(oldSlot);
+            }
+            add(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onRemove(Long attractionId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.remove(attractionId);
+            if (slot != null) {
+                deadSlots.set(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(AttractionCardEntry entry) {
+        int slot = nextSlot++;
+        ensureCapacity(slot + 1);
+        String name = normalize(entry.getName());
+        String subtitle = normalize(entry.getSubtitle());
+        String city = normalize(entry.getCityName());
+        slotIds[slot] = entry.getAttractionId();
+        slotNames[slot] = name;
+        slotSubtitles[slot] = subtitle;
+        slotCities[slot] = city;
+        slotById.put(entry.getAttractionId(), slot);
+
+        Set<String> textGrams = new LinkedHashSet<>();
+        collectGrams(name, textGrams);
+        collectGrams(subtitle, textGrams);
+        for (String gram : textGrams) {
+            textPostings.computeIfAbsent(gram, k -> new Postings()).add(slot);
+        }
+
+        Set<String> cityGrams = new LinkedHashSet<>();
+        collectGrams(city, cityGrams);
+        for (String gram : cityGrams) {
+            cityPostings.computeIfAbsent(gram, k -> new Postings()).add(slot);
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= slotIds.length) {
+            return;
+        }
+        int capacity = Math.max(required, slotIds.length + (slotIds.length >> 1) + 16);
+        slotIds = Arrays.copyOf(slotIds, capacity);
+        slotNames = Arrays.copyOf(slotNames, capacity);
+        slotSubtitles = Arrays.copyOf(slotSubtitles, capacity);
+        slotCities = Arrays.copyOf(slotCities, capacity);
+    }
+
+    /**
+     * 查询词拆分为 n-gram 后对倒排表求交：单字查询走单字倒排，多字查询走二元组倒排
+     */
+    private int[] candidates(Map<String, Postings> postingsMap, String query) {
+        Set<String> grams = new LinkedHashSet<>();
+        if (query.length() == 1) {
+            grams.add(query);
+        } else {
+            for (int i = 0; i + 2 <= query.length(); i++) {
+                grams.add(query.substring(i, i + 2));
+            }
+        }
+
+        List<Postings> lists = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            Postings postings = postingsMap.get(gram);
+            if (postings == null) {
+                return new int[0];
+            }
+            lists.add(postings);
+        }
+        // 从最短的倒排表开始求交
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+        int[] result = Arrays.copyOf(lists.get(0).slots, lists.get(0).size);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            Postings postings = lists.get(i);
+            result = intersect(result, Arrays.copyOf(postings.slots, postings.size));
+        }
+        return result;
+    }
+
+    private int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                result[n++] = a[i];
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private double scoreText(String name, String subtitle, String query) {
+        double score = 0;
+        if (name.equals(query)) {
+            score += SCORE_NAME_EXACT;
+        } else if (name.startsWith(query)) {
+            score += SCORE_NAME_PREFIX;
+        } else if (name.contains(query)) {
+            score += SCORE_NAME_CONTAINS;
+        }
+        if (score > 0 && !name.isEmpty()) {
+            // 查询词覆盖名称比例越高越相关
+            score += (double) query.length() / name.length();
+        }
+        if (subtitle.contains(query)) {
+            score += SCORE_SUBTITLE_CONTAINS;
+        }
+        return score;
+    }
+
+    private void collectGrams(String text, Set<String> grams) {
+        for (int i = 0; i < text.length(); i++) {
+            grams.add(text.substring(i, i + 1));
+            if (i + 2 <= text.length()) {
+                grams.add(text.substring(i, i + 2));
+            }
+        }
+    }
+
+    /**
+     * 统一全半角、大小写并去除空白
+     */
+    static String normalize(String text) {
+        if (!StringUtils.hasText(text)) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        return StringUtils.trimAllWhitespace(normalized);
+    }
+
+    /**
+     * 有序槽位倒排表（槽位单调递增追加，天然有序）
+     */
+    private static final class Postings {
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (size > 0 && slots[size - 1] == slot) {
+                return;
+            }
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size << 1);
+            }
+            slots[size++] = slot;
+        }
+    }
+}
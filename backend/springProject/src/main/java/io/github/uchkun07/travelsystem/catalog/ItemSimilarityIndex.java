@@ -0,0 +1,165 @@
+package io.github.uchkun07.travelsystem.catalog;
+
+import io.github.uchkun07.travelsystem.config.PerformanceProperties;
+import io.github.uchkun07.travelsystem.util.CacheConstants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 景点相似邻居索引
+ * 从 Redis 加载物品共现任务写入的邻居表，以列式数组保存为不可变快照：景点ID升序排列，
+ * 第 i 个景点的邻居位于 [offsets[i], offsets[i+1])，按相似度降序。查询只做一次二分查找，不访问 Redis。
+ *
+ * <p>定时检查任务状态中的版本号，变化时整体重新加载；加载失败继续使用旧快照。</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSimilarityIndex {
+
+    /** 任务状态中的邻居表版本号字段 */
+    public static final String FIELD_VERSION = "version";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final PerformanceProperties performanceProperties;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile String loadedVersion;
+
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    @Scheduled(fixedDelayString = "${performance.item-cf.reload-check-ms:10000}")
+    public void reloadIfChanged() {
+        if (!performanceProperties.getItemCf().isEnabled()) {
+            snapshot = Snapshot.EMPTY;
+            loadedVersion = null;
+            return;
+        }
+        try {
+            Object version = stringRedisTemplate.opsForHash().get(CacheConstants.ITEM_CF_STATE_KEY, FIELD_VERSION);
+            if (version == null || version.toString().equals(loadedVersion)) {
+                return;
+            }
+            Map<Object, Object> entries = stringRedisTemplate.opsForHash().entries(CacheConstants.ITEM_CF_NEIGHBOR_KEY);
+            Snapshot loaded = Snapshot.parse(entries);
+            snapshot = loaded;
+            loadedVersion = version.toString();
+            log.debug("景点相似邻居加载完成, version={}, items={}, neighbors={}",
+                    loadedVersion, loaded.size(), loaded.neighborIds.length);
+        } catch (Exception e) {
+            log.warn("景点相似邻居加载失败，继续使用旧快照", e);
+        }
+    }
+
+    /**
+     * 邻居表快照（列式存储）
+     */
+    public static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(new long[0], new int[1], new long[0], new float[0]);
+
+        private final long[] itemIds;
+        private final int[] offsets;
+        private final long[] neighborIds;
+        private final float[] scores;
+
+        private Snapshot(long[] itemIds, int[] offsets, long[] neighborIds, float[] scores) {
+            this.itemIds = itemIds;
+            this.offsets = offsets;
+            this.neighborIds = neighborIds;
+            this.scores = scores;
+        }
+
+        /**
+         * 解析 "邻居ID:相似度,..." 形式的邻居表，格式错误的条目跳过
+         */
+        static Snapshot parse(Map<Object, Object> entries) {
+            TreeMap<Long, String> sorted = new TreeMap<>();
+            for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+                try {
+                    sorted.put(Long.parseLong(entry.getKey().toString()), entry.getValue().toString());
+                } catch (NumberFormatException e) {
+                    log.debug("跳过格式错误的相似邻居, item={}", entry.getKey());
+                }
+            }
+            long[] itemIds = new long[sorted.size()];
+            int[] offsets = new int[sorted.size() + 1];
+            long[] neighborIds = new long[sorted.size() * 8];
+            float[] scores = new float[neighborIds.length];
+            int item = 0;
+            int position = 0;
+            for (Map.Entry<Long, String> entry : sorted.entrySet()) {
+                String value = entry.getValue();
+                int from = 0;
+                while (from < value.length()) {
+                    int comma = value.indexOf(',', from);
+                    int end = comma < 0 ? value.length() : comma;
+                    int colon = value.indexOf(':', from);
+                    if (colon > from && colon < end) {
+                        try {
+                            long neighborId = Long.parseLong(value, from, colon, 10);
+                            float score = Float.parseFloat(value.substring(colon + 1, end));
+                            if (position == neighborIds.length) {
+                                neighborIds = Arrays.copyOf(neighborIds, Math.max(16, position * 2));
+                                scores = Arrays.copyOf(scores, neighborIds.length);
+                            }
+                            neighborIds[position] = neighborId;
+                            scores[position] = score;
+                            position++;
+                        } catch (NumberFormatException e) {
+                            // 跳过格式错误的邻居
+                        }
+                    }
+                    from = end + 1;
+                }
+                itemIds[item] = entry.getKey();
+                offsets[++item] = position;
+            }
+            return new Snapshot(itemIds, offsets,
+                    Arrays.copyOf(neighborIds, position), Arrays.copyOf(scores, position));
+        }
+
+        /**
+         * 景点在快照中的下标，不存在时返回 -1
+         */
+        public int indexOf(long itemId) {
+            int index = Arrays.binarySearch(itemIds, itemId);
+            return index < 0 ? -1 : index;
+        }
+
+        /** 第 index 个景点的邻居起始位置 */
+        public int start(int index) {
+            return offsets[index];
+        }
+
+        /** 第 index 个景点的邻居结束位置（不含） */
+        public int end(int index) {
+            return offsets[index + 1];
+        }
+
+        public long neighborId(int position) {
+            return neighborIds[position];
+        }
+
+        public float score(int position) {
+            return scores[position];
+        }
+
+        public int size() {
+            return itemIds.length;
+        }
+
+        public boolean isEmpty() {
+            return itemIds.length == 0;
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package io.github.uchkun07.travelsystem.catalog;
+
+import io.github.uchkun07.travelsystem.config.RecommendAlgorithmProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 推荐候选池
+ * 从景点卡片目录中选出热门候选（按人气、浏览量、收藏量、评分降序的前 N 个）及各类型的热门列表，
+ * 以列式数组（ID、类型、计数、评分、票价、季节标记）保存为不可变快照，所有推荐请求共享，
+ * 排序过程只做内存计算，不访问数据库。其余已发布景点排在最后，供物品协同召回按ID查找行号。
+ *
+ * <p>目录变更时标记待重建，由定时任务合并重建；浏览量、收藏量的累加不会触发目录回调，
+ * 依靠快照最长存活时间定期刷新。</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecommendCandidatePool implements AttractionCatalogListener {
+
+    /** 主类型为空时的类型值 */
+    public static final int NO_TYPE = Integer.MIN_VALUE;
+
+    public static final int SEASON_SPRING = 1;
+    public static final int SEASON_SUMMER = 1 << 1;
+    public static final int SEASON_AUTUMN = 1 << 2;
+    public static final int SEASON_WINTER = 1 << 3;
+    public static final int SEASON_ALL = SEASON_SPRING | SEASON_SUMMER | SEASON_AUTUMN | SEASON_WINTER;
+
+    /** 与数据库候选查询一致的排序：人气、浏览量、收藏量、评分降序，较新的景点在前 */
+    private static final Comparator<AttractionCardEntry> HOT_ORDER = Comparator
+            .comparingInt((AttractionCardEntry entry) -> valueOf(entry.getPopularity())).reversed()
+            .thenComparing(Comparator.comparingInt((AttractionCardEntry entry) -> valueOf(entry.getBrowseCount())).reversed())
+            .thenComparing(Comparator.comparingInt((AttractionCardEntry entry) -> valueOf(entry.getFavoriteCount())).reversed())
+            .thenComparing(Comparator.comparingDouble((AttractionCardEntry entry) -> entry.getAverageRating() == null
+                    ? 0 : entry.getAverageRating().doubleValue()).reversed())
+            .thenComparing(Comparator.comparingLong(AttractionCardEntry::getAttractionId).reversed());
+
+    /** 延迟获取目录，避免目录初始化回调监听器时产生循环依赖 */
+    private final ObjectProvider<AttractionCardCatalog> attractionCardCatalog;
+    private final RecommendAlgorithmProperties recommendProps;
+
+    private final Object buildLock = new Object();
+    private volatile Snapshot snapshot;
+    private volatile boolean dirty = true;
+
+    /**
+     * 当前快照，首次访问时同步构建
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (buildLock) {
+            if (snapshot == null) {
+                rebuild();
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * 目录有变更或快照超过最长存活时间时重建
+     */
+    @Scheduled(fixedDelayString = "${recommend.algorithm.candidate-pool-check-ms:5000}")
+    public void refreshIfStale() {
+        Snapshot current = snapshot;
+        long maxAgeMillis = Math.max(1, recommendProps.getCandidatePoolMaxAgeSec()) * 1000L;
+        if (current != null && !dirty && System.currentTimeMillis() - current.builtAt < maxAgeMillis) {
+            return;
+        }
+        try {
+            synchronized (buildLock) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            log.warn("推荐候选池重建失败，继续使用旧快照", e);
+        }
+    }
+
+    @Override
+    public void onReload(Collection<AttractionCardEntry> entries) {
+        dirty = true;
+    }
+
+    @Override
+    public void onUpsert(AttractionCardEntry entry) {
+        dirty = true;
+    }
+
+    @Override
+    public void onRemove(Long attractionId) {
+        dirty = true;
+    }
+
+    private void rebuild() {
+        dirty = false;
+        int candidateSize = Math.max(1, recommendProps.getCandidateSize());
+        int typeListSize = Math.max(0, recommendProps.getPreferredTypeAppendSize());
+
+        List<AttractionCardEntry> published = new ArrayList<>();
+        for (AttractionCardEntry entry : attractionCardCatalog.getObject().snapshot()) {
+            if (entry.isPublished() && entry.getAttractionId() != null) {
+                published.add(entry);
+            }
+        }
+        published.sort(HOT_ORDER);
+
+        // 热门候选在前，其后是热门候选中未出现的各类型的热门景点（偏好类型补齐只用到这些类型）
+        List<AttractionCardEntry> rows = new ArrayList<>(published.subList(0, Math.min(candidateSize, published.size())));
+        int baseSize = rows.size();
+        Set<Integer> baseTypes = new HashSet<>();
+        for (AttractionCardEntry entry : rows) {
+            baseTypes.add(entry.getTypeId());
+        }
+        Map<Integer, List<Integer>> typeRows = new HashMap<>();
+        boolean[] added = new boolean[published.size()];
+        for (int i = baseSize; i < published.size(); i++) {
+            AttractionCardEntry entry = published.get(i);
+            if (entry.getTypeId() == null || baseTypes.contains(entry.getTypeId())) {
+                continue;
+            }
+            List<Integer> list = typeRows.computeIfAbsent(entry.getTypeId(), k -> new ArrayList<>());
+            if (list.size() < typeListSize) {
+                list.add(rows.size());
+                rows.add(entry);
+                added[i] = true;
+            }
+        }
+        for (int i = baseSize; i < published.size(); i++) {
+            if (!added[i]) {
+                rows.add(published.get(i));
+            }
+        }
+
+        snapshot = new Snapshot(rows, baseSize, typeRows);
+        log.debug("推荐候选池重建完成, candidates={}, rows={}, types={}", baseSize, rows.size(), typeRows.size());
+    }
+
+    /**
+     * 解析季节描述中出现的季节（"四季"、"全年"视为全部季节）
+     */
+    public static int seasonMask(String text) {
+        if (!StringUtils.hasText(text)) {
+            return 0;
+        }
+        if (text.contains("四季") || text.contains("全年")) {
+            return SEASON_ALL;
+        }
+        int mask = 0;
+        if (text.indexOf('春') >= 0) {
+            mask |= SEASON_SPRING;
+        }
+        if (text.indexOf('夏') >= 0) {
+            mask |= SEASON_SUMMER;
+        }
+        if (text.indexOf('秋') >= 0) {
+            mask |= SEASON_AUTUMN;
+        }
+        if (text.indexOf('冬') >= 0) {
+            mask |= SEASON_WINTER;
+        }
+        return mask;
+    }
+
+    private static int valueOf(Integer value) {
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * 候选池快照（列式存储，按行号访问）
+     * 行 [0, baseSize) 为热门候选，按热门顺序排列；其后为各类型的热门列表，最后是其余已发布景点。
+     */
+    public static final class Snapshot {
+
+        private final long builtAt = System.currentTimeMillis();
+        private final int baseSize;
+        private final long[] ids;
+        private final int[] typeIds;
+        private final int[] browseCounts;
+        private final int[] favoriteCounts;
+        private final double[] ratings;
+        private final double[] prices;
+        private final byte[] seasons;
+        /** 主类型的稠密序号（含无类型），供排序按类型分组、按序号索引行为特征 */
+        private final int[] typeOrdinals;
+        private final Map<Integer, Integer> ordinalByType = new HashMap<>();
+        /** 热门候选中未出现的主类型 → 该类型热门景点的行号（按热门顺序） */
+        private final Map<Integer, int[]> typeRows;
+        /** 热门候选中出现过的主类型 */
+        private final Set<Integer> baseTypes = new HashSet<>();
+        /** 按ID升序排列的景点ID及对应行号，供按ID查找行号 */
+        private final long[] sortedIds;
+        private final int[] sortedRows;
+
+        private Snapshot(List<AttractionCardEntry> rows, int baseSize, Map<Integer, List<Integer>> typeRows) {
+            int size = rows.size();
+            this.baseSize = baseSize;
+            this.ids = new long[size];
+            this.typeIds = new int[size];
+            this.browseCounts = new int[size];
+            this.favoriteCounts = new int[size];
+            this.ratings = new double[size];
+            this.prices = new double[size];
+            this.seasons = new byte[size];
+            this.typeOrdinals = new int[size];
+            for (int i = 0; i < size; i++) {
+                AttractionCardEntry entry = rows.get(i);
+                ids[i] = entry.getAttractionId();
+                typeIds[i] = entry.getTypeId() == null ? NO_TYPE : entry.getTypeId();
+                browseCounts[i] = valueOf(entry.getBrowseCount());
+                favoriteCounts[i] = valueOf(entry.getFavoriteCount());
+                ratings[i] = entry.getAverageRating() == null ? 0 : entry.getAverageRating().doubleValue();
+                prices[i] = entry.getTicketPrice() == null ? 0 : entry.getTicketPrice().doubleValue();
+                seasons[i] = (byte) seasonMask(entry.getBestSeason());
+                Integer ordinal = ordinalByType.get(typeIds[i]);
+                if (ordinal == null) {
+                    ordinal = ordinalByType.size();
+                    ordinalByType.put(typeIds[i], ordinal);
+                }
+                typeOrdinals[i] = ordinal;
+                if (i < baseSize) {
+                    baseTypes.add(typeIds[i]);
+                }
+            }
+            Map<Integer, int[]> lists = new HashMap<>(typeRows.size() * 2);
+            typeRows.forEach((typeId, list) -> lists.put(typeId, list.stream().mapToInt(Integer::intValue).toArray()));
+            this.typeRows = lists;
+
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingLong(row -> ids[row]));
+            this.sortedIds = new long[size];
+            this.sortedRows = new int[size];
+            for (int i = 0; i < size; i++) {
+                sortedIds[i] = ids[order[i]];
+                sortedRows[i] = order[i];
+            }
+        }
+
+        /**
+         * 本次推荐的候选行号：热门候选；热门候选中没有偏好类型时追加该类型的热门景点
+         */
+        public int[] candidates(Integer preferTypeId) {
+            int[] base = new int[baseSize];
+            for (int i = 0; i < baseSize; i++) {
+                base[i] = i;
+            }
+            if (preferTypeId == null || baseTypes.contains(preferTypeId)) {
+                return base;
+            }
+            int[] preferred = typeRows.get(preferTypeId);
+            if (preferred == null || preferred.length == 0) {
+                return base;
+            }
+            int[] merged = Arrays.copyOf(base, baseSize + preferred.length);
+            System.arraycopy(preferred, 0, merged, baseSize, preferred.length);
+            return merged;
+        }
+
+        public int size() {
+            return ids.length;
+        }
+
+        /**
+         * 景点所在行号，不在候选池中（未发布或已删除）时返回 -1
+         */
+        public int rowOf(long attractionId) {
+            int index = Arrays.binarySearch(sortedIds, attractionId);
+            return index < 0 ? -1 : sortedRows[index];
+        }
+
+        public long id(int row) {
+            return ids[row];
+        }
+
+        public int typeId(int row) {
+            return typeIds[row];
+        }
+
+        public int browseCount(int row) {
+            return browseCounts[row];
+        }
+
+        public int favoriteCount(int row) {
+            return favoriteCounts[row];
+        }
+
+        public double rating(int row) {
+            return ratings[row];
+        }
+
+        public double price(int row) {
+            return prices[row];
+        }
+
+        public int seasons(int row) {
+            return seasons[row];
+        }
+
+        public int typeOrdinal(int row) {
+            return typeOrdinals[row];
+        }
+
+        /**
+         * 主类型的序号，快照中不存在该类型时返回 -1
+         */
+        public int ordinalOf(int typeId) {
+            Integer ordinal = ordinalByType.get(typeId);
+            return ordinal == null ? -1 : ordinal;
+        }
+
+        public int typeCount() {
+            return ordinalByType.size();
+        }
+    }
+}
@@ -19,6 +19,8 @@ public class CorsConfig implements WebMvcConfigurer {
                 .allowedOriginPatterns("*")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH")
                 .allowedHeaders("*")
+                // 允许前端读取 ETag 以便 POST 列表接口手动携带 If-None-Match
+                .exposedHeaders("ETag")
                 .allowCredentials(true)
                 .maxAge(3600);
     }
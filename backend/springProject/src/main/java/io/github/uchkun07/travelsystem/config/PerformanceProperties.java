@@ -1,8 +1,12 @@
 package io.github.uchkun07.travelsystem.config;
 
+import io.github.uchkun07.travelsystem.util.CacheValueCodec;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * 高并发性能参数配置
  */
@@ -18,20 +22,32 @@ public class PerformanceProperties {
 
     private Cache cache = new Cache();
     private Executor executor = new Executor();
+    private Counter counter = new Counter();
+    private Search search = new Search();
+    private AttractionImport attractionImport = new AttractionImport();
+    private Geo geo = new Geo();
+    private Etag etag = new Etag();
+    private ResponseCache responseCache = new ResponseCache();
+    private Popularity popularity = new Popularity();
+    private Track track = new Track();
+    private ItemCf itemCf = new ItemCf();
 
     @Data
     public static class Cache {
         /** 景点列表缓存TTL(秒) */
         private long attractionListTtlSec = 90;
 
+        /** 景点列表总数缓存TTL(秒)，按筛选条件缓存，替代每次请求的COUNT查询 */
+        private long attractionCountTtlSec = 300;
+
         /** 景点详情缓存TTL(秒) */
         private long attractionDetailTtlSec = 300;
 
         /** 热门景点缓存TTL(秒) */
         private long topAttractionTtlSec = 120;
 
-        /** 推荐结果缓存TTL(秒) */
-        private long recommendTtlSec = 45;
+        /** 推荐会话（整份排序结果）缓存TTL(秒)，会话内翻页复用同一排序 */
+        private long recommendSessionTtlSec = 1800;
 
         /** 路线规划缓存TTL(秒) */
         private long routePlanTtlSec = 180;
@@ -41,6 +57,79 @@ public class PerformanceProperties {
 
         /** 缓存TTL抖动上限(秒)，用于缓解雪崩 */
         private long ttlJitterSec = 30;
+
+        /** 逻辑过期缓存在软过期后于 Redis 中继续保留的宽限期(秒)，期间返回旧值并异步重建 */
+        private long staleGraceSec = 600;
+
+        /** 本地一级缓存 */
+        private LocalTier local = new LocalTier();
+
+        /** 缓存值编码 */
+        private Codec codec = new Codec();
+
+        /** 热点 key 探测与本地副本 */
+        private HotKey hotKey = new HotKey();
+    }
+
+    @Data
+    public static class HotKey {
+        /** 是否启用热点 key 探测（已配置本地缓存前缀的 key 不参与） */
+        private boolean enabled = true;
+
+        /** 访问采样率 (0, 1]，计数按采样率还原 */
+        private double sampleRate = 0.1;
+
+        /** 计数窗口(毫秒)，每个窗口结束时计数减半 */
+        private long windowMs = 1000;
+
+        /** 达到该 QPS 的 key 提升为热点，低于一半时降级 */
+        private double hotQps = 500;
+
+        /** count-min sketch 每行宽度 */
+        private int sketchWidth = 16384;
+
+        /** count-min sketch 行数（哈希函数个数） */
+        private int sketchDepth = 4;
+
+        /** 同时保留的热点 key 上限 */
+        private int maxHotKeys = 200;
+
+        /** 热点 key 本地副本存活时间(秒) */
+        private long replicaTtlSec = 5;
+    }
+
+    @Data
+    public static class Codec {
+        /**
+         * 写入格式，读取时按数据头自动识别。
+         * 旧版本节点只能读纯 JSON，默认 JSON 且不压缩时写入与旧版相同的纯 JSON；
+         * 所有节点升级完成后再切换为 SMILE 或开启压缩，回滚前需先切回并清空缓存。
+         */
+        private CacheValueCodec.Format writeFormat = CacheValueCodec.Format.JSON;
+
+        /** 编码后载荷达到该字节数时 deflate 压缩，小于等于 0 表示不压缩 */
+        private int compressThresholdBytes = 0;
+    }
+
+    @Data
+    public static class LocalTier {
+        /** 是否启用本地一级缓存 */
+        private boolean enabled = false;
+
+        /** 按 key 前缀配置的本地缓存策略，未匹配任何前缀的 key 只走 Redis */
+        private List<LocalTierPolicy> policies = new ArrayList<>();
+    }
+
+    @Data
+    public static class LocalTierPolicy {
+        /** key 前缀（多个前缀同时匹配时取最长者） */
+        private String keyPrefix;
+
+        /** 最大条目数 */
+        private int maxSize = 1000;
+
+        /** 本地条目最长存活时间(秒)，同时不超过 Redis 中的 TTL */
+        private long ttlSec = 30;
     }
 
     @Data
@@ -63,4 +152,187 @@ public class PerformanceProperties {
         /** 线程空闲保活时间(秒) */
         private int keepAliveSeconds = 60;
     }
+
+    @Data
+    public static class Counter {
+        /** 计数增量落库间隔(ms) */
+        private long flushIntervalMs = 5000;
+
+        /** 单条批量UPDATE最多包含的记录数 */
+        private int flushBatchSize = 500;
+    }
+
+    @Data
+    public static class Search {
+        /** 数据库分页时按主键过滤的检索命中数上限（按相关度取前 N 个），避免 IN 列表无限增长 */
+        private int maxSqlHits = 1000;
+    }
+
+    @Data
+    public static class AttractionImport {
+        /** 每批写入的行数（一批一个事务） */
+        private int chunkSize = 500;
+
+        /** 错误报告最多返回的行数 */
+        private int maxErrors = 1000;
+
+        /** CSV 单条记录最多缓冲的字符数，超出或引号未闭合时该行记为错误 */
+        private int maxRecordChars = 65536;
+    }
+
+    @Data
+    public static class Geo {
+        /** 空间网格单元边长(度)，0.1° 约 11km */
+        private double cellSizeDeg = 0.1;
+
+        /** 附近查询允许的最大半径(km)，最近K个模式同样以此为搜索上限 */
+        private double maxRadiusKm = 200;
+
+        /** 地图聚合：每个瓦片每边划分的聚合单元数（256px 瓦片取4即 64px 一个单元） */
+        private int clusterCellsPerTile = 4;
+
+        /** 地图聚合支持的最小缩放级别 */
+        private int clusterMinZoom = 3;
+
+        /** 地图聚合支持的最大缩放级别，更大的级别按此级别计算 */
+        private int clusterMaxZoom = 18;
+
+        /** 本地缓存的聚合瓦片数上限 */
+        private int clusterTileCacheSize = 20000;
+
+        /** 聚合瓦片缓存时间(秒)，兜底人气等不触发失效的字段变化 */
+        private long clusterTileTtlSec = 600;
+
+        /** 单次请求最多覆盖的瓦片数 */
+        private int clusterMaxTilesPerRequest = 128;
+    }
+
+    @Data
+    public static class Etag {
+        /** 是否为C端读接口生成 ETag 并响应条件请求 */
+        private boolean enabled = true;
+
+        /** 本地缓存的版本号条目上限 */
+        private int versionCacheSize = 100000;
+
+        /** 本地版本号缓存时间(秒)，兜底丢失的跨节点版本广播 */
+        private long versionLocalTtlSec = 30;
+    }
+
+    @Data
+    public static class ResponseCache {
+        /** 是否缓存预压缩的响应体（依赖 ETag） */
+        private boolean enabled = true;
+
+        /** 本地缓存的响应体条目上限 */
+        private int maxSize = 2000;
+
+        /** 响应体缓存时间(秒)，条目以 ETag 为 key，过期只影响内存回收 */
+        private long ttlSec = 300;
+    }
+
+    @Data
+    public static class Popularity {
+        /** 是否启用景点人气评分任务 */
+        private boolean enabled = true;
+
+        /** 评分任务执行间隔(ms) */
+        private long intervalMs = 60000;
+
+        /** 行为得分半衰期(小时) */
+        private double halfLifeHours = 168;
+
+        /** 一次点击（及无事件类型的旧浏览记录）的权重 */
+        private double clickWeight = 1.0;
+
+        /** 每分钟停留的权重 */
+        private double stayWeightPerMinute = 0.5;
+
+        /** 单次停留计分的最长秒数 */
+        private int maxStaySeconds = 600;
+
+        /** 一次收藏的权重 */
+        private double collectWeight = 5.0;
+
+        /** 写入 popularity 字段时得分的放大倍数 */
+        private double scale = 10;
+
+        /** 首次运行（或评分状态丢失）时回溯的天数 */
+        private int backfillDays = 30;
+
+        /** 基准时间每经过多少个半衰期前移一次（前移时重写全部得分） */
+        private int rebaseHalfLives = 6;
+
+        /** 基准时间前移时低于该值的得分视为已衰减完毕并移除 */
+        private double minScore = 0.01;
+
+        /** 每批读取的行为记录数 */
+        private int readBatchSize = 5000;
+
+        /** 单次执行最多读取的批数，剩余记录留到下次执行 */
+        private int maxBatchesPerRun = 20;
+
+        /** 单条批量UPDATE最多包含的景点数 */
+        private int writeBatchSize = 500;
+
+        /** 浏览记录按 create_time、收藏变更按 update_time 读取时的延迟(秒)，避免水位越过尚未提交的事务 */
+        private int commitLagSec = 5;
+    }
+
+    @Data
+    public static class Track {
+        /** 埋点缓冲区容量，写满后新事件直接丢弃 */
+        private int bufferCapacity = 8192;
+
+        /** 攒够多少条事件写一次库 */
+        private int batchSize = 200;
+
+        /** 未攒满一批时的最长等待时间(ms) */
+        private long flushIntervalMs = 500;
+
+        /** 停机时排空缓冲区的最长等待时间(ms) */
+        private long shutdownTimeoutMs = 5000;
+    }
+
+    @Data
+    public static class ItemCf {
+        /** 是否启用物品共现构建任务 */
+        private boolean enabled = true;
+
+        /** 增量更新间隔(ms) */
+        private long intervalMs = 300000;
+
+        /** 各节点检查邻居表版本、按需重新加载的间隔(ms) */
+        private long reloadCheckMs = 10000;
+
+        /** 全量构建读取的行为天数 */
+        private int windowDays = 30;
+
+        /** 全量重建间隔(小时)，重建时丢弃窗口外的共现 */
+        private int rebuildIntervalHours = 24;
+
+        /** 同一用户相邻两次行为间隔超过该值(分钟)即切分为新会话 */
+        private int sessionGapMinutes = 30;
+
+        /** 单个会话（或单个用户的收藏）参与共现的最多景点数 */
+        private int maxSessionItems = 30;
+
+        /** 同一用户收藏的两个景点之间的共现权重（浏览会话内为 1） */
+        private double collectWeight = 2.0;
+
+        /** 每个景点保留的相似邻居数 */
+        private int neighborSize = 20;
+
+        /** 全量构建时每个景点保留的共现景点数（按共现权重） */
+        private int maxPairsPerItem = 200;
+
+        /** 增量更新每批读取的浏览记录数 */
+        private int readBatchSize = 5000;
+
+        /** 单次增量更新最多读取的批数 */
+        private int maxBatchesPerRun = 20;
+
+        /** 读取浏览记录时水位落后 create_time 的延迟(秒)，避免越过尚未提交的事务 */
+        private int commitLagSec = 5;
+    }
 }
@@ -42,6 +42,30 @@ public class RecommendAlgorithmProperties {
     /** 隐式行为中：停留权重 */
     private double behaviorStayWeight = 0.6;
 
+    /** 热门候选数量 */
+    private int candidateSize = 500;
+
+    /** 热门候选中没有偏好类型时，追加该类型热门景点的数量 */
+    private int preferredTypeAppendSize = 200;
+
+    /** 候选池快照最长存活时间(秒)，兜底浏览量、收藏量等不触发目录回调的变化 */
+    private long candidatePoolMaxAgeSec = 60;
+
+    /** 候选池检查是否需要重建的间隔(ms) */
+    private long candidatePoolCheckMs = 5000;
+
+    /** 每个推荐会话排出的景点个数（会话内可翻页的总数） */
+    private int sessionRankSize = 300;
+
+    /** 物品协同召回：取最近点击的景点数作为种子 */
+    private int itemCfSeedSize = 10;
+
+    /** 物品协同召回：追加到候选中的相似景点数 */
+    private int itemCfRecallSize = 100;
+
+    /** 物品协同得分权重（叠加在各模式的总分上） */
+    private double itemCfWeight = 0.3;
+
     /** 推荐版本号 */
     private String recVersion = "content-java-v2";
 }
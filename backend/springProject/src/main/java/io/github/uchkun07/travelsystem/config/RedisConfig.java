@@ -4,11 +4,14 @@ import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import io.github.uchkun07.travelsystem.util.CacheValueCodec;
+import io.github.uchkun07.travelsystem.util.CompactRedisSerializer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 /**
@@ -19,10 +22,11 @@ public class RedisConfig {
 
     /**
      * 配置 RedisTemplate
-     * 使用 Jackson2JsonRedisSerializer 来序列化和反序列化 Redis 的 value 值
+     * value 使用带默认类型信息的 Jackson 映射，经 CompactRedisSerializer 编码（兼容读取旧版 JSON）
      */
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       PerformanceProperties performanceProperties) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
@@ -31,8 +35,9 @@ public class RedisConfig {
         mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
         mapper.activateDefaultTyping(LaissezFaireSubTypeValidator.instance, ObjectMapper.DefaultTyping.NON_FINAL);
 
-        // 使用 Jackson2JsonRedisSerializer 来序列化和反序列化 Redis 的 value 值
-        Jackson2JsonRedisSerializer<Object> serializer = new Jackson2JsonRedisSerializer<>(mapper, Object.class);
+        // 使用 CompactRedisSerializer 来序列化和反序列化 Redis 的 value 值
+        CompactRedisSerializer serializer = new CompactRedisSerializer(
+                buildCodec(mapper, performanceProperties.getCache().getCodec()), mapper);
 
         // 使用 StringRedisSerializer 来序列化和反序列化 Redis 的 key 值
         StringRedisSerializer stringRedisSerializer = new StringRedisSerializer();
@@ -41,12 +46,49 @@ public class RedisConfig {
         template.setKeySerializer(stringRedisSerializer);
         // hash 的 key 也采用 String 的序列化方式
         template.setHashKeySerializer(stringRedisSerializer);
-        // value 序列化方式采用 jackson
+        // value 序列化方式采用 jackson（默认纯 JSON，可选 Smile 二进制 + 压缩）
         template.setValueSerializer(serializer);
-        // hash 的 value 序列化方式采用 jackson
+        // hash 的 value 序列化方式同上
         template.setHashValueSerializer(serializer);
 
         template.afterPropertiesSet();
         return template;
     }
+
+    /**
+     * 缓存客户端使用的 RedisTemplate
+     * value 为已编码的字节数组，由 CacheClient 通过 {@link CacheValueCodec} 自行编解码
+     */
+    @Bean
+    public RedisTemplate<String, byte[]> cacheRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    /**
+     * 缓存值编解码器（与 Spring MVC 共用 ObjectMapper 配置，不含类型信息）
+     */
+    @Bean
+    public CacheValueCodec cacheValueCodec(ObjectMapper objectMapper, PerformanceProperties performanceProperties) {
+        return buildCodec(objectMapper, performanceProperties.getCache().getCodec());
+    }
+
+    /**
+     * 配置 Redis 消息监听容器
+     * 用于订阅缓存失效广播等频道
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    private CacheValueCodec buildCodec(ObjectMapper mapper, PerformanceProperties.Codec codec) {
+        return new CacheValueCodec(mapper, codec.getWriteFormat(), codec.getCompressThresholdBytes());
+    }
 }
@@ -1,17 +1,25 @@
 package io.github.uchkun07.travelsystem.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.uchkun07.travelsystem.annotation.OperationLog;
 import io.github.uchkun07.travelsystem.annotation.RequireAdminPermission;
 import io.github.uchkun07.travelsystem.dto.*;
 import io.github.uchkun07.travelsystem.entity.*;
 import io.github.uchkun07.travelsystem.service.*;
+import io.github.uchkun07.travelsystem.util.ExportWriter;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -28,6 +36,12 @@ public class AttractionAdminController {
     @Autowired
     private IAttractionService attractionService;
 
+    @Autowired
+    private IAttractionImportService attractionImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Autowired
     private IAttractionTypeService attractionTypeService;
 
@@ -74,6 +88,50 @@ public class AttractionAdminController {
         }
     }
 
+    @Operation(summary = "批量导入景点", description = "请求体为 CSV（首行表头）或 NDJSON（每行一个景点JSON），流式读取、分批写入，返回逐行错误报告")
+    @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson", "application/octet-stream" })
+    @RequireAdminPermission(value = { "ATTRACTION:CREATE", "SYSTEM:MANAGE" })
+    @OperationLog(type = "导入", object = "景点")
+    public ApiResponse<AttractionImportResult> importAttractions(
+            @Parameter(description = "数据格式: CSV / NDJSON，不传时按 Content-Type 判断") @RequestParam(required = false) String format,
+            HttpServletRequest request) {
+        IAttractionImportService.Format importFormat;
+        try {
+            importFormat = resolveImportFormat(format, request.getContentType());
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(400, e.getMessage());
+        }
+        try (InputStream input = request.getInputStream()) {
+            Object adminId = request.getAttribute("adminId");
+            Long creatorId = adminId instanceof Long ? (Long) adminId : null;
+            AttractionImportResult result = attractionImportService.importAttractions(input, importFormat, creatorId);
+            return ApiResponse.success("导入完成", result);
+        } catch (IOException e) {
+            log.error("读取导入数据失败", e);
+            return ApiResponse.error(400, "读取导入数据失败: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("批量导入景点失败", e);
+            return ApiResponse.error(500, "导入失败: " + e.getMessage());
+        }
+    }
+
+    private IAttractionImportService.Format resolveImportFormat(String format, String contentType) {
+        if (StringUtils.hasText(format)) {
+            try {
+                return IAttractionImportService.Format.valueOf(format.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("不支持的导入格式: " + format);
+            }
+        }
+        if (contentType != null && contentType.toLowerCase().startsWith("application/x-ndjson")) {
+            return IAttractionImportService.Format.NDJSON;
+        }
+        if (contentType != null && contentType.toLowerCase().startsWith("text/csv")) {
+            return IAttractionImportService.Format.CSV;
+        }
+        throw new IllegalArgumentException("无法识别导入格式，请指定 format 参数");
+    }
+
     @Operation(summary = "更新景点")
     @PutMapping("/update")
     @RequireAdminPermission(value = { "ATTRACTION:UPDATE", "SYSTEM:MANAGE" })
@@ -104,6 +162,24 @@ public class AttractionAdminController {
         }
     }
 
+    @Operation(summary = "导出景点", description = "按列表筛选条件流式导出全部匹配景点，format: CSV / NDJSON，gzip=true 时输出 .gz 压缩文件")
+    @PostMapping("/export")
+    @RequireAdminPermission(value = { "ATTRACTION:LIST", "SYSTEM:MANAGE" })
+    @OperationLog(type = "导出", object = "景点")
+    public void exportAttractions(@RequestBody AttractionQueryRequest request,
+                                  @RequestParam(defaultValue = "CSV") ExportWriter.Format format,
+                                  @RequestParam(defaultValue = "false") boolean gzip,
+                                  HttpServletResponse response) throws IOException {
+        try {
+            long rows = attractionService.exportAttractions(request, format,
+                    ExportWriter.openResponse(response, "attractions", format, gzip));
+            log.info("导出景点完成: rows={}", rows);
+        } catch (Exception e) {
+            log.error("导出景点失败", e);
+            ExportWriter.writeError(response, objectMapper, 500, "导出失败: " + e.getMessage());
+        }
+    }
+
     @Operation(summary = "获取景点详情", description = "获取景点的完整信息,包括绑定的标签")
     @GetMapping("/detail/{attractionId}")
     @RequireAdminPermission(value = { "ATTRACTION:DETAIL", "SYSTEM:MANAGE" })
@@ -1,33 +1,46 @@
 package io.github.uchkun07.travelsystem.controller;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import io.github.uchkun07.travelsystem.catalog.AttractionIdFilter;
 import io.github.uchkun07.travelsystem.dto.ApiResponse;
 import io.github.uchkun07.travelsystem.dto.AttractionCardResponse;
+import io.github.uchkun07.travelsystem.dto.AttractionClusterResponse;
 import io.github.uchkun07.travelsystem.dto.AttractionDetailResponse;
+import io.github.uchkun07.travelsystem.dto.AttractionFacetResponse;
+import io.github.uchkun07.travelsystem.dto.AttractionNearbyRequest;
+import io.github.uchkun07.travelsystem.dto.AttractionNearbyResponse;
 import io.github.uchkun07.travelsystem.dto.AttractionQueryRequest;
 import io.github.uchkun07.travelsystem.dto.PageResponse;
 import io.github.uchkun07.travelsystem.config.PerformanceProperties;
 import io.github.uchkun07.travelsystem.entity.AttractionType;
+import io.github.uchkun07.travelsystem.service.IAttractionCounterService;
 import io.github.uchkun07.travelsystem.service.IAttractionService;
 import io.github.uchkun07.travelsystem.service.IAttractionTypeService;
 import io.github.uchkun07.travelsystem.service.IUserCollectionService;
 import io.github.uchkun07.travelsystem.util.CacheClient;
 import io.github.uchkun07.travelsystem.util.CacheConstants;
+import io.github.uchkun07.travelsystem.util.EntityVersionRegistry;
 import io.github.uchkun07.travelsystem.util.JwtUtil;
+import io.github.uchkun07.travelsystem.util.ResponseBodyCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.util.DigestUtils;
 import org.springframework.util.StringUtils;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * 景点C端控制器
@@ -48,6 +61,9 @@ public class AttractionHomeController {
     @Autowired
     private IAttractionService attractionService;
 
+    @Autowired
+    private IAttractionCounterService attractionCounterService;
+
     @Autowired
     private IUserCollectionService userCollectionService;
 
@@ -60,56 +76,158 @@ public class AttractionHomeController {
     @Autowired
     private CacheClient cacheClient;
 
+    @Autowired
+    private AttractionIdFilter attractionIdFilter;
+
     @Autowired
     private PerformanceProperties performanceProperties;
 
-    @Operation(summary = "分页获取景点卡片数据", description = "前台景点列表展示，支持分页和筛选")
+    @Autowired
+    private EntityVersionRegistry entityVersionRegistry;
+
+    @Autowired
+    private ResponseBodyCache responseBodyCache;
+
+    @Operation(summary = "分页获取景点卡片数据", description = "前台景点列表展示，支持分页和筛选，cursorMode=true 时使用游标分页")
     @PostMapping("/list")
     public ApiResponse<PageResponse<AttractionCardResponse>> getAttractionList(
-            @RequestBody AttractionQueryRequest request) {
+            @RequestBody AttractionQueryRequest request,
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) {
         try {
             // 只返回已审核通过的景点
             request.setAuditStatus(2); // 2=已通过
             request.setStatus(1); // 1=正常
 
             String cacheKey = buildAttractionListCacheKey(request);
-            PageResponse<AttractionCardResponse> page = cacheClient.queryWithPassThrough(
+            long listTtlSec = performanceProperties.getCache().getAttractionListTtlSec();
+            String etag = entityVersionRegistry.etag(
+                    cacheKey + ":" + timeSlot(listTtlSec),
+                    EntityVersionRegistry.SCOPE_ATTRACTIONS,
+                    EntityVersionRegistry.SCOPE_CITY,
+                    EntityVersionRegistry.SCOPE_ATTRACTION_TYPE);
+            if (entityVersionRegistry.checkNotModified(httpRequest, httpResponse, etag)
+                    || responseBodyCache.writeIfCached(httpRequest, httpResponse, etag)) {
+                return null;
+            }
+
+            String lockKey = CacheConstants.LOCK_ATTRACTION_LIST
+                    + cacheKey.substring(CacheConstants.ATTRACTION_LIST_KEY.length());
+            PageResponse<AttractionCardResponse> page = cacheClient.queryWithLogicalExpire(
                     cacheKey,
+                    lockKey,
                     CARD_PAGE_TYPE,
                     () -> attractionService.getAttractionCards(request),
-                    performanceProperties.getCache().getAttractionListTtlSec(),
+                    listTtlSec,
                     performanceProperties.getCache().getNullValueTtlSec(),
                     performanceProperties.getCache().getTtlJitterSec());
-            return ApiResponse.success("获取成功", page);
+            entityVersionRegistry.writeEtag(httpResponse, etag);
+            ApiResponse<PageResponse<AttractionCardResponse>> body = ApiResponse.success("获取成功", page);
+            return responseBodyCache.cacheAndWrite(httpRequest, httpResponse, etag, body) ? null : body;
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(400, e.getMessage());
         } catch (Exception e) {
             log.error("获取景点列表失败", e);
             return ApiResponse.error(500, "获取失败: " + e.getMessage());
         }
     }
 
+    @Operation(summary = "获取景点筛选分面统计", description = "按当前筛选条件统计各类型、城市、标签下的景点数，用于筛选项计数展示")
+    @PostMapping("/facets")
+    public ApiResponse<AttractionFacetResponse> getAttractionFacets(
+            @RequestBody AttractionQueryRequest request) {
+        try {
+            // 只统计已审核通过的景点
+            request.setAuditStatus(2); // 2=已通过
+            request.setStatus(1); // 1=正常
+
+            return ApiResponse.success("获取成功", attractionService.getAttractionFacets(request));
+        } catch (Exception e) {
+            log.error("获取景点分面统计失败", e);
+            return ApiResponse.error(500, "获取失败: " + e.getMessage());
+        }
+    }
+
+    @Operation(summary = "附近景点", description = "按中心点查询附近景点：传 radiusKm 为半径模式，否则返回最近的 limit 个；支持类型、城市、标签筛选")
+    @GetMapping("/nearby")
+    public ApiResponse<List<AttractionNearbyResponse>> getNearbyAttractions(
+            @Validated AttractionNearbyRequest request) {
+        try {
+            // 只返回已审核通过的景点
+            request.setAuditStatus(2); // 2=已通过
+            request.setStatus(1); // 1=正常
+
+            return ApiResponse.success("获取成功", attractionService.getNearbyAttractions(request));
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(400, e.getMessage());
+        } catch (Exception e) {
+            log.error("获取附近景点失败", e);
+            return ApiResponse.error(500, "获取失败: " + e.getMessage());
+        }
+    }
+
+    @Operation(summary = "地图聚合标注", description = "按地图可视范围与缩放级别返回服务端聚合后的景点标注；跨越 180° 经线时 minLng 大于 maxLng")
+    @GetMapping("/clusters")
+    public ApiResponse<AttractionClusterResponse> getMapClusters(
+            @Parameter(description = "最小纬度") @RequestParam Double minLat,
+            @Parameter(description = "西侧经度") @RequestParam Double minLng,
+            @Parameter(description = "最大纬度") @RequestParam Double maxLat,
+            @Parameter(description = "东侧经度") @RequestParam Double maxLng,
+            @Parameter(description = "地图缩放级别") @RequestParam Integer zoom) {
+        try {
+            return ApiResponse.success("获取成功",
+                    attractionService.getMapClusters(minLat, minLng, maxLat, maxLng, zoom));
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(400, e.getMessage());
+        } catch (Exception e) {
+            log.error("获取地图聚合标注失败", e);
+            return ApiResponse.error(500, "获取失败: " + e.getMessage());
+        }
+    }
+
     @Operation(summary = "获取景点详情", description = "根据景点ID获取详细信息")
     @GetMapping("/detail/{attractionId}")
-    public ApiResponse<AttractionDetailResponse> getAttractionDetail(@PathVariable Long attractionId) {
+    public ApiResponse<AttractionDetailResponse> getAttractionDetail(@PathVariable Long attractionId,
+                                                                     HttpServletRequest request,
+                                                                     HttpServletResponse response) {
         try {
-            if (!cacheClient.existsInAttractionIdFilter(attractionId)) {
+            long detailTtlSec = performanceProperties.getCache().getAttractionDetailTtlSec();
+            String etag = entityVersionRegistry.etag(
+                    CacheConstants.ATTRACTION_DETAIL_KEY + attractionId + ":" + timeSlot(detailTtlSec),
+                    EntityVersionRegistry.attractionScope(attractionId),
+                    EntityVersionRegistry.SCOPE_CITY,
+                    EntityVersionRegistry.SCOPE_ATTRACTION_TYPE,
+                    EntityVersionRegistry.SCOPE_ATTRACTION_TAG);
+            if (entityVersionRegistry.checkNotModified(request, response, etag)
+                    || responseBodyCache.writeIfCached(request, response, etag)) {
+                // 未修改或命中预压缩响应的访问同样计入浏览量
+                attractionCounterService.incrementBrowseCount(attractionId);
+                return null;
+            }
+
+            if (!attractionIdFilter.mightContain(attractionId)) {
                 return ApiResponse.error(404, "景点不存在");
             }
 
             String cacheKey = CacheConstants.ATTRACTION_DETAIL_KEY + attractionId;
             String lockKey = CacheConstants.LOCK_ATTRACTION_DETAIL + attractionId;
-            AttractionDetailResponse detail = cacheClient.queryWithMutex(
+            AttractionDetailResponse detail = cacheClient.queryWithLogicalExpire(
                     cacheKey,
                     lockKey,
                     AttractionDetailResponse.class,
                     () -> attractionService.getAttractionCardById(attractionId),
-                    performanceProperties.getCache().getAttractionDetailTtlSec(),
+                    detailTtlSec,
                     performanceProperties.getCache().getNullValueTtlSec(),
                     performanceProperties.getCache().getTtlJitterSec());
 
             if (detail == null) {
                 return ApiResponse.error(404, "景点不存在");
             }
-            return ApiResponse.success("获取成功", detail);
+            // 每次访问都计入浏览量（详情命中缓存时同样计数）
+            attractionCounterService.incrementBrowseCount(attractionId);
+            entityVersionRegistry.writeEtag(response, etag);
+            ApiResponse<AttractionDetailResponse> body = ApiResponse.success("获取成功", detail);
+            return responseBodyCache.cacheAndWrite(request, response, etag, body) ? null : body;
         } catch (IllegalArgumentException e) {
             return ApiResponse.error(404, e.getMessage());
         } catch (Exception e) {
@@ -248,9 +366,15 @@ public class AttractionHomeController {
 
     @Operation(summary = "获取所有的景点类型")
     @GetMapping("/type/all")
-    public ApiResponse<List<AttractionType>> getAllAttractionType() {
+    public ApiResponse<List<AttractionType>> getAllAttractionType(HttpServletRequest request,
+                                                                  HttpServletResponse response) {
         try {
+            String etag = entityVersionRegistry.etag("type:all", EntityVersionRegistry.SCOPE_ATTRACTION_TYPE);
+            if (entityVersionRegistry.checkNotModified(request, response, etag)) {
+                return null;
+            }
             List<AttractionType> types = attractionTypeService.getAllAttractionTypes();
+            entityVersionRegistry.writeEtag(response, etag);
             return ApiResponse.success("查询成功", types);
         } catch (Exception e) {
             log.error("获取所有景点类型失败", e);
@@ -277,16 +401,30 @@ public class AttractionHomeController {
 
     @Operation(summary = "获取热度最高的三个景点", description = "根据浏览量(browseCount)获取热度最高的3个景点")
     @GetMapping("/top/browse")
-    public ApiResponse<List<AttractionCardResponse>> getTopThreeByBrowse() {
+    public ApiResponse<List<AttractionCardResponse>> getTopThreeByBrowse(HttpServletRequest request,
+                                                                         HttpServletResponse response) {
         try {
+            long topTtlSec = performanceProperties.getCache().getTopAttractionTtlSec();
+            String etag = entityVersionRegistry.etag(
+                    CacheConstants.ATTRACTION_TOP_BROWSE_KEY + ":" + timeSlot(topTtlSec),
+                    EntityVersionRegistry.SCOPE_ATTRACTIONS,
+                    EntityVersionRegistry.SCOPE_CITY,
+                    EntityVersionRegistry.SCOPE_ATTRACTION_TYPE);
+            if (entityVersionRegistry.checkNotModified(request, response, etag)
+                    || responseBodyCache.writeIfCached(request, response, etag)) {
+                return null;
+            }
+
             List<AttractionCardResponse> attractions = cacheClient.queryWithPassThrough(
                     CacheConstants.ATTRACTION_TOP_BROWSE_KEY,
                     CARD_LIST_TYPE,
                     attractionService::getTopThreeByBrowse,
-                    performanceProperties.getCache().getTopAttractionTtlSec(),
+                    topTtlSec,
                     performanceProperties.getCache().getNullValueTtlSec(),
                     performanceProperties.getCache().getTtlJitterSec());
-            return ApiResponse.success("获取成功", attractions);
+            entityVersionRegistry.writeEtag(response, etag);
+            ApiResponse<List<AttractionCardResponse>> body = ApiResponse.success("获取成功", attractions);
+            return responseBodyCache.cacheAndWrite(request, response, etag, body) ? null : body;
         } catch (Exception e) {
             log.error("获取热门景点失败", e);
             return ApiResponse.error(500, "获取失败: " + e.getMessage());
@@ -300,16 +438,30 @@ public class AttractionHomeController {
                 + "&aid=" + defaultLong(request.getAttractionId())
                 + "&name=" + defaultStr(request.getName())
                 + "&type=" + defaultInt(request.getTypeId())
+                + "&types=" + defaultIds(request.getTypeIds())
+                + "&tags=" + defaultIds(request.getTagIds())
+                + "&tagAll=" + Boolean.TRUE.equals(request.getTagMatchAll())
                 + "&city=" + defaultStr(request.getCity())
                 + "&cityId=" + defaultInt(request.getCityId())
+                + "&cityIds=" + defaultIds(request.getCityIds())
                 + "&status=" + defaultInt(request.getStatus())
                 + "&audit=" + defaultInt(request.getAuditStatus())
                 + "&orderBy=" + defaultStr(request.getOrderBy())
-                + "&orderType=" + defaultStr(request.getOrderType());
+                + "&orderType=" + defaultStr(request.getOrderType())
+                + "&cursorMode=" + Boolean.TRUE.equals(request.getCursorMode())
+                + "&cursor=" + defaultStr(request.getCursor());
         return CacheConstants.ATTRACTION_LIST_KEY
                 + DigestUtils.md5DigestAsHex(raw.getBytes(StandardCharsets.UTF_8));
     }
 
+    /**
+     * 按缓存TTL划分的时间片：浏览量、人气等计数不递增版本号，
+     * ETag 随时间片轮换，陈旧程度与缓存本身一致
+     */
+    private long timeSlot(long ttlSeconds) {
+        return System.currentTimeMillis() / TimeUnit.SECONDS.toMillis(Math.max(1, ttlSeconds));
+    }
+
     private int defaultInt(Integer value) {
         return value == null ? 0 : value;
     }
@@ -318,6 +470,21 @@ public class AttractionHomeController {
         return value == null ? 0L : value;
     }
 
+    /**
+     * ID列表去重排序后拼接，保证同一组条件的缓存key一致
+     */
+    private String defaultIds(List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return "";
+        }
+        return ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+    }
+
     private String defaultStr(String value) {
         return StringUtils.hasText(value) ? value.trim() : "";
     }
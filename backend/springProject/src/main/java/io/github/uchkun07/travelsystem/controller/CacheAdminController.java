@@ -0,0 +1,107 @@
+package io.github.uchkun07.travelsystem.controller;
+
+import io.github.uchkun07.travelsystem.annotation.RequireAdminPermission;
+import io.github.uchkun07.travelsystem.dto.ApiResponse;
+import io.github.uchkun07.travelsystem.dto.CacheCodecReportItem;
+import io.github.uchkun07.travelsystem.dto.CacheHotKeyItem;
+import io.github.uchkun07.travelsystem.dto.CacheStatsResponse;
+import io.github.uchkun07.travelsystem.dto.TrackBufferStats;
+import io.github.uchkun07.travelsystem.util.BrowseRecordWriter;
+import io.github.uchkun07.travelsystem.util.CacheClient;
+import io.github.uchkun07.travelsystem.util.ResponseBodyCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 缓存管理控制器
+ */
+@Slf4j
+@Tag(name = "缓存管理", description = "多级缓存统计、编码对比、本地缓存清理与埋点写入缓冲统计接口")
+@RestController
+@RequestMapping("/api/admin/cache")
+@RequireAdminPermission
+public class CacheAdminController {
+
+    private final CacheClient cacheClient;
+    private final ResponseBodyCache responseBodyCache;
+    private final BrowseRecordWriter browseRecordWriter;
+
+    public CacheAdminController(CacheClient cacheClient, ResponseBodyCache responseBodyCache,
+                                BrowseRecordWriter browseRecordWriter) {
+        this.cacheClient = cacheClient;
+        this.responseBodyCache = responseBodyCache;
+        this.browseRecordWriter = browseRecordWriter;
+    }
+
+    @Operation(summary = "获取缓存命中统计", description = "按本地一级缓存、Redis 二级缓存分别统计命中与未命中次数（当前节点）")
+    @GetMapping("/stats")
+    public ApiResponse<CacheStatsResponse> getStats() {
+        try {
+            CacheStatsResponse stats = cacheClient.getStats();
+            stats.setResponseBodyHits(responseBodyCache.getHits());
+            stats.setResponseBodyMisses(responseBodyCache.getMisses());
+            stats.setResponseBodySize(responseBodyCache.size());
+            return ApiResponse.success("获取成功", stats);
+        } catch (Exception e) {
+            log.error("获取缓存统计失败", e);
+            return ApiResponse.error(500, "获取失败: " + e.getMessage());
+        }
+    }
+
+    @Operation(summary = "当前热点key", description = "按采样计数估算的热点 key 及其 QPS（当前节点），热点 key 自动复制到本地短TTL副本")
+    @GetMapping("/hot-keys")
+    public ApiResponse<List<CacheHotKeyItem>> getHotKeys() {
+        try {
+            return ApiResponse.success("获取成功", cacheClient.getHotKeys());
+        } catch (Exception e) {
+            log.error("获取热点key失败", e);
+            return ApiResponse.error(500, "获取失败: " + e.getMessage());
+        }
+    }
+
+    @Operation(summary = "埋点写入缓冲统计", description = "推荐埋点异步批量写库的缓冲区积压、丢弃与写入计数（当前节点）")
+    @GetMapping("/track-buffer")
+    public ApiResponse<TrackBufferStats> getTrackBufferStats() {
+        try {
+            return ApiResponse.success("获取成功", browseRecordWriter.getStats());
+        } catch (Exception e) {
+            log.error("获取埋点写入缓冲统计失败", e);
+            return ApiResponse.error(500, "获取失败: " + e.getMessage());
+        }
+    }
+
+    @Operation(summary = "缓存编码对比报告", description = "对抽样或指定的缓存值分别以 JSON、Smile 及压缩方式编码，对比字节数与编解码耗时")
+    @GetMapping("/codec-report")
+    public ApiResponse<List<CacheCodecReportItem>> codecReport(
+            @Parameter(description = "缓存key，为空时抽样热门、详情、列表缓存") @RequestParam(required = false) List<String> keys,
+            @Parameter(description = "计时循环次数") @RequestParam(defaultValue = "200") Integer iterations) {
+        try {
+            return ApiResponse.success("获取成功", cacheClient.codecReport(keys, Math.min(iterations, 10000)));
+        } catch (Exception e) {
+            log.error("生成缓存编码对比报告失败", e);
+            return ApiResponse.error(500, "获取失败: " + e.getMessage());
+        }
+    }
+
+    @Operation(summary = "清空本地缓存", description = "广播到所有节点，清空指定前缀的本地一级缓存，不影响 Redis")
+    @DeleteMapping("/local")
+    public ApiResponse<Void> clearLocal(
+            @Parameter(description = "key 前缀，为空时清空全部") @RequestParam(required = false) String prefix) {
+        try {
+            cacheClient.clearLocal(prefix);
+            return ApiResponse.success("清理成功", null);
+        } catch (Exception e) {
+            log.error("清空本地缓存失败", e);
+            return ApiResponse.error(500, "清理失败: " + e.getMessage());
+        }
+    }
+}
@@ -5,8 +5,11 @@ import io.github.uchkun07.travelsystem.dto.CityQueryRequest;
 import io.github.uchkun07.travelsystem.dto.CityResponse;
 import io.github.uchkun07.travelsystem.dto.PageResponse;
 import io.github.uchkun07.travelsystem.service.ICityService;
+import io.github.uchkun07.travelsystem.util.EntityVersionRegistry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
@@ -23,11 +26,24 @@ public class CityHomeController {
     @Autowired
     private ICityService cityService;
 
+    @Autowired
+    private EntityVersionRegistry entityVersionRegistry;
+
     @Operation(summary = "分页获取城市列表", description = "前台城市列表展示，支持分页和筛选")
     @PostMapping("/list")
-    public ApiResponse<PageResponse<CityResponse>> getCityList( @RequestBody CityQueryRequest request) {
+    public ApiResponse<PageResponse<CityResponse>> getCityList(@RequestBody CityQueryRequest request,
+                                                               HttpServletRequest httpRequest,
+                                                               HttpServletResponse httpResponse) {
         try {
+            String etag = entityVersionRegistry.etag(
+                    "city:list:p=" + request.getPageNum() + "&s=" + request.getPageSize()
+                            + "&name=" + request.getCityName() + "&country=" + request.getCountry(),
+                    EntityVersionRegistry.SCOPE_CITY);
+            if (entityVersionRegistry.checkNotModified(httpRequest, httpResponse, etag)) {
+                return null;
+            }
             PageResponse<CityResponse> page = cityService.getCityCards(request);
+            entityVersionRegistry.writeEtag(httpResponse, etag);
             return ApiResponse.success("获取成功", page);
         } catch (Exception e) {
             log.error("获取城市列表失败", e);
@@ -1,19 +1,23 @@
 package io.github.uchkun07.travelsystem.controller;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.uchkun07.travelsystem.annotation.OperationLog;
 import io.github.uchkun07.travelsystem.annotation.RequireAdminPermission;
 import io.github.uchkun07.travelsystem.dto.*;
 import io.github.uchkun07.travelsystem.entity.*;
 import io.github.uchkun07.travelsystem.service.*;
+import io.github.uchkun07.travelsystem.util.ExportWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -50,6 +54,9 @@ public class ManageAdminController {
     @Autowired
     private io.github.uchkun07.travelsystem.util.JwtUtil jwtUtil;
     
+    @Autowired
+    private ObjectMapper objectMapper;
+    
     // ==================== 管理员登录登出 ====================
     
     @Operation(summary = "管理员登录", description = "管理员使用用户名和密码登录,返回包含权限的JWT令牌")
@@ -687,4 +694,33 @@ public class ManageAdminController {
             return ApiResponse.error(500, "查询失败");
         }
     }
+
+    @Operation(summary = "导出操作日志", description = "按查询条件流式导出全部匹配日志，format: CSV / NDJSON，gzip=true 时输出 .gz 压缩文件")
+    @GetMapping("/operation-log/export")
+    @RequireAdminPermission(value = {"OPERATION_LOG:VIEW", "SYSTEM:MANAGE"})
+    @OperationLog(type = "导出", object = "操作日志")
+    public void exportLogs(
+            @RequestParam(required = false) Long adminId,
+            @RequestParam(required = false) String operatorName,
+            @RequestParam(required = false) String operationType,
+            @RequestParam(required = false) String operationObject,
+            @RequestParam(required = false) Long objectId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime endTime,
+            @RequestParam(defaultValue = "CSV") ExportWriter.Format format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        try {
+            OperationLogQueryRequest request = OperationLogQueryRequest.builder()
+                    .adminId(adminId).operatorName(operatorName)
+                    .operationType(operationType).operationObject(operationObject).objectId(objectId)
+                    .startTime(startTime).endTime(endTime).build();
+            long rows = operationLogService.exportLogs(request, format,
+                    ExportWriter.openResponse(response, "operation-logs", format, gzip));
+            log.info("导出操作日志完成: rows={}", rows);
+        } catch (Exception e) {
+            log.error("导出操作日志失败", e);
+            ExportWriter.writeError(response, objectMapper, 500, "导出失败");
+        }
+    }
 }
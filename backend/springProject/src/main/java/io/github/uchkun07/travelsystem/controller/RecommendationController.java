@@ -1,14 +1,11 @@
 package io.github.uchkun07.travelsystem.controller;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import io.github.uchkun07.travelsystem.config.PerformanceProperties;
 import io.github.uchkun07.travelsystem.dto.ApiResponse;
 import io.github.uchkun07.travelsystem.dto.RecommendHomeRequest;
 import io.github.uchkun07.travelsystem.dto.RecommendHomeResponse;
 import io.github.uchkun07.travelsystem.dto.RecommendTrackRequest;
 import io.github.uchkun07.travelsystem.service.IRecommendationService;
-import io.github.uchkun07.travelsystem.util.CacheClient;
-import io.github.uchkun07.travelsystem.util.CacheConstants;
 import io.github.uchkun07.travelsystem.util.JwtUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -32,13 +29,8 @@ import java.util.concurrent.TimeUnit;
 @RequiredArgsConstructor
 public class RecommendationController {
 
-    private static final TypeReference<RecommendHomeResponse> RECOMMEND_TYPE =
-            new TypeReference<>() {
-            };
-
     private final IRecommendationService recommendationService;
     private final JwtUtil jwtUtil;
-    private final CacheClient cacheClient;
     private final PerformanceProperties performanceProperties;
 
     @Qualifier("generalAsyncExecutor")
@@ -51,18 +43,8 @@ public class RecommendationController {
         try {
             Long userId = resolveUserIdIfPresent(request);
             RecommendHomeRequest req = body == null ? new RecommendHomeRequest() : body;
-            String cacheKey = CacheConstants.RECOMMEND_HOME_KEY
-                + (userId == null ? 0L : userId)
-                + ":" + normalizePageNum(req.getPageNum())
-                + ":" + normalizePageSize(req.getPageSize());
-
-            RecommendHomeResponse response = cacheClient.queryWithPassThrough(
-                cacheKey,
-                RECOMMEND_TYPE,
-                () -> executeWithTimeout(userId, req),
-                performanceProperties.getCache().getRecommendTtlSec(),
-                performanceProperties.getCache().getNullValueTtlSec(),
-                performanceProperties.getCache().getTtlJitterSec());
+            // 排序结果按推荐会话缓存在服务层，翻页只切片不重新排序
+            RecommendHomeResponse response = executeWithTimeout(userId, req);
             return ApiResponse.success("获取成功", response);
         } catch (Exception e) {
             log.error("获取首页推荐失败", e);
@@ -110,15 +92,4 @@ public class RecommendationController {
             throw new RuntimeException("推荐接口超时或执行失败", e);
         }
     }
-
-    private long normalizePageNum(Long pageNum) {
-        return pageNum == null || pageNum < 1 ? 1 : pageNum;
-    }
-
-    private long normalizePageSize(Long pageSize) {
-        if (pageSize == null || pageSize < 1) {
-            return 20;
-        }
-        return Math.min(pageSize, 100);
-    }
 }
@@ -1,5 +1,6 @@
 package io.github.uchkun07.travelsystem.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.uchkun07.travelsystem.annotation.OperationLog;
 import io.github.uchkun07.travelsystem.annotation.RequireAdminPermission;
 import io.github.uchkun07.travelsystem.dto.*;
@@ -8,13 +9,16 @@ import io.github.uchkun07.travelsystem.entity.UserTagDict;
 import io.github.uchkun07.travelsystem.service.IUserAdminService;
 import io.github.uchkun07.travelsystem.service.IUserTagDictService;
 import io.github.uchkun07.travelsystem.service.IUserTagService;
+import io.github.uchkun07.travelsystem.util.ExportWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -37,6 +41,9 @@ public class UserAdminController {
     @Autowired
     private IUserAdminService userAdminService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     // ==================== 用户标签字典管理 ====================
 
     @Operation(summary = "创建用户标签字典")
@@ -272,6 +279,38 @@ public class UserAdminController {
         }
     }
 
+    @Operation(summary = "导出用户", description = "按列表筛选条件流式导出全部匹配用户，format: CSV / NDJSON，gzip=true 时输出 .gz 压缩文件")
+    @GetMapping("/user/export")
+    @RequireAdminPermission(value = {"USER:VIEW", "SYSTEM:MANAGE"})
+    @OperationLog(type = "导出", object = "用户")
+    public void exportUsers(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String nickname,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String phone,
+            @RequestParam(required = false) Integer status,
+            @RequestParam(required = false) Integer tagDictId,
+            @RequestParam(defaultValue = "CSV") ExportWriter.Format format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        try {
+            UserQueryRequest request = UserQueryRequest.builder()
+                    .username(username)
+                    .nickname(nickname)
+                    .email(email)
+                    .phone(phone)
+                    .status(status)
+                    .tagDictId(tagDictId)
+                    .build();
+            long rows = userAdminService.exportUsers(request, format,
+                    ExportWriter.openResponse(response, "users", format, gzip));
+            log.info("导出用户完成: rows={}", rows);
+        } catch (Exception e) {
+            log.error("导出用户失败", e);
+            ExportWriter.writeError(response, objectMapper, 500, "导出失败");
+        }
+    }
+
     @Operation(summary = "获取用户完整详情", description = "包括Profile、Preference和标签列表")
     @GetMapping("/user/detail/{userId}")
     @RequireAdminPermission(value = {"USER:VIEW", "SYSTEM:MANAGE"})
@@ -0,0 +1,55 @@
+package io.github.uchkun07.travelsystem.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 地图聚合标注响应DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "地图聚合标注")
+public class AttractionClusterResponse {
+
+    @Schema(description = "实际使用的缩放级别")
+    private Integer zoom;
+
+    @Schema(description = "范围内景点总数")
+    private Long total;
+
+    @Schema(description = "聚合标注列表（按数量降序）")
+    private List<Marker> markers;
+
+    /**
+     * 单个聚合标注，count 为 1 时即单个景点
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "聚合标注")
+    public static class Marker {
+
+        @Schema(description = "质心纬度")
+        private Double latitude;
+
+        @Schema(description = "质心经度")
+        private Double longitude;
+
+        @Schema(description = "聚合的景点数")
+        private Integer count;
+
+        @Schema(description = "人气最高的景点ID")
+        private Long attractionId;
+
+        @Schema(description = "人气最高的景点名称")
+        private String name;
+    }
+}
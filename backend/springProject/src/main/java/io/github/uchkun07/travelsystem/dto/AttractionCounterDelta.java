@@ -0,0 +1,20 @@
+package io.github.uchkun07.travelsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 景点计数增量（尚未落库部分）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttractionCounterDelta {
+
+    /** 浏览量增量 */
+    private long browseDelta;
+
+    /** 收藏量增量（可为负） */
+    private long favoriteDelta;
+}
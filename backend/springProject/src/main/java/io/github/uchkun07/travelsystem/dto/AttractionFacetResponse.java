@@ -0,0 +1,52 @@
+package io.github.uchkun07.travelsystem.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 景点筛选分面统计响应DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "景点筛选分面统计")
+public class AttractionFacetResponse {
+
+    @Schema(description = "满足当前全部筛选条件的景点数")
+    private Long total;
+
+    @Schema(description = "类型分面（不含类型自身条件）")
+    private List<FacetCount> types;
+
+    @Schema(description = "城市分面（不含城市自身条件）")
+    private List<FacetCount> cities;
+
+    @Schema(description = "标签分面（任一命中模式下不含标签自身条件）")
+    private List<FacetCount> tags;
+
+    /**
+     * 分面取值计数
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "分面取值计数")
+    public static class FacetCount {
+
+        @Schema(description = "取值ID")
+        private Integer id;
+
+        @Schema(description = "取值名称")
+        private String name;
+
+        @Schema(description = "景点数")
+        private Long count;
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.uchkun07.travelsystem.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 景点批量导入结果DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "景点批量导入结果")
+public class AttractionImportResult {
+
+    @Schema(description = "读取的数据行数（不含表头）")
+    private Long total;
+
+    @Schema(description = "导入成功行数")
+    private Long success;
+
+    @Schema(description = "导入失败行数")
+    private Long failed;
+
+    @Schema(description = "耗时(毫秒)")
+    private Long elapsedMs;
+
+    @Schema(description = "错误报告是否因超出上限被截断")
+    private Boolean errorsTruncated;
+
+    @Schema(description = "逐行错误报告")
+    private List<RowError> errors;
+
+    /**
+     * 单行错误
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "导入错误行")
+    public static class RowError {
+
+        @Schema(description = "文件中的行号（从1开始，CSV含表头行）")
+        private Long line;
+
+        @Schema(description = "景点名称")
+        private String name;
+
+        @Schema(description = "错误原因")
+        private String message;
+    }
+}
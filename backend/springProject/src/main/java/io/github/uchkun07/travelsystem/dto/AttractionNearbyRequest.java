@@ -0,0 +1,54 @@
+package io.github.uchkun07.travelsystem.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 附近景点查询请求DTO
+ * 传 radiusKm 时为半径模式（半径内按距离升序取前 limit 个），否则为最近K个模式（K = limit）。
+ */
+@Data
+@Schema(description = "附近景点查询请求")
+public class AttractionNearbyRequest {
+
+    @NotNull(message = "纬度不能为空")
+    @DecimalMin(value = "-90", message = "纬度超出范围")
+    @DecimalMax(value = "90", message = "纬度超出范围")
+    @Schema(description = "中心点纬度", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Double latitude;
+
+    @NotNull(message = "经度不能为空")
+    @DecimalMin(value = "-180", message = "经度超出范围")
+    @DecimalMax(value = "180", message = "经度超出范围")
+    @Schema(description = "中心点经度", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Double longitude;
+
+    @Schema(description = "搜索半径(km)，不传时返回最近的 limit 个景点")
+    private Double radiusKm;
+
+    @Schema(description = "返回数量（最近K个模式下即K）")
+    private Integer limit = 20;
+
+    @Schema(description = "景点类型ID列表（命中任一类型即可）")
+    private List<Integer> typeIds;
+
+    @Schema(description = "城市ID列表")
+    private List<Integer> cityIds;
+
+    @Schema(description = "标签ID列表")
+    private List<Integer> tagIds;
+
+    @Schema(description = "是否需要命中全部标签（默认命中任一标签即可）")
+    private Boolean tagMatchAll = false;
+
+    @Schema(description = "景点状态（C端固定为1）")
+    private Integer status;
+
+    @Schema(description = "审核状态（C端固定为2）")
+    private Integer auditStatus;
+}
@@ -0,0 +1,32 @@
+package io.github.uchkun07.travelsystem.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * 附近景点响应DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "附近景点")
+public class AttractionNearbyResponse {
+
+    @Schema(description = "景点卡片")
+    private AttractionCardResponse attraction;
+
+    @Schema(description = "纬度")
+    private BigDecimal latitude;
+
+    @Schema(description = "经度")
+    private BigDecimal longitude;
+
+    @Schema(description = "与中心点的直线距离(km)")
+    private Double distanceKm;
+}
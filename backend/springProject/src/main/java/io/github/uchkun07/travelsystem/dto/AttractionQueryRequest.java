@@ -3,6 +3,8 @@ package io.github.uchkun07.travelsystem.dto;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 
+import java.util.List;
+
 /**
  * 景点分页查询请求DTO
  */
@@ -25,21 +27,39 @@ public class AttractionQueryRequest {
     @Schema(description = "景点类型ID")
     private Integer typeId;
 
+    @Schema(description = "景点类型ID列表（命中任一类型即可，与typeId合并）")
+    private List<Integer> typeIds;
+
+    @Schema(description = "标签ID列表")
+    private List<Integer> tagIds;
+
+    @Schema(description = "是否需要命中全部标签（默认命中任一标签即可）")
+    private Boolean tagMatchAll = false;
+
     @Schema(description = "城市名称（模糊查询）")
     private String city;
 
     @Schema(description = "城市ID")
     private Integer cityId;
 
+    @Schema(description = "城市ID列表（命中任一城市即可，与cityId合并）")
+    private List<Integer> cityIds;
+
     @Schema(description = "景点状态（1=正常，0=下架）")
     private Integer status;
 
     @Schema(description = "审核状态（1=待审核，2=已通过，3=已驳回）")
     private Integer auditStatus;
 
-    @Schema(description = "排序字段（popularity-人气，browse_count-浏览量，favorite_count-收藏数）")
+    @Schema(description = "排序字段（popularity-人气，browse_count-浏览量，favorite_count-收藏数，relevance-相关度，仅前台名称检索有效）")
     private String orderBy = "popularity";
 
     @Schema(description = "排序方式（asc-升序，desc-降序）")
     private String orderType = "desc";
+
+    @Schema(description = "是否使用游标分页（按人气降序定位，不受页码深度影响）")
+    private Boolean cursorMode = false;
+
+    @Schema(description = "分页游标（游标分页模式下传入上一页返回的nextCursor，首页不传）")
+    private String cursor;
 }
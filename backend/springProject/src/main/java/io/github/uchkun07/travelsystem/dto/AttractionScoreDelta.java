@@ -0,0 +1,12 @@
+package io.github.uchkun07.travelsystem.dto;
+
+import lombok.Data;
+
+/**
+ * 景点得分增量（按景点聚合的行为得分）
+ */
+@Data
+public class AttractionScoreDelta {
+    private Long attractionId;
+    private Double score;
+}
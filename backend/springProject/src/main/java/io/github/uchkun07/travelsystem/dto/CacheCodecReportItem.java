@@ -0,0 +1,39 @@
+package io.github.uchkun07.travelsystem.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 缓存编码对比报告条目
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "缓存编码对比报告条目")
+public class CacheCodecReportItem {
+
+    @Schema(description = "缓存key")
+    private String key;
+
+    @Schema(description = "编码格式", example = "SMILE")
+    private String format;
+
+    @Schema(description = "是否压缩")
+    private Boolean compressed;
+
+    @Schema(description = "编码后字节数（含4字节头）")
+    private Integer bytes;
+
+    @Schema(description = "相对纯 JSON 的大小比例")
+    private Double ratio;
+
+    @Schema(description = "平均编码耗时(微秒)")
+    private Double encodeMicros;
+
+    @Schema(description = "平均解码耗时(微秒)")
+    private Double decodeMicros;
+}
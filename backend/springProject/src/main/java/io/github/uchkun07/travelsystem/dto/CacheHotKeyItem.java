@@ -0,0 +1,29 @@
+package io.github.uchkun07.travelsystem.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 热点缓存key
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "热点缓存key")
+public class CacheHotKeyItem {
+
+    @Schema(description = "缓存key")
+    private String key;
+
+    @Schema(description = "估算访问QPS（当前节点）")
+    private Double qps;
+
+    @Schema(description = "提升为热点的时间")
+    private LocalDateTime promotedAt;
+}
@@ -0,0 +1,65 @@
+package io.github.uchkun07.travelsystem.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * 多级缓存统计
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "多级缓存统计")
+public class CacheStatsResponse {
+
+    @Schema(description = "本地一级缓存是否启用")
+    private Boolean localEnabled;
+
+    @Schema(description = "本地一级缓存命中次数")
+    private Long localHits;
+
+    @Schema(description = "本地一级缓存未命中次数")
+    private Long localMisses;
+
+    @Schema(description = "本地一级缓存命中率")
+    private Double localHitRate;
+
+    @Schema(description = "Redis 二级缓存命中次数")
+    private Long redisHits;
+
+    @Schema(description = "Redis 二级缓存未命中次数")
+    private Long redisMisses;
+
+    @Schema(description = "Redis 二级缓存命中率")
+    private Double redisHitRate;
+
+    @Schema(description = "回源加载次数")
+    private Long loads;
+
+    @Schema(description = "逻辑过期后返回旧值的次数")
+    private Long staleHits;
+
+    @Schema(description = "异步重建次数")
+    private Long rebuilds;
+
+    @Schema(description = "并发未命中被合并、等待同一次加载结果的次数")
+    private Long coalesced;
+
+    @Schema(description = "各前缀本地缓存当前条目数")
+    private Map<String, Integer> localSizes;
+
+    @Schema(description = "预压缩响应体缓存命中次数")
+    private Long responseBodyHits;
+
+    @Schema(description = "预压缩响应体缓存未命中次数")
+    private Long responseBodyMisses;
+
+    @Schema(description = "预压缩响应体缓存当前条目数")
+    private Integer responseBodySize;
+}
@@ -61,6 +61,12 @@ public class PageResponse<T> {
     @Schema(description = "是否有下一页")
     private Boolean hasNext;
 
+    /**
+     * 下一页游标（仅游标分页模式返回，无下一页时为空）
+     */
+    @Schema(description = "下一页游标")
+    private String nextCursor;
+
     /**
      * 从MyBatis-Plus的Page对象构建
      */
@@ -0,0 +1,19 @@
+package io.github.uchkun07.travelsystem.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * 用户某天在某景点类型上的行为统计（行为画像重建使用）
+ */
+@Data
+public class RecommendBehaviorBucket {
+    private LocalDate day;
+    /** 景点类型ID（景点已删除或无类型时为空） */
+    private Integer typeId;
+    private Integer clickCount;
+    private Long staySeconds;
+    /** click/stay 事件数 */
+    private Integer eventCount;
+}
@@ -15,4 +15,7 @@ public class RecommendHomeRequest {
 
     @Schema(description = "每页大小", example = "20")
     private Long pageSize = 20L;
+
+    @Schema(description = "推荐会话ID，翻页时传入上一页返回的 requestId，为空时重新排序并开启新会话")
+    private String requestId;
 }
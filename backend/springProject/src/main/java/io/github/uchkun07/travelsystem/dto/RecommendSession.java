@@ -0,0 +1,21 @@
+package io.github.uchkun07.travelsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 推荐会话：一次排序的完整结果，会话内翻页按顺序切片
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendSession {
+    private String requestId;
+    private String recVersion;
+    private Boolean behaviorEnabled;
+    /** 排序后的景点ID */
+    private List<Long> attractionIds;
+}
@@ -0,0 +1,39 @@
+package io.github.uchkun07.travelsystem.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 埋点写入缓冲统计
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "埋点写入缓冲统计")
+public class TrackBufferStats {
+
+    @Schema(description = "缓冲区容量")
+    private Integer capacity;
+
+    @Schema(description = "缓冲区当前积压事件数")
+    private Integer buffered;
+
+    @Schema(description = "进入缓冲区的事件数")
+    private Long accepted;
+
+    @Schema(description = "缓冲区满被丢弃的事件数")
+    private Long dropped;
+
+    @Schema(description = "已写入数据库的事件数")
+    private Long written;
+
+    @Schema(description = "写库失败丢失的事件数")
+    private Long failed;
+
+    @Schema(description = "批量写入次数")
+    private Long batches;
+}
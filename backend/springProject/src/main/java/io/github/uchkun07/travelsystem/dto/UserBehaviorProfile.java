@@ -0,0 +1,24 @@
+package io.github.uchkun07.travelsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 用户近N天的行为画像
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBehaviorProfile {
+
+    /** click/stay 事件总数 */
+    private long eventCount;
+
+    /** 按景点类型聚合的点击次数与停留时长 */
+    private List<RecommendTypeBehaviorStat> typeStats;
+}
@@ -54,6 +54,36 @@ public class UserBrowseRecord {
     @TableField("device_info")
     private String deviceInfo;
 
+    /**
+     * 事件类型（click/stay）
+     */
+    @TableField("event_type")
+    private String eventType;
+
+    /**
+     * 推荐请求ID
+     */
+    @TableField("request_id")
+    private String requestId;
+
+    /**
+     * 推荐列表中的位置
+     */
+    @TableField("position")
+    private Integer position;
+
+    /**
+     * 来源页面
+     */
+    @TableField("source_page")
+    private String sourcePage;
+
+    /**
+     * 推荐算法版本
+     */
+    @TableField("rec_version")
+    private String recVersion;
+
     /**
      * 创建时间
      */
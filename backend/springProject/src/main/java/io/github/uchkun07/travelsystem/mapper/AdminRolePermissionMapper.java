@@ -2,10 +2,12 @@ package io.github.uchkun07.travelsystem.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import io.github.uchkun07.travelsystem.entity.AdminRolePermission;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -31,4 +33,20 @@ public interface AdminRolePermissionMapper extends BaseMapper<AdminRolePermissio
         "</script>"
     })
     List<String> selectPermissionCodesByRoleIds(@Param("roleIds") List<Integer> roleIds);
+
+    /**
+     * 批量绑定角色权限（单条多行 INSERT IGNORE，依赖唯一索引 uk_arp_role_permission 忽略并发重复）
+     * @param roleId 角色ID
+     * @param permissionIds 权限ID（调用方保证非空）
+     * @return 实际插入行数
+     */
+    @Insert({
+        "<script>",
+        "INSERT IGNORE INTO admin_role_permission (role_id, permission_id) VALUES ",
+        "<foreach item='permissionId' collection='permissionIds' separator=','>",
+        "(#{roleId}, #{permissionId})",
+        "</foreach>",
+        "</script>"
+    })
+    int insertIgnoreBatch(@Param("roleId") Integer roleId, @Param("permissionIds") Collection<Integer> permissionIds);
 }
@@ -2,9 +2,12 @@ package io.github.uchkun07.travelsystem.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import io.github.uchkun07.travelsystem.entity.AdminRoleRelation;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -20,4 +23,20 @@ public interface AdminRoleRelationMapper extends BaseMapper<AdminRoleRelation> {
      */
     @Select("SELECT role_id FROM admin_role_relation WHERE admin_id = #{adminId}")
     List<Integer> selectRoleIdsByAdminId(Long adminId);
+    
+    /**
+     * 批量绑定管理员角色（单条多行 INSERT IGNORE，依赖唯一索引 uk_arr_admin_role 忽略并发重复）
+     * @param adminId 管理员ID
+     * @param roleIds 角色ID（调用方保证非空）
+     * @return 实际插入行数
+     */
+    @Insert({
+        "<script>",
+        "INSERT IGNORE INTO admin_role_relation (admin_id, role_id) VALUES ",
+        "<foreach item='roleId' collection='roleIds' separator=','>",
+        "(#{adminId}, #{roleId})",
+        "</foreach>",
+        "</script>"
+    })
+    int insertIgnoreBatch(@Param("adminId") Long adminId, @Param("roleIds") Collection<Integer> roleIds);
 }
@@ -1,12 +1,75 @@
 package io.github.uchkun07.travelsystem.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import io.github.uchkun07.travelsystem.entity.Attraction;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.util.Collection;
+import java.util.Map;
 
 /**
  * 景点表Mapper接口
  */
 @Mapper
 public interface AttractionMapper extends BaseMapper<Attraction> {
+
+    /**
+     * 批量累加浏览量/收藏量（单条 UPDATE … CASE，收藏量不小于0）
+     *
+     * @param browseDeltas   景点ID -> 浏览量增量
+     * @param favoriteDeltas 景点ID -> 收藏量增量
+     * @param attractionIds  涉及的全部景点ID
+     */
+    @Update("<script>" +
+            "UPDATE attraction SET " +
+            "<trim suffixOverrides=','>" +
+            "<if test='browseDeltas != null and browseDeltas.size() > 0'>" +
+            "browse_count = browse_count + CASE attraction_id " +
+            "<foreach collection='browseDeltas' index='id' item='delta'>WHEN #{id} THEN #{delta} </foreach>" +
+            "ELSE 0 END, " +
+            "</if>" +
+            "<if test='favoriteDeltas != null and favoriteDeltas.size() > 0'>" +
+            "favorite_count = GREATEST(favorite_count + CASE attraction_id " +
+            "<foreach collection='favoriteDeltas' index='id' item='delta'>WHEN #{id} THEN #{delta} </foreach>" +
+            "ELSE 0 END, 0), " +
+            "</if>" +
+            "</trim> " +
+            "WHERE attraction_id IN " +
+            "<foreach collection='attractionIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int batchIncrementCounters(@Param("browseDeltas") Map<Long, Long> browseDeltas,
+                               @Param("favoriteDeltas") Map<Long, Long> favoriteDeltas,
+                               @Param("attractionIds") Collection<Long> attractionIds);
+
+    /**
+     * 批量写入人气值（单条 UPDATE … CASE）
+     *
+     * @param popularity 景点ID -> 人气值
+     */
+    @Update("<script>" +
+            "UPDATE attraction SET popularity = CASE attraction_id " +
+            "<foreach collection='popularity' index='id' item='value'>WHEN #{id} THEN #{value} </foreach>" +
+            "ELSE popularity END " +
+            "WHERE attraction_id IN " +
+            "<foreach collection='popularity' index='id' item='value' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int batchUpdatePopularity(@Param("popularity") Map<Long, Integer> popularity);
+
+    /**
+     * 流式查询景点（MySQL 逐行读取结果集，配合 ResultHandler 导出，不在内存中累积结果）
+     * 查询列由 wrapper.select(...) 指定
+     */
+    @Select("SELECT ${ew.sqlSelect} FROM attraction ${ew.customSqlSegment}")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(Attraction.class)
+    void streamByWrapper(@Param(Constants.WRAPPER) Wrapper<Attraction> wrapper, ResultHandler<Attraction> handler);
 }
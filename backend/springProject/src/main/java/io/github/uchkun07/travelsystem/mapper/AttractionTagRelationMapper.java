@@ -2,11 +2,27 @@ package io.github.uchkun07.travelsystem.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import io.github.uchkun07.travelsystem.entity.AttractionTagRelation;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
 
 /**
  * 景点-标签关联Mapper接口
  */
 @Mapper
 public interface AttractionTagRelationMapper extends BaseMapper<AttractionTagRelation> {
+
+    /**
+     * 批量绑定景点标签（单条多行 INSERT IGNORE，依赖唯一索引 uk_atr_attraction_tag 忽略并发重复）
+     *
+     * @param attractionId 景点ID
+     * @param tagIds       标签ID（调用方保证非空）
+     */
+    @Insert("<script>" +
+            "INSERT IGNORE INTO attraction_tag_relation (attraction_id, tag_id) VALUES " +
+            "<foreach collection='tagIds' item='tagId' separator=','>(#{attractionId}, #{tagId})</foreach>" +
+            "</script>")
+    int insertIgnoreBatch(@Param("attractionId") Long attractionId, @Param("tagIds") Collection<Integer> tagIds);
 }
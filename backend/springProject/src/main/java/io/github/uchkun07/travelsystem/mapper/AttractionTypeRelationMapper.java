@@ -2,11 +2,38 @@ package io.github.uchkun07.travelsystem.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import io.github.uchkun07.travelsystem.entity.AttractionTypeRelation;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
 
 /**
  * 景点-类型关联Mapper接口
  */
 @Mapper
 public interface AttractionTypeRelationMapper extends BaseMapper<AttractionTypeRelation> {
+
+    /**
+     * 批量插入景点的类型关联（单条多行 INSERT）
+     *
+     * @param attractionId 景点ID
+     * @param typeIds      类型ID（调用方保证非空且已去重）
+     */
+    @Insert("<script>" +
+            "INSERT INTO attraction_type_relation (attraction_id, type_id) VALUES " +
+            "<foreach collection='typeIds' item='typeId' separator=','>(#{attractionId}, #{typeId})</foreach>" +
+            "</script>")
+    int insertBatch(@Param("attractionId") Long attractionId, @Param("typeIds") Collection<Integer> typeIds);
+
+    /**
+     * 批量插入多个景点的类型关联（单条多行 INSERT，用于批量导入）
+     *
+     * @param relations 关联记录（调用方保证非空）
+     */
+    @Insert("<script>" +
+            "INSERT INTO attraction_type_relation (attraction_id, type_id) VALUES " +
+            "<foreach collection='relations' item='r' separator=','>(#{r.attractionId}, #{r.typeId})</foreach>" +
+            "</script>")
+    int insertRelations(@Param("relations") Collection<AttractionTypeRelation> relations);
 }
@@ -0,0 +1,28 @@
+package io.github.uchkun07.travelsystem.mapper;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 计数快照落库记录 Mapper（不继承 BaseMapper）
+ * 与计数累加在同一事务中写入快照ID，重试已落库的快照时据此跳过。
+ */
+@Mapper
+public interface CounterFlushLogMapper {
+
+    /**
+     * 记录快照已落库
+     *
+     * @return 1 表示首次落库；0 表示该快照此前已落库
+     */
+    @Insert("INSERT IGNORE INTO counter_flush_log (snapshot_id) VALUES (#{snapshotId})")
+    int insertIgnore(@Param("snapshotId") String snapshotId);
+
+    /**
+     * 清理早于保留天数的记录（快照重试只发生在落库后的短时间内）
+     */
+    @Delete("DELETE FROM counter_flush_log WHERE applied_time < DATE_SUB(NOW(), INTERVAL #{days} DAY) LIMIT #{limit}")
+    int deleteOlderThan(@Param("days") Integer days, @Param("limit") Integer limit);
+}
@@ -1,12 +1,29 @@
 package io.github.uchkun07.travelsystem.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import io.github.uchkun07.travelsystem.entity.OperationLog;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
 /**
  * 操作日志Mapper接口
  */
 @Mapper
 public interface OperationLogMapper extends BaseMapper<OperationLog> {
+
+    /**
+     * 流式查询操作日志（MySQL 逐行读取结果集，配合 ResultHandler 导出，不在内存中累积结果）
+     * 查询列由 wrapper.select(...) 指定
+     */
+    @Select("SELECT ${ew.sqlSelect} FROM operation_log ${ew.customSqlSegment}")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(OperationLog.class)
+    void streamByWrapper(@Param(Constants.WRAPPER) Wrapper<OperationLog> wrapper, ResultHandler<OperationLog> handler);
 }
@@ -3,10 +3,28 @@ package io.github.uchkun07.travelsystem.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import io.github.uchkun07.travelsystem.entity.Slideshow;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.Map;
 
 /**
  * 轮播图Mapper接口
  */
 @Mapper
 public interface SlideshowMapper extends BaseMapper<Slideshow> {
+
+    /**
+     * 批量累加点击量（单条 UPDATE … CASE）
+     *
+     * @param clickDeltas 轮播图ID -> 点击量增量
+     */
+    @Update("<script>" +
+            "UPDATE slideshow SET click_count = IFNULL(click_count, 0) + CASE slideshow_id " +
+            "<foreach collection='clickDeltas' index='id' item='delta'>WHEN #{id} THEN #{delta} </foreach>" +
+            "ELSE 0 END " +
+            "WHERE slideshow_id IN " +
+            "<foreach collection='clickDeltas' index='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int batchIncrementClickCount(@Param("clickDeltas") Map<Integer, Long> clickDeltas);
 }
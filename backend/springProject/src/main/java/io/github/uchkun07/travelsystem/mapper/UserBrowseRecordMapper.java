@@ -1,27 +1,36 @@
 package io.github.uchkun07.travelsystem.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import io.github.uchkun07.travelsystem.dto.AttractionScoreDelta;
+import io.github.uchkun07.travelsystem.dto.RecommendBehaviorBucket;
 import io.github.uchkun07.travelsystem.dto.RecommendTypeBehaviorStat;
 import io.github.uchkun07.travelsystem.entity.UserBrowseRecord;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
 public interface UserBrowseRecordMapper extends BaseMapper<UserBrowseRecord> {
 
     /**
-     * 按景点类型聚合用户近N天行为（兼容旧表结构：事件元数据写入 device_info JSON）
+     * 按景点类型聚合用户近N天行为
      */
     @Select("SELECT a.type_id AS typeId, " +
-            "SUM(CASE WHEN LOCATE('et=click', IFNULL(ubr.device_info, '')) > 0 THEN 1 ELSE 0 END) AS clickCount, " +
-            "SUM(CASE WHEN LOCATE('et=stay', IFNULL(ubr.device_info, '')) > 0 " +
-            "THEN IFNULL(ubr.browse_duration, 0) ELSE 0 END) AS staySeconds " +
+            "SUM(CASE WHEN ubr.event_type = 'click' THEN 1 ELSE 0 END) AS clickCount, " +
+            "SUM(CASE WHEN ubr.event_type = 'stay' THEN IFNULL(ubr.browse_duration, 0) ELSE 0 END) AS staySeconds " +
             "FROM user_browse_record ubr " +
             "JOIN attraction a ON a.attraction_id = ubr.attraction_id " +
             "WHERE ubr.user_id = #{userId} " +
+            "AND ubr.event_type IN ('click', 'stay') " +
             "AND ubr.browse_time >= DATE_SUB(NOW(), INTERVAL #{days} DAY) " +
             "GROUP BY a.type_id")
     List<RecommendTypeBehaviorStat> aggregateUserBehaviorByType(@Param("userId") Long userId,
@@ -29,8 +38,131 @@ public interface UserBrowseRecordMapper extends BaseMapper<UserBrowseRecord> {
 
     @Select("SELECT COUNT(*) FROM user_browse_record ubr " +
             "WHERE ubr.user_id = #{userId} " +
-            "AND ubr.browse_time >= DATE_SUB(NOW(), INTERVAL #{days} DAY) " +
-            "AND (LOCATE('et=click', IFNULL(ubr.device_info, '')) > 0 OR LOCATE('et=stay', IFNULL(ubr.device_info, '')) > 0)")
+            "AND ubr.event_type IN ('click', 'stay') " +
+            "AND ubr.browse_time >= DATE_SUB(NOW(), INTERVAL #{days} DAY)")
     Long countRecentBehaviorEvents(@Param("userId") Long userId,
                                    @Param("days") Integer days);
+
+    /**
+     * 按天、按景点类型聚合用户近N天行为，用于重建行为画像
+     */
+    @Select("SELECT DATE(ubr.browse_time) AS day, a.type_id AS typeId, " +
+            "SUM(CASE WHEN ubr.event_type = 'click' THEN 1 ELSE 0 END) AS clickCount, " +
+            "SUM(CASE WHEN ubr.event_type = 'stay' THEN IFNULL(ubr.browse_duration, 0) ELSE 0 END) AS staySeconds, " +
+            "COUNT(*) AS eventCount " +
+            "FROM user_browse_record ubr " +
+            "LEFT JOIN attraction a ON a.attraction_id = ubr.attraction_id " +
+            "WHERE ubr.user_id = #{userId} " +
+            "AND ubr.event_type IN ('click', 'stay') " +
+            "AND ubr.browse_time >= DATE_SUB(CURDATE(), INTERVAL #{days} DAY) " +
+            "GROUP BY DATE(ubr.browse_time), a.type_id")
+    List<RecommendBehaviorBucket> aggregateUserBehaviorByDayAndType(@Param("userId") Long userId,
+                                                                   @Param("days") Integer days);
+
+    /**
+     * 多行写入埋点事件（create_time 使用数据库默认值）
+     */
+    @Insert("<script>" +
+            "INSERT INTO user_browse_record (user_id, attraction_id, browse_duration, browse_time, device_info, " +
+            "event_type, request_id, position, source_page, rec_version) VALUES " +
+            "<foreach collection='records' item='r' separator=','>" +
+            "(#{r.userId}, #{r.attractionId}, #{r.browseDuration}, #{r.browseTime}, #{r.deviceInfo}, " +
+            "#{r.eventType}, #{r.requestId}, #{r.position}, #{r.sourcePage}, #{r.recVersion})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("records") List<UserBrowseRecord> records);
+
+    /**
+     * 指定时间之后的第一条浏览记录ID（人气评分首次运行时确定回溯起点）
+     */
+    @Select("SELECT MIN(browse_record_id) FROM user_browse_record WHERE browse_time >= #{since}")
+    Long selectFirstIdSince(@Param("since") LocalDateTime since);
+
+    @Select("SELECT MAX(browse_record_id) FROM user_browse_record")
+    Long selectMaxId();
+
+    /**
+     * 创建时间早于指定时间的最大浏览记录ID（按主键倒序扫描，只越过最近的少量记录），
+     * 作为全量构建的水位，避免越过尚未提交的记录
+     */
+    @Select("SELECT browse_record_id FROM user_browse_record " +
+            "WHERE create_time < #{before} ORDER BY browse_record_id DESC LIMIT 1")
+    Long selectMaxIdBefore(@Param("before") LocalDateTime before);
+
+    /**
+     * 水位之后按主键顺序第 limit 条记录的ID（不足 limit 条时为最大ID），作为本批聚合的上界。
+     * 只考虑 create_time 早于 before 的记录：多节点并发写入时较小的ID可能晚提交，
+     * 水位落后提交延迟一段时间，避免越过尚未提交的记录。
+     */
+    @Select("SELECT MAX(browse_record_id) FROM (" +
+            "SELECT browse_record_id FROM user_browse_record " +
+            "WHERE browse_record_id > #{afterId} AND create_time < #{before} " +
+            "ORDER BY browse_record_id LIMIT #{limit}) t")
+    Long selectChunkUpperId(@Param("afterId") Long afterId,
+                            @Param("before") LocalDateTime before,
+                            @Param("limit") Integer limit);
+
+    /**
+     * 按景点聚合 (afterId, toId] 区间浏览记录的前向衰减得分：
+     * 每条记录的权重乘以 2^((browse_time - landmark) / halfLifeSeconds)，stay 事件按停留秒数计权
+     */
+    @Select("SELECT attraction_id AS attractionId, SUM(" +
+            "CASE WHEN event_type = 'stay' " +
+            "THEN LEAST(IFNULL(browse_duration, 0), #{maxStaySeconds}) * #{stayWeightPerSecond} " +
+            "ELSE #{clickWeight} END " +
+            "* POW(2, TIMESTAMPDIFF(SECOND, #{landmark}, browse_time) / #{halfLifeSeconds})) AS score " +
+            "FROM user_browse_record " +
+            "WHERE browse_record_id > #{afterId} AND browse_record_id <= #{toId} " +
+            "GROUP BY attraction_id")
+    List<AttractionScoreDelta> aggregateDecayedScore(@Param("afterId") Long afterId,
+                                                     @Param("toId") Long toId,
+                                                     @Param("landmark") LocalDateTime landmark,
+                                                     @Param("halfLifeSeconds") Long halfLifeSeconds,
+                                                     @Param("clickWeight") Double clickWeight,
+                                                     @Param("stayWeightPerSecond") Double stayWeightPerSecond,
+                                                     @Param("maxStaySeconds") Integer maxStaySeconds);
+
+    /**
+     * 用户最近点击过的景点及最近点击时间（按时间降序去重），用于重建行为画像中的最近点击列表
+     */
+    @Select("SELECT attraction_id, MAX(browse_time) AS browse_time FROM user_browse_record " +
+            "WHERE user_id = #{userId} AND event_type = 'click' " +
+            "AND browse_time >= DATE_SUB(NOW(), INTERVAL #{days} DAY) " +
+            "GROUP BY attraction_id ORDER BY browse_time DESC LIMIT #{limit}")
+    List<UserBrowseRecord> selectRecentClicks(@Param("userId") Long userId,
+                                              @Param("days") Integer days,
+                                              @Param("limit") Integer limit);
+
+    /**
+     * 流式读取指定时间之后、ID 不超过 toId 的 click/stay 事件，按用户、时间排序（物品共现全量构建）
+     */
+    @Select("SELECT browse_record_id, user_id, attraction_id, browse_time FROM user_browse_record " +
+            "WHERE browse_time >= #{since} AND browse_record_id <= #{toId} AND event_type IN ('click', 'stay') " +
+            "ORDER BY user_id, browse_time")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(UserBrowseRecord.class)
+    void streamBehaviorEvents(@Param("since") LocalDateTime since,
+                              @Param("toId") Long toId,
+                              ResultHandler<UserBrowseRecord> handler);
+
+    /**
+     * (afterId, toId] 区间的 click/stay 事件，按用户、时间排序（物品共现增量更新）
+     */
+    @Select("SELECT browse_record_id, user_id, attraction_id, browse_time FROM user_browse_record " +
+            "WHERE browse_record_id > #{afterId} AND browse_record_id <= #{toId} AND event_type IN ('click', 'stay') " +
+            "ORDER BY user_id, browse_time")
+    List<UserBrowseRecord> selectBehaviorEventsInRange(@Param("afterId") Long afterId, @Param("toId") Long toId);
+
+    /**
+     * 指定用户在 since 之后、ID 不超过 beforeId 的 click/stay 事件（增量更新时补齐会话上文）
+     */
+    @Select("<script>" +
+            "SELECT browse_record_id, user_id, attraction_id, browse_time FROM user_browse_record " +
+            "WHERE user_id IN " +
+            "<foreach collection='userIds' item='id' open='(' separator=',' close=')'>#{id}</foreach> " +
+            "AND event_type IN ('click', 'stay') AND browse_time >= #{since} AND browse_record_id &lt;= #{beforeId}" +
+            "</script>")
+    List<UserBrowseRecord> selectBehaviorContext(@Param("userIds") Collection<Long> userIds,
+                                                 @Param("since") LocalDateTime since,
+                                                 @Param("beforeId") Long beforeId);
 }
@@ -3,10 +3,23 @@ package io.github.uchkun07.travelsystem.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import io.github.uchkun07.travelsystem.entity.UserCollection;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
 /**
  * 用户收藏Mapper
  */
 @Mapper
 public interface UserCollectionMapper extends BaseMapper<UserCollection> {
+
+    /**
+     * 流式读取有效收藏，按用户排序（物品共现全量构建）
+     */
+    @Select("SELECT user_id, attraction_id FROM user_collection WHERE is_deleted = 0 ORDER BY user_id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(UserCollection.class)
+    void streamActiveCollections(ResultHandler<UserCollection> handler);
 }
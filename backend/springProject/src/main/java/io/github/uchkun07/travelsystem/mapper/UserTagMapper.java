@@ -2,11 +2,31 @@ package io.github.uchkun07.travelsystem.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import io.github.uchkun07.travelsystem.entity.UserTag;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 
 /**
  * 用户标签关联Mapper
  */
 @Mapper
 public interface UserTagMapper extends BaseMapper<UserTag> {
+
+    /**
+     * 批量绑定用户标签（单条多行 INSERT IGNORE，依赖唯一索引 uk_ut_user_tag_dict 忽略并发重复）
+     *
+     * @param userId     用户ID
+     * @param tagDictIds 标签字典ID（调用方保证非空）
+     * @param obtainTime 获得时间
+     */
+    @Insert("<script>" +
+            "INSERT IGNORE INTO user_tag (user_id, tag_dict_id, obtain_time) VALUES " +
+            "<foreach collection='tagDictIds' item='tagDictId' separator=','>(#{userId}, #{tagDictId}, #{obtainTime})</foreach>" +
+            "</script>")
+    int insertIgnoreBatch(@Param("userId") Long userId,
+                          @Param("tagDictIds") Collection<Integer> tagDictIds,
+                          @Param("obtainTime") LocalDateTime obtainTime);
 }
@@ -0,0 +1,63 @@
+package io.github.uchkun07.travelsystem.service;
+
+import io.github.uchkun07.travelsystem.dto.AttractionCounterDelta;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 计数聚合服务接口
+ * 浏览量/收藏量/轮播图点击量先在 Redis 中累加，定时批量落库，避免热点行的读改写与行锁争用。
+ */
+public interface IAttractionCounterService {
+
+    /**
+     * 景点浏览量 +1
+     *
+     * @param attractionId 景点ID
+     */
+    void incrementBrowseCount(Long attractionId);
+
+    /**
+     * 调整景点收藏量
+     *
+     * @param attractionId 景点ID
+     * @param delta 增量（收藏 +1，取消收藏 -1）
+     */
+    void incrementFavoriteCount(Long attractionId, int delta);
+
+    /**
+     * 轮播图点击量 +1
+     *
+     * @param slideshowId 轮播图ID
+     */
+    void incrementSlideshowClickCount(Integer slideshowId);
+
+    /**
+     * 查询指定景点尚未落库的计数增量
+     *
+     * @param attractionIds 景点ID列表
+     * @return 景点ID -> 增量（无增量的景点不返回）
+     */
+    Map<Long, AttractionCounterDelta> getPendingAttractionDeltas(Collection<Long> attractionIds);
+
+    /**
+     * 查询全部尚未落库的景点计数增量
+     *
+     * @return 景点ID -> 增量
+     */
+    Map<Long, AttractionCounterDelta> getAllPendingAttractionDeltas();
+
+    /**
+     * 查询指定轮播图尚未落库的点击增量
+     *
+     * @param slideshowIds 轮播图ID列表
+     * @return 轮播图ID -> 点击增量
+     */
+    Map<Integer, Long> getPendingSlideshowClicks(Collection<Integer> slideshowIds);
+
+    /**
+     * 将累计的增量批量写入数据库
+     */
+    void flush();
+}
@@ -0,0 +1,33 @@
+package io.github.uchkun07.travelsystem.service;
+
+import io.github.uchkun07.travelsystem.dto.AttractionImportResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 景点批量导入服务接口
+ * 流式读取 CSV / NDJSON，按预加载的城市、类型、名称集合逐行校验，分批写入（每批一个事务）。
+ */
+public interface IAttractionImportService {
+
+    /**
+     * 导入格式
+     */
+    enum Format {
+        /** 首行为表头，列名为 AttractionRequest 字段名（驼峰或下划线），typeIds 以 | 分隔 */
+        CSV,
+        /** 每行一个 AttractionRequest JSON 对象 */
+        NDJSON
+    }
+
+    /**
+     * 批量导入景点
+     *
+     * @param input     数据流（UTF-8），由调用方负责关闭
+     * @param format    数据格式
+     * @param creatorId 创建人（管理员）ID
+     * @return 导入结果及逐行错误报告
+     */
+    AttractionImportResult importAttractions(InputStream input, Format format, Long creatorId) throws IOException;
+}
@@ -3,7 +3,10 @@ package io.github.uchkun07.travelsystem.service;
 import com.baomidou.mybatisplus.extension.service.IService;
 import io.github.uchkun07.travelsystem.dto.*;
 import io.github.uchkun07.travelsystem.entity.Attraction;
+import io.github.uchkun07.travelsystem.util.ExportWriter;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 /**
@@ -41,6 +44,16 @@ public interface IAttractionService extends IService<Attraction> {
      */
     PageResponse<AttractionListResponse> listAttractions(AttractionQueryRequest request);
 
+    /**
+     * 按列表筛选条件流式导出景点（不分页，按景点ID升序）
+     *
+     * @param request 查询条件（忽略分页与排序）
+     * @param format  导出格式
+     * @param output  输出流，导出完成后关闭
+     * @return 导出行数
+     */
+    long exportAttractions(AttractionQueryRequest request, ExportWriter.Format format, OutputStream output) throws IOException;
+
     /**
      * 获取景点详情
      *
@@ -57,6 +70,34 @@ public interface IAttractionService extends IService<Attraction> {
      */
     PageResponse<AttractionCardResponse> getAttractionCards(AttractionQueryRequest request);
 
+    /**
+     * 按筛选条件统计类型、城市、标签分面
+     *
+     * @param request 查询条件（忽略分页与排序）
+     * @return 分面统计
+     */
+    AttractionFacetResponse getAttractionFacets(AttractionQueryRequest request);
+
+    /**
+     * 附近景点查询（半径模式 / 最近K个模式），由内存空间网格索引提供
+     *
+     * @param request 中心点、半径、数量及筛选条件
+     * @return 按距离升序的景点
+     */
+    List<AttractionNearbyResponse> getNearbyAttractions(AttractionNearbyRequest request);
+
+    /**
+     * 地图聚合标注（只含C端可见景点），按缩放级别在服务端聚合，跨越 180° 经线时 minLng 大于 maxLng
+     *
+     * @param minLat 范围最小纬度
+     * @param minLng 范围西侧经度
+     * @param maxLat 范围最大纬度
+     * @param maxLng 范围东侧经度
+     * @param zoom   地图缩放级别
+     * @return 聚合标注
+     */
+    AttractionClusterResponse getMapClusters(double minLat, double minLng, double maxLat, double maxLng, int zoom);
+
     /**
      * 根据ID获取景点详情数据(C端)
      *
@@ -2,7 +2,10 @@ package io.github.uchkun07.travelsystem.service;
 
 import io.github.uchkun07.travelsystem.dto.OperationLogQueryRequest;
 import io.github.uchkun07.travelsystem.dto.PageResponse;
+import io.github.uchkun07.travelsystem.util.ExportWriter;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface IOperationLogService {
@@ -15,4 +18,11 @@ public interface IOperationLogService {
     void batchDeleteLogs(List<Long> operationLogIds);
 
     PageResponse<io.github.uchkun07.travelsystem.entity.OperationLog> queryLogs(OperationLogQueryRequest request);
+
+    /**
+     * 按查询条件流式导出操作日志（不分页，按操作时间倒序）
+     *
+     * @return 导出行数
+     */
+    long exportLogs(OperationLogQueryRequest request, ExportWriter.Format format, OutputStream output) throws IOException;
 }
@@ -2,6 +2,10 @@ package io.github.uchkun07.travelsystem.service;
 
 import io.github.uchkun07.travelsystem.dto.*;
 import io.github.uchkun07.travelsystem.entity.UserCountTable;
+import io.github.uchkun07.travelsystem.util.ExportWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
 
 /**
  * 用户管理服务接口（管理员侧）
@@ -13,6 +17,13 @@ public interface IUserAdminService {
      */
     PageResponse<UserDetailResponse> queryUsers(UserQueryRequest request);
 
+    /**
+     * 按列表筛选条件流式导出用户（不分页，不含密码等敏感字段）
+     *
+     * @return 导出行数
+     */
+    long exportUsers(UserQueryRequest request, ExportWriter.Format format, OutputStream output) throws IOException;
+
     /**
      * 获取用户完整详情（包括Profile、Preference和标签）
      */
@@ -0,0 +1,41 @@
+package io.github.uchkun07.travelsystem.service;
+
+import io.github.uchkun07.travelsystem.dto.UserBehaviorProfile;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 用户行为画像服务接口
+ * 行为上报时按天、按景点类型增量累加到 Redis，推荐排序时读取单个 Hash，不再扫描浏览记录表。
+ */
+public interface IUserBehaviorProfileService {
+
+    /**
+     * 累加一次行为事件
+     *
+     * @param userId       用户ID
+     * @param attractionId 景点ID
+     * @param eventType    事件类型（click/stay）
+     * @param staySeconds  停留秒数（stay 事件）
+     * @param eventTime    事件时间
+     */
+    void recordEvent(Long userId, Long attractionId, String eventType, int staySeconds, LocalDateTime eventTime);
+
+    /**
+     * 读取用户近N天的行为画像，画像不存在时从浏览记录重建一次
+     *
+     * @param userId     用户ID
+     * @param windowDays 窗口天数
+     */
+    UserBehaviorProfile getProfile(Long userId, int windowDays);
+
+    /**
+     * 读取用户近N天最近点击过的景点（按最近点击时间降序去重），列表不存在时从浏览记录重建一次
+     *
+     * @param userId     用户ID
+     * @param windowDays 窗口天数
+     * @param limit      最多返回的景点数
+     */
+    List<Long> getRecentClicks(Long userId, int windowDays, int limit);
+}
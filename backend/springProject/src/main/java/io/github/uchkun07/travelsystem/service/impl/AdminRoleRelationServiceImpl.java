@@ -6,6 +6,7 @@ import io.github.uchkun07.travelsystem.entity.AdminRoleRelation;
 import io.github.uchkun07.travelsystem.mapper.AdminRoleMapper;
 import io.github.uchkun07.travelsystem.mapper.AdminRoleRelationMapper;
 import io.github.uchkun07.travelsystem.service.IAdminRoleRelationService;
+import io.github.uchkun07.travelsystem.util.BatchWriteUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -32,20 +33,18 @@ public class AdminRoleRelationServiceImpl implements IAdminRoleRelationService {
             throw new IllegalArgumentException("角色ID列表不能为空");
         }
 
-        for (Integer roleId : roleIds) {
-            LambdaQueryWrapper<AdminRoleRelation> wrapper = new LambdaQueryWrapper<>();
-            wrapper.eq(AdminRoleRelation::getAdminId, adminId)
-                   .eq(AdminRoleRelation::getRoleId, roleId);
-            
-            if (roleRelationMapper.selectCount(wrapper) == 0) {
-                AdminRoleRelation relation = AdminRoleRelation.builder()
-                        .adminId(adminId)
-                        .roleId(roleId)
-                        .build();
-                roleRelationMapper.insert(relation);
-            }
-        }
-        log.info("管理员绑定角色成功: adminId={}, roleIds={}", adminId, roleIds);
+        // 一次查询已绑定的角色，只插入差集
+        LambdaQueryWrapper<AdminRoleRelation> wrapper = new LambdaQueryWrapper<>();
+        wrapper.select(AdminRoleRelation::getRoleId)
+               .eq(AdminRoleRelation::getAdminId, adminId)
+               .in(AdminRoleRelation::getRoleId, roleIds);
+        List<Integer> existingIds = roleRelationMapper.selectList(wrapper).stream()
+                .map(AdminRoleRelation::getRoleId)
+                .collect(Collectors.toList());
+
+        List<Integer> newIds = BatchWriteUtil.diff(roleIds, existingIds);
+        BatchWriteUtil.insertInChunks(newIds, chunk -> roleRelationMapper.insertIgnoreBatch(adminId, chunk));
+        log.info("管理员绑定角色成功: adminId={}, roleIds={}, added={}", adminId, roleIds, newIds.size());
     }
 
     @Override
@@ -55,12 +54,10 @@ public class AdminRoleRelationServiceImpl implements IAdminRoleRelationService {
             throw new IllegalArgumentException("角色ID列表不能为空");
         }
 
-        for (Integer roleId : roleIds) {
-            LambdaQueryWrapper<AdminRoleRelation> wrapper = new LambdaQueryWrapper<>();
-            wrapper.eq(AdminRoleRelation::getAdminId, adminId)
-                   .eq(AdminRoleRelation::getRoleId, roleId);
-            roleRelationMapper.delete(wrapper);
-        }
+        LambdaQueryWrapper<AdminRoleRelation> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(AdminRoleRelation::getAdminId, adminId)
+               .in(AdminRoleRelation::getRoleId, roleIds);
+        roleRelationMapper.delete(wrapper);
         log.info("管理员解绑角色成功: adminId={}, roleIds={}", adminId, roleIds);
     }
 
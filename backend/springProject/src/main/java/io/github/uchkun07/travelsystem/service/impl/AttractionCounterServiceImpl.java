@@ -0,0 +1,379 @@
+package io.github.uchkun07.travelsystem.service.impl;
+
+import io.github.uchkun07.travelsystem.catalog.AttractionCardCatalog;
+import io.github.uchkun07.travelsystem.config.PerformanceProperties;
+import io.github.uchkun07.travelsystem.dto.AttractionCounterDelta;
+import io.github.uchkun07.travelsystem.mapper.AttractionMapper;
+import io.github.uchkun07.travelsystem.mapper.CounterFlushLogMapper;
+import io.github.uchkun07.travelsystem.mapper.SlideshowMapper;
+import io.github.uchkun07.travelsystem.service.IAttractionCounterService;
+import io.github.uchkun07.travelsystem.util.CacheConstants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 计数聚合服务实现类
+ * 增量通过 HINCRBY 写入 Redis Hash，定时任务将 Hash 重命名为快照后读取，
+ * 以单条 UPDATE … CASE 批量累加到数据库；落库失败时快照保留，下次优先重试。
+ *
+ * <p>每个快照带一个随机ID，累加与快照ID的落库记录在同一事务中提交；
+ * 事务提交后、删除快照前中断时，重试发现快照ID已落库即直接删除快照，不会重复累加。</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@SuppressWarnings("null")
+public class AttractionCounterServiceImpl implements IAttractionCounterService {
+
+    private static final long FLUSH_LOCK_TTL_SECONDS = 60;
+    /** 落库记录保留天数与每次清理条数 */
+    private static final int FLUSH_LOG_RETENTION_DAYS = 1;
+    private static final int FLUSH_LOG_PURGE_LIMIT = 10_000;
+    private static final long FLUSH_LOG_PURGE_INTERVAL_MS = TimeUnit.HOURS.toMillis(1);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final AttractionMapper attractionMapper;
+    private final SlideshowMapper slideshowMapper;
+    private final CounterFlushLogMapper counterFlushLogMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final PerformanceProperties performanceProperties;
+
+    /** 本地卡片目录同步累加，延迟获取以避免循环依赖 */
+    private final ObjectProvider<AttractionCardCatalog> attractionCardCatalog;
+
+    private long lastPurgeMillis;
+
+    @Override
+    public void incrementBrowseCount(Long attractionId) {
+        if (attractionId == null) {
+            return;
+        }
+        try {
+            stringRedisTemplate.opsForHash().increment(
+                    CacheConstants.COUNTER_ATTRACTION_BROWSE_KEY, String.valueOf(attractionId), 1);
+            applyToCatalog(attractionId, 1, 0);
+        } catch (Exception e) {
+            // 计数失败不影响主流程
+            log.warn("浏览量计数失败, attractionId={}", attractionId, e);
+        }
+    }
+
+    @Override
+    public void incrementFavoriteCount(Long attractionId, int delta) {
+        if (attractionId == null || delta == 0) {
+            return;
+        }
+        try {
+            stringRedisTemplate.opsForHash().increment(
+                    CacheConstants.COUNTER_ATTRACTION_FAVORITE_KEY, String.valueOf(attractionId), delta);
+            applyToCatalog(attractionId, 0, delta);
+        } catch (Exception e) {
+            log.warn("收藏量计数失败, attractionId={}, delta={}", attractionId, delta, e);
+        }
+    }
+
+    @Override
+    public void incrementSlideshowClickCount(Integer slideshowId) {
+        if (slideshowId == null) {
+            return;
+        }
+        try {
+            stringRedisTemplate.opsForHash().increment(
+                    CacheConstants.COUNTER_SLIDESHOW_CLICK_KEY, String.valueOf(slideshowId), 1);
+        } catch (Exception e) {
+            log.warn("轮播图点击计数失败, slideshowId={}", slideshowId, e);
+        }
+    }
+
+    @Override
+    public Map<Long, AttractionCounterDelta> getPendingAttractionDeltas(Collection<Long> attractionIds) {
+        if (CollectionUtils.isEmpty(attractionIds)) {
+            return new HashMap<>();
+        }
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(attractionIds));
+        List<Object> fields = ids.stream().map(String::valueOf).collect(Collectors.toList());
+
+        long[] browse = sumFields(CacheConstants.COUNTER_ATTRACTION_BROWSE_KEY, fields);
+        long[] favorite = sumFields(CacheConstants.COUNTER_ATTRACTION_FAVORITE_KEY, fields);
+
+        Map<Long, AttractionCounterDelta> result = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (browse[i] != 0 || favorite[i] != 0) {
+                result.put(ids.get(i), new AttractionCounterDelta(browse[i], favorite[i]));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Map<Long, AttractionCounterDelta> getAllPendingAttractionDeltas() {
+        Map<Long, AttractionCounterDelta> result = new HashMap<>();
+        try {
+            for (String key : List.of(CacheConstants.COUNTER_ATTRACTION_BROWSE_KEY,
+                    CacheConstants.COUNTER_ATTRACTION_BROWSE_KEY + CacheConstants.COUNTER_FLUSHING_SUFFIX)) {
+                readHash(key, Long::valueOf).forEach((id, delta) -> {
+                    AttractionCounterDelta pending = result.computeIfAbsent(id, k -> new AttractionCounterDelta());
+                    pending.setBrowseDelta(pending.getBrowseDelta() + delta);
+                });
+            }
+            for (String key : List.of(CacheConstants.COUNTER_ATTRACTION_FAVORITE_KEY,
+                    CacheConstants.COUNTER_ATTRACTION_FAVORITE_KEY + CacheConstants.COUNTER_FLUSHING_SUFFIX)) {
+                readHash(key, Long::valueOf).forEach((id, delta) -> {
+                    AttractionCounterDelta pending = result.computeIfAbsent(id, k -> new AttractionCounterDelta());
+                    pending.setFavoriteDelta(pending.getFavoriteDelta() + delta);
+                });
+            }
+        } catch (Exception e) {
+            log.warn("读取未落库计数失败", e);
+        }
+        return result;
+    }
+
+    @Override
+    public Map<Integer, Long> getPendingSlideshowClicks(Collection<Integer> slideshowIds) {
+        if (CollectionUtils.isEmpty(slideshowIds)) {
+            return new HashMap<>();
+        }
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(slideshowIds));
+        List<Object> fields = ids.stream().map(String::valueOf).collect(Collectors.toList());
+        long[] clicks = sumFields(CacheConstants.COUNTER_SLIDESHOW_CLICK_KEY, fields);
+
+        Map<Integer, Long> result = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (clicks[i] != 0) {
+                result.put(ids.get(i), clicks[i]);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${performance.counter.flush-interval-ms:5000}")
+    public void flush() {
+        // 多节点部署时只允许一个节点执行落库，避免同一快照被重复累加
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean locked = stringRedisTemplate.opsForValue().setIfAbsent(
+                    CacheConstants.LOCK_COUNTER_FLUSH, token, FLUSH_LOCK_TTL_SECONDS, TimeUnit.SECONDS);
+            if (!Boolean.TRUE.equals(locked)) {
+                return;
+            }
+        } catch (Exception e) {
+            log.warn("获取计数落库锁失败", e);
+            return;
+        }
+
+        try {
+            flushAttractionCounters();
+            flushSlideshowCounters();
+            purgeFlushLog();
+        } catch (Exception e) {
+            log.warn("计数落库失败，增量快照保留在Redis中等待下次重试", e);
+        } finally {
+            try {
+                if (token.equals(stringRedisTemplate.opsForValue().get(CacheConstants.LOCK_COUNTER_FLUSH))) {
+                    stringRedisTemplate.delete(CacheConstants.LOCK_COUNTER_FLUSH);
+                }
+            } catch (Exception e) {
+                log.warn("释放计数落库锁失败", e);
+            }
+        }
+    }
+
+    private void flushAttractionCounters() {
+        String browseSnapshot = takeSnapshot(CacheConstants.COUNTER_ATTRACTION_BROWSE_KEY);
+        String favoriteSnapshot = takeSnapshot(CacheConstants.COUNTER_ATTRACTION_FAVORITE_KEY);
+        if (browseSnapshot == null && favoriteSnapshot == null) {
+            return;
+        }
+
+        String browseSnapshotId = browseSnapshot == null ? null : snapshotId(browseSnapshot);
+        String favoriteSnapshotId = favoriteSnapshot == null ? null : snapshotId(favoriteSnapshot);
+        Map<Long, Long> browseDeltas = browseSnapshot == null ? Map.of() : readHash(browseSnapshot, Long::valueOf);
+        Map<Long, Long> favoriteDeltas = favoriteSnapshot == null ? Map.of() : readHash(favoriteSnapshot, Long::valueOf);
+        Set<Long> ids = new LinkedHashSet<>(browseDeltas.keySet());
+        ids.addAll(favoriteDeltas.keySet());
+
+        if (!ids.isEmpty()) {
+            List<Long> idList = new ArrayList<>(ids);
+            int batchSize = Math.max(1, performanceProperties.getCounter().getFlushBatchSize());
+            // 所有分批与快照落库记录在同一事务中提交，失败时整体回滚；已落库的快照只删除不再累加
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Long, Long> browse = markApplied(browseSnapshotId) ? browseDeltas : Map.of();
+                Map<Long, Long> favorite = markApplied(favoriteSnapshotId) ? favoriteDeltas : Map.of();
+                if (browse.isEmpty() && favorite.isEmpty()) {
+                    return;
+                }
+                for (int from = 0; from < idList.size(); from += batchSize) {
+                    List<Long> batch = idList.subList(from, Math.min(from + batchSize, idList.size()));
+                    attractionMapper.batchIncrementCounters(subMap(browse, batch), subMap(favorite, batch), batch);
+                }
+            });
+        }
+
+        deleteSnapshots(browseSnapshot, favoriteSnapshot);
+        log.debug("景点计数落库完成, attractions={}", ids.size());
+    }
+
+    private void flushSlideshowCounters() {
+        String snapshot = takeSnapshot(CacheConstants.COUNTER_SLIDESHOW_CLICK_KEY);
+        if (snapshot == null) {
+            return;
+        }
+        String snapshotId = snapshotId(snapshot);
+        Map<Integer, Long> clickDeltas = readHash(snapshot, Integer::valueOf);
+        if (!clickDeltas.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (markApplied(snapshotId)) {
+                    slideshowMapper.batchIncrementClickCount(clickDeltas);
+                }
+            });
+        }
+        deleteSnapshots(snapshot);
+    }
+
+    /**
+     * 将计数 Hash 原子重命名为快照，后续增量写入新的 Hash；存在上次失败遗留的快照时优先重试该快照
+     */
+    private String takeSnapshot(String key) {
+        String snapshotKey = key + CacheConstants.COUNTER_FLUSHING_SUFFIX;
+        if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(snapshotKey))) {
+            return snapshotKey;
+        }
+        if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(key))) {
+            return null;
+        }
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.renameIfAbsent(key, snapshotKey)) ? snapshotKey : null;
+        } catch (Exception e) {
+            // 检查与重命名之间 key 被删除等并发情况，等待下次落库
+            log.debug("计数快照创建失败 key={}", key, e);
+            return null;
+        }
+    }
+
+    /**
+     * 快照的随机ID，首次读取时生成；快照重命名后、写入ID前中断时也会在重试时补写（此时快照必然尚未落库）
+     */
+    private String snapshotId(String snapshotKey) {
+        String idKey = snapshotKey + CacheConstants.COUNTER_SNAPSHOT_ID_SUFFIX;
+        stringRedisTemplate.opsForValue().setIfAbsent(idKey, UUID.randomUUID().toString().replace("-", ""));
+        String snapshotId = stringRedisTemplate.opsForValue().get(idKey);
+        if (snapshotId == null) {
+            throw new IllegalStateException("计数快照ID写入失败: " + snapshotKey);
+        }
+        return snapshotId;
+    }
+
+    /**
+     * 在当前事务中记录快照已落库
+     *
+     * @return 快照此前未落库时返回 true
+     */
+    private boolean markApplied(String snapshotId) {
+        return snapshotId != null && counterFlushLogMapper.insertIgnore(snapshotId) > 0;
+    }
+
+    /**
+     * 定期清理过期的落库记录
+     */
+    private void purgeFlushLog() {
+        long now = System.currentTimeMillis();
+        if (now - lastPurgeMillis < FLUSH_LOG_PURGE_INTERVAL_MS) {
+            return;
+        }
+        lastPurgeMillis = now;
+        try {
+            counterFlushLogMapper.deleteOlderThan(FLUSH_LOG_RETENTION_DAYS, FLUSH_LOG_PURGE_LIMIT);
+        } catch (Exception e) {
+            log.warn("清理计数落库记录失败", e);
+        }
+    }
+
+    private void deleteSnapshots(String... snapshotKeys) {
+        List<String> keys = new ArrayList<>();
+        for (String key : snapshotKeys) {
+            if (key != null) {
+                keys.add(key);
+                keys.add(key + CacheConstants.COUNTER_SNAPSHOT_ID_SUFFIX);
+            }
+        }
+        if (!keys.isEmpty()) {
+            stringRedisTemplate.delete(keys);
+        }
+    }
+
+    private <K> Map<K, Long> readHash(String key, Function<String, K> keyParser) {
+        Map<K, Long> result = new LinkedHashMap<>();
+        Map<Object, Object> entries = stringRedisTemplate.opsForHash().entries(key);
+        for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+            try {
+                long delta = Long.parseLong(String.valueOf(entry.getValue()));
+                if (delta != 0) {
+                    result.merge(keyParser.apply(String.valueOf(entry.getKey())), delta, Long::sum);
+                }
+            } catch (NumberFormatException e) {
+                log.warn("忽略非法计数字段 key={}, field={}", key, entry.getKey());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 累加实时 Hash 与落库中快照中同一批字段的值
+     */
+    private long[] sumFields(String key, List<Object> fields) {
+        long[] sums = new long[fields.size()];
+        for (String hashKey : List.of(key, key + CacheConstants.COUNTER_FLUSHING_SUFFIX)) {
+            try {
+                List<Object> values = stringRedisTemplate.opsForHash().multiGet(hashKey, fields);
+                for (int i = 0; i < values.size() && i < sums.length; i++) {
+                    Object value = values.get(i);
+                    if (value != null) {
+                        sums[i] += Long.parseLong(String.valueOf(value));
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("读取未落库计数失败 key={}", hashKey, e);
+            }
+        }
+        return sums;
+    }
+
+    private Map<Long, Long> subMap(Map<Long, Long> source, List<Long> ids) {
+        Map<Long, Long> result = new LinkedHashMap<>();
+        for (Long id : ids) {
+            Long delta = source.get(id);
+            if (delta != null) {
+                result.put(id, delta);
+            }
+        }
+        return result;
+    }
+
+    private void applyToCatalog(Long attractionId, long browseDelta, long favoriteDelta) {
+        AttractionCardCatalog catalog = attractionCardCatalog.getIfAvailable();
+        if (catalog != null) {
+            catalog.applyCounterDelta(attractionId, browseDelta, favoriteDelta);
+        }
+    }
+}
@@ -0,0 +1,455 @@
+package io.github.uchkun07.travelsystem.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.uchkun07.travelsystem.catalog.AttractionCardCatalog;
+import io.github.uchkun07.travelsystem.config.PerformanceProperties;
+import io.github.uchkun07.travelsystem.dto.AttractionImportResult;
+import io.github.uchkun07.travelsystem.dto.AttractionRequest;
+import io.github.uchkun07.travelsystem.entity.Attraction;
+import io.github.uchkun07.travelsystem.entity.AttractionType;
+import io.github.uchkun07.travelsystem.entity.AttractionTypeRelation;
+import io.github.uchkun07.travelsystem.entity.City;
+import io.github.uchkun07.travelsystem.mapper.AttractionMapper;
+import io.github.uchkun07.travelsystem.mapper.AttractionTypeMapper;
+import io.github.uchkun07.travelsystem.mapper.AttractionTypeRelationMapper;
+import io.github.uchkun07.travelsystem.mapper.CityMapper;
+import io.github.uchkun07.travelsystem.service.IAttractionImportService;
+import io.github.uchkun07.travelsystem.service.IAttractionService;
+import io.github.uchkun07.travelsystem.util.BatchWriteUtil;
+import io.github.uchkun07.travelsystem.util.CacheClient;
+import io.github.uchkun07.travelsystem.util.CacheConstants;
+import io.github.uchkun07.travelsystem.util.EntityVersionRegistry;
+import io.github.uchkun07.travelsystem.util.CsvRecordReader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 景点批量导入服务实现类
+ * 城市ID、类型ID、已有景点名称在导入开始时一次性加载到内存，逐行校验不访问数据库；
+ * 通过校验的行按批写入（景点多行 INSERT + 类型关联多行 INSERT，一批一个事务）。
+ * 整批写入失败时回滚该批并逐行重试，定位具体出错的行，其余行照常导入。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AttractionImportServiceImpl implements IAttractionImportService {
+
+    /** CSV 中多值列（typeIds）的分隔符 */
+    private static final Pattern LIST_SEPARATOR = Pattern.compile("[|;]");
+
+    private static final BigDecimal MAX_LATITUDE = BigDecimal.valueOf(90);
+    private static final BigDecimal MAX_LONGITUDE = BigDecimal.valueOf(180);
+
+    private final IAttractionService attractionService;
+    private final AttractionMapper attractionMapper;
+    private final CityMapper cityMapper;
+    private final AttractionTypeMapper attractionTypeMapper;
+    private final AttractionTypeRelationMapper attractionTypeRelationMapper;
+    private final AttractionCardCatalog attractionCardCatalog;
+    private final CacheClient cacheClient;
+    private final EntityVersionRegistry entityVersionRegistry;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final PerformanceProperties performanceProperties;
+
+    @Override
+    public AttractionImportResult importAttractions(InputStream input, Format format, Long creatorId) throws IOException {
+        long start = System.currentTimeMillis();
+        PerformanceProperties.AttractionImport config = performanceProperties.getAttractionImport();
+        int chunkSize = Math.max(1, config.getChunkSize());
+
+        ImportContext context = new ImportContext(loadCityIds(), loadTypeIds(), loadAttractionNames(),
+                creatorId, Math.max(0, config.getMaxErrors()));
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+        RowSource source = format == Format.CSV ? new CsvRowSource(
+                new CsvRecordReader(reader, Math.max(1, config.getMaxRecordChars()))) : new NdjsonRowSource(reader);
+
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        ImportRow row;
+        while ((row = source.next()) != null) {
+            context.total++;
+            PendingRow pending = validate(row, context);
+            if (pending == null) {
+                continue;
+            }
+            chunk.add(pending);
+            if (chunk.size() >= chunkSize) {
+                flush(chunk, context);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        flush(chunk, context);
+
+        long elapsed = System.currentTimeMillis() - start;
+        log.info("景点批量导入完成: format={}, total={}, success={}, failed={}, elapsedMs={}",
+                format, context.total, context.success, context.failed, elapsed);
+        return AttractionImportResult.builder()
+                .total(context.total)
+                .success(context.success)
+                .failed(context.failed)
+                .elapsedMs(elapsed)
+                .errorsTruncated(context.failed > context.errors.size())
+                .errors(context.errors)
+                .build();
+    }
+
+    /**
+     * 逐行校验（只查内存集合），通过时返回待写入的景点
+     */
+    private PendingRow validate(ImportRow row, ImportContext context) {
+        if (row.error() != null) {
+            context.fail(row.line(), row.name(), row.error());
+            return null;
+        }
+        AttractionRequest request = row.request();
+        String name = request.getName() == null ? null : request.getName().trim();
+        if (!StringUtils.hasText(name)) {
+            context.fail(row.line(), null, "景点名称不能为空");
+            return null;
+        }
+        if (request.getCityId() == null) {
+            context.fail(row.line(), name, "城市ID不能为空");
+            return null;
+        }
+        if (!context.cityIds.contains(request.getCityId())) {
+            context.fail(row.line(), name, "城市不存在");
+            return null;
+        }
+
+        LinkedHashSet<Integer> typeIds = new LinkedHashSet<>();
+        if (request.getTypeId() != null) {
+            typeIds.add(request.getTypeId());
+        }
+        if (request.getTypeIds() != null) {
+            request.getTypeIds().stream().filter(i -> i != null && i > 0).forEach(typeIds::add);
+        }
+        if (typeIds.isEmpty()) {
+            context.fail(row.line(), name, "景点类型不能为空");
+            return null;
+        }
+        List<Integer> missingTypeIds = typeIds.stream()
+                .filter(id -> !context.typeIds.contains(id))
+                .collect(Collectors.toList());
+        if (!missingTypeIds.isEmpty()) {
+            context.fail(row.line(), name, "景点类型不存在: " + missingTypeIds);
+            return null;
+        }
+
+        if (request.getLatitude() != null && request.getLatitude().abs().compareTo(MAX_LATITUDE) > 0) {
+            context.fail(row.line(), name, "纬度超出范围（-90~90）");
+            return null;
+        }
+        if (request.getLongitude() != null && request.getLongitude().abs().compareTo(MAX_LONGITUDE) > 0) {
+            context.fail(row.line(), name, "经度超出范围（-180~180）");
+            return null;
+        }
+        // 同时校验库中已有名称与文件中前面出现过的名称
+        if (!context.names.add(name)) {
+            context.fail(row.line(), name, "景点名称已存在");
+            return null;
+        }
+
+        request.setName(name);
+        return new PendingRow(row.line(), toAttraction(request, typeIds.iterator().next(), context.creatorId),
+                new ArrayList<>(typeIds));
+    }
+
+    /**
+     * 与单条创建保持一致的默认值
+     */
+    private Attraction toAttraction(AttractionRequest request, Integer primaryTypeId, Long creatorId) {
+        Attraction attraction = new Attraction();
+        BeanUtils.copyProperties(request, attraction);
+        attraction.setAttractionId(null);
+        attraction.setTypeId(primaryTypeId);
+        attraction.setAverageRating(null);
+        attraction.setRatingCount(0);
+        attraction.setBrowseCount(0);
+        attraction.setFavoriteCount(0);
+        attraction.setPopularity(0);
+        attraction.setCreatorId(creatorId);
+        if (attraction.getStatus() == null) {
+            attraction.setStatus(1);
+        }
+        if (attraction.getAuditStatus() == null) {
+            attraction.setAuditStatus(1); // 默认待审核
+        }
+        return attraction;
+    }
+
+    /**
+     * 整批写入；失败时逐行重试，记录出错的行
+     */
+    private void flush(List<PendingRow> chunk, ImportContext context) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            insertInTransaction(chunk);
+            context.success += chunk.size();
+            return;
+        } catch (Exception e) {
+            log.warn("景点批量导入整批写入失败，逐行重试: lines={}~{}",
+                    chunk.get(0).line(), chunk.get(chunk.size() - 1).line(), e);
+        }
+        for (PendingRow row : chunk) {
+            row.attraction().setAttractionId(null);
+            try {
+                insertInTransaction(List.of(row));
+                context.success++;
+            } catch (Exception e) {
+                context.names.remove(row.attraction().getName());
+                context.fail(row.line(), row.attraction().getName(),
+                        "写入失败: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            }
+        }
+    }
+
+    private void insertInTransaction(List<PendingRow> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Attraction> attractions = rows.stream().map(PendingRow::attraction).collect(Collectors.toList());
+            attractionService.saveBatch(attractions, attractions.size());
+
+            List<AttractionTypeRelation> relations = new ArrayList<>();
+            List<Long> attractionIds = new ArrayList<>(rows.size());
+            for (PendingRow row : rows) {
+                Long attractionId = row.attraction().getAttractionId();
+                attractionIds.add(attractionId);
+                for (Integer typeId : row.typeIds()) {
+                    relations.add(AttractionTypeRelation.builder()
+                            .attractionId(attractionId)
+                            .typeId(typeId)
+                            .build());
+                }
+            }
+            BatchWriteUtil.insertInChunks(relations, attractionTypeRelationMapper::insertRelations);
+
+            attractionCardCatalog.refreshAttractionsAfterCommit(attractionIds);
+            // 清除这些ID可能残留的空值缓存
+            cacheClient.evictAllAfterCommit(attractionIds.stream()
+                    .map(id -> CacheConstants.ATTRACTION_DETAIL_KEY + id)
+                    .collect(Collectors.toList()));
+            cacheClient.evictPrefixAfterCommit(CacheConstants.ATTRACTION_COUNT_KEY);
+            // 新景点此前没有 ETag，只需递增列表版本
+            entityVersionRegistry.bumpAfterCommit(EntityVersionRegistry.SCOPE_ATTRACTIONS);
+        });
+    }
+
+    private Set<Integer> loadCityIds() {
+        return cityMapper.selectList(new LambdaQueryWrapper<City>().select(City::getCityId)).stream()
+                .map(City::getCityId)
+                .collect(Collectors.toSet());
+    }
+
+    private Set<Integer> loadTypeIds() {
+        return attractionTypeMapper.selectList(new LambdaQueryWrapper<AttractionType>()
+                        .select(AttractionType::getTypeId)).stream()
+                .map(AttractionType::getTypeId)
+                .collect(Collectors.toSet());
+    }
+
+    private Set<String> loadAttractionNames() {
+        return attractionMapper.selectObjs(new LambdaQueryWrapper<Attraction>().select(Attraction::getName)).stream()
+                .filter(Objects::nonNull)
+                .map(Object::toString)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    /**
+     * 导入过程状态：预加载的校验集合与统计
+     */
+    private static final class ImportContext {
+        private final Set<Integer> cityIds;
+        private final Set<Integer> typeIds;
+        private final Set<String> names;
+        private final Long creatorId;
+        private final int maxErrors;
+        private final List<AttractionImportResult.RowError> errors = new ArrayList<>();
+        private long total;
+        private long success;
+        private long failed;
+
+        private ImportContext(Set<Integer> cityIds, Set<Integer> typeIds, Set<String> names,
+                              Long creatorId, int maxErrors) {
+            this.cityIds = cityIds;
+            this.typeIds = typeIds;
+            this.names = names;
+            this.creatorId = creatorId;
+            this.maxErrors = maxErrors;
+        }
+
+        private void fail(long line, String name, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(AttractionImportResult.RowError.builder()
+                        .line(line)
+                        .name(name)
+                        .message(message)
+                        .build());
+            }
+        }
+    }
+
+    /**
+     * 已解析的一行；解析失败时 request 为 null、error 为错误原因
+     */
+    private record ImportRow(long line, AttractionRequest request, String name, String error) {
+
+        static ImportRow ok(long line, AttractionRequest request) {
+            return new ImportRow(line, request, request.getName(), null);
+        }
+
+        static ImportRow error(long line, String name, String error) {
+            return new ImportRow(line, null, name, error);
+        }
+    }
+
+    private record PendingRow(long line, Attraction attraction, List<Integer> typeIds) {
+    }
+
+    private interface RowSource {
+        /**
+         * @return 下一行，读完时返回 null
+         */
+        ImportRow next() throws IOException;
+    }
+
+    /**
+     * CSV：首行为表头，列名支持驼峰或下划线，空单元格视为未填写
+     */
+    private final class CsvRowSource implements RowSource {
+        private final CsvRecordReader reader;
+        private List<String> header;
+
+        private CsvRowSource(CsvRecordReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            if (header == null) {
+                List<String> columns = reader.next();
+                if (columns == null) {
+                    return null;
+                }
+                if (reader.getRecordError() != null) {
+                    // 表头无法解析时尚未写入任何数据，直接拒绝整个文件
+                    throw new IOException("CSV表头格式错误: " + reader.getRecordError());
+                }
+                header = columns.stream().map(this::toFieldName).collect(Collectors.toList());
+            }
+            List<String> values = reader.next();
+            if (values == null) {
+                return null;
+            }
+            long line = reader.getRecordLine();
+            if (reader.getRecordError() != null) {
+                return ImportRow.error(line, null, reader.getRecordError());
+            }
+
+            Map<String, Object> fields = new LinkedHashMap<>();
+            for (int i = 0; i < Math.min(header.size(), values.size()); i++) {
+                String value = values.get(i).trim();
+                if (value.isEmpty()) {
+                    continue;
+                }
+                if ("typeIds".equals(header.get(i))) {
+                    fields.put("typeIds", Arrays.stream(LIST_SEPARATOR.split(value))
+                            .map(String::trim)
+                            .filter(StringUtils::hasText)
+                            .collect(Collectors.toList()));
+                } else {
+                    fields.put(header.get(i), value);
+                }
+            }
+            Object name = fields.get("name");
+            if (values.size() != header.size()) {
+                return ImportRow.error(line, name == null ? null : name.toString(),
+                        "列数与表头不一致: 期望" + header.size() + "列, 实际" + values.size() + "列");
+            }
+            try {
+                return ImportRow.ok(line, objectMapper.convertValue(fields, AttractionRequest.class));
+            } catch (IllegalArgumentException e) {
+                return ImportRow.error(line, name == null ? null : name.toString(),
+                        "字段格式错误: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            }
+        }
+
+        /**
+         * 下划线列名转为驼峰字段名，如 city_id -> cityId
+         */
+        private String toFieldName(String column) {
+            String trimmed = column.trim();
+            StringBuilder field = new StringBuilder(trimmed.length());
+            boolean upper = false;
+            for (char c : trimmed.toCharArray()) {
+                if (c == '_') {
+                    upper = field.length() > 0;
+                } else {
+                    field.append(upper ? Character.toUpperCase(c) : c);
+                    upper = false;
+                }
+            }
+            return field.toString();
+        }
+    }
+
+    /**
+     * NDJSON：每行一个 JSON 对象，空行跳过
+     */
+    private final class NdjsonRowSource implements RowSource {
+        private final BufferedReader reader;
+        private long line;
+
+        private NdjsonRowSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (line == 1 && !text.isEmpty() && text.charAt(0) == '\uFEFF') {
+                    text = text.substring(1);
+                }
+                if (!text.isBlank()) {
+                    break;
+                }
+            }
+            if (text == null) {
+                return null;
+            }
+            try {
+                return ImportRow.ok(line, objectMapper.readValue(text, AttractionRequest.class));
+            } catch (JsonProcessingException e) {
+                return ImportRow.error(line, null, "JSON格式错误: " + e.getOriginalMessage());
+            }
+        }
+    }
+}
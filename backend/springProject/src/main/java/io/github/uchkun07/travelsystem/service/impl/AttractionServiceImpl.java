@@ -1,8 +1,18 @@
 package io.github.uchkun07.travelsystem.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import io.github.uchkun07.travelsystem.catalog.AttractionBitmapIndex;
+import io.github.uchkun07.travelsystem.catalog.AttractionCardCatalog;
+import io.github.uchkun07.travelsystem.catalog.AttractionCardEntry;
+import io.github.uchkun07.travelsystem.catalog.AttractionClusterIndex;
+import io.github.uchkun07.travelsystem.catalog.AttractionFilter;
+import io.github.uchkun07.travelsystem.catalog.AttractionGeoIndex;
+import io.github.uchkun07.travelsystem.catalog.AttractionSearchIndex;
+import io.github.uchkun07.travelsystem.config.PerformanceProperties;
 import io.github.uchkun07.travelsystem.dto.*;
 import io.github.uchkun07.travelsystem.entity.*;
 import io.github.uchkun07.travelsystem.mapper.AttractionMapper;
@@ -11,24 +21,39 @@ import io.github.uchkun07.travelsystem.mapper.AttractionTagRelationMapper;
 import io.github.uchkun07.travelsystem.mapper.AttractionTypeMapper;
 import io.github.uchkun07.travelsystem.mapper.AttractionTypeRelationMapper;
 import io.github.uchkun07.travelsystem.mapper.CityMapper;
+import io.github.uchkun07.travelsystem.service.IAttractionCounterService;
 import io.github.uchkun07.travelsystem.service.IAttractionService;
+import io.github.uchkun07.travelsystem.util.BatchWriteUtil;
+import io.github.uchkun07.travelsystem.util.CacheClient;
+import io.github.uchkun07.travelsystem.util.CacheConstants;
+import io.github.uchkun07.travelsystem.util.EntityVersionRegistry;
+import io.github.uchkun07.travelsystem.util.ExportWriter;
+import io.github.uchkun07.travelsystem.util.PageCursor;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.DigestUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
 import java.util.stream.Collectors;
 
 /**
@@ -38,12 +63,37 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AttractionServiceImpl extends ServiceImpl<AttractionMapper, Attraction> implements IAttractionService {
 
+    /** 单页上限（与分页插件单页上限保持一致） */
+    private static final int MAX_PAGE_SIZE = 65;
+
+    /** 游标分页单页上限（多取一条判断下一页） */
+    private static final int MAX_CURSOR_PAGE_SIZE = MAX_PAGE_SIZE - 1;
+
+    /** 人气降序，人气相同按ID降序（与 SQL 排序及游标定位一致） */
+    private static final Comparator<AttractionCardEntry> POPULARITY_ORDER =
+            Comparator.comparing((AttractionCardEntry entry) -> entry.getPopularity() != null ? entry.getPopularity() : 0)
+                    .thenComparing(AttractionCardEntry::getAttractionId)
+                    .reversed();
+
+    private static final TypeReference<Long> COUNT_TYPE = new TypeReference<>() {
+    };
+
     private final AttractionMapper attractionMapper;
     private final CityMapper cityMapper;
     private final AttractionTypeMapper attractionTypeMapper;
     private final AttractionTypeRelationMapper attractionTypeRelationMapper;
     private final AttractionTagRelationMapper attractionTagRelationMapper;
     private final AttractionTagMapper attractionTagMapper;
+    private final AttractionCardCatalog attractionCardCatalog;
+    private final AttractionSearchIndex attractionSearchIndex;
+    private final AttractionBitmapIndex attractionBitmapIndex;
+    private final AttractionGeoIndex attractionGeoIndex;
+    private final AttractionClusterIndex attractionClusterIndex;
+    private final EntityVersionRegistry entityVersionRegistry;
+    private final IAttractionCounterService attractionCounterService;
+    private final CacheClient cacheClient;
+    private final PerformanceProperties performanceProperties;
+    private final ObjectMapper objectMapper;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -90,6 +140,12 @@ public class AttractionServiceImpl extends ServiceImpl<AttractionMapper, Attract
 
         attractionMapper.insert(attraction);
         replaceAttractionTypeRelations(attraction.getAttractionId(), resolvedTypeIds);
+        attractionCardCatalog.refreshAttractionAfterCommit(attraction.getAttractionId());
+        // 清除该ID可能残留的空值缓存
+        cacheClient.evictAfterCommit(CacheConstants.ATTRACTION_DETAIL_KEY + attraction.getAttractionId());
+        cacheClient.evictPrefixAfterCommit(CacheConstants.ATTRACTION_COUNT_KEY);
+        entityVersionRegistry.bumpAfterCommit(EntityVersionRegistry.SCOPE_ATTRACTIONS,
+                EntityVersionRegistry.attractionScope(attraction.getAttractionId()));
         return attraction.getAttractionId();
     }
 
@@ -114,6 +170,11 @@ public class AttractionServiceImpl extends ServiceImpl<AttractionMapper, Attract
 
         // 删除景点
         attractionMapper.deleteById(attractionId);
+        attractionCardCatalog.removeAttractionAfterCommit(attractionId);
+        cacheClient.evictAfterCommit(CacheConstants.ATTRACTION_DETAIL_KEY + attractionId);
+        cacheClient.evictPrefixAfterCommit(CacheConstants.ATTRACTION_COUNT_KEY);
+        entityVersionRegistry.bumpAfterCommit(EntityVersionRegistry.SCOPE_ATTRACTIONS,
+                EntityVersionRegistry.attractionScope(attractionId));
     }
 
     @Override
@@ -161,10 +222,21 @@ public class AttractionServiceImpl extends ServiceImpl<AttractionMapper, Attract
         if (!resolvedTypeIds.isEmpty()) {
             replaceAttractionTypeRelations(attraction.getAttractionId(), resolvedTypeIds);
         }
+        attractionCardCatalog.refreshAttractionAfterCommit(attraction.getAttractionId());
+        cacheClient.evictAfterCommit(CacheConstants.ATTRACTION_DETAIL_KEY + attraction.getAttractionId());
+        // 修改状态、审核状态、城市、类型都会改变筛选总数
+        cacheClient.evictPrefixAfterCommit(CacheConstants.ATTRACTION_COUNT_KEY);
+        entityVersionRegistry.bumpAfterCommit(EntityVersionRegistry.SCOPE_ATTRACTIONS,
+                EntityVersionRegistry.attractionScope(attraction.getAttractionId()));
     }
 
     @Override
     public PageResponse<AttractionListResponse> listAttractions(AttractionQueryRequest request) {
+        // 位图索引就绪时筛选、排序、分页均在卡片目录上完成
+        if (canUseIndexes(request)) {
+            return offsetPage(matchIndexed(request, listOrder(request), false), request, this::toListResponse);
+        }
+
         // 构建分页对象
         Page<Attraction> page = new Page<>(request.getPageNum(), request.getPageSize());
 
@@ -176,49 +248,24 @@ public class AttractionServiceImpl extends ServiceImpl<AttractionMapper, Attract
             wrapper.eq(Attraction::getAttractionId, request.getAttractionId());
         }
         
-        // 景点名称模糊查询
-        if (StringUtils.hasText(request.getName())) {
-            wrapper.like(Attraction::getName, request.getName());
-        }
-
-        // 城市名称模糊查询
-        if (StringUtils.hasText(request.getCity())) {
-            LambdaQueryWrapper<City> cityWrapper = new LambdaQueryWrapper<>();
-            cityWrapper.like(City::getCityName, request.getCity());
-            List<City> matchedCities = cityMapper.selectList(cityWrapper);
-
-            if (matchedCities.isEmpty()) {
-                wrapper.eq(Attraction::getCityId, -1);
+        // 景点名称 / 城市名称检索：优先走内存 n-gram 索引，SQL 只按主键过滤
+        Map<Long, Double> searchHits = attractionSearchIndex.isReady()
+                ? attractionSearchIndex.search(request.getName(), request.getCity())
+                : null;
+        if (searchHits != null) {
+            if (searchHits.isEmpty()) {
+                wrapper.eq(Attraction::getAttractionId, -1);
             } else {
-                List<Integer> matchedCityIds = matchedCities.stream()
-                        .map(City::getCityId)
-                        .collect(Collectors.toList());
-                wrapper.in(Attraction::getCityId, matchedCityIds);
+                // 命中按相关度降序，宽泛关键字只保留前 maxSqlHits 个，IN 列表长度有上限
+                int maxHits = Math.max(1, performanceProperties.getSearch().getMaxSqlHits());
+                wrapper.in(Attraction::getAttractionId, searchHits.keySet().stream().limit(maxHits).toList());
             }
+        } else {
+            applyLikeFilters(wrapper, request);
         }
         
-        // 景点类型（兼容主类型字段 + 多类型关联表）
-        if (request.getTypeId() != null) {
-            List<Long> relatedAttractionIds = attractionTypeRelationMapper.selectList(
-                            new LambdaQueryWrapper<AttractionTypeRelation>()
-                                    .eq(AttractionTypeRelation::getTypeId, request.getTypeId()))
-                    .stream()
-                    .map(AttractionTypeRelation::getAttractionId)
-                    .distinct()
-                    .collect(Collectors.toList());
-
-            wrapper.and(w -> {
-                w.eq(Attraction::getTypeId, request.getTypeId());
-                if (!relatedAttractionIds.isEmpty()) {
-                    w.or().in(Attraction::getAttractionId, relatedAttractionIds);
-                }
-            });
-        }
-        
-        // 城市
-        if (request.getCityId() != null) {
-            wrapper.eq(Attraction::getCityId, request.getCityId());
-        }
+        // 城市、类型、标签
+        applyAttributeFilters(wrapper, request);
         
         // 景点状态
         if (request.getStatus() != null) {
@@ -248,67 +295,17 @@ public class AttractionServiceImpl extends ServiceImpl<AttractionMapper, Attract
                 wrapper.orderByDesc(Attraction::getPopularity);
         }
 
-        // 查询分页数据
+        // 分页只查询景点ID，展示字段从卡片目录组装
+        wrapper.select(Attraction::getAttractionId);
         Page<Attraction> attractionPage = attractionMapper.selectPage(page, wrapper);
 
-        // 获取所有涉及的城市ID
-        List<Integer> cityIds = attractionPage.getRecords().stream()
-                .map(Attraction::getCityId)
-                .distinct()
-                .collect(Collectors.toList());
-
         List<Long> attractionIds = attractionPage.getRecords().stream()
             .map(Attraction::getAttractionId)
             .collect(Collectors.toList());
-        Map<Long, List<Integer>> relationTypeIdsMap = getTypeIdsByAttractionIds(attractionIds);
-
-        Set<Integer> allTypeIds = new LinkedHashSet<>();
-        for (Attraction attraction : attractionPage.getRecords()) {
-            List<Integer> effectiveTypeIds = mergeEffectiveTypeIds(
-                attraction.getTypeId(),
-                relationTypeIdsMap.get(attraction.getAttractionId()));
-            allTypeIds.addAll(effectiveTypeIds);
-        }
-
-        // 批量查询城市和类型信息
-        Map<Integer, String> cityMap = cityIds.isEmpty() ? Map.of() : 
-                cityMapper.selectList(new LambdaQueryWrapper<City>().in(City::getCityId, cityIds))
-                        .stream()
-                        .collect(Collectors.toMap(City::getCityId, City::getCityName));
-
-        Map<Integer, String> typeMap = allTypeIds.isEmpty() ? Map.of() :
-            attractionTypeMapper.selectList(new LambdaQueryWrapper<AttractionType>().in(AttractionType::getTypeId, allTypeIds))
-                        .stream()
-                        .collect(Collectors.toMap(AttractionType::getTypeId, AttractionType::getTypeName));
 
         // 转换为响应DTO
-        List<AttractionListResponse> responseList = attractionPage.getRecords().stream()
-            .map(attraction -> {
-                List<Integer> effectiveTypeIds = mergeEffectiveTypeIds(
-                    attraction.getTypeId(),
-                    relationTypeIdsMap.get(attraction.getAttractionId()));
-                List<String> typeNames = effectiveTypeIds.stream()
-                    .map(typeMap::get)
-                    .filter(StringUtils::hasText)
-                    .collect(Collectors.toList());
-
-                return AttractionListResponse.builder()
-                    .attractionId(attraction.getAttractionId())
-                    .name(attraction.getName())
-                    .typeId(attraction.getTypeId())
-                    .typeName(typeMap.get(attraction.getTypeId()))
-                    .typeIds(effectiveTypeIds)
-                    .typeNames(typeNames)
-                    .cityId(attraction.getCityId())
-                    .cityName(cityMap.get(attraction.getCityId()))
-                    .viewCount(attraction.getBrowseCount())
-                    .favoriteCount(attraction.getFavoriteCount())
-                    .popularityScore(attraction.getPopularity())
-                    .mainImageUrl(attraction.getMainImageUrl())
-                    .status(attraction.getStatus())
-                    .auditStatus(attraction.getAuditStatus())
-                    .build();
-            })
+        List<AttractionListResponse> responseList = attractionCardCatalog.getAll(attractionIds).stream()
+                .map(this::toListResponse)
                 .collect(Collectors.toList());
 
         return PageResponse.<AttractionListResponse>builder()
@@ -322,6 +319,54 @@ public class AttractionServiceImpl extends ServiceImpl<AttractionMapper, Attract
                 .build();
     }
 
+    @Override
+    public long exportAttractions(AttractionQueryRequest request, ExportWriter.Format format,
+                                  OutputStream output) throws IOException {
+        // 城市、类型名称预先加载，流式读取期间不再发起其它查询
+        Map<Integer, String> cityNames = cityMapper.selectList(new LambdaQueryWrapper<City>()
+                        .select(City::getCityId, City::getCityName)).stream()
+                .collect(Collectors.toMap(City::getCityId, City::getCityName, (a, b) -> a));
+        Map<Integer, String> typeNames = attractionTypeMapper.selectList(new LambdaQueryWrapper<AttractionType>()
+                        .select(AttractionType::getTypeId, AttractionType::getTypeName)).stream()
+                .collect(Collectors.toMap(AttractionType::getTypeId, AttractionType::getTypeName, (a, b) -> a));
+
+        LambdaQueryWrapper<Attraction> wrapper = buildCardQueryWrapper(request);
+        if (request.getAttractionId() != null) {
+            wrapper.eq(Attraction::getAttractionId, request.getAttractionId());
+        }
+        wrapper.select(Attraction::getAttractionId, Attraction::getName, Attraction::getTypeId,
+                        Attraction::getCityId, Attraction::getAddress, Attraction::getLatitude,
+                        Attraction::getLongitude, Attraction::getTicketPrice, Attraction::getAverageRating,
+                        Attraction::getRatingCount, Attraction::getBrowseCount, Attraction::getFavoriteCount,
+                        Attraction::getPopularity, Attraction::getStatus, Attraction::getAuditStatus,
+                        Attraction::getCreateTime)
+                .orderByAsc(Attraction::getAttractionId);
+
+        try (ExportWriter<Attraction> writer = new ExportWriter<Attraction>(output, format, objectMapper)
+                .column("attractionId", Attraction::getAttractionId)
+                .column("name", Attraction::getName)
+                .column("cityId", Attraction::getCityId)
+                .column("cityName", a -> cityNames.get(a.getCityId()))
+                .column("typeId", Attraction::getTypeId)
+                .column("typeName", a -> typeNames.get(a.getTypeId()))
+                .column("address", Attraction::getAddress)
+                .column("latitude", Attraction::getLatitude)
+                .column("longitude", Attraction::getLongitude)
+                .column("ticketPrice", Attraction::getTicketPrice)
+                .column("averageRating", Attraction::getAverageRating)
+                .column("ratingCount", Attraction::getRatingCount)
+                .column("browseCount", Attraction::getBrowseCount)
+                .column("favoriteCount", Attraction::getFavoriteCount)
+                .column("popularity", Attraction::getPopularity)
+                .column("status", Attraction::getStatus)
+                .column("auditStatus", Attraction::getAuditStatus)
+                .column("createTime", Attraction::getCreateTime)) {
+            attractionMapper.streamByWrapper(wrapper, writer.resultHandler());
+            writer.checkError();
+            return writer.getRowCount();
+        }
+    }
+
     private List<Integer> resolveTypeIds(AttractionRequest request, boolean required) {
         LinkedHashSet<Integer> typeIds = new LinkedHashSet<>();
         if (request.getTypeId() != null) {
@@ -362,28 +407,9 @@ public class AttractionServiceImpl extends ServiceImpl<AttractionMapper, Attract
             return;
         }
 
-        List<AttractionTypeRelation> relations = typeIds.stream()
-                .map(typeId -> AttractionTypeRelation.builder()
-                        .attractionId(attractionId)
-                        .typeId(typeId)
-                        .build())
-                .collect(Collectors.toList());
-        relations.forEach(attractionTypeRelationMapper::insert);
-    }
-
-    private Map<Long, List<Integer>> getTypeIdsByAttractionIds(List<Long> attractionIds) {
-        if (CollectionUtils.isEmpty(attractionIds)) {
-            return Collections.emptyMap();
-        }
-
-        return attractionTypeRelationMapper.selectList(
-                        new LambdaQueryWrapper<AttractionTypeRelation>()
-                                .in(AttractionTypeRelation::getAttractionId, attractionIds))
-                .stream()
-                .collect(Collectors.groupingBy(
-                        AttractionTypeRelation::getAttractionId,
-                        Collectors.mapping(AttractionTypeRelation::getTypeId,
-                                Collectors.collectingAndThen(Collectors.toCollection(LinkedHashSet::new), ArrayList::new))));
+        // 已整体删除旧关联，直接多行插入
+        BatchWriteUtil.insertInChunks(BatchWriteUtil.distinct(typeIds),
+                chunk -> attractionTypeRelationMapper.insertBatch(attractionId, chunk));
     }
 
     private List<Integer> mergeEffectiveTypeIds(Integer primaryTypeId, List<Integer> relationTypeIds) {
@@ -479,15 +505,431 @@ public class AttractionServiceImpl extends ServiceImpl<AttractionMapper, Attract
         response.setTypeNames(typeNames);
         response.setTags(tags);
 
+        // 合并尚未落库的浏览量/收藏量增量
+        AttractionCounterDelta pending = attractionCounterService
+                .getPendingAttractionDeltas(List.of(attractionId))
+                .get(attractionId);
+        if (pending != null) {
+            int browseCount = attraction.getBrowseCount() != null ? attraction.getBrowseCount() : 0;
+            int favoriteCount = attraction.getFavoriteCount() != null ? attraction.getFavoriteCount() : 0;
+            response.setBrowseCount((int) (browseCount + pending.getBrowseDelta()));
+            response.setFavoriteCount((int) Math.max(0, favoriteCount + pending.getFavoriteDelta()));
+        }
+
         return response;
     }
 
     @Override
     public PageResponse<AttractionCardResponse> getAttractionCards(AttractionQueryRequest request) {
-        // 创建分页对象
-        Page<Attraction> page = new Page<>(request.getPageNum(), request.getPageSize());
+        // 筛选走位图索引、名称/城市检索走 n-gram 索引，排序、分页均在卡片目录上完成，不访问数据库
+        if (canUseIndexes(request)) {
+            if (Boolean.TRUE.equals(request.getCursorMode())) {
+                return cursorPage(request);
+            }
+            boolean byRelevance = "relevance".equalsIgnoreCase(request.getOrderBy());
+            return offsetPage(matchIndexed(request, POPULARITY_ORDER, byRelevance), request, this::toCardResponse);
+        }
+        if (Boolean.TRUE.equals(request.getCursorMode())) {
+            return getAttractionCardsByCursor(request);
+        }
+
+        // 创建分页对象（不执行COUNT，总数走按筛选条件缓存的计数）
+        Page<Attraction> page = new Page<>(request.getPageNum(), request.getPageSize(), false);
         
-        // 构建查询条件
+        LambdaQueryWrapper<Attraction> wrapper = buildCardQueryWrapper(request);
+        
+        // 默认按热度降序排序，热度相同按ID降序，保证分页顺序稳定
+        wrapper.orderByDesc(Attraction::getPopularity)
+                .orderByDesc(Attraction::getAttractionId);
+        
+        // 分页只查询景点ID，卡片字段从卡片目录组装
+        wrapper.select(Attraction::getAttractionId);
+        Page<Attraction> attractionPage = attractionMapper.selectPage(page, wrapper);
+
+        List<Long> attractionIds = attractionPage.getRecords().stream()
+            .map(Attraction::getAttractionId)
+            .collect(Collectors.toList());
+        List<AttractionCardResponse> cardList = attractionCardCatalog.getAll(attractionIds).stream()
+                .map(this::toCardResponse)
+                .collect(Collectors.toList());
+
+        long total = countAttractionCards(request);
+        long size = attractionPage.getSize();
+        long totalPages = size > 0 ? (total + size - 1) / size : 0;
+        
+        return PageResponse.<AttractionCardResponse>builder()
+                .records(cardList)
+                .total(total)
+                .pageNum(attractionPage.getCurrent())
+                .pageSize(size)
+                .totalPages(totalPages)
+                .hasPrevious(attractionPage.getCurrent() > 1)
+                .hasNext(attractionPage.getCurrent() < totalPages)
+                .build();
+    }
+
+    /**
+     * 游标分页：按 (popularity, attraction_id) 降序定位，查询代价与翻页深度无关
+     */
+    private PageResponse<AttractionCardResponse> getAttractionCardsByCursor(AttractionQueryRequest request) {
+        int pageSize = request.getPageSize() == null || request.getPageSize() <= 0
+                ? 10 : Math.min(request.getPageSize(), MAX_CURSOR_PAGE_SIZE);
+
+        LambdaQueryWrapper<Attraction> wrapper = buildCardQueryWrapper(request);
+        boolean hasCursor = StringUtils.hasText(request.getCursor());
+        if (hasCursor) {
+            PageCursor cursor = PageCursor.decode(request.getCursor());
+            int popularity = (int) cursor.sortValue();
+            wrapper.and(w -> w.lt(Attraction::getPopularity, popularity)
+                    .or(o -> o.eq(Attraction::getPopularity, popularity)
+                            .lt(Attraction::getAttractionId, cursor.id())));
+        }
+
+        // 多取一条用于判断是否存在下一页
+        wrapper.select(Attraction::getAttractionId, Attraction::getPopularity)
+                .orderByDesc(Attraction::getPopularity)
+                .orderByDesc(Attraction::getAttractionId)
+                .last("LIMIT " + (pageSize + 1));
+        List<Attraction> rows = attractionMapper.selectList(wrapper);
+
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+        }
+        String nextCursor = null;
+        if (hasNext) {
+            Attraction last = rows.get(rows.size() - 1);
+            nextCursor = new PageCursor(
+                    last.getPopularity() != null ? last.getPopularity() : 0,
+                    last.getAttractionId()).encode();
+        }
+
+        List<Long> attractionIds = rows.stream()
+                .map(Attraction::getAttractionId)
+                .collect(Collectors.toList());
+        List<AttractionCardResponse> cardList = attractionCardCatalog.getAll(attractionIds).stream()
+                .map(this::toCardResponse)
+                .collect(Collectors.toList());
+
+        long total = countAttractionCards(request);
+        return PageResponse.<AttractionCardResponse>builder()
+                .records(cardList)
+                .total(total)
+                .pageSize((long) pageSize)
+                .totalPages((total + pageSize - 1) / pageSize)
+                .hasPrevious(hasCursor)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    public AttractionFacetResponse getAttractionFacets(AttractionQueryRequest request) {
+        if (!canUseIndexes(request)) {
+            throw new RuntimeException("景点索引正在构建，请稍后重试");
+        }
+        AttractionBitmapIndex.Facets facets = attractionBitmapIndex.facets(
+                toAttractionFilter(request), searchScope(request));
+
+        Map<Integer, Integer> tagCounts = facets.tags();
+        Map<Integer, String> tagNameMap = tagCounts.isEmpty() ? Map.of() :
+                attractionTagMapper.selectBatchIds(tagCounts.keySet()).stream()
+                        .collect(Collectors.toMap(AttractionTag::getTagId, AttractionTag::getTagName));
+
+        return AttractionFacetResponse.builder()
+                .total((long) facets.total())
+                .types(toFacetCounts(facets.types(), attractionCardCatalog::getTypeName))
+                .cities(toFacetCounts(facets.cities(), attractionCardCatalog::getCityName))
+                .tags(toFacetCounts(tagCounts, tagNameMap::get))
+                .build();
+    }
+
+    @Override
+    public List<AttractionNearbyResponse> getNearbyAttractions(AttractionNearbyRequest request) {
+        if (!attractionGeoIndex.isReady() || !attractionBitmapIndex.isReady()) {
+            throw new RuntimeException("景点索引正在构建，请稍后重试");
+        }
+        if (request.getLatitude() == null || request.getLongitude() == null
+                || Math.abs(request.getLatitude()) > 90 || Math.abs(request.getLongitude()) > 180) {
+            throw new IllegalArgumentException("经纬度超出范围");
+        }
+        if (request.getRadiusKm() != null && request.getRadiusKm() <= 0) {
+            throw new IllegalArgumentException("搜索半径必须大于0");
+        }
+        int limit = request.getLimit() == null ? 20 : Math.max(1, Math.min(request.getLimit(), MAX_PAGE_SIZE));
+        double maxRadiusKm = performanceProperties.getGeo().getMaxRadiusKm();
+
+        // 属性条件由位图索引求解，空间索引只按ID谓词过滤
+        BitSet allowed = attractionBitmapIndex.match(new AttractionFilter(
+                request.getStatus(),
+                request.getAuditStatus(),
+                mergeFilterIds(null, request.getCityIds()),
+                mergeFilterIds(null, request.getTypeIds()),
+                mergeFilterIds(null, request.getTagIds()),
+                Boolean.TRUE.equals(request.getTagMatchAll())));
+        LongPredicate accept = id -> id >= 0 && id <= Integer.MAX_VALUE && allowed.get((int) id);
+
+        List<AttractionGeoIndex.Hit> hits = request.getRadiusKm() != null
+                ? attractionGeoIndex.withinRadius(request.getLatitude(), request.getLongitude(),
+                        Math.min(request.getRadiusKm(), maxRadiusKm), accept, limit)
+                : attractionGeoIndex.nearest(request.getLatitude(), request.getLongitude(),
+                        limit, maxRadiusKm, accept);
+
+        Map<Long, Double> distances = new LinkedHashMap<>();
+        for (AttractionGeoIndex.Hit hit : hits) {
+            distances.put(hit.attractionId(), hit.distanceKm());
+        }
+        return attractionCardCatalog.getAll(distances.keySet()).stream()
+                .map(entry -> AttractionNearbyResponse.builder()
+                        .attraction(toCardResponse(entry))
+                        .latitude(entry.getLatitude())
+                        .longitude(entry.getLongitude())
+                        .distanceKm(Math.round(distances.get(entry.getAttractionId()) * 1000) / 1000.0)
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public AttractionClusterResponse getMapClusters(double minLat, double minLng, double maxLat, double maxLng, int zoom) {
+        if (!attractionClusterIndex.isReady()) {
+            throw new RuntimeException("景点索引正在构建，请稍后重试");
+        }
+        if (Math.abs(minLat) > 90 || Math.abs(maxLat) > 90 || Math.abs(minLng) > 180 || Math.abs(maxLng) > 180) {
+            throw new IllegalArgumentException("经纬度超出范围");
+        }
+        if (minLat > maxLat) {
+            throw new IllegalArgumentException("最小纬度不能大于最大纬度");
+        }
+        if (attractionClusterIndex.tileCount(minLat, minLng, maxLat, maxLng, zoom)
+                > performanceProperties.getGeo().getClusterMaxTilesPerRequest()) {
+            throw new IllegalArgumentException("查询范围过大，请放大地图后重试");
+        }
+
+        List<AttractionClusterResponse.Marker> markers = attractionClusterIndex
+                .clusters(minLat, minLng, maxLat, maxLng, zoom).stream()
+                .map(cluster -> AttractionClusterResponse.Marker.builder()
+                        .latitude(cluster.latitude())
+                        .longitude(cluster.longitude())
+                        .count(cluster.count())
+                        .attractionId(cluster.attractionId())
+                        .name(cluster.name())
+                        .build())
+                .collect(Collectors.toList());
+        return AttractionClusterResponse.builder()
+                .zoom(attractionClusterIndex.effectiveZoom(zoom))
+                .total(markers.stream().mapToLong(AttractionClusterResponse.Marker::getCount).sum())
+                .markers(markers)
+                .build();
+    }
+
+    private List<AttractionFacetResponse.FacetCount> toFacetCounts(Map<Integer, Integer> counts,
+                                                                   Function<Integer, String> nameResolver) {
+        return counts.entrySet().stream()
+                .map(count -> AttractionFacetResponse.FacetCount.builder()
+                        .id(count.getKey())
+                        .name(nameResolver.apply(count.getKey()))
+                        .count((long) count.getValue())
+                        .build())
+                .filter(facet -> facet.getName() != null)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 位图索引与搜索索引均可用（无文本条件时只需位图索引）
+     */
+    private boolean canUseIndexes(AttractionQueryRequest request) {
+        if (!attractionBitmapIndex.isReady()) {
+            return false;
+        }
+        boolean hasText = StringUtils.hasText(request.getName()) || StringUtils.hasText(request.getCity());
+        return !hasText || attractionSearchIndex.isReady();
+    }
+
+    /**
+     * 位图索引求解属性条件，与名称/城市检索命中集合取交后排序
+     *
+     * @param order       默认排序
+     * @param byRelevance 有文本条件时是否按相关度排序
+     */
+    private List<AttractionCardEntry> matchIndexed(AttractionQueryRequest request,
+                                                   Comparator<AttractionCardEntry> order,
+                                                   boolean byRelevance) {
+        BitSet matched = attractionBitmapIndex.match(toAttractionFilter(request));
+        if (request.getAttractionId() != null) {
+            BitSet single = new BitSet();
+            if (isBitmapId(request.getAttractionId())) {
+                single.set(request.getAttractionId().intValue());
+            }
+            matched.and(single);
+        }
+
+        Map<Long, Double> hits = attractionSearchIndex.search(request.getName(), request.getCity());
+        List<Long> ids = new ArrayList<>();
+        if (hits != null) {
+            for (Long id : hits.keySet()) {
+                if (isBitmapId(id) && matched.get(id.intValue())) {
+                    ids.add(id);
+                }
+            }
+        } else {
+            for (int bit = matched.nextSetBit(0); bit >= 0; bit = matched.nextSetBit(bit + 1)) {
+                ids.add((long) bit);
+            }
+        }
+
+        Comparator<AttractionCardEntry> comparator = order;
+        if (byRelevance && hits != null) {
+            comparator = Comparator.comparing((AttractionCardEntry entry) -> hits.get(entry.getAttractionId()))
+                    .reversed()
+                    .thenComparing(POPULARITY_ORDER);
+        }
+        return attractionCardCatalog.getAll(ids).stream()
+                .sorted(comparator)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 名称/城市检索命中集合（用于分面统计），无文本条件时返回 null
+     */
+    private BitSet searchScope(AttractionQueryRequest request) {
+        Map<Long, Double> hits = attractionSearchIndex.search(request.getName(), request.getCity());
+        if (hits == null) {
+            return null;
+        }
+        BitSet scope = new BitSet();
+        for (Long id : hits.keySet()) {
+            if (isBitmapId(id)) {
+                scope.set(id.intValue());
+            }
+        }
+        return scope;
+    }
+
+    private boolean isBitmapId(Long attractionId) {
+        return attractionId != null && attractionId >= 0 && attractionId <= Integer.MAX_VALUE;
+    }
+
+    private AttractionFilter toAttractionFilter(AttractionQueryRequest request) {
+        return new AttractionFilter(
+                request.getStatus(),
+                request.getAuditStatus(),
+                mergeFilterIds(request.getCityId(), request.getCityIds()),
+                mergeFilterIds(request.getTypeId(), request.getTypeIds()),
+                mergeFilterIds(null, request.getTagIds()),
+                Boolean.TRUE.equals(request.getTagMatchAll()));
+    }
+
+    /**
+     * 合并单值与多值筛选条件，去重并去除空值
+     */
+    private List<Integer> mergeFilterIds(Integer id, List<Integer> ids) {
+        LinkedHashSet<Integer> merged = new LinkedHashSet<>();
+        if (id != null) {
+            merged.add(id);
+        }
+        if (!CollectionUtils.isEmpty(ids)) {
+            ids.stream().filter(Objects::nonNull).forEach(merged::add);
+        }
+        return new ArrayList<>(merged);
+    }
+
+    /**
+     * 后台列表排序（与 SQL 排序一致，值相同时按ID排序保证分页稳定）
+     */
+    private Comparator<AttractionCardEntry> listOrder(AttractionQueryRequest request) {
+        String orderBy = request.getOrderBy() == null ? "" : request.getOrderBy();
+        Function<AttractionCardEntry, Integer> field = switch (orderBy) {
+            case "browse_count" -> AttractionCardEntry::getBrowseCount;
+            case "favorite_count" -> AttractionCardEntry::getFavoriteCount;
+            default -> AttractionCardEntry::getPopularity;
+        };
+        boolean isAsc = "asc".equalsIgnoreCase(request.getOrderType())
+                && List.of("popularity", "browse_count", "favorite_count").contains(orderBy);
+        Comparator<AttractionCardEntry> order = Comparator
+                .comparing((AttractionCardEntry entry) -> field.apply(entry) != null ? field.apply(entry) : 0)
+                .thenComparing(AttractionCardEntry::getAttractionId);
+        return isAsc ? order : order.reversed();
+    }
+
+    /**
+     * 已排序结果的内存页码分页
+     */
+    private <R> PageResponse<R> offsetPage(List<AttractionCardEntry> sorted, AttractionQueryRequest request,
+                                           Function<AttractionCardEntry, R> mapper) {
+        long pageNum = request.getPageNum() == null || request.getPageNum() < 1 ? 1 : request.getPageNum();
+        long pageSize = request.getPageSize() == null || request.getPageSize() < 1
+                ? 10 : Math.min(request.getPageSize(), MAX_PAGE_SIZE);
+        long total = sorted.size();
+        long totalPages = (total + pageSize - 1) / pageSize;
+
+        int from = (int) Math.min(total, (pageNum - 1) * pageSize);
+        int to = (int) Math.min(total, from + pageSize);
+        List<R> records = sorted.subList(from, to).stream()
+                .map(mapper)
+                .collect(Collectors.toList());
+
+        return PageResponse.<R>builder()
+                .records(records)
+                .total(total)
+                .pageNum(pageNum)
+                .pageSize(pageSize)
+                .totalPages(totalPages)
+                .hasPrevious(pageNum > 1)
+                .hasNext(pageNum < totalPages)
+                .build();
+    }
+
+    /**
+     * 人气降序游标分页：位图索引的预排序序列从游标处向后查找，只取一页，游标语义与 SQL 游标分页一致
+     */
+    private PageResponse<AttractionCardResponse> cursorPage(AttractionQueryRequest request) {
+        int pageSize = request.getPageSize() == null || request.getPageSize() <= 0
+                ? 10 : Math.min(request.getPageSize(), MAX_CURSOR_PAGE_SIZE);
+
+        boolean hasCursor = StringUtils.hasText(request.getCursor());
+        PageCursor cursor = hasCursor ? PageCursor.decode(request.getCursor()) : null;
+        BitSet scope = searchScope(request);
+        if (request.getAttractionId() != null) {
+            BitSet single = new BitSet();
+            if (isBitmapId(request.getAttractionId())) {
+                single.set(request.getAttractionId().intValue());
+            }
+            if (scope != null) {
+                single.and(scope);
+            }
+            scope = single;
+        }
+
+        // 多取一条判断是否还有下一页
+        AttractionBitmapIndex.PopularitySeek seek = attractionBitmapIndex.seekByPopularity(
+                toAttractionFilter(request), scope, cursor, pageSize + 1);
+        List<Long> ids = seek.attractionIds();
+        boolean hasNext = ids.size() > pageSize;
+        List<AttractionCardEntry> pageEntries = attractionCardCatalog.getAll(hasNext ? ids.subList(0, pageSize) : ids);
+        String nextCursor = null;
+        if (hasNext && !pageEntries.isEmpty()) {
+            AttractionCardEntry last = pageEntries.get(pageEntries.size() - 1);
+            nextCursor = new PageCursor(
+                    last.getPopularity() != null ? last.getPopularity() : 0,
+                    last.getAttractionId()).encode();
+        }
+
+        long total = seek.total();
+        return PageResponse.<AttractionCardResponse>builder()
+                .records(pageEntries.stream().map(this::toCardResponse).collect(Collectors.toList()))
+                .total(total)
+                .pageSize((long) pageSize)
+                .totalPages((total + pageSize - 1) / pageSize)
+                .hasPrevious(hasCursor)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * 卡片列表筛选条件（不含排序与分页）
+     */
+    private LambdaQueryWrapper<Attraction> buildCardQueryWrapper(AttractionQueryRequest request) {
         LambdaQueryWrapper<Attraction> wrapper = new LambdaQueryWrapper<>();
         
         // 审核状态和景点状态（从Controller传入）
@@ -498,6 +940,66 @@ public class AttractionServiceImpl extends ServiceImpl<AttractionMapper, Attract
             wrapper.eq(Attraction::getStatus, request.getStatus());
         }
         
+        // 索引未就绪时回退 LIKE 查询
+        applyLikeFilters(wrapper, request);
+        
+        // 城市、类型、标签筛选
+        applyAttributeFilters(wrapper, request);
+
+        return wrapper;
+    }
+
+    /**
+     * 城市、类型（兼容主类型字段 + 多类型关联表）、标签筛选（位图索引未就绪时的回退路径）
+     */
+    private void applyAttributeFilters(LambdaQueryWrapper<Attraction> wrapper, AttractionQueryRequest request) {
+        List<Integer> cityIds = mergeFilterIds(request.getCityId(), request.getCityIds());
+        if (!cityIds.isEmpty()) {
+            wrapper.in(Attraction::getCityId, cityIds);
+        }
+
+        List<Integer> typeIds = mergeFilterIds(request.getTypeId(), request.getTypeIds());
+        if (!typeIds.isEmpty()) {
+            List<Long> relatedAttractionIds = attractionTypeRelationMapper.selectList(
+                            new LambdaQueryWrapper<AttractionTypeRelation>()
+                                    .in(AttractionTypeRelation::getTypeId, typeIds))
+                    .stream()
+                    .map(AttractionTypeRelation::getAttractionId)
+                    .distinct()
+                    .collect(Collectors.toList());
+
+            wrapper.and(w -> {
+                w.in(Attraction::getTypeId, typeIds);
+                if (!relatedAttractionIds.isEmpty()) {
+                    w.or().in(Attraction::getAttractionId, relatedAttractionIds);
+                }
+            });
+        }
+
+        List<Integer> tagIds = mergeFilterIds(null, request.getTagIds());
+        if (!tagIds.isEmpty()) {
+            Map<Long, Long> matchedTagCounts = attractionTagRelationMapper.selectList(
+                            new LambdaQueryWrapper<AttractionTagRelation>()
+                                    .in(AttractionTagRelation::getTagId, tagIds))
+                    .stream()
+                    .collect(Collectors.groupingBy(AttractionTagRelation::getAttractionId, Collectors.counting()));
+            boolean matchAll = Boolean.TRUE.equals(request.getTagMatchAll());
+            List<Long> taggedAttractionIds = matchedTagCounts.entrySet().stream()
+                    .filter(count -> !matchAll || count.getValue() >= tagIds.size())
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+            if (taggedAttractionIds.isEmpty()) {
+                wrapper.eq(Attraction::getAttractionId, -1);
+            } else {
+                wrapper.in(Attraction::getAttractionId, taggedAttractionIds);
+            }
+        }
+    }
+
+    /**
+     * 名称/城市模糊查询（搜索索引未就绪时的回退路径）
+     */
+    private void applyLikeFilters(LambdaQueryWrapper<Attraction> wrapper, AttractionQueryRequest request) {
         // 景点名称模糊查询
         if (StringUtils.hasText(request.getName())) {
             wrapper.like(Attraction::getName, request.getName());
@@ -518,234 +1020,125 @@ public class AttractionServiceImpl extends ServiceImpl<AttractionMapper, Attract
                 wrapper.in(Attraction::getCityId, matchedCityIds);
             }
         }
-        
-        // 城市筛选
-        if (request.getCityId() != null) {
-            wrapper.eq(Attraction::getCityId, request.getCityId());
-        }
-        
-        // 类型筛选
-        if (request.getTypeId() != null) {
-            List<Long> relatedAttractionIds = attractionTypeRelationMapper.selectList(
-                            new LambdaQueryWrapper<AttractionTypeRelation>()
-                                    .eq(AttractionTypeRelation::getTypeId, request.getTypeId()))
-                    .stream()
-                    .map(AttractionTypeRelation::getAttractionId)
-                    .distinct()
-                    .collect(Collectors.toList());
-
-            wrapper.and(w -> {
-                w.eq(Attraction::getTypeId, request.getTypeId());
-                if (!relatedAttractionIds.isEmpty()) {
-                    w.or().in(Attraction::getAttractionId, relatedAttractionIds);
-                }
-            });
-        }
-        
-        // 默认按热度降序排序
-        wrapper.orderByDesc(Attraction::getPopularity);
-        
-        Page<Attraction> attractionPage = attractionMapper.selectPage(page, wrapper);
-
-        List<Long> attractionIds = attractionPage.getRecords().stream()
-            .map(Attraction::getAttractionId)
-            .collect(Collectors.toList());
-        Map<Long, List<Integer>> relationTypeIdsMap = getTypeIdsByAttractionIds(attractionIds);
+    }
 
-        Set<Integer> allTypeIds = new LinkedHashSet<>();
-        for (Attraction attraction : attractionPage.getRecords()) {
-            allTypeIds.addAll(mergeEffectiveTypeIds(
-                attraction.getTypeId(),
-                relationTypeIdsMap.get(attraction.getAttractionId())));
-        }
-        Map<Integer, String> typeNameMap = allTypeIds.isEmpty() ? Map.of() :
-            attractionTypeMapper.selectList(new LambdaQueryWrapper<AttractionType>()
-                    .in(AttractionType::getTypeId, allTypeIds))
-                .stream()
-                .collect(Collectors.toMap(AttractionType::getTypeId, AttractionType::getTypeName));
-        
-        // 转换为响应DTO
-        List<AttractionCardResponse> cardList = attractionPage.getRecords().stream()
-                .map(attraction -> {
-                    // 查询城市信息
-                    City city = cityMapper.selectById(attraction.getCityId());
-                    String cityName = city != null ? city.getCityName() : "";
-                    
-                        List<Integer> effectiveTypeIds = mergeEffectiveTypeIds(
-                            attraction.getTypeId(),
-                            relationTypeIdsMap.get(attraction.getAttractionId()));
-                        String typeName = effectiveTypeIds.stream()
-                            .map(typeNameMap::get)
-                            .filter(StringUtils::hasText)
-                            .collect(Collectors.joining(" / "));
-                    
-                    // 处理图片URL - 如果是相对路径则添加前缀
-                    String imageUrl = attraction.getMainImageUrl();
-                    if (imageUrl != null && !imageUrl.startsWith("http")) {
-                        imageUrl = "http://121.199.57.162:8080" + imageUrl;
-                    }
-                    
-                    // 手动构建响应对象，只包含卡片所需字段
-                    return AttractionCardResponse.builder()
-                            .attractionId(attraction.getAttractionId())
-                            .name(attraction.getName())
-                            .description(attraction.getSubtitle() != null ? attraction.getSubtitle() : "")
-                            .type(typeName)
-                            .location(cityName)
-                            .imageUrl(imageUrl)
-                            .averageRating(attraction.getAverageRating())
-                            .viewCount(attraction.getBrowseCount())
-                            .popularity(attraction.getPopularity())
-                            .ticketPrice(attraction.getTicketPrice())
-                            .build();
-                })
-                .collect(Collectors.toList());
-        
-        return PageResponse.<AttractionCardResponse>builder()
-                .records(cardList)
-                .total(attractionPage.getTotal())
-                .pageNum(attractionPage.getCurrent())
-                .pageSize(attractionPage.getSize())
-                .totalPages(attractionPage.getPages())
-                .hasPrevious(attractionPage.getCurrent() > 1)
-                .hasNext(attractionPage.getCurrent() < attractionPage.getPages())
-                .build();
+    /**
+     * 按筛选条件缓存的总数，避免每次翻页都执行 COUNT(*)
+     */
+    private long countAttractionCards(AttractionQueryRequest request) {
+        String raw = "audit=" + request.getAuditStatus()
+                + "&status=" + request.getStatus()
+                + "&name=" + request.getName()
+                + "&city=" + request.getCity()
+                + "&cities=" + mergeFilterIds(request.getCityId(), request.getCityIds())
+                + "&types=" + mergeFilterIds(request.getTypeId(), request.getTypeIds())
+                + "&tags=" + mergeFilterIds(null, request.getTagIds())
+                + "&tagAll=" + Boolean.TRUE.equals(request.getTagMatchAll());
+        String cacheKey = CacheConstants.ATTRACTION_COUNT_KEY
+                + DigestUtils.md5DigestAsHex(raw.getBytes(StandardCharsets.UTF_8));
+        Long total = cacheClient.queryWithPassThrough(
+                cacheKey,
+                COUNT_TYPE,
+                () -> attractionMapper.selectCount(buildCardQueryWrapper(request)),
+                performanceProperties.getCache().getAttractionCountTtlSec(),
+                performanceProperties.getCache().getNullValueTtlSec(),
+                performanceProperties.getCache().getTtlJitterSec());
+        return total != null ? total : 0L;
     }
 
     @Override
     public AttractionDetailResponse getAttractionCardById(Long attractionId) {
-        // 异步增加浏览量
-        incrementBrowseCountAsync(attractionId);
-        
-        // 直接使用已有的getAttractionDetail方法，它返回完整的详情数据
+        // 浏览量由控制器在每次访问时通过计数服务累加，这里直接返回完整的详情数据
         return getAttractionDetail(attractionId);
     }
 
-    /**
-     * 异步增加浏览量
-     */
-    @Async
-    @Transactional(rollbackFor = Exception.class)
-    public void incrementBrowseCountAsync(Long attractionId) {
-        try {
-            Attraction attraction = attractionMapper.selectById(attractionId);
-            if (attraction != null) {
-                attraction.setBrowseCount(attraction.getBrowseCount() + 1);
-                attractionMapper.updateById(attraction);
-            }
-        } catch (Exception e) {
-            // 浏览量更新失败不影响主流程，记录日志即可
-            log.error("异步更新浏览量失败, attractionId=" + attractionId, e);
-        }
-    }
-
     @Override
     public List<AttractionCardResponse> getAttractionCardsByIds(List<Long> attractionIds) {
         if (attractionIds == null || attractionIds.isEmpty()) {
             return new ArrayList<>();
         }
 
-        // 批量查询景点
-        List<Attraction> attractions = listByIds(attractionIds);
-        Map<Long, List<Integer>> relationTypeIdsMap = getTypeIdsByAttractionIds(attractionIds);
-        Set<Integer> allTypeIds = new LinkedHashSet<>();
-        for (Attraction attraction : attractions) {
-            allTypeIds.addAll(mergeEffectiveTypeIds(
-                attraction.getTypeId(),
-                relationTypeIdsMap.get(attraction.getAttractionId())));
-        }
-        Map<Integer, String> typeNameMap = allTypeIds.isEmpty() ? Map.of() :
-            attractionTypeMapper.selectList(new LambdaQueryWrapper<AttractionType>()
-                    .in(AttractionType::getTypeId, allTypeIds))
-                .stream()
-                .collect(Collectors.toMap(AttractionType::getTypeId, AttractionType::getTypeName));
-        
-        // 转换为卡片响应
-        return attractions.stream().map(attraction -> {
-            AttractionCardResponse card = new AttractionCardResponse();
-            card.setAttractionId(attraction.getAttractionId());
-            card.setName(attraction.getName());
-            card.setDescription(attraction.getSubtitle());
-            card.setImageUrl(attraction.getMainImageUrl());
-            card.setAverageRating(attraction.getAverageRating());
-            card.setViewCount(attraction.getBrowseCount());
-            card.setPopularity(attraction.getPopularity());
-            card.setTicketPrice(attraction.getTicketPrice());
-            
-            // 获取城市信息
-            if (attraction.getCityId() != null) {
-                City city = cityMapper.selectById(attraction.getCityId());
-                if (city != null) {
-                    card.setLocation(city.getCityName());
-                }
-            }
-            
-            List<Integer> effectiveTypeIds = mergeEffectiveTypeIds(
-                    attraction.getTypeId(),
-                    relationTypeIdsMap.get(attraction.getAttractionId()));
-            card.setType(effectiveTypeIds.stream()
-                    .map(typeNameMap::get)
-                    .filter(StringUtils::hasText)
-                    .collect(Collectors.joining(" / ")));
-            
-            return card;
-        }).collect(Collectors.toList());
+        // 从卡片目录批量获取，按传入ID顺序返回
+        return attractionCardCatalog.getAll(attractionIds).stream()
+                .map(this::toSimpleCardResponse)
+                .collect(Collectors.toList());
     }
 
     @Override
     public List<AttractionCardResponse> getTopThreeByBrowse() {
-        // 查询浏览量最高的3个已审核通过且启用的景点
-        LambdaQueryWrapper<Attraction> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(Attraction::getAuditStatus, 2); // 已审核
-        wrapper.eq(Attraction::getStatus, 1); // 启用
-        wrapper.orderByDesc(Attraction::getBrowseCount); // 按浏览量降序
-        wrapper.last("LIMIT 3"); // 只取前3条
-        
-        List<Attraction> attractions = attractionMapper.selectList(wrapper);
-        List<Long> attractionIds = attractions.stream().map(Attraction::getAttractionId).collect(Collectors.toList());
-        Map<Long, List<Integer>> relationTypeIdsMap = getTypeIdsByAttractionIds(attractionIds);
-        Set<Integer> allTypeIds = new LinkedHashSet<>();
-        for (Attraction attraction : attractions) {
-            allTypeIds.addAll(mergeEffectiveTypeIds(
-                attraction.getTypeId(),
-                relationTypeIdsMap.get(attraction.getAttractionId())));
-        }
-        Map<Integer, String> typeNameMap = allTypeIds.isEmpty() ? Map.of() :
-            attractionTypeMapper.selectList(new LambdaQueryWrapper<AttractionType>()
-                    .in(AttractionType::getTypeId, allTypeIds))
-                .stream()
-                .collect(Collectors.toMap(AttractionType::getTypeId, AttractionType::getTypeName));
-        
-        // 转换为卡片响应
-        return attractions.stream().map(attraction -> {
-            AttractionCardResponse card = new AttractionCardResponse();
-            card.setAttractionId(attraction.getAttractionId());
-            card.setName(attraction.getName());
-            card.setDescription(attraction.getSubtitle());
-            card.setImageUrl(attraction.getMainImageUrl());
-            card.setAverageRating(attraction.getAverageRating());
-            card.setViewCount(attraction.getBrowseCount());
-            card.setPopularity(attraction.getPopularity());
-            card.setTicketPrice(attraction.getTicketPrice());
-            
-            // 获取城市信息
-            if (attraction.getCityId() != null) {
-                City city = cityMapper.selectById(attraction.getCityId());
-                if (city != null) {
-                    card.setLocation(city.getCityName());
-                }
-            }
-            
-            List<Integer> effectiveTypeIds = mergeEffectiveTypeIds(
-                    attraction.getTypeId(),
-                    relationTypeIdsMap.get(attraction.getAttractionId()));
-            card.setType(effectiveTypeIds.stream()
-                    .map(typeNameMap::get)
-                    .filter(StringUtils::hasText)
-                    .collect(Collectors.joining(" / ")));
-            
-            return card;
-        }).collect(Collectors.toList());
+        // 从卡片目录中选出浏览量最高的3个已审核通过且启用的景点
+        return attractionCardCatalog.snapshot().stream()
+                .filter(AttractionCardEntry::isPublished)
+                .sorted(Comparator.comparing((AttractionCardEntry entry) ->
+                                entry.getBrowseCount() != null ? entry.getBrowseCount() : 0).reversed()
+                        .thenComparing(AttractionCardEntry::getAttractionId))
+                .limit(3)
+                .map(this::toSimpleCardResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 后台列表行
+     */
+    private AttractionListResponse toListResponse(AttractionCardEntry entry) {
+        return AttractionListResponse.builder()
+                .attractionId(entry.getAttractionId())
+                .name(entry.getName())
+                .typeId(entry.getTypeId())
+                .typeName(entry.getTypeName())
+                .typeIds(new ArrayList<>(entry.getTypeIds()))
+                .typeNames(new ArrayList<>(entry.getTypeNames()))
+                .cityId(entry.getCityId())
+                .cityName(entry.getCityName())
+                .viewCount(entry.getBrowseCount())
+                .favoriteCount(entry.getFavoriteCount())
+                .popularityScore(entry.getPopularity())
+                .mainImageUrl(entry.getMainImageUrl())
+                .status(entry.getStatus())
+                .auditStatus(entry.getAuditStatus())
+                .build();
+    }
+
+    /**
+     * 列表页卡片：相对路径图片补全前缀，描述与城市为空时返回空串
+     */
+    private AttractionCardResponse toCardResponse(AttractionCardEntry entry) {
+        // 处理图片URL - 如果是相对路径则添加前缀
+        String imageUrl = entry.getMainImageUrl();
+        if (imageUrl != null && !imageUrl.startsWith("http")) {
+            imageUrl = "http://121.199.57.162:8080" + imageUrl;
+        }
+
+        return AttractionCardResponse.builder()
+                .attractionId(entry.getAttractionId())
+                .name(entry.getName())
+                .description(entry.getSubtitle() != null ? entry.getSubtitle() : "")
+                .type(entry.getTypeDisplay())
+                .location(entry.getCityName() != null ? entry.getCityName() : "")
+                .imageUrl(imageUrl)
+                .averageRating(entry.getAverageRating())
+                .viewCount(entry.getBrowseCount())
+                .popularity(entry.getPopularity())
+                .ticketPrice(entry.getTicketPrice())
+                .build();
+    }
+
+    /**
+     * 收藏/热门等简要卡片：字段原样返回
+     */
+    private AttractionCardResponse toSimpleCardResponse(AttractionCardEntry entry) {
+        AttractionCardResponse card = new AttractionCardResponse();
+        card.setAttractionId(entry.getAttractionId());
+        card.setName(entry.getName());
+        card.setDescription(entry.getSubtitle());
+        card.setImageUrl(entry.getMainImageUrl());
+        card.setAverageRating(entry.getAverageRating());
+        card.setViewCount(entry.getBrowseCount());
+        card.setPopularity(entry.getPopularity());
+        card.setTicketPrice(entry.getTicketPrice());
+        card.setLocation(entry.getCityName());
+        card.setType(entry.getTypeDisplay());
+        return card;
     }
 }
 
@@ -1,6 +1,7 @@
 package io.github.uchkun07.travelsystem.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import io.github.uchkun07.travelsystem.catalog.AttractionCardCatalog;
 import io.github.uchkun07.travelsystem.dto.AttractionTagBatchBindRequest;
 import io.github.uchkun07.travelsystem.dto.AttractionTagBindRequest;
 import io.github.uchkun07.travelsystem.dto.AttractionTagUnbindRequest;
@@ -9,6 +10,10 @@ import io.github.uchkun07.travelsystem.entity.AttractionTagRelation;
 import io.github.uchkun07.travelsystem.mapper.AttractionTagMapper;
 import io.github.uchkun07.travelsystem.mapper.AttractionTagRelationMapper;
 import io.github.uchkun07.travelsystem.service.IAttractionTagRelationService;
+import io.github.uchkun07.travelsystem.util.BatchWriteUtil;
+import io.github.uchkun07.travelsystem.util.CacheClient;
+import io.github.uchkun07.travelsystem.util.CacheConstants;
+import io.github.uchkun07.travelsystem.util.EntityVersionRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -27,6 +32,15 @@ public class AttractionTagRelationServiceImpl implements IAttractionTagRelationS
     @Autowired
     private AttractionTagMapper tagMapper;
 
+    @Autowired
+    private AttractionCardCatalog attractionCardCatalog;
+
+    @Autowired
+    private CacheClient cacheClient;
+
+    @Autowired
+    private EntityVersionRegistry entityVersionRegistry;
+
     @Override
     @Transactional
     public void bindTag(AttractionTagBindRequest request) {
@@ -59,6 +73,11 @@ public class AttractionTagRelationServiceImpl implements IAttractionTagRelationS
                 .build();
 
         relationMapper.insert(relation);
+        attractionCardCatalog.refreshAttractionAfterCommit(request.getAttractionId());
+        cacheClient.evictAfterCommit(CacheConstants.ATTRACTION_DETAIL_KEY + request.getAttractionId());
+        cacheClient.evictPrefixAfterCommit(CacheConstants.ATTRACTION_COUNT_KEY);
+        entityVersionRegistry.bumpAfterCommit(EntityVersionRegistry.SCOPE_ATTRACTIONS,
+                EntityVersionRegistry.attractionScope(request.getAttractionId()));
         log.info("景点 {} 绑定标签 {} 成功", request.getAttractionId(), tag.getTagName());
     }
 
@@ -83,6 +102,11 @@ public class AttractionTagRelationServiceImpl implements IAttractionTagRelationS
         }
 
         relationMapper.deleteById(relation.getRelationId());
+        attractionCardCatalog.refreshAttractionAfterCommit(request.getAttractionId());
+        cacheClient.evictAfterCommit(CacheConstants.ATTRACTION_DETAIL_KEY + request.getAttractionId());
+        cacheClient.evictPrefixAfterCommit(CacheConstants.ATTRACTION_COUNT_KEY);
+        entityVersionRegistry.bumpAfterCommit(EntityVersionRegistry.SCOPE_ATTRACTIONS,
+                EntityVersionRegistry.attractionScope(request.getAttractionId()));
         log.info("景点 {} 解绑标签 {} 成功", request.getAttractionId(), request.getTagId());
     }
 
@@ -96,18 +120,20 @@ public class AttractionTagRelationServiceImpl implements IAttractionTagRelationS
             throw new IllegalArgumentException("标签ID列表不能为空");
         }
 
+        List<Integer> tagIds = BatchWriteUtil.distinct(request.getTagIds());
+
         // 检查所有标签是否存在
         LambdaQueryWrapper<AttractionTag> tagWrapper = new LambdaQueryWrapper<>();
-        tagWrapper.in(AttractionTag::getTagId, request.getTagIds());
+        tagWrapper.in(AttractionTag::getTagId, tagIds);
         List<AttractionTag> tags = tagMapper.selectList(tagWrapper);
-        if (tags.size() != request.getTagIds().size()) {
+        if (tags.size() != tagIds.size()) {
             throw new IllegalArgumentException("部分标签不存在");
         }
 
         // 查询已绑定的标签
         LambdaQueryWrapper<AttractionTagRelation> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(AttractionTagRelation::getAttractionId, request.getAttractionId())
-               .in(AttractionTagRelation::getTagId, request.getTagIds());
+               .in(AttractionTagRelation::getTagId, tagIds);
         
         List<AttractionTagRelation> existingRelations = relationMapper.selectList(wrapper);
         List<Integer> existingTagIds = existingRelations.stream()
@@ -115,23 +141,24 @@ public class AttractionTagRelationServiceImpl implements IAttractionTagRelationS
                 .collect(Collectors.toList());
 
         // 过滤掉已绑定的标签
-        List<Integer> newTagIds = request.getTagIds().stream()
-                .filter(tagId -> !existingTagIds.contains(tagId))
-                .collect(Collectors.toList());
+        List<Integer> newTagIds = BatchWriteUtil.diff(tagIds, existingTagIds);
 
         if (newTagIds.isEmpty()) {
             throw new IllegalArgumentException("所有标签都已绑定,无需重复绑定");
         }
 
-        // 批量创建绑定关系
-        for (Integer tagId : newTagIds) {
-            AttractionTagRelation relation = AttractionTagRelation.builder()
-                    .attractionId(request.getAttractionId())
-                    .tagId(tagId)
-                    .build();
-            relationMapper.insert(relation);
-        }
+        // 批量创建绑定关系（多行 INSERT IGNORE）
+        BatchWriteUtil.insertInChunks(newTagIds,
+                chunk -> relationMapper.insertIgnoreBatch(request.getAttractionId(), chunk));
+
+        attractionCardCatalog.refreshAttractionAfterCommit(request.getAttractionId());
+
+        cacheClient.evictAfterCommit(CacheConstants.ATTRACTION_DETAIL_KEY + request.getAttractionId());
+        cacheClient.evictPrefixAfterCommit(CacheConstants.ATTRACTION_COUNT_KEY);
+
+        entityVersionRegistry.bumpAfterCommit(EntityVersionRegistry.SCOPE_ATTRACTIONS,
 
+                EntityVersionRegistry.attractionScope(request.getAttractionId()));
         log.info("景点 {} 批量绑定 {} 个标签成功", request.getAttractionId(), newTagIds.size());
     }
 
@@ -163,6 +190,11 @@ public class AttractionTagRelationServiceImpl implements IAttractionTagRelationS
         LambdaQueryWrapper<AttractionTagRelation> deleteWrapper = new LambdaQueryWrapper<>();
         deleteWrapper.in(AttractionTagRelation::getRelationId, relationIds);
         int count = relationMapper.delete(deleteWrapper);
+        attractionCardCatalog.refreshAttractionAfterCommit(request.getAttractionId());
+        cacheClient.evictAfterCommit(CacheConstants.ATTRACTION_DETAIL_KEY + request.getAttractionId());
+        cacheClient.evictPrefixAfterCommit(CacheConstants.ATTRACTION_COUNT_KEY);
+        entityVersionRegistry.bumpAfterCommit(EntityVersionRegistry.SCOPE_ATTRACTIONS,
+                EntityVersionRegistry.attractionScope(request.getAttractionId()));
         log.info("景点 {} 批量解绑 {} 个标签成功", request.getAttractionId(), count);
     }
 
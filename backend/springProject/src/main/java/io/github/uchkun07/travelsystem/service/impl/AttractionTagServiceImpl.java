@@ -2,12 +2,14 @@ package io.github.uchkun07.travelsystem.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import io.github.uchkun07.travelsystem.catalog.AttractionCardCatalog;
 import io.github.uchkun07.travelsystem.dto.AttractionTagQueryRequest;
 import io.github.uchkun07.travelsystem.dto.AttractionTagRequest;
 import io.github.uchkun07.travelsystem.dto.PageResponse;
 import io.github.uchkun07.travelsystem.entity.AttractionTag;
 import io.github.uchkun07.travelsystem.mapper.AttractionTagMapper;
 import io.github.uchkun07.travelsystem.service.IAttractionTagService;
+import io.github.uchkun07.travelsystem.util.EntityVersionRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -22,6 +24,12 @@ public class AttractionTagServiceImpl implements IAttractionTagService {
     @Autowired
     private AttractionTagMapper tagMapper;
 
+    @Autowired
+    private AttractionCardCatalog attractionCardCatalog;
+
+    @Autowired
+    private EntityVersionRegistry entityVersionRegistry;
+
     @Override
     @Transactional
     public AttractionTag createTag(AttractionTagRequest request) {
@@ -52,6 +60,8 @@ public class AttractionTagServiceImpl implements IAttractionTagService {
             throw new IllegalArgumentException("标签不存在");
         }
         tagMapper.deleteById(tagId);
+        attractionCardCatalog.refreshTagsAfterCommit(List.of(tagId));
+        entityVersionRegistry.bumpAfterCommit(EntityVersionRegistry.SCOPE_ATTRACTION_TAG);
         log.info("删除标签成功: {}", tag.getTagName());
     }
 
@@ -64,6 +74,8 @@ public class AttractionTagServiceImpl implements IAttractionTagService {
         LambdaQueryWrapper<AttractionTag> wrapper = new LambdaQueryWrapper<>();
         wrapper.in(AttractionTag::getTagId, tagIds);
         int count = tagMapper.delete(wrapper);
+        attractionCardCatalog.refreshTagsAfterCommit(tagIds);
+        entityVersionRegistry.bumpAfterCommit(EntityVersionRegistry.SCOPE_ATTRACTION_TAG);
         log.info("批量删除标签成功: 删除{}条", count);
     }
 
@@ -91,6 +103,7 @@ public class AttractionTagServiceImpl implements IAttractionTagService {
         if (request.getStatus() != null) tag.setStatus(request.getStatus());
 
         tagMapper.updateById(tag);
+        entityVersionRegistry.bumpAfterCommit(EntityVersionRegistry.SCOPE_ATTRACTION_TAG);
         log.info("更新标签成功: {}", tag.getTagName());
         return tag;
     }
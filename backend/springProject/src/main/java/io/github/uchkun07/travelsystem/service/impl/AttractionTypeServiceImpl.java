@@ -2,6 +2,7 @@ package io.github.uchkun07.travelsystem.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import io.github.uchkun07.travelsystem.catalog.AttractionCardCatalog;
 import io.github.uchkun07.travelsystem.dto.AttractionTypeCreateRequest;
 import io.github.uchkun07.travelsystem.dto.AttractionTypeQueryRequest;
 import io.github.uchkun07.travelsystem.dto.AttractionTypeUpdateRequest;
@@ -9,6 +10,7 @@ import io.github.uchkun07.travelsystem.dto.PageResponse;
 import io.github.uchkun07.travelsystem.entity.AttractionType;
 import io.github.uchkun07.travelsystem.mapper.AttractionTypeMapper;
 import io.github.uchkun07.travelsystem.service.IAttractionTypeService;
+import io.github.uchkun07.travelsystem.util.EntityVersionRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -26,6 +28,12 @@ public class AttractionTypeServiceImpl implements IAttractionTypeService {
     @Autowired
     private AttractionTypeMapper attractionTypeMapper;
 
+    @Autowired
+    private AttractionCardCatalog attractionCardCatalog;
+
+    @Autowired
+    private EntityVersionRegistry entityVersionRegistry;
+
     /**
      * 创建景点类型
      * @param request 创建请求
@@ -56,6 +64,8 @@ public class AttractionTypeServiceImpl implements IAttractionTypeService {
         if (result <= 0) {
             throw new RuntimeException("创建景点类型失败");
         }
+        attractionCardCatalog.refreshTypesAfterCommit(List.of(attractionType.getTypeId()));
+        entityVersionRegistry.bumpAfterCommit(EntityVersionRegistry.SCOPE_ATTRACTION_TYPE);
 
         log.info("创建景点类型成功: typeId={}, typeName={}", attractionType.getTypeId(), attractionType.getTypeName());
         return attractionType;
@@ -80,6 +90,8 @@ public class AttractionTypeServiceImpl implements IAttractionTypeService {
         if (result <= 0) {
             throw new RuntimeException("删除景点类型失败");
         }
+        attractionCardCatalog.refreshTypesAfterCommit(List.of(typeId));
+        entityVersionRegistry.bumpAfterCommit(EntityVersionRegistry.SCOPE_ATTRACTION_TYPE);
 
         log.info("删除景点类型成功: typeId={}, typeName={}", typeId, attractionType.getTypeName());
     }
@@ -102,6 +114,8 @@ public class AttractionTypeServiceImpl implements IAttractionTypeService {
         if (result <= 0) {
             throw new RuntimeException("批量删除景点类型失败");
         }
+        attractionCardCatalog.refreshTypesAfterCommit(typeIds);
+        entityVersionRegistry.bumpAfterCommit(EntityVersionRegistry.SCOPE_ATTRACTION_TYPE);
 
         log.info("批量删除景点类型成功: 删除数量={}, typeIds={}", result, typeIds);
     }
@@ -147,6 +161,8 @@ public class AttractionTypeServiceImpl implements IAttractionTypeService {
         if (result <= 0) {
             throw new RuntimeException("修改景点类型失败");
         }
+        attractionCardCatalog.refreshTypesAfterCommit(List.of(existingType.getTypeId()));
+        entityVersionRegistry.bumpAfterCommit(EntityVersionRegistry.SCOPE_ATTRACTION_TYPE);
 
         log.info("修改景点类型成功: typeId={}, typeName={}", existingType.getTypeId(), existingType.getTypeName());
         return existingType;
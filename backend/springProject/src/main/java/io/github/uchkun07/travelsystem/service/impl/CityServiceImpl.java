@@ -2,6 +2,7 @@ package io.github.uchkun07.travelsystem.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import io.github.uchkun07.travelsystem.catalog.AttractionCardCatalog;
 import io.github.uchkun07.travelsystem.dto.CityQueryRequest;
 import io.github.uchkun07.travelsystem.dto.CityRequest;
 import io.github.uchkun07.travelsystem.dto.CityResponse;
@@ -9,6 +10,7 @@ import io.github.uchkun07.travelsystem.dto.PageResponse;
 import io.github.uchkun07.travelsystem.entity.City;
 import io.github.uchkun07.travelsystem.mapper.CityMapper;
 import io.github.uchkun07.travelsystem.service.ICityService;
+import io.github.uchkun07.travelsystem.util.EntityVersionRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -23,6 +25,12 @@ public class CityServiceImpl implements ICityService {
     @Autowired
     private CityMapper cityMapper;
 
+    @Autowired
+    private AttractionCardCatalog attractionCardCatalog;
+
+    @Autowired
+    private EntityVersionRegistry entityVersionRegistry;
+
     @Override
     @Transactional
     public City createCity(CityRequest request) {
@@ -43,6 +51,8 @@ public class CityServiceImpl implements ICityService {
                 .build();
 
         cityMapper.insert(city);
+        attractionCardCatalog.refreshCitiesAfterCommit(List.of(city.getCityId()));
+        entityVersionRegistry.bumpAfterCommit(EntityVersionRegistry.SCOPE_CITY);
         log.info("创建城市成功: {}", city.getCityName());
         return city;
     }
@@ -55,6 +65,8 @@ public class CityServiceImpl implements ICityService {
             throw new IllegalArgumentException("城市不存在");
         }
         cityMapper.deleteById(cityId);
+        attractionCardCatalog.refreshCitiesAfterCommit(List.of(cityId));
+        entityVersionRegistry.bumpAfterCommit(EntityVersionRegistry.SCOPE_CITY);
         log.info("删除城市成功: {}", city.getCityName());
     }
 
@@ -67,6 +79,8 @@ public class CityServiceImpl implements ICityService {
         LambdaQueryWrapper<City> wrapper = new LambdaQueryWrapper<>();
         wrapper.in(City::getCityId, cityIds);
         int count = cityMapper.delete(wrapper);
+        attractionCardCatalog.refreshCitiesAfterCommit(cityIds);
+        entityVersionRegistry.bumpAfterCommit(EntityVersionRegistry.SCOPE_CITY);
         log.info("批量删除城市成功: 删除{}条", count);
     }
 
@@ -96,6 +110,8 @@ public class CityServiceImpl implements ICityService {
         if (request.getStatus() != null) city.setStatus(request.getStatus());
 
         cityMapper.updateById(city);
+        attractionCardCatalog.refreshCitiesAfterCommit(List.of(city.getCityId()));
+        entityVersionRegistry.bumpAfterCommit(EntityVersionRegistry.SCOPE_CITY);
         log.info("更新城市成功: {}", city.getCityName());
         return city;
     }
@@ -2,18 +2,24 @@ package io.github.uchkun07.travelsystem.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.uchkun07.travelsystem.dto.OperationLogQueryRequest;
 import io.github.uchkun07.travelsystem.dto.PageResponse;
 import io.github.uchkun07.travelsystem.mapper.AdminMapper;
 import io.github.uchkun07.travelsystem.mapper.OperationLogMapper;
 import io.github.uchkun07.travelsystem.service.IOperationLogService;
+import io.github.uchkun07.travelsystem.util.ExportWriter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -25,6 +31,9 @@ public class OperationLogServiceImpl implements IOperationLogService {
     @Autowired
     private AdminMapper adminMapper;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Override
     @Transactional
     public void saveLog(Long adminId, String operationType, String operationObject,
@@ -72,6 +81,75 @@ public class OperationLogServiceImpl implements IOperationLogService {
 
     @Override
     public PageResponse<io.github.uchkun07.travelsystem.entity.OperationLog> queryLogs(OperationLogQueryRequest request) {
+        LambdaQueryWrapper<io.github.uchkun07.travelsystem.entity.OperationLog> wrapper = buildQueryWrapper(request);
+        if (wrapper == null) {
+            // 如果没有匹配的管理员,返回空结果
+            return PageResponse.<io.github.uchkun07.travelsystem.entity.OperationLog>builder()
+                .records(List.of())
+                .total(0L)
+                .pageNum(request.getPageNum())
+                .pageSize(request.getPageSize())
+                .totalPages(0L)
+                .build();
+        }
+
+        wrapper.orderByDesc(io.github.uchkun07.travelsystem.entity.OperationLog::getOperationTime);
+
+        Page<io.github.uchkun07.travelsystem.entity.OperationLog> page = 
+            new Page<>(request.getPageNum(), request.getPageSize());
+        Page<io.github.uchkun07.travelsystem.entity.OperationLog> result = 
+            operationLogMapper.selectPage(page, wrapper);
+        
+        return PageResponse.of(result);
+    }
+
+    @Override
+    public long exportLogs(OperationLogQueryRequest request, ExportWriter.Format format,
+                           OutputStream output) throws IOException {
+        // 管理员数量有限，名称预先加载，流式读取期间不再发起其它查询
+        Map<Long, String> adminNames = adminMapper.selectList(
+                new LambdaQueryWrapper<io.github.uchkun07.travelsystem.entity.Admin>()
+                    .select(io.github.uchkun07.travelsystem.entity.Admin::getAdminId,
+                            io.github.uchkun07.travelsystem.entity.Admin::getUsername)).stream()
+            .collect(Collectors.toMap(io.github.uchkun07.travelsystem.entity.Admin::getAdminId,
+                    io.github.uchkun07.travelsystem.entity.Admin::getUsername, (a, b) -> a));
+
+        LambdaQueryWrapper<io.github.uchkun07.travelsystem.entity.OperationLog> wrapper = buildQueryWrapper(request);
+        try (ExportWriter<io.github.uchkun07.travelsystem.entity.OperationLog> writer =
+                 new ExportWriter<io.github.uchkun07.travelsystem.entity.OperationLog>(output, format, objectMapper)
+                     .column("operationLogId", io.github.uchkun07.travelsystem.entity.OperationLog::getOperationLogId)
+                     .column("adminId", io.github.uchkun07.travelsystem.entity.OperationLog::getAdminId)
+                     .column("adminName", l -> adminNames.get(l.getAdminId()))
+                     .column("operationType", io.github.uchkun07.travelsystem.entity.OperationLog::getOperationType)
+                     .column("operationObject", io.github.uchkun07.travelsystem.entity.OperationLog::getOperationObject)
+                     .column("objectId", io.github.uchkun07.travelsystem.entity.OperationLog::getObjectId)
+                     .column("operationContent", io.github.uchkun07.travelsystem.entity.OperationLog::getOperationContent)
+                     .column("operationIp", io.github.uchkun07.travelsystem.entity.OperationLog::getOperationIp)
+                     .column("operationTime", io.github.uchkun07.travelsystem.entity.OperationLog::getOperationTime)) {
+            if (wrapper != null) {
+                wrapper.select(io.github.uchkun07.travelsystem.entity.OperationLog::getOperationLogId,
+                                io.github.uchkun07.travelsystem.entity.OperationLog::getAdminId,
+                                io.github.uchkun07.travelsystem.entity.OperationLog::getOperationType,
+                                io.github.uchkun07.travelsystem.entity.OperationLog::getOperationObject,
+                                io.github.uchkun07.travelsystem.entity.OperationLog::getObjectId,
+                                io.github.uchkun07.travelsystem.entity.OperationLog::getOperationContent,
+                                io.github.uchkun07.travelsystem.entity.OperationLog::getOperationIp,
+                                io.github.uchkun07.travelsystem.entity.OperationLog::getOperationTime)
+                    .orderByDesc(io.github.uchkun07.travelsystem.entity.OperationLog::getOperationTime);
+                operationLogMapper.streamByWrapper(wrapper, writer.resultHandler());
+                writer.checkError();
+            }
+            return writer.getRowCount();
+        }
+    }
+
+    /**
+     * 按查询条件构建日志筛选条件（分页查询与导出共用）
+     *
+     * @return 筛选条件；按操作者姓名筛选无匹配管理员时返回 null
+     */
+    private LambdaQueryWrapper<io.github.uchkun07.travelsystem.entity.OperationLog> buildQueryWrapper(
+            OperationLogQueryRequest request) {
         LambdaQueryWrapper<io.github.uchkun07.travelsystem.entity.OperationLog> wrapper = 
             new LambdaQueryWrapper<>();
 
@@ -90,14 +168,8 @@ public class OperationLogServiceImpl implements IOperationLogService {
             List<io.github.uchkun07.travelsystem.entity.Admin> admins = 
                 adminMapper.selectList(adminWrapper);
             if (admins.isEmpty()) {
-                // 如果没有匹配的管理员,返回空结果
-                return PageResponse.<io.github.uchkun07.travelsystem.entity.OperationLog>builder()
-                    .records(List.of())
-                    .total(0L)
-                    .pageNum(request.getPageNum())
-                    .pageSize(request.getPageSize())
-                    .totalPages(0L)
-                    .build();
+                // 没有匹配的管理员
+                return null;
             }
             List<Long> adminIds = admins.stream()
                 .map(io.github.uchkun07.travelsystem.entity.Admin::getAdminId)
@@ -122,13 +194,6 @@ public class OperationLogServiceImpl implements IOperationLogService {
             wrapper.le(io.github.uchkun07.travelsystem.entity.OperationLog::getOperationTime, request.getEndTime());
         }
 
-        wrapper.orderByDesc(io.github.uchkun07.travelsystem.entity.OperationLog::getOperationTime);
-
-        Page<io.github.uchkun07.travelsystem.entity.OperationLog> page = 
-            new Page<>(request.getPageNum(), request.getPageSize());
-        Page<io.github.uchkun07.travelsystem.entity.OperationLog> result = 
-            operationLogMapper.selectPage(page, wrapper);
-        
-        return PageResponse.of(result);
+        return wrapper;
     }
 }
@@ -1,25 +1,32 @@
 package io.github.uchkun07.travelsystem.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.github.uchkun07.travelsystem.catalog.AttractionCardCatalog;
+import io.github.uchkun07.travelsystem.catalog.AttractionCardEntry;
+import io.github.uchkun07.travelsystem.catalog.ItemSimilarityIndex;
+import io.github.uchkun07.travelsystem.catalog.RecommendCandidatePool;
+import io.github.uchkun07.travelsystem.config.PerformanceProperties;
 import io.github.uchkun07.travelsystem.config.RecommendAlgorithmProperties;
 import io.github.uchkun07.travelsystem.dto.AttractionCardResponse;
 import io.github.uchkun07.travelsystem.dto.PageResponse;
 import io.github.uchkun07.travelsystem.dto.RecommendHomeRequest;
 import io.github.uchkun07.travelsystem.dto.RecommendHomeResponse;
+import io.github.uchkun07.travelsystem.dto.RecommendSession;
 import io.github.uchkun07.travelsystem.dto.RecommendTrackRequest;
 import io.github.uchkun07.travelsystem.dto.RecommendTypeBehaviorStat;
+import io.github.uchkun07.travelsystem.dto.UserBehaviorProfile;
 import io.github.uchkun07.travelsystem.entity.Attraction;
-import io.github.uchkun07.travelsystem.entity.AttractionType;
-import io.github.uchkun07.travelsystem.entity.City;
 import io.github.uchkun07.travelsystem.entity.UserBrowseRecord;
 import io.github.uchkun07.travelsystem.entity.UserPreference;
 import io.github.uchkun07.travelsystem.mapper.AttractionMapper;
-import io.github.uchkun07.travelsystem.mapper.AttractionTypeMapper;
-import io.github.uchkun07.travelsystem.mapper.CityMapper;
-import io.github.uchkun07.travelsystem.mapper.UserBrowseRecordMapper;
 import io.github.uchkun07.travelsystem.mapper.UserPreferenceMapper;
 import io.github.uchkun07.travelsystem.service.IRecommendationService;
+import io.github.uchkun07.travelsystem.service.IUserBehaviorProfileService;
+import io.github.uchkun07.travelsystem.util.BrowseRecordWriter;
+import io.github.uchkun07.travelsystem.util.CacheClient;
+import io.github.uchkun07.travelsystem.util.CacheConstants;
+import io.github.uchkun07.travelsystem.util.DiversifiedTopK;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -27,80 +34,57 @@ import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.regex.Pattern;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class RecommendationServiceImpl implements IRecommendationService {
 
-    private static final int CANDIDATE_SIZE = 500;
-    private static final int PREFERRED_TYPE_APPEND_SIZE = 200;
+    /** 打散：同一类型最多连续靠前的个数 */
+    private static final int DIVERSITY_PER_TYPE = 3;
+
+    private static final Pattern REQUEST_ID_PATTERN = Pattern.compile("[0-9a-f]{32}");
+
+    private static final TypeReference<RecommendSession> SESSION_TYPE = new TypeReference<>() {
+    };
 
     private final AttractionMapper attractionMapper;
-    private final AttractionTypeMapper attractionTypeMapper;
-    private final CityMapper cityMapper;
+    private final AttractionCardCatalog attractionCardCatalog;
+    private final RecommendCandidatePool recommendCandidatePool;
+    private final ItemSimilarityIndex itemSimilarityIndex;
     private final UserPreferenceMapper userPreferenceMapper;
-    private final UserBrowseRecordMapper userBrowseRecordMapper;
+    private final BrowseRecordWriter browseRecordWriter;
+    private final IUserBehaviorProfileService userBehaviorProfileService;
     private final RecommendAlgorithmProperties recommendProps;
+    private final PerformanceProperties performanceProperties;
+    private final CacheClient cacheClient;
 
     @Override
     public RecommendHomeResponse getHomeRecommendations(Long userId, RecommendHomeRequest request) {
         long pageNum = normalizePageNum(request == null ? null : request.getPageNum());
         long pageSize = normalizePageSize(request == null ? null : request.getPageSize());
 
-        UserPreference preference = loadUserPreference(userId);
-        List<Attraction> candidates = queryCandidates(preference);
-        String requestId = UUID.randomUUID().toString().replace("-", "");
-        if (candidates.isEmpty()) {
-            return RecommendHomeResponse.builder()
-                    .requestId(requestId)
-                    .recVersion(recommendProps.getRecVersion())
-                    .behaviorEnabled(false)
-                    .page(PageResponse.<AttractionCardResponse>builder()
-                            .records(List.of())
-                            .total(0L)
-                            .pageNum(pageNum)
-                            .pageSize(pageSize)
-                            .totalPages(0L)
-                            .hasPrevious(false)
-                            .hasNext(false)
-                            .build())
-                    .build();
-        }
-
-        long behaviorEventCount = 0L;
-        List<RecommendTypeBehaviorStat> behaviorStats = List.of();
-        if (userId != null) {
-            Integer window = recommendProps.getBehaviorWindowDays();
-            Long cnt = userBrowseRecordMapper.countRecentBehaviorEvents(userId, window);
-            behaviorEventCount = cnt == null ? 0L : cnt;
-            behaviorStats = userBrowseRecordMapper.aggregateUserBehaviorByType(userId, window);
-        }
-
-        RankResult rankResult = rankInJava(candidates, preference, behaviorStats, behaviorEventCount);
-
-        List<Attraction> orderedAttractions = reorderByIds(candidates, rankResult.orderedIds());
-
-        Map<Integer, String> typeNameMap = loadTypeNameMap(orderedAttractions);
-        Map<Integer, String> cityNameMap = loadCityNameMap(orderedAttractions);
+        // 同一会话只排序一次，翻页从缓存的排序结果中切片
+        RecommendSession session = loadSession(userId, request == null ? null : request.getRequestId());
+        List<Long> rankedIds = session.getAttractionIds() == null ? List.of() : session.getAttractionIds();
 
-        long total = orderedAttractions.size();
+        long total = rankedIds.size();
         long totalPages = (total + pageSize - 1) / pageSize;
         int from = (int) Math.min((pageNum - 1) * pageSize, total);
         int to = (int) Math.min(from + pageSize, total);
-        List<Attraction> pageItems = orderedAttractions.subList(from, to);
 
+        // 只有当前页的卡片字段从目录读取，无副标题时才回源读取描述
+        List<AttractionCardEntry> pageItems = attractionCardCatalog.getAll(rankedIds.subList(from, to));
+        Map<Long, String> descriptions = loadDescriptions(pageItems);
         List<AttractionCardResponse> records = pageItems.stream()
-                .map(item -> toCard(item, typeNameMap, cityNameMap))
+                .map(item -> toCard(item, descriptions))
                 .toList();
 
         PageResponse<AttractionCardResponse> page = PageResponse.<AttractionCardResponse>builder()
@@ -114,13 +98,150 @@ public class RecommendationServiceImpl implements IRecommendationService {
                 .build();
 
         return RecommendHomeResponse.builder()
-                .requestId(requestId)
-                .recVersion(recommendProps.getRecVersion())
-                .behaviorEnabled(rankResult.behaviorEnabled())
+                .requestId(session.getRequestId())
+                .recVersion(session.getRecVersion())
+                .behaviorEnabled(Boolean.TRUE.equals(session.getBehaviorEnabled()))
                 .page(page)
                 .build();
     }
 
+    /**
+     * 读取推荐会话；未传入或格式不合法时开启新会话，会话过期时以原 requestId 重新排序
+     */
+    private RecommendSession loadSession(Long userId, String requestId) {
+        long ttl = performanceProperties.getCache().getRecommendSessionTtlSec();
+        if (requestId == null || !REQUEST_ID_PATTERN.matcher(requestId).matches()) {
+            String newId = UUID.randomUUID().toString().replace("-", "");
+            RecommendSession session = rankSession(userId, newId);
+            cacheClient.set(sessionKey(userId, newId), session, ttl, 0);
+            return session;
+        }
+        return cacheClient.queryWithPassThrough(
+                sessionKey(userId, requestId),
+                SESSION_TYPE,
+                () -> rankSession(userId, requestId),
+                ttl,
+                performanceProperties.getCache().getNullValueTtlSec(),
+                0);
+    }
+
+    private String sessionKey(Long userId, String requestId) {
+        return CacheConstants.RECOMMEND_SESSION_KEY + (userId == null ? 0L : userId) + ":" + requestId;
+    }
+
+    /**
+     * 召回候选并排出会话内的完整顺序（前 sessionRankSize 个）
+     */
+    private RecommendSession rankSession(Long userId, String requestId) {
+        UserPreference preference = loadUserPreference(userId);
+        RecommendCandidatePool.Snapshot pool = recommendCandidatePool.snapshot();
+        int[] candidates = pool.candidates(preference == null ? null : preference.getPreferAttractionTypeId());
+        if (candidates.length == 0) {
+            return new RecommendSession(requestId, recommendProps.getRecVersion(), false, List.of());
+        }
+        CfRecall recall = recallSimilar(pool, userId, candidates);
+        candidates = recall.candidates();
+
+        long behaviorEventCount = 0L;
+        List<RecommendTypeBehaviorStat> behaviorStats = List.of();
+        if (userId != null) {
+            UserBehaviorProfile profile = userBehaviorProfileService.getProfile(userId, recommendProps.getBehaviorWindowDays());
+            behaviorEventCount = profile.getEventCount();
+            behaviorStats = profile.getTypeStats();
+        }
+
+        RankResult rankResult = rankInJava(pool, candidates, recall.scores(), preference, behaviorStats, behaviorEventCount,
+                Math.max(1, recommendProps.getSessionRankSize()));
+        int[] orderedRows = rankResult.orderedRows().length > 0 ? rankResult.orderedRows() : candidates;
+        int size = Math.min(orderedRows.length, Math.max(1, recommendProps.getSessionRankSize()));
+        List<Long> ids = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ids.add(pool.id(orderedRows[i]));
+        }
+        return new RecommendSession(requestId, recommendProps.getRecVersion(), rankResult.behaviorEnabled(), ids);
+    }
+
+    /**
+     * 物品协同召回：以最近点击的景点为种子（越近权重越高）累加相似邻居的得分，
+     * 候选中没有的高分邻居追加到候选末尾。返回的得分与候选位置对齐，没有协同信号时为 null。
+     */
+    private CfRecall recallSimilar(RecommendCandidatePool.Snapshot pool, Long userId, int[] candidates) {
+        ItemSimilarityIndex.Snapshot index = itemSimilarityIndex.snapshot();
+        if (userId == null || index.isEmpty() || recommendProps.getItemCfWeight() <= 0) {
+            return new CfRecall(candidates, null);
+        }
+        List<Long> seeds;
+        try {
+            seeds = userBehaviorProfileService.getRecentClicks(userId,
+                    recommendProps.getBehaviorWindowDays(), Math.max(1, recommendProps.getItemCfSeedSize()));
+        } catch (Exception e) {
+            log.warn("读取物品协同种子失败，跳过协同召回, userId={}", userId, e);
+            return new CfRecall(candidates, null);
+        }
+
+        double[] scoreByRow = new double[pool.size()];
+        boolean found = false;
+        for (int i = 0; i < seeds.size(); i++) {
+            Long seed = seeds.get(i);
+            int item = seed == null ? -1 : index.indexOf(seed);
+            if (item < 0) {
+                continue;
+            }
+            double recency = 1.0 / (i + 1);
+            for (int p = index.start(item); p < index.end(item); p++) {
+                int row = pool.rowOf(index.neighborId(p));
+                if (row >= 0) {
+                    scoreByRow[row] += recency * index.score(p);
+                    found = true;
+                }
+            }
+        }
+        if (!found) {
+            return new CfRecall(candidates, null);
+        }
+        // 种子本身已经点击过，不因相似度加分
+        for (Long seed : seeds) {
+            int row = seed == null ? -1 : pool.rowOf(seed);
+            if (row >= 0) {
+                scoreByRow[row] = 0;
+            }
+        }
+
+        // 候选之外的邻居按得分取前 itemCfRecallSize 个（有序小数组，插入排序）
+        boolean[] inCandidates = new boolean[pool.size()];
+        for (int row : candidates) {
+            inCandidates[row] = true;
+        }
+        int recallSize = Math.max(0, recommendProps.getItemCfRecallSize());
+        int[] extra = new int[recallSize];
+        int extraCount = 0;
+        for (int row = 0; row < scoreByRow.length && recallSize > 0; row++) {
+            if (scoreByRow[row] <= 0 || inCandidates[row]) {
+                continue;
+            }
+            if (extraCount == recallSize && scoreByRow[row] <= scoreByRow[extra[extraCount - 1]]) {
+                continue;
+            }
+            int i = extraCount == recallSize ? extraCount - 1 : extraCount;
+            while (i > 0 && scoreByRow[row] > scoreByRow[extra[i - 1]]) {
+                extra[i] = extra[i - 1];
+                i--;
+            }
+            extra[i] = row;
+            if (extraCount < recallSize) {
+                extraCount++;
+            }
+        }
+
+        int[] merged = Arrays.copyOf(candidates, candidates.length + extraCount);
+        System.arraycopy(extra, 0, merged, candidates.length, extraCount);
+        double[] scores = new double[merged.length];
+        for (int p = 0; p < merged.length; p++) {
+            scores[p] = scoreByRow[merged[p]];
+        }
+        return new CfRecall(merged, scores);
+    }
+
     @Override
     public void track(Long userId, RecommendTrackRequest request, String userAgent) {
         if (userId == null) {
@@ -140,24 +261,7 @@ public class RecommendationServiceImpl implements IRecommendationService {
             return;
         }
 
-        String requestIdShort = safeShort(request.getRequestId(), 8);
-        String sourcePage = safeShort(request.getSourcePage(), 12);
-        String recVersion = safeShort(request.getRecVersion(), 12);
-        String ua = safeShort(userAgent, 12);
         Integer pos = request.getPosition();
-
-        // 兼容当前表结构（device_info varchar(100)），使用短KV字符串
-        String deviceInfo = "et=" + eventType +
-                ";rid=" + requestIdShort +
-                ";pos=" + (pos == null ? 0 : Math.max(pos, 0)) +
-                ";pg=" + sourcePage +
-                ";rv=" + recVersion +
-                ";ua=" + ua;
-
-        if (deviceInfo.length() > 100) {
-            deviceInfo = deviceInfo.substring(0, 100);
-        }
-
         UserBrowseRecord record = UserBrowseRecord.builder()
                 .userId(userId)
                 .attractionId(request.getAttractionId())
@@ -166,248 +270,161 @@ public class RecommendationServiceImpl implements IRecommendationService {
                 .browseTime("stay".equals(eventType)
                         ? LocalDateTime.now().minusSeconds(staySeconds)
                         : LocalDateTime.now())
-                .deviceInfo(deviceInfo)
+                .deviceInfo(truncate(userAgent, 100))
+                .eventType(eventType)
+                .requestId(truncate(request.getRequestId(), 32))
+                .position(pos == null || pos < 0 ? null : pos)
+                .sourcePage(truncate(request.getSourcePage(), 32))
+                .recVersion(truncate(request.getRecVersion(), 32))
                 .build();
 
-        userBrowseRecordMapper.insert(record);
+        // 异步批量写库，写库成功后再累加行为画像
+        browseRecordWriter.submit(record);
     }
 
     private RankResult fallbackRank(long behaviorEventCount) {
         boolean behaviorEnabled = behaviorEventCount >= recommendProps.getBehaviorSwitchThreshold();
-        return new RankResult(List.of(), behaviorEnabled);
+        return new RankResult(new int[0], behaviorEnabled);
     }
 
-    private RankResult rankInJava(List<Attraction> candidates,
+    /**
+     * 在候选池上打分并选出前 limit 个行号（偏好类型命中优先、得分降序、同类型最多 DIVERSITY_PER_TYPE 个连续靠前）
+     * 偏好与行为特征每次请求只编译一次，打分与选择都在基本类型数组上进行。
+     *
+     * @param cfScores 与候选位置对齐的物品协同得分，可为 null
+     */
+    private RankResult rankInJava(RecommendCandidatePool.Snapshot pool,
+                                  int[] candidates,
+                                  double[] cfScores,
                                   UserPreference preference,
                                   List<RecommendTypeBehaviorStat> behaviorStats,
-                                  long behaviorEventCount) {
+                                  long behaviorEventCount,
+                                  int limit) {
         try {
-            if (candidates.isEmpty()) {
-                return new RankResult(List.of(), false);
+            if (candidates.length == 0) {
+                return new RankResult(new int[0], false);
             }
 
             boolean behaviorEnabled = behaviorEventCount >= recommendProps.getBehaviorSwitchThreshold();
-            Integer preferTypeId = preference == null ? null : preference.getPreferAttractionTypeId();
-
-            int maxBrowse = candidates.stream().map(Attraction::getBrowseCount).filter(Objects::nonNull).max(Integer::compareTo).orElse(1);
-            int maxFavorite = candidates.stream().map(Attraction::getFavoriteCount).filter(Objects::nonNull).max(Integer::compareTo).orElse(1);
-            double maxRating = candidates.stream()
-                    .map(Attraction::getAverageRating)
-                    .filter(Objects::nonNull)
-                    .mapToDouble(Number::doubleValue)
-                    .max()
-                    .orElse(5.0);
-
-            Map<Integer, RecommendTypeBehaviorStat> behaviorByType = behaviorStats.stream()
-                    .filter(s -> s.getTypeId() != null)
-                    .collect(Collectors.toMap(RecommendTypeBehaviorStat::getTypeId, s -> s, (a, b) -> a));
-
-            int maxClick = behaviorByType.values().stream().map(RecommendTypeBehaviorStat::getClickCount)
-                    .filter(Objects::nonNull).max(Integer::compareTo).orElse(1);
-            int maxStay = behaviorByType.values().stream().map(RecommendTypeBehaviorStat::getStaySeconds)
-                    .filter(Objects::nonNull).max(Integer::compareTo).orElse(1);
-
-            List<ScoredAttraction> scored = new ArrayList<>(candidates.size());
-            for (Attraction item : candidates) {
-                double hs = hotScore(item, maxBrowse, maxFavorite, maxRating);
-                double es = explicitScore(item, preference);
-                double ims = implicitScore(item, behaviorByType, maxClick, maxStay);
-
-                double total;
-                if (preference == null) {
-                    total = hs;
-                } else if (behaviorEnabled) {
-                    double profile = recommendProps.getProfileExplicitWeight() * es
-                            + recommendProps.getProfileImplicitWeight() * ims;
-                    total = recommendProps.getMatureProfileWeight() * profile
-                            + recommendProps.getMatureHotWeight() * hs;
-                } else {
-                    total = recommendProps.getColdPreferenceWeight() * es
-                            + recommendProps.getColdHotWeight() * hs;
-                }
-
-                boolean typeMatch = preferTypeId != null && preferTypeId.equals(item.getTypeId());
-                scored.add(new ScoredAttraction(item, round(total), typeMatch));
+            int n = candidates.length;
+
+            // 热度归一化基准
+            int maxBrowse = 0;
+            int maxFavorite = 0;
+            double maxRating = 0;
+            for (int row : candidates) {
+                maxBrowse = Math.max(maxBrowse, pool.browseCount(row));
+                maxFavorite = Math.max(maxFavorite, pool.favoriteCount(row));
+                maxRating = Math.max(maxRating, pool.rating(row));
             }
-
-            Comparator<ScoredAttraction> byScoreDesc = Comparator.comparing(ScoredAttraction::score).reversed();
-            if (preferTypeId != null) {
-                scored.sort(Comparator.comparing(ScoredAttraction::typeMatch).reversed().thenComparing(byScoreDesc));
-            } else {
-                scored.sort(byScoreDesc);
-            }
-
-            List<ScoredAttraction> diversified = diversify(scored, 3);
-            List<Long> orderedIds = diversified.stream()
-                    .map(s -> s.attraction().getAttractionId())
-                    .filter(Objects::nonNull)
-                    .toList();
-            return new RankResult(orderedIds, behaviorEnabled);
-        } catch (Exception ex) {
-            log.warn("Java 推荐排序异常，降级热门排序: {}", ex.getMessage());
-            return fallbackRank(behaviorEventCount);
-        }
-    }
-
-    private List<Attraction> reorderByIds(List<Attraction> candidates, List<Long> orderedIds) {
-        if (orderedIds == null || orderedIds.isEmpty()) {
-            return candidates;
-        }
-
-        Map<Long, Attraction> byId = candidates.stream()
-                .collect(Collectors.toMap(Attraction::getAttractionId, a -> a, (a, b) -> a, LinkedHashMap::new));
-
-        List<Attraction> result = new ArrayList<>(candidates.size());
-        Set<Long> used = new java.util.HashSet<>();
-
-        for (Long id : orderedIds) {
-            Attraction a = byId.get(id);
-            if (a != null && used.add(id)) {
-                result.add(a);
+            double cfWeight = cfScores == null ? 0 : recommendProps.getItemCfWeight();
+            double maxCf = 0;
+            if (cfWeight != 0) {
+                for (double cf : cfScores) {
+                    maxCf = Math.max(maxCf, cf);
+                }
             }
-        }
 
-        for (Attraction a : candidates) {
-            if (used.add(a.getAttractionId())) {
-                result.add(a);
+            // 三项得分的权重：无偏好只看热度；冷启动为显式偏好 + 热度；行为成熟后显式、隐式与热度加权
+            double hotWeight = 1.0;
+            double explicitWeight = 0.0;
+            double implicitWeight = 0.0;
+            if (preference != null && behaviorEnabled) {
+                hotWeight = recommendProps.getMatureHotWeight();
+                explicitWeight = recommendProps.getMatureProfileWeight() * recommendProps.getProfileExplicitWeight();
+                implicitWeight = recommendProps.getMatureProfileWeight() * recommendProps.getProfileImplicitWeight();
+            } else if (preference != null) {
+                hotWeight = recommendProps.getColdHotWeight();
+                explicitWeight = recommendProps.getColdPreferenceWeight();
             }
-        }
-
-        return result;
-    }
 
-    private List<Attraction> queryCandidates(UserPreference preference) {
-        Page<Attraction> page = new Page<>(1, CANDIDATE_SIZE);
-        LambdaQueryWrapper<Attraction> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(Attraction::getAuditStatus, 2)
-                .eq(Attraction::getStatus, 1)
-                .orderByDesc(Attraction::getPopularity)
-                .orderByDesc(Attraction::getBrowseCount)
-                .orderByDesc(Attraction::getFavoriteCount)
-                .orderByDesc(Attraction::getAverageRating);
-        List<Attraction> baseCandidates = attractionMapper.selectPage(page, wrapper).getRecords();
-
-        Integer preferTypeId = preference == null ? null : preference.getPreferAttractionTypeId();
-        if (preferTypeId == null) {
-            return baseCandidates;
-        }
-
-        boolean hasPreferredType = baseCandidates.stream()
-                .anyMatch(a -> preferTypeId.equals(a.getTypeId()));
-        if (hasPreferredType) {
-            return baseCandidates;
-        }
-
-        Page<Attraction> preferredPage = new Page<>(1, PREFERRED_TYPE_APPEND_SIZE);
-        LambdaQueryWrapper<Attraction> preferredWrapper = new LambdaQueryWrapper<>();
-        preferredWrapper.eq(Attraction::getAuditStatus, 2)
-                .eq(Attraction::getStatus, 1)
-                .eq(Attraction::getTypeId, preferTypeId)
-                .orderByDesc(Attraction::getPopularity)
-                .orderByDesc(Attraction::getBrowseCount)
-                .orderByDesc(Attraction::getFavoriteCount)
-                .orderByDesc(Attraction::getAverageRating)
-                .orderByDesc(Attraction::getCreateTime);
-        List<Attraction> preferredCandidates = attractionMapper.selectPage(preferredPage, preferredWrapper).getRecords();
-        if (preferredCandidates.isEmpty()) {
-            return baseCandidates;
-        }
-
-        Map<Long, Attraction> merged = new LinkedHashMap<>();
-        for (Attraction item : baseCandidates) {
-            merged.put(item.getAttractionId(), item);
-        }
-        for (Attraction item : preferredCandidates) {
-            merged.put(item.getAttractionId(), item);
-        }
-
-        List<Attraction> result = new ArrayList<>(merged.values());
-        log.info("推荐候选补齐偏好类型: userPreferTypeId={}, baseSize={}, appendSize={}, mergedSize={}",
-                preferTypeId, baseCandidates.size(), preferredCandidates.size(), result.size());
-        return result;
-    }
-
-    private double explicitScore(Attraction item, UserPreference preference) {
-        if (preference == null) {
-            return 0.0;
-        }
-        double score = 0.0;
-
-        Integer prefType = preference.getPreferAttractionTypeId();
-        if (prefType != null && prefType.equals(item.getTypeId())) {
-            score += 0.55;
-        }
-
-        String preferSeason = preference.getPreferSeason();
-        String bestSeason = item.getBestSeason();
-        if (StringUtils.hasText(preferSeason) && StringUtils.hasText(bestSeason)) {
-            String[] seasons = preferSeason.split("[,，]");
-            for (String s : seasons) {
-                String season = s.trim();
-                if (season.isEmpty()) {
-                    continue;
+            // 显式偏好特征
+            Integer preferTypeId = preference == null ? null : preference.getPreferAttractionTypeId();
+            int preferOrdinal = preferTypeId == null ? -1 : pool.ordinalOf(preferTypeId);
+            int preferSeasons = preference == null ? 0 : RecommendCandidatePool.seasonMask(preference.getPreferSeason());
+            boolean hasBudget = preference != null && preference.getBudgetFloor() != null && preference.getBudgetRange() != null;
+            double budgetFloor = hasBudget ? preference.getBudgetFloor() : 0;
+            double budgetCeil = hasBudget ? preference.getBudgetRange() : 0;
+
+            // 隐式行为特征：按类型序号索引的隐式得分
+            int typeCount = pool.typeCount();
+            double[] implicitByType = new double[typeCount];
+            if (implicitWeight != 0 && !behaviorStats.isEmpty()) {
+                int maxClick = 0;
+                int maxStay = 0;
+                boolean anyClick = false;
+                boolean anyStay = false;
+                for (RecommendTypeBehaviorStat stat : behaviorStats) {
+                    if (stat.getTypeId() == null) {
+                        continue;
+                    }
+                    if (stat.getClickCount() != null) {
+                        maxClick = anyClick ? Math.max(maxClick, stat.getClickCount()) : stat.getClickCount();
+                        anyClick = true;
+                    }
+                    if (stat.getStaySeconds() != null) {
+                        maxStay = anyStay ? Math.max(maxStay, stat.getStaySeconds()) : stat.getStaySeconds();
+                        anyStay = true;
+                    }
                 }
-                if (bestSeason.contains(season)) {
-                    score += 0.2;
-                    break;
+                maxClick = anyClick ? maxClick : 1;
+                maxStay = anyStay ? maxStay : 1;
+                for (RecommendTypeBehaviorStat stat : behaviorStats) {
+                    int ordinal = stat.getTypeId() == null || stat.getTypeId() == RecommendCandidatePool.NO_TYPE
+                            ? -1 : pool.ordinalOf(stat.getTypeId());
+                    if (ordinal < 0 || implicitByType[ordinal] != 0) {
+                        continue;
+                    }
+                    implicitByType[ordinal] = recommendProps.getBehaviorClickWeight() * normalize(defaultInt(stat.getClickCount()), maxClick)
+                            + recommendProps.getBehaviorStayWeight() * normalize(defaultInt(stat.getStaySeconds()), maxStay);
                 }
             }
-        }
-
-        Integer budgetFloor = preference.getBudgetFloor();
-        Integer budgetRange = preference.getBudgetRange();
-        double ticketPrice = item.getTicketPrice() == null ? 0.0 : item.getTicketPrice().doubleValue();
-        if (budgetFloor != null && budgetRange != null
-                && budgetFloor <= ticketPrice && ticketPrice <= budgetRange) {
-            score += 0.25;
-        }
-
-        return Math.min(score, 1.0);
-    }
 
-    private double hotScore(Attraction item, int maxBrowse, int maxFavorite, double maxRating) {
-        double browse = normalize(defaultInt(item.getBrowseCount()), maxBrowse);
-        double favorite = normalize(defaultInt(item.getFavoriteCount()), maxFavorite);
-        double rating = normalize(item.getAverageRating() == null ? 0.0 : item.getAverageRating().doubleValue(), maxRating);
-        return 0.5 * browse + 0.3 * favorite + 0.2 * rating;
-    }
+            DiversifiedTopK.Workspace ws = DiversifiedTopK.workspace(n, typeCount);
+            for (int p = 0; p < n; p++) {
+                int row = candidates[p];
+                int ordinal = pool.typeOrdinal(row);
+                boolean typeMatch = ordinal == preferOrdinal;
+
+                double total = hotWeight * (0.5 * normalize(pool.browseCount(row), maxBrowse)
+                        + 0.3 * normalize(pool.favoriteCount(row), maxFavorite)
+                        + 0.2 * normalize(pool.rating(row), maxRating));
+                if (explicitWeight != 0) {
+                    double explicit = 0.0;
+                    if (typeMatch) {
+                        explicit += 0.55;
+                    }
+                    if ((preferSeasons & pool.seasons(row)) != 0) {
+                        explicit += 0.2;
+                    }
+                    double price = pool.price(row);
+                    if (hasBudget && budgetFloor <= price && price <= budgetCeil) {
+                        explicit += 0.25;
+                    }
+                    total += explicitWeight * Math.min(explicit, 1.0);
+                }
+                if (implicitWeight != 0) {
+                    total += implicitWeight * implicitByType[ordinal];
+                }
+                if (cfWeight != 0) {
+                    total += cfWeight * normalize(cfScores[p], maxCf);
+                }
 
-    private double implicitScore(Attraction item,
-                                 Map<Integer, RecommendTypeBehaviorStat> behaviorByType,
-                                 int maxClick,
-                                 int maxStay) {
-        Integer typeId = item.getTypeId();
-        if (typeId == null) {
-            return 0.0;
-        }
-        RecommendTypeBehaviorStat stat = behaviorByType.get(typeId);
-        if (stat == null) {
-            return 0.0;
-        }
-        double clickNorm = normalize(defaultInt(stat.getClickCount()), maxClick);
-        double stayNorm = normalize(defaultInt(stat.getStaySeconds()), maxStay);
-        return recommendProps.getBehaviorClickWeight() * clickNorm
-                + recommendProps.getBehaviorStayWeight() * stayNorm;
-    }
+                ws.scores[p] = round(total);
+                ws.preferred[p] = typeMatch;
+                ws.groups[p] = ordinal;
+            }
 
-    private List<ScoredAttraction> diversify(List<ScoredAttraction> scoredItems, int maxPerType) {
-        List<ScoredAttraction> result = new ArrayList<>();
-        List<ScoredAttraction> overflow = new ArrayList<>();
-        Map<Integer, Integer> seen = new HashMap<>();
-
-        for (ScoredAttraction item : scoredItems) {
-            Integer type = item.attraction().getTypeId();
-            int count = seen.getOrDefault(type, 0);
-            if (count < maxPerType) {
-                result.add(item);
-                seen.put(type, count + 1);
-            } else {
-                overflow.add(item);
+            int[] positions = DiversifiedTopK.select(ws, n, typeCount, DIVERSITY_PER_TYPE, limit);
+            int[] orderedRows = new int[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                orderedRows[i] = candidates[positions[i]];
             }
+            return new RankResult(orderedRows, behaviorEnabled);
+        } catch (Exception ex) {
+            log.warn("Java 推荐排序异常，降级热门排序: {}", ex.getMessage());
+            return fallbackRank(behaviorEventCount);
         }
-
-        result.addAll(overflow);
-        return result;
     }
 
     private double normalize(double value, double maxValue) {
@@ -437,47 +454,44 @@ public class RecommendationServiceImpl implements IRecommendationService {
         return userPreferenceMapper.selectOne(wrapper);
     }
 
-    private Map<Integer, String> loadTypeNameMap(List<Attraction> attractions) {
-        Set<Integer> ids = attractions.stream().map(Attraction::getTypeId).filter(i -> i != null).collect(Collectors.toSet());
+    private Map<Long, String> loadDescriptions(List<AttractionCardEntry> items) {
+        List<Long> ids = items.stream()
+                .filter(item -> !StringUtils.hasText(item.getSubtitle()))
+                .map(AttractionCardEntry::getAttractionId)
+                .toList();
         if (ids.isEmpty()) {
             return Map.of();
         }
-        LambdaQueryWrapper<AttractionType> wrapper = new LambdaQueryWrapper<>();
-        wrapper.in(AttractionType::getTypeId, ids);
-        return attractionTypeMapper.selectList(wrapper).stream()
-                .collect(Collectors.toMap(AttractionType::getTypeId, AttractionType::getTypeName, (a, b) -> a));
-    }
-
-    private Map<Integer, String> loadCityNameMap(List<Attraction> attractions) {
-        Set<Integer> ids = attractions.stream().map(Attraction::getCityId).filter(i -> i != null).collect(Collectors.toSet());
-        if (ids.isEmpty()) {
-            return Map.of();
+        LambdaQueryWrapper<Attraction> wrapper = new LambdaQueryWrapper<>();
+        wrapper.select(Attraction::getAttractionId, Attraction::getDescription)
+                .in(Attraction::getAttractionId, ids);
+        Map<Long, String> result = new HashMap<>();
+        for (Attraction attraction : attractionMapper.selectList(wrapper)) {
+            if (StringUtils.hasText(attraction.getDescription())) {
+                result.put(attraction.getAttractionId(), attraction.getDescription());
+            }
         }
-        LambdaQueryWrapper<City> wrapper = new LambdaQueryWrapper<>();
-        wrapper.in(City::getCityId, ids);
-        return cityMapper.selectList(wrapper).stream()
-                .collect(Collectors.toMap(City::getCityId, City::getCityName, (a, b) -> a));
+        return result;
     }
 
-    private AttractionCardResponse toCard(Attraction attraction,
-                                          Map<Integer, String> typeNameMap,
-                                          Map<Integer, String> cityNameMap) {
-        String description = StringUtils.hasText(attraction.getSubtitle()) ? attraction.getSubtitle() : attraction.getDescription();
+    private AttractionCardResponse toCard(AttractionCardEntry entry, Map<Long, String> descriptions) {
+        String description = StringUtils.hasText(entry.getSubtitle())
+                ? entry.getSubtitle() : descriptions.get(entry.getAttractionId());
         if (!StringUtils.hasText(description)) {
             description = "暂无描述";
         }
 
         return AttractionCardResponse.builder()
-                .attractionId(attraction.getAttractionId())
-                .name(attraction.getName())
+                .attractionId(entry.getAttractionId())
+                .name(entry.getName())
                 .description(description)
-                .type(typeNameMap.getOrDefault(attraction.getTypeId(), "未知类型"))
-                .location(cityNameMap.getOrDefault(attraction.getCityId(), "未知城市"))
-                .imageUrl(attraction.getMainImageUrl())
-                .averageRating(attraction.getAverageRating())
-                .viewCount(attraction.getBrowseCount())
-                .popularity(attraction.getPopularity())
-                .ticketPrice(attraction.getTicketPrice())
+                .type(entry.getTypeName() != null ? entry.getTypeName() : "未知类型")
+                .location(entry.getCityName() != null ? entry.getCityName() : "未知城市")
+                .imageUrl(entry.getMainImageUrl())
+                .averageRating(entry.getAverageRating())
+                .viewCount(entry.getBrowseCount())
+                .popularity(entry.getPopularity())
+                .ticketPrice(entry.getTicketPrice())
                 .build();
     }
 
@@ -508,17 +522,18 @@ public class RecommendationServiceImpl implements IRecommendationService {
         return v == null ? 0 : v;
     }
 
-    private String safeShort(String value, int maxLen) {
+    private String truncate(String value, int maxLen) {
         if (!StringUtils.hasText(value)) {
-            return "na";
+            return null;
         }
-        String v = value.replace(";", "_").replace("=", "_").trim();
+        String v = value.trim();
         return v.length() <= maxLen ? v : v.substring(0, maxLen);
     }
 
-    private record RankResult(List<Long> orderedIds, boolean behaviorEnabled) {
+    private record RankResult(int[] orderedRows, boolean behaviorEnabled) {
     }
 
-    private record ScoredAttraction(Attraction attraction, double score, boolean typeMatch) {
+    private record CfRecall(int[] candidates, double[] scores) {
     }
+
 }
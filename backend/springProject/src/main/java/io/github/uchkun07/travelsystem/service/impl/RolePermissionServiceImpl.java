@@ -6,6 +6,7 @@ import io.github.uchkun07.travelsystem.entity.AdminRolePermission;
 import io.github.uchkun07.travelsystem.mapper.AdminPermissionMapper;
 import io.github.uchkun07.travelsystem.mapper.AdminRolePermissionMapper;
 import io.github.uchkun07.travelsystem.service.IRolePermissionService;
+import io.github.uchkun07.travelsystem.util.BatchWriteUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -32,20 +33,18 @@ public class RolePermissionServiceImpl implements IRolePermissionService {
             throw new IllegalArgumentException("权限ID列表不能为空");
         }
 
-        for (Integer permissionId : permissionIds) {
-            LambdaQueryWrapper<AdminRolePermission> wrapper = new LambdaQueryWrapper<>();
-            wrapper.eq(AdminRolePermission::getRoleId, roleId)
-                   .eq(AdminRolePermission::getPermissionId, permissionId);
-            
-            if (rolePermissionMapper.selectCount(wrapper) == 0) {
-                AdminRolePermission relation = AdminRolePermission.builder()
-                        .roleId(roleId)
-                        .permissionId(permissionId)
-                        .build();
-                rolePermissionMapper.insert(relation);
-            }
-        }
-        log.info("角色绑定权限成功: roleId={}, permissionIds={}", roleId, permissionIds);
+        // 一次查询已绑定的权限，只插入差集
+        LambdaQueryWrapper<AdminRolePermission> wrapper = new LambdaQueryWrapper<>();
+        wrapper.select(AdminRolePermission::getPermissionId)
+               .eq(AdminRolePermission::getRoleId, roleId)
+               .in(AdminRolePermission::getPermissionId, permissionIds);
+        List<Integer> existingIds = rolePermissionMapper.selectList(wrapper).stream()
+                .map(AdminRolePermission::getPermissionId)
+                .collect(Collectors.toList());
+
+        List<Integer> newIds = BatchWriteUtil.diff(permissionIds, existingIds);
+        BatchWriteUtil.insertInChunks(newIds, chunk -> rolePermissionMapper.insertIgnoreBatch(roleId, chunk));
+        log.info("角色绑定权限成功: roleId={}, permissionIds={}, added={}", roleId, permissionIds, newIds.size());
     }
 
     @Override
@@ -55,12 +54,10 @@ public class RolePermissionServiceImpl implements IRolePermissionService {
             throw new IllegalArgumentException("权限ID列表不能为空");
         }
 
-        for (Integer permissionId : permissionIds) {
-            LambdaQueryWrapper<AdminRolePermission> wrapper = new LambdaQueryWrapper<>();
-            wrapper.eq(AdminRolePermission::getRoleId, roleId)
-                   .eq(AdminRolePermission::getPermissionId, permissionId);
-            rolePermissionMapper.delete(wrapper);
-        }
+        LambdaQueryWrapper<AdminRolePermission> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(AdminRolePermission::getRoleId, roleId)
+               .in(AdminRolePermission::getPermissionId, permissionIds);
+        rolePermissionMapper.delete(wrapper);
         log.info("角色解绑权限成功: roleId={}, permissionIds={}", roleId, permissionIds);
     }
 
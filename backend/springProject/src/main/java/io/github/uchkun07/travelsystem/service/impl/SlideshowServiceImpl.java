@@ -7,6 +7,7 @@ import io.github.uchkun07.travelsystem.dto.SlideshowQueryRequest;
 import io.github.uchkun07.travelsystem.dto.SlideshowRequest;
 import io.github.uchkun07.travelsystem.entity.Slideshow;
 import io.github.uchkun07.travelsystem.mapper.SlideshowMapper;
+import io.github.uchkun07.travelsystem.service.IAttractionCounterService;
 import io.github.uchkun07.travelsystem.service.ISlideshowService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,6 +16,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -23,6 +26,9 @@ public class SlideshowServiceImpl implements ISlideshowService {
     @Autowired
     private SlideshowMapper slideshowMapper;
 
+    @Autowired
+    private IAttractionCounterService attractionCounterService;
+
     @Override
     @Transactional
     public Slideshow createSlideshow(SlideshowRequest request) {
@@ -107,6 +113,17 @@ public class SlideshowServiceImpl implements ISlideshowService {
 
         Page<Slideshow> page = new Page<>(request.getPageNum(), request.getPageSize());
         Page<Slideshow> result = slideshowMapper.selectPage(page, wrapper);
+
+        // 合并尚未落库的点击量
+        Map<Integer, Long> pendingClicks = attractionCounterService.getPendingSlideshowClicks(
+                result.getRecords().stream().map(Slideshow::getSlideshowId).collect(Collectors.toList()));
+        result.getRecords().forEach(slideshow -> {
+            Long pending = pendingClicks.get(slideshow.getSlideshowId());
+            if (pending != null) {
+                int clickCount = slideshow.getClickCount() != null ? slideshow.getClickCount() : 0;
+                slideshow.setClickCount((int) (clickCount + pending));
+            }
+        });
         return PageResponse.of(result);
     }
 
@@ -135,14 +152,12 @@ public class SlideshowServiceImpl implements ISlideshowService {
     }
 
     @Override
-    @Transactional
     public void incrementClickCount(Integer slideshowId) {
-        Slideshow slideshow = slideshowMapper.selectById(slideshowId);
-        if (slideshow == null) {
+        if (slideshowId == null || slideshowId <= 0) {
             throw new IllegalArgumentException("轮播图不存在");
         }
-        slideshow.setClickCount(slideshow.getClickCount() + 1);
-        slideshowMapper.updateById(slideshow);
+        // 点击量先在Redis中累加，由计数服务定时批量落库（不存在的ID落库时自然被忽略）
+        attractionCounterService.incrementSlideshowClickCount(slideshowId);
     }
 
     @Override
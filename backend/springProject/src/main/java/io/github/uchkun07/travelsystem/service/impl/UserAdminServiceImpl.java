@@ -2,17 +2,21 @@ package io.github.uchkun07.travelsystem.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.uchkun07.travelsystem.dto.*;
 import io.github.uchkun07.travelsystem.entity.*;
 import io.github.uchkun07.travelsystem.mapper.*;
 import io.github.uchkun07.travelsystem.service.IUserAdminService;
 import io.github.uchkun07.travelsystem.service.IUserTagService;
+import io.github.uchkun07.travelsystem.util.ExportWriter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -42,9 +46,69 @@ public class UserAdminServiceImpl implements IUserAdminService {
     @Autowired
     private IUserTagService userTagService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Override
     public PageResponse<UserDetailResponse> queryUsers(UserQueryRequest request) {
         Page<User> page = new Page<>(request.getPageNum(), request.getPageSize());
+        LambdaQueryWrapper<User> wrapper = buildUserQueryWrapper(request);
+        if (wrapper == null) {
+            // 标签或手机号筛选无匹配用户，返回空结果
+            return PageResponse.<UserDetailResponse>builder()
+                    .records(new ArrayList<>())
+                    .total(0L)
+                    .pageNum(request.getPageNum())
+                    .pageSize(request.getPageSize())
+                    .build();
+        }
+        
+        wrapper.orderByDesc(User::getCreateTime);
+        
+        Page<User> result = userMapper.selectPage(page, wrapper);
+        
+        // 构建详情响应
+        List<UserDetailResponse> detailResponses = result.getRecords().stream()
+                .map(this::buildUserDetailResponse)
+                .collect(Collectors.toList());
+        
+        return PageResponse.<UserDetailResponse>builder()
+                .records(detailResponses)
+                .total(result.getTotal())
+                .pageNum(result.getCurrent())
+                .pageSize(result.getSize())
+                .build();
+    }
+
+    @Override
+    public long exportUsers(UserQueryRequest request, ExportWriter.Format format, OutputStream output) throws IOException {
+        LambdaQueryWrapper<User> wrapper = buildUserQueryWrapper(request);
+        try (ExportWriter<User> writer = new ExportWriter<User>(output, format, objectMapper)
+                .column("userId", User::getUserId)
+                .column("username", User::getUsername)
+                .column("nickname", User::getNickname)
+                .column("email", User::getEmail)
+                .column("status", User::getStatus)
+                .column("lastLoginTime", User::getLastLoginTime)
+                .column("createTime", User::getCreateTime)) {
+            if (wrapper != null) {
+                // 只查询导出列，不读取密码等敏感字段
+                wrapper.select(User::getUserId, User::getUsername, User::getNickname, User::getEmail,
+                                User::getStatus, User::getLastLoginTime, User::getCreateTime)
+                        .orderByAsc(User::getUserId);
+                userMapper.streamByWrapper(wrapper, writer.resultHandler());
+                writer.checkError();
+            }
+            return writer.getRowCount();
+        }
+    }
+
+    /**
+     * 按查询条件构建用户筛选条件（列表与导出共用）
+     *
+     * @return 筛选条件；标签或手机号筛选无匹配用户时返回 null
+     */
+    private LambdaQueryWrapper<User> buildUserQueryWrapper(UserQueryRequest request) {
         LambdaQueryWrapper<User> wrapper = new LambdaQueryWrapper<>();
         
         if (StringUtils.hasText(request.getUsername())) {
@@ -68,13 +132,8 @@ public class UserAdminServiceImpl implements IUserAdminService {
             List<UserTag> userTags = userTagMapper.selectList(tagWrapper);
             
             if (userTags.isEmpty()) {
-                // 没有用户拥有该标签，返回空结果
-                return PageResponse.<UserDetailResponse>builder()
-                        .records(new ArrayList<>())
-                        .total(0L)
-                        .pageNum(request.getPageNum())
-                        .pageSize(request.getPageSize())
-                        .build();
+                // 没有用户拥有该标签
+                return null;
             }
             
             List<Long> userIds = userTags.stream()
@@ -91,12 +150,7 @@ public class UserAdminServiceImpl implements IUserAdminService {
             List<UserProfile> profiles = userProfileMapper.selectList(profileWrapper);
             
             if (profiles.isEmpty()) {
-                return PageResponse.<UserDetailResponse>builder()
-                        .records(new ArrayList<>())
-                        .total(0L)
-                        .pageNum(request.getPageNum())
-                        .pageSize(request.getPageSize())
-                        .build();
+                return null;
             }
             
             List<Long> userIds = profiles.stream()
@@ -105,21 +159,7 @@ public class UserAdminServiceImpl implements IUserAdminService {
             wrapper.in(User::getUserId, userIds);
         }
         
-        wrapper.orderByDesc(User::getCreateTime);
-        
-        Page<User> result = userMapper.selectPage(page, wrapper);
-        
-        // 构建详情响应
-        List<UserDetailResponse> detailResponses = result.getRecords().stream()
-                .map(this::buildUserDetailResponse)
-                .collect(Collectors.toList());
-        
-        return PageResponse.<UserDetailResponse>builder()
-                .records(detailResponses)
-                .total(result.getTotal())
-                .pageNum(result.getCurrent())
-                .pageSize(result.getSize())
-                .build();
+        return wrapper;
     }
 
     @Override
@@ -0,0 +1,332 @@
+package io.github.uchkun07.travelsystem.service.impl;
+
+import io.github.uchkun07.travelsystem.catalog.AttractionCardCatalog;
+import io.github.uchkun07.travelsystem.catalog.AttractionCardEntry;
+import io.github.uchkun07.travelsystem.config.RecommendAlgorithmProperties;
+import io.github.uchkun07.travelsystem.dto.RecommendBehaviorBucket;
+import io.github.uchkun07.travelsystem.dto.RecommendTypeBehaviorStat;
+import io.github.uchkun07.travelsystem.dto.UserBehaviorProfile;
+import io.github.uchkun07.travelsystem.entity.UserBrowseRecord;
+import io.github.uchkun07.travelsystem.mapper.UserBrowseRecordMapper;
+import io.github.uchkun07.travelsystem.service.IUserBehaviorProfileService;
+import io.github.uchkun07.travelsystem.util.CacheConstants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户行为画像服务实现类
+ * 每个用户一个 Redis Hash，字段按天分桶：{天}:n 为当天事件数，{天}:{类型}:c / {天}:{类型}:s
+ * 为当天该类型的点击次数与停留秒数。读取时只累加窗口内的桶，过期的桶顺带删除；
+ * Hash 整体随最后一次写入续期，长期不活跃的用户画像自然过期。
+ *
+ * <p>画像首次读取（或过期后）从浏览记录按天聚合重建并写入 built 标记，此后只做增量累加。
+ * 重建以覆盖方式写入，先于重建产生的增量不会重复计算。Redis 不可用时退回数据库聚合。</p>
+ *
+ * <p>点击事件同时写入最近点击 ZSet（景点ID -> 点击时间戳），只保留最近的 itemCfSeedSize 个景点，
+ * 作为物品协同召回的种子；画像 Hash 中的 clicks 标记表示该列表已从浏览记录重建过。</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserBehaviorProfileServiceImpl implements IUserBehaviorProfileService {
+
+    private static final String FIELD_BUILT = "built";
+    private static final String FIELD_CLICKS_BUILT = "clicks";
+    private static final String SUFFIX_EVENTS = "n";
+    private static final String SUFFIX_CLICK = "c";
+    private static final String SUFFIX_STAY = "s";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final UserBrowseRecordMapper userBrowseRecordMapper;
+    private final AttractionCardCatalog attractionCardCatalog;
+    private final RecommendAlgorithmProperties recommendProps;
+
+    @Override
+    public void recordEvent(Long userId, Long attractionId, String eventType, int staySeconds, LocalDateTime eventTime) {
+        if (userId == null) {
+            return;
+        }
+        boolean click = "click".equals(eventType);
+        boolean stay = "stay".equals(eventType);
+        if (!click && !stay) {
+            return;
+        }
+        try {
+            AttractionCardEntry entry = attractionId == null ? null : attractionCardCatalog.get(attractionId);
+            Integer typeId = entry == null ? null : entry.getTypeId();
+            long day = (eventTime != null ? eventTime.toLocalDate() : LocalDate.now()).toEpochDay();
+            String key = CacheConstants.RECOMMEND_BEHAVIOR_PROFILE_KEY + userId;
+            String clickKey = CacheConstants.RECOMMEND_RECENT_CLICK_KEY + userId;
+            long clickAt = toEpochMilli(eventTime != null ? eventTime : LocalDateTime.now());
+            int clickCap = recentClickCap();
+            long ttlSeconds = profileTtlSeconds();
+
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                redis.hIncrBy(key, day + ":" + SUFFIX_EVENTS, 1);
+                if (typeId != null) {
+                    if (click) {
+                        redis.hIncrBy(key, day + ":" + typeId + ":" + SUFFIX_CLICK, 1);
+                    } else {
+                        redis.hIncrBy(key, day + ":" + typeId + ":" + SUFFIX_STAY, Math.max(0, staySeconds));
+                    }
+                }
+                if (click && attractionId != null) {
+                    redis.zAdd(clickKey, clickAt, attractionId.toString());
+                    redis.zRemRange(clickKey, 0, -clickCap - 1);
+                    redis.expire(clickKey, ttlSeconds);
+                }
+                redis.expire(key, ttlSeconds);
+                return null;
+            });
+        } catch (Exception e) {
+            // 画像更新失败不影响上报，画像过期后会从浏览记录重建
+            log.warn("用户行为画像更新失败, userId={}, attractionId={}", userId, attractionId, e);
+        }
+    }
+
+    @Override
+    public UserBehaviorProfile getProfile(Long userId, int windowDays) {
+        if (userId == null) {
+            return new UserBehaviorProfile(0L, List.of());
+        }
+        String key = CacheConstants.RECOMMEND_BEHAVIOR_PROFILE_KEY + userId;
+        long fromDay = LocalDate.now().minusDays(windowDays).toEpochDay();
+
+        Map<Object, Object> fields;
+        try {
+            fields = stringRedisTemplate.opsForHash().entries(key);
+        } catch (Exception e) {
+            log.warn("读取用户行为画像失败，降级数据库聚合, userId={}", userId, e);
+            return loadFromDatabase(userId, windowDays);
+        }
+        if (!fields.containsKey(FIELD_BUILT)) {
+            return rebuild(userId, windowDays);
+        }
+
+        long eventCount = 0;
+        Map<Integer, long[]> byType = new HashMap<>();
+        List<Object> expired = new ArrayList<>();
+        for (Map.Entry<Object, Object> field : fields.entrySet()) {
+            String name = field.getKey().toString();
+            if (FIELD_BUILT.equals(name) || FIELD_CLICKS_BUILT.equals(name)) {
+                continue;
+            }
+            String[] parts = name.split(":");
+            try {
+                long day = Long.parseLong(parts[0]);
+                if (day < fromDay) {
+                    expired.add(name);
+                    continue;
+                }
+                long value = Long.parseLong(field.getValue().toString());
+                if (parts.length == 2 && SUFFIX_EVENTS.equals(parts[1])) {
+                    eventCount += value;
+                } else if (parts.length == 3) {
+                    long[] stat = byType.computeIfAbsent(Integer.valueOf(parts[1]), k -> new long[2]);
+                    stat[SUFFIX_CLICK.equals(parts[2]) ? 0 : 1] += value;
+                }
+            } catch (NumberFormatException e) {
+                expired.add(name);
+            }
+        }
+        if (!expired.isEmpty()) {
+            try {
+                stringRedisTemplate.opsForHash().delete(key, expired.toArray());
+            } catch (Exception e) {
+                log.debug("删除过期行为画像字段失败, userId={}", userId, e);
+            }
+        }
+        return toProfile(eventCount, byType);
+    }
+
+    @Override
+    public List<Long> getRecentClicks(Long userId, int windowDays, int limit) {
+        if (userId == null || limit <= 0) {
+            return List.of();
+        }
+        String key = CacheConstants.RECOMMEND_BEHAVIOR_PROFILE_KEY + userId;
+        String clickKey = CacheConstants.RECOMMEND_RECENT_CLICK_KEY + userId;
+        double minScore = toEpochMilli(LocalDateTime.now().minusDays(windowDays));
+        List<Object> results;
+        try {
+            results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                redis.zRevRangeByScore(clickKey, minScore, Double.POSITIVE_INFINITY, 0, limit);
+                redis.hExists(key, FIELD_CLICKS_BUILT);
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("读取用户最近点击失败，降级数据库查询, userId={}", userId, e);
+            return toAttractionIds(userBrowseRecordMapper.selectRecentClicks(userId, windowDays, limit));
+        }
+        if (!Boolean.TRUE.equals(results.get(1))) {
+            return rebuildRecentClicks(userId, windowDays, limit);
+        }
+        List<Long> clicks = new ArrayList<>();
+        if (results.get(0) instanceof Collection<?> members) {
+            for (Object member : members) {
+                try {
+                    clicks.add(Long.valueOf(member.toString()));
+                } catch (NumberFormatException e) {
+                    log.debug("忽略无法解析的最近点击, userId={}, member={}", userId, member);
+                }
+            }
+        }
+        return clicks;
+    }
+
+    /**
+     * 从浏览记录重建最近点击列表（覆盖写入）并写入 clicks 标记
+     */
+    private List<Long> rebuildRecentClicks(Long userId, int windowDays, int limit) {
+        List<UserBrowseRecord> records = userBrowseRecordMapper.selectRecentClicks(userId, windowDays,
+                Math.max(limit, recentClickCap()));
+        String key = CacheConstants.RECOMMEND_BEHAVIOR_PROFILE_KEY + userId;
+        String clickKey = CacheConstants.RECOMMEND_RECENT_CLICK_KEY + userId;
+        long ttlSeconds = profileTtlSeconds();
+        try {
+            stringRedisTemplate.execute(new SessionCallback<List<Object>>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> List<Object> execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    ops.multi();
+                    ops.delete(clickKey);
+                    for (UserBrowseRecord record : records) {
+                        if (record.getAttractionId() != null && record.getBrowseTime() != null) {
+                            ops.opsForZSet().add(clickKey, record.getAttractionId().toString(),
+                                    toEpochMilli(record.getBrowseTime()));
+                        }
+                    }
+                    ops.expire(clickKey, ttlSeconds, TimeUnit.SECONDS);
+                    ops.opsForHash().put(key, FIELD_CLICKS_BUILT, "1");
+                    ops.expire(key, ttlSeconds, TimeUnit.SECONDS);
+                    return ops.exec();
+                }
+            });
+        } catch (Exception e) {
+            log.warn("写入用户最近点击失败, userId={}", userId, e);
+        }
+        List<Long> clicks = toAttractionIds(records);
+        return clicks.size() > limit ? clicks.subList(0, limit) : clicks;
+    }
+
+    private List<Long> toAttractionIds(List<UserBrowseRecord> records) {
+        List<Long> ids = new ArrayList<>(records.size());
+        for (UserBrowseRecord record : records) {
+            if (record.getAttractionId() != null) {
+                ids.add(record.getAttractionId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 从浏览记录按天聚合重建画像（覆盖写入）
+     */
+    private UserBehaviorProfile rebuild(Long userId, int windowDays) {
+        List<RecommendBehaviorBucket> buckets = userBrowseRecordMapper.aggregateUserBehaviorByDayAndType(userId, windowDays);
+        Map<String, String> fields = new HashMap<>();
+        Map<String, Long> sums = new HashMap<>();
+        long eventCount = 0;
+        Map<Integer, long[]> byType = new HashMap<>();
+        for (RecommendBehaviorBucket bucket : buckets) {
+            if (bucket.getDay() == null) {
+                continue;
+            }
+            long day = bucket.getDay().toEpochDay();
+            long events = bucket.getEventCount() == null ? 0 : bucket.getEventCount();
+            long clicks = bucket.getClickCount() == null ? 0 : bucket.getClickCount();
+            long stay = bucket.getStaySeconds() == null ? 0 : bucket.getStaySeconds();
+            eventCount += events;
+            sums.merge(day + ":" + SUFFIX_EVENTS, events, Long::sum);
+            if (bucket.getTypeId() != null) {
+                sums.merge(day + ":" + bucket.getTypeId() + ":" + SUFFIX_CLICK, clicks, Long::sum);
+                sums.merge(day + ":" + bucket.getTypeId() + ":" + SUFFIX_STAY, stay, Long::sum);
+                long[] stat = byType.computeIfAbsent(bucket.getTypeId(), k -> new long[2]);
+                stat[0] += clicks;
+                stat[1] += stay;
+            }
+        }
+        sums.forEach((field, value) -> {
+            if (value != 0) {
+                fields.put(field, Long.toString(value));
+            }
+        });
+        fields.put(FIELD_BUILT, "1");
+
+        String key = CacheConstants.RECOMMEND_BEHAVIOR_PROFILE_KEY + userId;
+        long ttlSeconds = profileTtlSeconds();
+        try {
+            stringRedisTemplate.execute(new SessionCallback<List<Object>>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> List<Object> execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    ops.multi();
+                    ops.delete(key);
+                    ops.opsForHash().putAll(key, fields);
+                    ops.expire(key, ttlSeconds, TimeUnit.SECONDS);
+                    return ops.exec();
+                }
+            });
+        } catch (Exception e) {
+            log.warn("写入用户行为画像失败, userId={}", userId, e);
+        }
+        return toProfile(eventCount, byType);
+    }
+
+    private UserBehaviorProfile loadFromDatabase(Long userId, int windowDays) {
+        Long count = userBrowseRecordMapper.countRecentBehaviorEvents(userId, windowDays);
+        List<RecommendTypeBehaviorStat> stats = userBrowseRecordMapper.aggregateUserBehaviorByType(userId, windowDays);
+        return new UserBehaviorProfile(count == null ? 0L : count, stats);
+    }
+
+    private UserBehaviorProfile toProfile(long eventCount, Map<Integer, long[]> byType) {
+        List<RecommendTypeBehaviorStat> stats = new ArrayList<>(byType.size());
+        byType.forEach((typeId, stat) -> {
+            RecommendTypeBehaviorStat item = new RecommendTypeBehaviorStat();
+            item.setTypeId(typeId);
+            item.setClickCount((int) Math.min(Integer.MAX_VALUE, stat[0]));
+            item.setStaySeconds((int) Math.min(Integer.MAX_VALUE, stat[1]));
+            stats.add(item);
+        });
+        return new UserBehaviorProfile(eventCount, stats);
+    }
+
+    private long toEpochMilli(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 最近点击列表保留的景点数，与物品协同召回的种子数一致
+     */
+    private int recentClickCap() {
+        return Math.max(1, recommendProps.getItemCfSeedSize());
+    }
+
+    /**
+     * 画像在最后一次写入后保留一个窗口期
+     */
+    private long profileTtlSeconds() {
+        return TimeUnit.DAYS.toSeconds(Math.max(1, recommendProps.getBehaviorWindowDays()) + 1L);
+    }
+}
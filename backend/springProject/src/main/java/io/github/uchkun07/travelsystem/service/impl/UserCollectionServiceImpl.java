@@ -5,8 +5,10 @@ import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import io.github.uchkun07.travelsystem.entity.UserCollection;
 import io.github.uchkun07.travelsystem.mapper.UserCollectionMapper;
+import io.github.uchkun07.travelsystem.service.IAttractionCounterService;
 import io.github.uchkun07.travelsystem.service.IUserCollectionService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -21,6 +23,9 @@ import java.util.stream.Collectors;
 public class UserCollectionServiceImpl extends ServiceImpl<UserCollectionMapper, UserCollection>
         implements IUserCollectionService {
 
+    @Autowired
+    private IAttractionCounterService attractionCounterService;
+
     @Override
     public boolean collectAttraction(Long userId, Long attractionId) {
         // 检查是否已存在记录（包括已删除的）
@@ -44,6 +49,9 @@ public class UserCollectionServiceImpl extends ServiceImpl<UserCollectionMapper,
                     .set(UserCollection::getIsDeleted, 0)
                     .set(UserCollection::getCollectionTime, LocalDateTime.now());
             boolean updated = update(restore);
+            if (updated) {
+                attractionCounterService.incrementFavoriteCount(attractionId, 1);
+            }
             log.info("恢复收藏记录，userId: {}, attractionId: {}, result: {}", userId, attractionId, updated);
             return updated;
         }
@@ -55,6 +63,9 @@ public class UserCollectionServiceImpl extends ServiceImpl<UserCollectionMapper,
         record.setCollectionTime(LocalDateTime.now());
         record.setIsDeleted(0);
         boolean saved = save(record);
+        if (saved) {
+            attractionCounterService.incrementFavoriteCount(attractionId, 1);
+        }
         log.info("新增收藏记录，userId: {}, attractionId: {}, result: {}", userId, attractionId, saved);
         return saved;
     }
@@ -68,6 +79,9 @@ public class UserCollectionServiceImpl extends ServiceImpl<UserCollectionMapper,
                 .eq(UserCollection::getIsDeleted, 0)
                 .set(UserCollection::getIsDeleted, 1);
         boolean updated = update(update);
+        if (updated) {
+            attractionCounterService.incrementFavoriteCount(attractionId, -1);
+        }
         log.info("取消收藏，userId: {}, attractionId: {}, result: {}", userId, attractionId, updated);
         return updated;
     }
@@ -8,6 +8,7 @@ import io.github.uchkun07.travelsystem.entity.UserTagDict;
 import io.github.uchkun07.travelsystem.mapper.UserTagMapper;
 import io.github.uchkun07.travelsystem.mapper.UserTagDictMapper;
 import io.github.uchkun07.travelsystem.service.IUserTagService;
+import io.github.uchkun07.travelsystem.util.BatchWriteUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -94,22 +95,13 @@ public class UserTagServiceImpl extends ServiceImpl<UserTagMapper, UserTag> impl
                 .map(UserTag::getTagDictId)
                 .collect(Collectors.toList());
 
-        // 过滤出需要新增的标签
-        List<UserTag> newTags = new ArrayList<>();
-        for (Integer tagDictId : request.getTagDictIds()) {
-            if (!existingTagDictIds.contains(tagDictId)) {
-                UserTag userTag = UserTag.builder()
-                        .userId(request.getUserId())
-                        .tagDictId(tagDictId)
-                        .obtainTime(LocalDateTime.now())
-                        .build();
-                newTags.add(userTag);
-            }
-        }
-
-        if (!newTags.isEmpty()) {
-            this.saveBatch(newTags);
-            log.info("用户批量绑定标签成功: userId={}, count={}", request.getUserId(), newTags.size());
+        // 过滤出需要新增的标签，多行 INSERT IGNORE 写入
+        List<Integer> newTagDictIds = BatchWriteUtil.diff(request.getTagDictIds(), existingTagDictIds);
+        if (!newTagDictIds.isEmpty()) {
+            LocalDateTime obtainTime = LocalDateTime.now();
+            BatchWriteUtil.insertInChunks(newTagDictIds,
+                    chunk -> baseMapper.insertIgnoreBatch(request.getUserId(), chunk, obtainTime));
+            log.info("用户批量绑定标签成功: userId={}, count={}", request.getUserId(), newTagDictIds.size());
         } else {
             log.info("用户已拥有所有标签，无需绑定: userId={}", request.getUserId());
         }
@@ -1,24 +1,21 @@
 package io.github.uchkun07.travelsystem.task;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import io.github.uchkun07.travelsystem.catalog.AttractionIdFilter;
 import io.github.uchkun07.travelsystem.entity.Attraction;
 import io.github.uchkun07.travelsystem.mapper.AttractionMapper;
-import io.github.uchkun07.travelsystem.util.CacheConstants;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.Set;
-import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 /**
- * 景点ID过滤集定时预热
- * 用于降低恶意ID请求造成的缓存穿透。
+ * 景点ID过滤器定时预热
+ * 用于降低恶意ID请求造成的缓存穿透，全量重建以原子替换方式进行，日常变更由过滤器增量维护。
  */
 @Slf4j
 @Component
@@ -26,7 +23,7 @@ import java.util.stream.Collectors;
 public class AttractionCacheWarmupTask {
 
     private final AttractionMapper attractionMapper;
-    private final StringRedisTemplate stringRedisTemplate;
+    private final AttractionIdFilter attractionIdFilter;
 
     @PostConstruct
     public void init() {
@@ -34,26 +31,19 @@ public class AttractionCacheWarmupTask {
     }
 
     @Scheduled(cron = "0 */30 * * * ?")
-    @SuppressWarnings("null")
     public void refreshAttractionIdFilter() {
+        attractionIdFilter.rebuild(this::loadPublishedIds);
+    }
+
+    private List<Long> loadPublishedIds() {
         List<Attraction> attractions = attractionMapper.selectList(
             new LambdaQueryWrapper<Attraction>()
                 .select(Attraction::getAttractionId)
                 .eq(Attraction::getStatus, 1)
                 .eq(Attraction::getAuditStatus, 2));
-        Set<String> ids = attractions.stream()
+        return attractions.stream()
                 .map(Attraction::getAttractionId)
-                .filter(id -> id != null && id > 0)
-                .map(String::valueOf)
-                .collect(Collectors.toSet());
-
-        if (ids.isEmpty()) {
-            return;
-        }
-
-        stringRedisTemplate.delete(CacheConstants.ATTR_ID_FILTER_KEY);
-        stringRedisTemplate.opsForSet().add(CacheConstants.ATTR_ID_FILTER_KEY, ids.toArray(new String[0]));
-        stringRedisTemplate.expire(CacheConstants.ATTR_ID_FILTER_KEY, 2, TimeUnit.HOURS);
-        log.info("景点ID过滤集刷新完成, size={}", ids.size());
+                .filter(Objects::nonNull)
+                .toList();
     }
 }
@@ -0,0 +1,354 @@
+package io.github.uchkun07.travelsystem.task;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import io.github.uchkun07.travelsystem.catalog.AttractionCardCatalog;
+import io.github.uchkun07.travelsystem.catalog.AttractionCardEntry;
+import io.github.uchkun07.travelsystem.config.PerformanceProperties;
+import io.github.uchkun07.travelsystem.dto.AttractionScoreDelta;
+import io.github.uchkun07.travelsystem.entity.Attraction;
+import io.github.uchkun07.travelsystem.entity.UserCollection;
+import io.github.uchkun07.travelsystem.mapper.AttractionMapper;
+import io.github.uchkun07.travelsystem.mapper.UserBrowseRecordMapper;
+import io.github.uchkun07.travelsystem.mapper.UserCollectionMapper;
+import io.github.uchkun07.travelsystem.util.CacheConstants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 景点人气评分定时任务
+ * 按水位增量读取新的浏览记录与收藏变更，以前向衰减方式累加得分：
+ * 每个事件的权重乘以 2^((事件时间 - 基准时间) / 半衰期) 后累加到景点得分（Redis Hash），
+ * 任意时刻各景点得分同乘一个衰减因子即为当前的时间衰减热度，因此未发生新行为的景点无需重写，
+ * popularity 排序始终等价于按衰减热度排序，任务也从不回扫历史记录。
+ *
+ * <p>基准时间每经过若干个半衰期前移一次，得分整体缩放并全部写回，避免数值无限增长。
+ * 评分状态（基准时间、水位）与得分在同一个 Redis 事务中更新，失败重试不会重复累加；
+ * 状态丢失时清零 popularity 并按回溯天数重新累计。</p>
+ *
+ * <p>收藏按 (update_time, collection_id) 水位读取：收藏时间晚于上次水位的有效收藏计入，
+ * 早于上次水位（已计入）的取消收藏按原收藏时间扣除。</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AttractionPopularityTask {
+
+    private static final long LOCK_TTL_SECONDS = 600;
+
+    private static final String FIELD_LANDMARK = "landmark";
+    private static final String FIELD_BROWSE_ID = "browseId";
+    private static final String FIELD_COLLECTION_TIME = "collectionTime";
+    private static final String FIELD_COLLECTION_ID = "collectionId";
+
+    private final AttractionMapper attractionMapper;
+    private final UserBrowseRecordMapper userBrowseRecordMapper;
+    private final UserCollectionMapper userCollectionMapper;
+    private final AttractionCardCatalog attractionCardCatalog;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final PerformanceProperties performanceProperties;
+
+    @Scheduled(fixedDelayString = "${performance.popularity.interval-ms:60000}")
+    public void refreshPopularity() {
+        if (!performanceProperties.getPopularity().isEnabled()) {
+            return;
+        }
+        // 多节点部署时只允许一个节点评分，避免同一批记录被重复累加
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean locked = stringRedisTemplate.opsForValue().setIfAbsent(
+                    CacheConstants.LOCK_POPULARITY_SCORE, token, LOCK_TTL_SECONDS, TimeUnit.SECONDS);
+            if (!Boolean.TRUE.equals(locked)) {
+                return;
+            }
+        } catch (Exception e) {
+            log.warn("获取人气评分锁失败", e);
+            return;
+        }
+
+        try {
+            State state = loadState();
+            if (state == null) {
+                state = bootstrap();
+            }
+            state = rebaseIfNeeded(state);
+            state = accumulateBrowse(state);
+            accumulateCollections(state);
+            writeDirty();
+        } catch (Exception e) {
+            log.warn("景点人气评分失败，等待下次执行", e);
+        } finally {
+            try {
+                if (token.equals(stringRedisTemplate.opsForValue().get(CacheConstants.LOCK_POPULARITY_SCORE))) {
+                    stringRedisTemplate.delete(CacheConstants.LOCK_POPULARITY_SCORE);
+                }
+            } catch (Exception e) {
+                log.warn("释放人气评分锁失败", e);
+            }
+        }
+    }
+
+    /**
+     * 首次运行或状态丢失：清零 popularity，水位回退到回溯起点
+     */
+    private State bootstrap() {
+        PerformanceProperties.Popularity config = performanceProperties.getPopularity();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = now.minusDays(Math.max(0, config.getBackfillDays()));
+
+        Long firstId = userBrowseRecordMapper.selectFirstIdSince(since);
+        long browseId;
+        if (firstId != null) {
+            browseId = firstId - 1;
+        } else {
+            Long maxId = userBrowseRecordMapper.selectMaxId();
+            browseId = maxId != null ? maxId : 0L;
+        }
+        State state = new State(now.truncatedTo(ChronoUnit.HOURS), browseId, since, 0L);
+
+        attractionMapper.update(null, new LambdaUpdateWrapper<Attraction>()
+                .set(Attraction::getPopularity, 0)
+                .ne(Attraction::getPopularity, 0));
+        execute(operations -> {
+            operations.delete(CacheConstants.POPULARITY_SCORE_KEY);
+            operations.delete(CacheConstants.POPULARITY_DIRTY_KEY);
+            operations.opsForHash().putAll(CacheConstants.POPULARITY_STATE_KEY, state.toHash());
+        });
+        log.info("景点人气评分初始化，回溯起点={}, 浏览记录水位={}", since, browseId);
+        return state;
+    }
+
+    /**
+     * 基准时间前移：全部得分按经过的半衰期数缩放，衰减完毕的移除，涉及的景点全部标记待写回
+     */
+    private State rebaseIfNeeded(State state) {
+        PerformanceProperties.Popularity config = performanceProperties.getPopularity();
+        LocalDateTime landmark = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        double halfLives = Duration.between(state.landmark(), landmark).getSeconds() / (double) halfLifeSeconds();
+        if (halfLives < Math.max(1, config.getRebaseHalfLives())) {
+            return state;
+        }
+
+        double factor = Math.pow(2, -halfLives);
+        Map<Object, Object> scores = stringRedisTemplate.opsForHash().entries(CacheConstants.POPULARITY_SCORE_KEY);
+        Map<String, String> rescaled = new HashMap<>();
+        List<String> ids = new ArrayList<>(scores.size());
+        scores.forEach((id, score) -> {
+            ids.add(id.toString());
+            double value = Double.parseDouble(score.toString()) * factor;
+            if (Math.abs(value) >= config.getMinScore()) {
+                rescaled.put(id.toString(), Double.toString(value));
+            }
+        });
+
+        State rebased = new State(landmark, state.browseId(), state.collectionTime(), state.collectionId());
+        execute(operations -> {
+            operations.delete(CacheConstants.POPULARITY_SCORE_KEY);
+            if (!rescaled.isEmpty()) {
+                operations.opsForHash().putAll(CacheConstants.POPULARITY_SCORE_KEY, rescaled);
+            }
+            if (!ids.isEmpty()) {
+                operations.opsForSet().add(CacheConstants.POPULARITY_DIRTY_KEY, ids.toArray(new String[0]));
+            }
+            operations.opsForHash().put(CacheConstants.POPULARITY_STATE_KEY, FIELD_LANDMARK, rebased.landmark().toString());
+        });
+        log.info("景点人气基准时间前移至 {}，保留得分 {} 条，移除 {} 条", landmark, rescaled.size(), ids.size() - rescaled.size());
+        return rebased;
+    }
+
+    private State accumulateBrowse(State state) {
+        PerformanceProperties.Popularity config = performanceProperties.getPopularity();
+        int batchSize = Math.max(1, config.getReadBatchSize());
+        double stayWeightPerSecond = config.getStayWeightPerMinute() / 60.0;
+        LocalDateTime before = LocalDateTime.now().minusSeconds(Math.max(0, config.getCommitLagSec()));
+
+        for (int batch = 0; batch < Math.max(1, config.getMaxBatchesPerRun()); batch++) {
+            Long toId = userBrowseRecordMapper.selectChunkUpperId(state.browseId(), before, batchSize);
+            if (toId == null) {
+                break;
+            }
+            List<AttractionScoreDelta> deltas = userBrowseRecordMapper.aggregateDecayedScore(
+                    state.browseId(), toId, state.landmark(), halfLifeSeconds(),
+                    config.getClickWeight(), stayWeightPerSecond, Math.max(0, config.getMaxStaySeconds()));
+            Map<Long, Double> scores = new HashMap<>();
+            for (AttractionScoreDelta delta : deltas) {
+                if (delta.getAttractionId() != null && delta.getScore() != null) {
+                    scores.merge(delta.getAttractionId(), delta.getScore(), Double::sum);
+                }
+            }
+
+            commit(scores, Map.of(FIELD_BROWSE_ID, Long.toString(toId)));
+            state = new State(state.landmark(), toId, state.collectionTime(), state.collectionId());
+        }
+        return state;
+    }
+
+    private void accumulateCollections(State state) {
+        PerformanceProperties.Popularity config = performanceProperties.getPopularity();
+        int batchSize = Math.max(1, config.getReadBatchSize());
+        LocalDateTime before = LocalDateTime.now().minusSeconds(Math.max(0, config.getCommitLagSec()));
+
+        for (int batch = 0; batch < Math.max(1, config.getMaxBatchesPerRun()); batch++) {
+            LocalDateTime watermarkTime = state.collectionTime();
+            long watermarkId = state.collectionId();
+            List<UserCollection> changes = userCollectionMapper.selectList(new LambdaQueryWrapper<UserCollection>()
+                    .select(UserCollection::getCollectionId, UserCollection::getAttractionId,
+                            UserCollection::getCollectionTime, UserCollection::getIsDeleted,
+                            UserCollection::getUpdateTime)
+                    .lt(UserCollection::getUpdateTime, before)
+                    .and(w -> w.gt(UserCollection::getUpdateTime, watermarkTime)
+                            .or(o -> o.eq(UserCollection::getUpdateTime, watermarkTime)
+                                    .gt(UserCollection::getCollectionId, watermarkId)))
+                    .orderByAsc(UserCollection::getUpdateTime)
+                    .orderByAsc(UserCollection::getCollectionId)
+                    .last("LIMIT " + batchSize));
+            if (changes.isEmpty()) {
+                break;
+            }
+
+            Map<Long, Double> scores = new HashMap<>();
+            for (UserCollection change : changes) {
+                if (change.getAttractionId() == null || change.getCollectionTime() == null) {
+                    continue;
+                }
+                boolean active = change.getIsDeleted() == null || change.getIsDeleted() == 0;
+                boolean counted = !change.getCollectionTime().isAfter(watermarkTime);
+                // 新收藏（含恢复）计入；已计入的收藏被取消时扣除；水位之后收藏又取消的不计
+                if (active != counted) {
+                    double score = config.getCollectWeight() * decay(state.landmark(), change.getCollectionTime());
+                    scores.merge(change.getAttractionId(), active ? score : -score, Double::sum);
+                }
+            }
+
+            UserCollection last = changes.get(changes.size() - 1);
+            state = new State(state.landmark(), state.browseId(), last.getUpdateTime(), last.getCollectionId());
+            commit(scores, Map.of(
+                    FIELD_COLLECTION_TIME, last.getUpdateTime().toString(),
+                    FIELD_COLLECTION_ID, last.getCollectionId().toString()));
+            if (changes.size() < batchSize) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * 待写回的景点按当前得分批量更新 popularity，人气变化的已发布景点刷新卡片目录
+     */
+    private void writeDirty() {
+        PerformanceProperties.Popularity config = performanceProperties.getPopularity();
+        Set<String> members = stringRedisTemplate.opsForSet().members(CacheConstants.POPULARITY_DIRTY_KEY);
+        if (members == null || members.isEmpty()) {
+            return;
+        }
+        List<String> dirty = new ArrayList<>(members);
+        int batchSize = Math.max(1, config.getWriteBatchSize());
+        List<Long> changed = new ArrayList<>();
+
+        for (int from = 0; from < dirty.size(); from += batchSize) {
+            List<String> batch = dirty.subList(from, Math.min(from + batchSize, dirty.size()));
+            List<Object> scores = stringRedisTemplate.opsForHash().multiGet(
+                    CacheConstants.POPULARITY_SCORE_KEY, new ArrayList<>(batch));
+            Map<Long, Integer> popularity = new HashMap<>();
+            for (int i = 0; i < batch.size(); i++) {
+                Object score = scores.get(i);
+                double value = score == null ? 0 : Double.parseDouble(score.toString()) * config.getScale();
+                popularity.put(Long.valueOf(batch.get(i)), (int) Math.max(0, Math.min(Integer.MAX_VALUE, Math.round(value))));
+            }
+
+            attractionMapper.batchUpdatePopularity(popularity);
+            stringRedisTemplate.opsForSet().remove(CacheConstants.POPULARITY_DIRTY_KEY, batch.toArray());
+
+            popularity.forEach((id, value) -> {
+                AttractionCardEntry entry = attractionCardCatalog.get(id);
+                if (entry != null && !Objects.equals(entry.getPopularity(), value)) {
+                    changed.add(id);
+                }
+            });
+        }
+
+        attractionCardCatalog.refreshAttractionsAfterCommit(changed);
+        log.debug("景点人气写回完成, attractions={}, changed={}", dirty.size(), changed.size());
+    }
+
+    /**
+     * 得分增量、待写回标记与水位在同一个 Redis 事务中提交
+     */
+    private void commit(Map<Long, Double> scores, Map<String, String> stateFields) {
+        execute(operations -> {
+            scores.forEach((id, score) -> operations.opsForHash()
+                    .increment(CacheConstants.POPULARITY_SCORE_KEY, id.toString(), score));
+            if (!scores.isEmpty()) {
+                operations.opsForSet().add(CacheConstants.POPULARITY_DIRTY_KEY,
+                        scores.keySet().stream().map(String::valueOf).toArray(String[]::new));
+            }
+            operations.opsForHash().putAll(CacheConstants.POPULARITY_STATE_KEY, stateFields);
+        });
+    }
+
+    private void execute(Consumer<RedisOperations<String, String>> commands) {
+        stringRedisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> List<Object> execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                ops.multi();
+                commands.accept(ops);
+                return ops.exec();
+            }
+        });
+    }
+
+    private State loadState() {
+        Map<Object, Object> hash = stringRedisTemplate.opsForHash().entries(CacheConstants.POPULARITY_STATE_KEY);
+        Object landmark = hash.get(FIELD_LANDMARK);
+        Object browseId = hash.get(FIELD_BROWSE_ID);
+        Object collectionTime = hash.get(FIELD_COLLECTION_TIME);
+        Object collectionId = hash.get(FIELD_COLLECTION_ID);
+        if (landmark == null || browseId == null || collectionTime == null || collectionId == null) {
+            return null;
+        }
+        return new State(LocalDateTime.parse(landmark.toString()), Long.parseLong(browseId.toString()),
+                LocalDateTime.parse(collectionTime.toString()), Long.parseLong(collectionId.toString()));
+    }
+
+    private long halfLifeSeconds() {
+        return Math.max(60L, Math.round(performanceProperties.getPopularity().getHalfLifeHours() * 3600));
+    }
+
+    private double decay(LocalDateTime landmark, LocalDateTime time) {
+        return Math.pow(2, Duration.between(landmark, time).getSeconds() / (double) halfLifeSeconds());
+    }
+
+    /**
+     * 评分状态：得分基准时间、浏览记录ID水位、收藏变更 (update_time, collection_id) 水位
+     */
+    private record State(LocalDateTime landmark, long browseId, LocalDateTime collectionTime, long collectionId) {
+
+        private Map<String, String> toHash() {
+            return Map.of(
+                    FIELD_LANDMARK, landmark.toString(),
+                    FIELD_BROWSE_ID, Long.toString(browseId),
+                    FIELD_COLLECTION_TIME, collectionTime.toString(),
+                    FIELD_COLLECTION_ID, Long.toString(collectionId));
+        }
+    }
+}
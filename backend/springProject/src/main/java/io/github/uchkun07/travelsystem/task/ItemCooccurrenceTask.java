@@ -0,0 +1,536 @@
+package io.github.uchkun07.travelsystem.task;
+
+import io.github.uchkun07.travelsystem.catalog.ItemSimilarityIndex;
+import io.github.uchkun07.travelsystem.config.PerformanceProperties;
+import io.github.uchkun07.travelsystem.entity.UserBrowseRecord;
+import io.github.uchkun07.travelsystem.entity.UserCollection;
+import io.github.uchkun07.travelsystem.mapper.UserBrowseRecordMapper;
+import io.github.uchkun07.travelsystem.mapper.UserCollectionMapper;
+import io.github.uchkun07.travelsystem.util.CacheConstants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 物品共现构建任务
+ * 从浏览会话（同一用户相邻 click/stay 事件间隔不超过阈值）与用户收藏中统计景点两两共现，
+ * 相似度取 w(a,b) / sqrt(n(a)·n(b))，w 为共现权重、n 为出现权重；每个景点保留相似度最高的若干邻居写入 Redis，
+ * 各节点的 ItemSimilarityIndex 按版本号加载为列式数组供推荐召回使用。
+ *
+ * <p>首次运行或超过重建间隔时全量构建：流式读取窗口内的行为与全部有效收藏，以稠密编号和开放寻址表计数，
+ * 每个景点只保留权重最高的若干共现；结果先写入临时 key，再 RENAME 为正式 key，构建期间读取方始终看到完整的旧表。
+ * 之后按浏览记录ID水位增量累加：新事件连同同一会话的上文一起切分，只累加至少含一个新景点的景点对，
+ * 共现权重、出现权重与水位在同一个 Redis 事务中提交，再重算涉及景点的邻居。</p>
+ *
+ * <p>收藏只在全量构建时计入；增量累加的共现不裁剪、不随窗口淘汰，由下一次全量构建整体重置。</p>
+ *
+ * <p>构建锁在执行期间定期续期，发现锁已不属于本节点时立即中止，不再写入任何结果。</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemCooccurrenceTask {
+
+    private static final long LOCK_TTL_SECONDS = 300;
+    /** 构建锁续期间隔(ms) */
+    private static final long LOCK_RENEW_INTERVAL_MS = 60_000;
+    /** 全量构建时每个 Redis 管道写入的景点数 */
+    private static final int WRITE_CHUNK_SIZE = 500;
+
+    private static final String FIELD_BUILT_AT = "builtAt";
+    private static final String FIELD_BROWSE_ID = "browseId";
+
+    private static final String STAGING_COUNT_KEY = CacheConstants.ITEM_CF_STAGING_PREFIX + "count";
+    private static final String STAGING_NEIGHBOR_KEY = CacheConstants.ITEM_CF_STAGING_PREFIX + "neighbor";
+    private static final String STAGING_PAIR_KEY = CacheConstants.ITEM_CF_STAGING_PREFIX + "pair:";
+
+    private final UserBrowseRecordMapper userBrowseRecordMapper;
+    private final UserCollectionMapper userCollectionMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final PerformanceProperties performanceProperties;
+
+    @Scheduled(fixedDelayString = "${performance.item-cf.interval-ms:300000}")
+    public void refresh() {
+        if (!performanceProperties.getItemCf().isEnabled()) {
+            return;
+        }
+        // 多节点部署时只允许一个节点构建，避免同一批记录被重复累加
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean locked = stringRedisTemplate.opsForValue().setIfAbsent(
+                    CacheConstants.LOCK_ITEM_CF, token, LOCK_TTL_SECONDS, TimeUnit.SECONDS);
+            if (!Boolean.TRUE.equals(locked)) {
+                return;
+            }
+        } catch (Exception e) {
+            log.warn("获取物品共现构建锁失败", e);
+            return;
+        }
+
+        LockLease lease = new LockLease(token);
+        try {
+            Map<Object, Object> state = stringRedisTemplate.opsForHash().entries(CacheConstants.ITEM_CF_STATE_KEY);
+            Object builtAt = state.get(FIELD_BUILT_AT);
+            Object browseId = state.get(FIELD_BROWSE_ID);
+            long rebuildIntervalMs = TimeUnit.HOURS.toMillis(Math.max(1, performanceProperties.getItemCf().getRebuildIntervalHours()));
+            if (builtAt == null || browseId == null
+                    || System.currentTimeMillis() - Long.parseLong(builtAt.toString()) >= rebuildIntervalMs) {
+                rebuild(lease);
+            } else {
+                accumulate(Long.parseLong(browseId.toString()), lease);
+            }
+        } catch (Exception e) {
+            log.warn("物品共现构建失败，等待下次执行", e);
+        } finally {
+            try {
+                if (token.equals(stringRedisTemplate.opsForValue().get(CacheConstants.LOCK_ITEM_CF))) {
+                    stringRedisTemplate.delete(CacheConstants.LOCK_ITEM_CF);
+                }
+            } catch (Exception e) {
+                log.warn("释放物品共现构建锁失败", e);
+            }
+        }
+    }
+
+    /**
+     * 全量构建：统计窗口内的会话共现与收藏共现，写入临时 key 后整体替换共现表与邻居表
+     */
+    private void rebuild(LockLease lease) {
+        PerformanceProperties.ItemCf config = performanceProperties.getItemCf();
+        long startedAt = System.currentTimeMillis();
+        Long maxId = userBrowseRecordMapper.selectMaxIdBefore(commitHorizon(config));
+        long toId = maxId == null ? 0L : maxId;
+        LocalDateTime since = LocalDateTime.now().minusDays(Math.max(1, config.getWindowDays()));
+
+        PairCounter counter = new PairCounter();
+        SessionCollector sessions = new SessionCollector(counter, config, 1.0);
+        userBrowseRecordMapper.streamBehaviorEvents(since, toId, context -> {
+            UserBrowseRecord record = context.getResultObject();
+            sessions.accept(record.getUserId(), record.getAttractionId(), record.getBrowseTime(), true);
+            lease.renewIfDue();
+        });
+        sessions.flush();
+
+        // 同一用户的收藏视为一个会话，不按时间切分
+        SessionCollector collections = new SessionCollector(counter, config, Math.max(0, config.getCollectWeight()));
+        if (config.getCollectWeight() > 0) {
+            userCollectionMapper.streamActiveCollections(context -> {
+                UserCollection collection = context.getResultObject();
+                collections.accept(collection.getUserId(), collection.getAttractionId(), null, true);
+                lease.renewIfDue();
+            });
+            collections.flush();
+        }
+
+        // 按景点整理共现邻接表（CSR），每个景点只保留权重最高的 maxPairsPerItem 个
+        int itemCount = counter.size();
+        int[] offsets = new int[itemCount + 1];
+        counter.forEachPair((a, b, weight) -> {
+            offsets[a + 1]++;
+            offsets[b + 1]++;
+        });
+        for (int i = 0; i < itemCount; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] cursor = Arrays.copyOf(offsets, itemCount);
+        int[] adjacent = new int[offsets[itemCount]];
+        double[] adjacentWeights = new double[offsets[itemCount]];
+        counter.forEachPair((a, b, weight) -> {
+            adjacent[cursor[a]] = b;
+            adjacentWeights[cursor[a]++] = weight;
+            adjacent[cursor[b]] = a;
+            adjacentWeights[cursor[b]++] = weight;
+        });
+
+        // 清理上次中断遗留的临时 key
+        deleteStaging();
+
+        int maxPairs = Math.max(1, config.getMaxPairsPerItem());
+        Map<String, String> counts = new HashMap<>();
+        Map<String, String> neighbors = new HashMap<>();
+        List<String> pairItems = new ArrayList<>();
+        List<Map.Entry<String, Map<String, String>>> pairChunk = new ArrayList<>(WRITE_CHUNK_SIZE);
+        for (int a = 0; a < itemCount; a++) {
+            String itemId = Long.toString(counter.id(a));
+            counts.put(itemId, Double.toString(counter.weight(a)));
+            Integer[] kept = topPositions(adjacentWeights, offsets[a], offsets[a + 1], maxPairs);
+            if (kept.length == 0) {
+                continue;
+            }
+            Map<String, String> pairs = new HashMap<>(kept.length * 2);
+            long[] neighborIds = new long[kept.length];
+            double[] similarities = new double[kept.length];
+            for (int i = 0; i < kept.length; i++) {
+                int b = adjacent[kept[i]];
+                double weight = adjacentWeights[kept[i]];
+                pairs.put(Long.toString(counter.id(b)), Double.toString(weight));
+                neighborIds[i] = counter.id(b);
+                similarities[i] = similarity(weight, counter.weight(a), counter.weight(b));
+            }
+            String encoded = encodeNeighbors(neighborIds, similarities, kept.length);
+            if (encoded != null) {
+                neighbors.put(itemId, encoded);
+            }
+            pairItems.add(itemId);
+            pairChunk.add(Map.entry(STAGING_PAIR_KEY + itemId, pairs));
+            if (pairChunk.size() >= WRITE_CHUNK_SIZE) {
+                writePairs(pairChunk);
+                pairChunk.clear();
+                lease.renewIfDue();
+            }
+        }
+        writePairs(pairChunk);
+        writeHash(STAGING_COUNT_KEY, counts);
+        writeHash(STAGING_NEIGHBOR_KEY, neighbors);
+
+        // 切换前确认锁仍属于本节点；共现表只由持锁的增量累加读取，逐个 RENAME 即可，
+        // 旧表中本次不再出现的景点直接删除
+        lease.renew();
+        Set<String> written = new HashSet<>(pairItems);
+        List<String> staleKeys = new ArrayList<>();
+        for (Object item : stringRedisTemplate.opsForHash().keys(CacheConstants.ITEM_CF_COUNT_KEY)) {
+            if (!written.contains(item.toString())) {
+                staleKeys.add(CacheConstants.ITEM_CF_PAIR_KEY + item);
+            }
+        }
+        for (int from = 0; from < pairItems.size(); from += WRITE_CHUNK_SIZE) {
+            List<String> chunk = pairItems.subList(from, Math.min(from + WRITE_CHUNK_SIZE, pairItems.size()));
+            pipeline(redis -> {
+                for (String itemId : chunk) {
+                    redis.rename(STAGING_PAIR_KEY + itemId, CacheConstants.ITEM_CF_PAIR_KEY + itemId);
+                }
+            });
+        }
+        for (int from = 0; from < staleKeys.size(); from += WRITE_CHUNK_SIZE) {
+            List<String> chunk = staleKeys.subList(from, Math.min(from + WRITE_CHUNK_SIZE, staleKeys.size()));
+            pipeline(redis -> redis.del(chunk.toArray(new String[0])));
+        }
+
+        // 出现权重、邻居表与状态在同一个事务中切换：中途失败时状态未更新，下次仍会全量构建；
+        // 版本号变化后各节点重新加载邻居表
+        Map<String, String> state = Map.of(
+                FIELD_BUILT_AT, Long.toString(startedAt),
+                FIELD_BROWSE_ID, Long.toString(toId));
+        lease.renew();
+        execute(ops -> {
+            replaceWithStaging(ops, STAGING_COUNT_KEY, CacheConstants.ITEM_CF_COUNT_KEY, !counts.isEmpty());
+            replaceWithStaging(ops, STAGING_NEIGHBOR_KEY, CacheConstants.ITEM_CF_NEIGHBOR_KEY, !neighbors.isEmpty());
+            ops.opsForHash().putAll(CacheConstants.ITEM_CF_STATE_KEY, state);
+            ops.opsForHash().increment(CacheConstants.ITEM_CF_STATE_KEY, ItemSimilarityIndex.FIELD_VERSION, 1);
+        });
+        log.info("物品共现全量构建完成, items={}, pairs={}, neighbors={}, browseId={}, cost={}ms",
+                itemCount, counter.pairCount(), neighbors.size(), toId, System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * 临时 key 不存在（没有数据）时直接删除正式 key，RENAME 不存在的 key 会使事务中该命令失败
+     */
+    private static void replaceWithStaging(RedisOperations<String, String> ops, String stagingKey, String key, boolean written) {
+        if (written) {
+            ops.rename(stagingKey, key);
+        } else {
+            ops.delete(key);
+        }
+    }
+
+    private void deleteStaging() {
+        List<String> keys = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(CacheConstants.ITEM_CF_STAGING_PREFIX + "*")
+                .count(WRITE_CHUNK_SIZE)
+                .build();
+        try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                keys.add(cursor.next());
+                if (keys.size() >= WRITE_CHUNK_SIZE) {
+                    stringRedisTemplate.delete(keys);
+                    keys.clear();
+                }
+            }
+        }
+        if (!keys.isEmpty()) {
+            stringRedisTemplate.delete(keys);
+        }
+    }
+
+    /**
+     * 增量累加：按水位分批读取新的行为事件，提交后重算涉及景点的邻居
+     */
+    private void accumulate(long browseId, LockLease lease) {
+        PerformanceProperties.ItemCf config = performanceProperties.getItemCf();
+        int batchSize = Math.max(1, config.getReadBatchSize());
+        Set<Long> touched = new HashSet<>();
+        LocalDateTime before = commitHorizon(config);
+        for (int batch = 0; batch < Math.max(1, config.getMaxBatchesPerRun()); batch++) {
+            Long toId = userBrowseRecordMapper.selectChunkUpperId(browseId, before, batchSize);
+            if (toId == null || toId <= browseId) {
+                break;
+            }
+            PairCounter delta = countDelta(browseId, toId);
+            // 锁已失效时其他节点可能正在累加同一区间，不能再提交
+            lease.renew();
+            commitDelta(delta, toId);
+            delta.collectTouched(touched);
+            browseId = toId;
+        }
+        if (touched.isEmpty()) {
+            return;
+        }
+        for (Long itemId : touched) {
+            refreshNeighbors(itemId);
+        }
+        stringRedisTemplate.opsForHash().increment(CacheConstants.ITEM_CF_STATE_KEY, ItemSimilarityIndex.FIELD_VERSION, 1);
+        log.debug("物品共现增量更新完成, touched={}, browseId={}", touched.size(), browseId);
+    }
+
+    /**
+     * 统计 (afterId, toId] 区间事件带来的共现增量；同一用户在会话间隔内的已处理事件作为会话上文参与切分
+     */
+    private PairCounter countDelta(long afterId, long toId) {
+        PerformanceProperties.ItemCf config = performanceProperties.getItemCf();
+        PairCounter counter = new PairCounter();
+        List<UserBrowseRecord> events = userBrowseRecordMapper.selectBehaviorEventsInRange(afterId, toId);
+        if (events.isEmpty()) {
+            return counter;
+        }
+
+        Set<Long> userIds = new HashSet<>();
+        LocalDateTime earliest = null;
+        for (UserBrowseRecord event : events) {
+            if (event.getUserId() == null || event.getBrowseTime() == null) {
+                continue;
+            }
+            userIds.add(event.getUserId());
+            if (earliest == null || event.getBrowseTime().isBefore(earliest)) {
+                earliest = event.getBrowseTime();
+            }
+        }
+        List<UserBrowseRecord> merged = new ArrayList<>(events);
+        if (!userIds.isEmpty()) {
+            merged.addAll(userBrowseRecordMapper.selectBehaviorContext(
+                    userIds, earliest.minusMinutes(Math.max(0, config.getSessionGapMinutes())), afterId));
+        }
+        merged.removeIf(event -> event.getUserId() == null || event.getAttractionId() == null
+                || event.getBrowseTime() == null || event.getBrowseRecordId() == null);
+        merged.sort(Comparator.comparing(UserBrowseRecord::getUserId)
+                .thenComparing(UserBrowseRecord::getBrowseTime)
+                .thenComparing(UserBrowseRecord::getBrowseRecordId));
+
+        SessionCollector sessions = new SessionCollector(counter, config, 1.0);
+        for (UserBrowseRecord event : merged) {
+            sessions.accept(event.getUserId(), event.getAttractionId(), event.getBrowseTime(),
+                    event.getBrowseRecordId() > afterId);
+        }
+        sessions.flush();
+        return counter;
+    }
+
+    /**
+     * 共现增量、出现权重增量与水位在同一个事务中提交，失败重试不会重复累加
+     */
+    private void commitDelta(PairCounter delta, long toId) {
+        execute(ops -> {
+            HashOperations<String, Object, Object> hash = ops.opsForHash();
+            delta.forEachPair((a, b, weight) -> {
+                String idA = Long.toString(delta.id(a));
+                String idB = Long.toString(delta.id(b));
+                hash.increment(CacheConstants.ITEM_CF_PAIR_KEY + idA, idB, weight);
+                hash.increment(CacheConstants.ITEM_CF_PAIR_KEY + idB, idA, weight);
+            });
+            for (int i = 0; i < delta.size(); i++) {
+                if (delta.weight(i) > 0) {
+                    hash.increment(CacheConstants.ITEM_CF_COUNT_KEY, Long.toString(delta.id(i)), delta.weight(i));
+                }
+            }
+            hash.put(CacheConstants.ITEM_CF_STATE_KEY, FIELD_BROWSE_ID, Long.toString(toId));
+        });
+    }
+
+    /**
+     * 水位只推进到 create_time 早于该时间的记录：自增ID按分配顺序而非提交顺序可见，
+     * 直接取最大ID可能越过仍在事务中的较小ID，这些记录之后再也不会被读取
+     */
+    private static LocalDateTime commitHorizon(PerformanceProperties.ItemCf config) {
+        return LocalDateTime.now().minusSeconds(Math.max(0, config.getCommitLagSec()));
+    }
+
+    /**
+     * 按共现表与出现权重重算单个景点的邻居
+     */
+    private void refreshNeighbors(Long itemId) {
+        HashOperations<String, Object, Object> hash = stringRedisTemplate.opsForHash();
+        Map<Object, Object> pairs = hash.entries(CacheConstants.ITEM_CF_PAIR_KEY + itemId);
+        if (pairs.isEmpty()) {
+            hash.delete(CacheConstants.ITEM_CF_NEIGHBOR_KEY, itemId.toString());
+            return;
+        }
+        List<Object> fields = new ArrayList<>(pairs.size() + 1);
+        fields.add(itemId.toString());
+        fields.addAll(pairs.keySet());
+        List<Object> counts = hash.multiGet(CacheConstants.ITEM_CF_COUNT_KEY, fields);
+
+        double itemWeight = parseDouble(counts.get(0));
+        long[] neighborIds = new long[pairs.size()];
+        double[] similarities = new double[pairs.size()];
+        int size = 0;
+        for (int i = 1; i < fields.size(); i++) {
+            try {
+                neighborIds[size] = Long.parseLong(fields.get(i).toString());
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            similarities[size] = similarity(parseDouble(pairs.get(fields.get(i))), itemWeight, parseDouble(counts.get(i)));
+            size++;
+        }
+        String encoded = encodeNeighbors(neighborIds, similarities, size);
+        if (encoded == null) {
+            hash.delete(CacheConstants.ITEM_CF_NEIGHBOR_KEY, itemId.toString());
+        } else {
+            hash.put(CacheConstants.ITEM_CF_NEIGHBOR_KEY, itemId.toString(), encoded);
+        }
+    }
+
+    /**
+     * 邻居编码为 "邻居ID:相似度,..."，按相似度降序取前 neighborSize 个；没有正相似度的邻居时返回 null
+     */
+    private String encodeNeighbors(long[] neighborIds, double[] similarities, int size) {
+        Integer[] order = topPositions(similarities, 0, size, Math.max(1, performanceProperties.getItemCf().getNeighborSize()));
+        StringBuilder encoded = new StringBuilder(order.length * 16);
+        for (int position : order) {
+            double score = Math.round(similarities[position] * 10_000d) / 10_000d;
+            if (score <= 0) {
+                break;
+            }
+            if (!encoded.isEmpty()) {
+                encoded.append(',');
+            }
+            encoded.append(neighborIds[position]).append(':').append(score);
+        }
+        return encoded.isEmpty() ? null : encoded.toString();
+    }
+
+    /**
+     * [from, to) 区间内取值最大的 limit 个位置，按取值降序
+     */
+    private static Integer[] topPositions(double[] values, int from, int to, int limit) {
+        Integer[] order = new Integer[Math.max(0, to - from)];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = from + i;
+        }
+        Arrays.sort(order, (x, y) -> Double.compare(values[y], values[x]));
+        return order.length > limit ? Arrays.copyOf(order, limit) : order;
+    }
+
+    private static double similarity(double pairWeight, double weightA, double weightB) {
+        if (pairWeight <= 0 || weightA <= 0 || weightB <= 0) {
+            return 0.0;
+        }
+        return Math.min(1.0, pairWeight / Math.sqrt(weightA * weightB));
+    }
+
+    private static double parseDouble(Object value) {
+        if (value == null) {
+            return 0.0;
+        }
+        try {
+            return Double.parseDouble(value.toString());
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+
+    private void writePairs(List<Map.Entry<String, Map<String, String>>> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        pipeline(redis -> {
+            for (Map.Entry<String, Map<String, String>> entry : chunk) {
+                redis.hMSet(entry.getKey(), entry.getValue());
+            }
+        });
+    }
+
+    private void writeHash(String key, Map<String, String> fields) {
+        Map<String, String> chunk = new HashMap<>();
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            chunk.put(field.getKey(), field.getValue());
+            if (chunk.size() >= WRITE_CHUNK_SIZE) {
+                stringRedisTemplate.opsForHash().putAll(key, chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            stringRedisTemplate.opsForHash().putAll(key, chunk);
+        }
+    }
+
+    private void pipeline(Consumer<StringRedisConnection> commands) {
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            commands.accept((StringRedisConnection) connection);
+            return null;
+        });
+    }
+
+    private void execute(Consumer<RedisOperations<String, String>> commands) {
+        stringRedisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> List<Object> execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                ops.multi();
+                commands.accept(ops);
+                return ops.exec();
+            }
+        });
+    }
+
+    /**
+     * 构建锁租约：长时间构建期间定期续期，锁已不属于本节点（过期后被其他节点抢占）时抛出异常中止构建
+     */
+    private final class LockLease {
+
+        private final String token;
+        private long renewedAt = System.currentTimeMillis();
+
+        private LockLease(String token) {
+            this.token = token;
+        }
+
+        private void renewIfDue() {
+            if (System.currentTimeMillis() - renewedAt >= LOCK_RENEW_INTERVAL_MS) {
+                renew();
+            }
+        }
+
+        private void renew() {
+            if (!token.equals(stringRedisTemplate.opsForValue().get(CacheConstants.LOCK_ITEM_CF))) {
+                throw new IllegalStateException("物品共现构建锁已失效，中止本次构建");
+            }
+            stringRedisTemplate.expire(CacheConstants.LOCK_ITEM_CF, LOCK_TTL_SECONDS, TimeUnit.SECONDS);
+            renewedAt = System.currentTimeMillis();
+        }
+    }
+}
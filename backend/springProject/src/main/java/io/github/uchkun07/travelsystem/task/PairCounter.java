@@ -0,0 +1,149 @@
+package io.github.uchkun07.travelsystem.task;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 共现计数：景点ID映射为稠密编号，景点对 (a&lt;b) 编码为 a&lt;&lt;32|b 存入线性探测的开放寻址表
+ */
+final class PairCounter {
+
+    @FunctionalInterface
+    interface PairConsumer {
+        void accept(int a, int b, double weight);
+    }
+
+
+    private final Map<Long, Integer> index = new HashMap<>();
+    private long[] ids = new long[256];
+    private double[] weights = new double[256];
+    private int[] dense = new int[32];
+    /** 0 表示空槽：a&lt;b 时编码不可能为 0 */
+    private long[] keys = new long[1 << 12];
+    private double[] values = new double[1 << 12];
+    private int pairCount;
+
+    private int intern(long id) {
+        Integer existing = index.get(id);
+        if (existing != null) {
+            return existing;
+        }
+        int next = index.size();
+        if (next == ids.length) {
+            ids = Arrays.copyOf(ids, next * 2);
+            weights = Arrays.copyOf(weights, next * 2);
+        }
+        ids[next] = id;
+        index.put(id, next);
+        return next;
+    }
+
+    /**
+     * 累加一个会话：新景点的出现权重，以及至少含一个新景点的景点对的共现权重
+     */
+    void addSession(long[] items, boolean[] fresh, int size, double weight) {
+        if (dense.length < size) {
+            dense = new int[size];
+        }
+        for (int i = 0; i < size; i++) {
+            dense[i] = intern(items[i]);
+            if (fresh[i]) {
+                weights[dense[i]] += weight;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                if (fresh[i] || fresh[j]) {
+                    addPair(dense[i], dense[j], weight);
+                }
+            }
+        }
+    }
+
+    private void addPair(int a, int b, double weight) {
+        if (a == b) {
+            return;
+        }
+        long key = a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == key) {
+            values[slot] += weight;
+            return;
+        }
+        keys[slot] = key;
+        values[slot] = weight;
+        if (++pairCount * 2 > keys.length) {
+            resize();
+        }
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new double[oldKeys.length * 2];
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == 0) {
+                continue;
+            }
+            int slot = mix(oldKeys[i]) & mask;
+            while (keys[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    void forEachPair(PairConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                consumer.accept((int) (keys[i] >>> 32), (int) keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * 共现或出现权重有变化的景点ID
+     */
+    void collectTouched(Set<Long> touched) {
+        boolean[] changed = new boolean[size()];
+        forEachPair((a, b, weight) -> {
+            changed[a] = true;
+            changed[b] = true;
+        });
+        for (int i = 0; i < changed.length; i++) {
+            if (changed[i] || weights[i] > 0) {
+                touched.add(ids[i]);
+            }
+        }
+    }
+
+    int size() {
+        return index.size();
+    }
+
+    long id(int dense) {
+        return ids[dense];
+    }
+
+    double weight(int dense) {
+        return weights[dense];
+    }
+
+    int pairCount() {
+        return pairCount;
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.uchkun07.travelsystem.task;
+
+import io.github.uchkun07.travelsystem.config.PerformanceProperties;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 物品共现的会话切分
+ * 按用户、时间顺序接收事件，换用户或相邻事件间隔超过阈值时结束当前会话并计数。
+ * 会话内景点去重并截断到 maxSessionItems 个；fresh 标记景点在会话中首次出现的事件是否为新事件。
+ */
+final class SessionCollector {
+
+    private final PairCounter counter;
+    private final long gapSeconds;
+    private final double weight;
+    private final long[] items;
+    private final boolean[] fresh;
+    private int size;
+    private Long userId;
+    private LocalDateTime lastTime;
+
+    SessionCollector(PairCounter counter, PerformanceProperties.ItemCf config, double weight) {
+        this.counter = counter;
+        this.gapSeconds = TimeUnit.MINUTES.toSeconds(Math.max(0, config.getSessionGapMinutes()));
+        this.weight = weight;
+        int maxItems = Math.max(2, config.getMaxSessionItems());
+        this.items = new long[maxItems];
+        this.fresh = new boolean[maxItems];
+    }
+
+    /**
+     * @param time 事件时间，为 null 时不按时间切分
+     */
+    void accept(Long userId, Long attractionId, LocalDateTime time, boolean isFresh) {
+        if (userId == null || attractionId == null) {
+            return;
+        }
+        if (!userId.equals(this.userId)
+                || (time != null && lastTime != null && Duration.between(lastTime, time).getSeconds() > gapSeconds)) {
+            flush();
+            this.userId = userId;
+        }
+        lastTime = time;
+        for (int i = 0; i < size; i++) {
+            if (items[i] == attractionId) {
+                return;
+            }
+        }
+        if (size < items.length) {
+            items[size] = attractionId;
+            fresh[size] = isFresh;
+            size++;
+        }
+    }
+
+    void flush() {
+        if (size > 0 && weight > 0) {
+            counter.addSession(items, fresh, size, weight);
+        }
+        size = 0;
+    }
+}
+
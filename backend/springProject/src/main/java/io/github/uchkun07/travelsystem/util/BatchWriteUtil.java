@@ -0,0 +1,78 @@
+package io.github.uchkun07.travelsystem.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * 关联表批量写入工具
+ * 批量绑定统一流程：一次查询取出已存在的关联做差集，差集按固定行数分片，
+ * 每片一条多行 INSERT（IGNORE）语句写入，数据库往返次数与列表长度无关（仅随分片数增长）。
+ */
+public final class BatchWriteUtil {
+
+    /** 单条多行 INSERT 的最大行数，避免语句超过 max_allowed_packet */
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    private BatchWriteUtil() {
+    }
+
+    /**
+     * 请求值去重、去空后与已存在值做差集
+     *
+     * @param requested 请求绑定的值
+     * @param existing  已存在的值
+     * @return 需要新增的值（保持请求顺序）
+     */
+    public static <T> List<T> diff(Collection<T> requested, Collection<T> existing) {
+        if (requested == null || requested.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<T> existed = existing == null ? Set.of() : new HashSet<>(existing);
+        LinkedHashSet<T> result = new LinkedHashSet<>();
+        for (T value : requested) {
+            if (value != null && !existed.contains(value)) {
+                result.add(value);
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * 请求值去重、去空
+     */
+    public static <T> List<T> distinct(Collection<T> values) {
+        if (values == null || values.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return values.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+    }
+
+    /**
+     * 按默认分片大小执行多行写入
+     *
+     * @param rows   待写入的行（或关联目标ID）
+     * @param insert 单片写入，返回影响行数
+     * @return 累计影响行数
+     */
+    public static <T> int insertInChunks(List<T> rows, ToIntFunction<List<T>> insert) {
+        return insertInChunks(rows, DEFAULT_CHUNK_SIZE, insert);
+    }
+
+    public static <T> int insertInChunks(List<T> rows, int chunkSize, ToIntFunction<List<T>> insert) {
+        if (rows == null || rows.isEmpty()) {
+            return 0;
+        }
+        int affected = 0;
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            affected += insert.applyAsInt(rows.subList(from, Math.min(rows.size(), from + chunkSize)));
+        }
+        return affected;
+    }
+}
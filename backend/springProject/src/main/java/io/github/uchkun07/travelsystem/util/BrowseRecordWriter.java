@@ -0,0 +1,170 @@
+package io.github.uchkun07.travelsystem.util;
+
+import io.github.uchkun07.travelsystem.config.PerformanceProperties;
+import io.github.uchkun07.travelsystem.dto.TrackBufferStats;
+import io.github.uchkun07.travelsystem.entity.UserBrowseRecord;
+import io.github.uchkun07.travelsystem.mapper.UserBrowseRecordMapper;
+import io.github.uchkun07.travelsystem.service.IUserBehaviorProfileService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 埋点事件异步批量写入
+ * 上报线程只把事件放入有界缓冲区，单个后台线程攒够一批或等待超过刷新间隔后以多行 INSERT 写库，
+ * 写库成功后再累加用户行为画像。缓冲区写满时新事件直接丢弃并计数，不阻塞上报请求。
+ *
+ * <p>写库失败的批次只计数不重试，埋点丢失少量事件可以接受；停机时在超时内排空缓冲区。</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BrowseRecordWriter {
+
+    /** 缓冲区满时告警日志的最小间隔 */
+    private static final long DROP_WARN_INTERVAL_MS = 10_000;
+
+    private final UserBrowseRecordMapper userBrowseRecordMapper;
+    private final IUserBehaviorProfileService userBehaviorProfileService;
+    private final PerformanceProperties performanceProperties;
+
+    private ArrayBlockingQueue<UserBrowseRecord> buffer;
+    private int batchSize;
+    private long flushIntervalMs;
+    private Thread writer;
+    private volatile boolean running;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final AtomicLong lastDropWarn = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        PerformanceProperties.Track config = performanceProperties.getTrack();
+        buffer = new ArrayBlockingQueue<>(Math.max(16, config.getBufferCapacity()));
+        batchSize = Math.max(1, Math.min(BatchWriteUtil.DEFAULT_CHUNK_SIZE, config.getBatchSize()));
+        flushIntervalMs = Math.max(10, config.getFlushIntervalMs());
+        running = true;
+        writer = new Thread(this::runLoop, "browse-record-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * 提交一条埋点事件，缓冲区满时丢弃
+     *
+     * @return 是否已进入缓冲区
+     */
+    public boolean submit(UserBrowseRecord record) {
+        if (running && buffer.offer(record)) {
+            accepted.increment();
+            return true;
+        }
+        dropped.increment();
+        long now = System.currentTimeMillis();
+        long last = lastDropWarn.get();
+        if (now - last >= DROP_WARN_INTERVAL_MS && lastDropWarn.compareAndSet(last, now)) {
+            log.warn("埋点缓冲区已满或已停止，丢弃事件, buffered={}, dropped={}", buffer.size(), dropped.sum());
+        }
+        return false;
+    }
+
+    public TrackBufferStats getStats() {
+        return TrackBufferStats.builder()
+                .capacity(buffer.size() + buffer.remainingCapacity())
+                .buffered(buffer.size())
+                .accepted(accepted.sum())
+                .dropped(dropped.sum())
+                .written(written.sum())
+                .failed(failed.sum())
+                .batches(batches.sum())
+                .build();
+    }
+
+    @PreDestroy
+    public void stop() {
+        // 不中断写线程，避免打断进行中的 JDBC 调用；写线程最多等待一个刷新间隔后发现停止标记
+        running = false;
+        try {
+            writer.join(Math.max(0, performanceProperties.getTrack().getShutdownTimeoutMs()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!buffer.isEmpty()) {
+            log.warn("停机时埋点缓冲区未排空, remaining={}", buffer.size());
+        }
+    }
+
+    private void runLoop() {
+        List<UserBrowseRecord> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 阻塞等待第一条事件，之后在刷新间隔内攒够一批
+     */
+    private void collect(List<UserBrowseRecord> batch) throws InterruptedException {
+        if (!running) {
+            buffer.drainTo(batch, batchSize);
+            return;
+        }
+        UserBrowseRecord first = buffer.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < batchSize) {
+            if (buffer.drainTo(batch, batchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            UserBrowseRecord next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<UserBrowseRecord> batch) {
+        try {
+            userBrowseRecordMapper.insertBatch(batch);
+        } catch (Exception e) {
+            failed.add(batch.size());
+            log.warn("埋点批量写入失败, size={}", batch.size(), e);
+            return;
+        }
+        written.add(batch.size());
+        batches.increment();
+        for (UserBrowseRecord record : batch) {
+            userBehaviorProfileService.recordEvent(record.getUserId(), record.getAttractionId(), record.getEventType(),
+                    record.getBrowseDuration() == null ? 0 : record.getBrowseDuration(), record.getBrowseTime());
+        }
+    }
+}
@@ -1,19 +1,66 @@
 package io.github.uchkun07.travelsystem.util;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.uchkun07.travelsystem.config.PerformanceProperties;
+import io.github.uchkun07.travelsystem.dto.CacheCodecReportItem;
+import io.github.uchkun07.travelsystem.dto.CacheHotKeyItem;
+import io.github.uchkun07.travelsystem.dto.CacheStatsResponse;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Supplier;
 
 /**
  * Redis 缓存客户端
  * 支持缓存穿透、击穿、雪崩等常见问题防护。
+ *
+ * <p>可选的本地一级缓存（L1）按 key 前缀配置容量与 TTL，命中时直接返回已反序列化的对象，
+ * 省去 Redis 往返与 JSON 解析；失效通过 Redis 发布订阅广播到所有节点。
+ * L1 命中返回的是多个请求共享的对象，调用方不得修改。</p>
+ *
+ * <p>缓存值经 {@link CacheValueCodec} 编码（可选 Smile + 超阈值压缩，默认写纯 JSON），兼容读取旧版纯 JSON。</p>
+ *
+ * <p>逻辑过期模式下 Redis 中存储 {"expireAt": 软过期时间戳, "data": 缓存数据}，
+ * 过期后返回旧值并异步重建，见 {@link #queryWithLogicalExpire}。</p>
+ *
+ * <p>所有读取方式在本地缓存未命中后都经过 single-flight：同一节点上同一 key 的并发请求只有一个
+ * 访问 Redis/数据库，其余请求限时等待其结果，超时后自行回源；分布式锁只决定由哪个节点回写 Redis，
+ * 未抢到锁的节点直接查库，不轮询等待。</p>
  */
 @Slf4j
 @Component
@@ -22,23 +69,103 @@ import java.util.function.Supplier;
 public class CacheClient {
 
     private static final long LOCK_TTL_SECONDS = 10;
-    private static final long RETRY_SLEEP_MILLIS = 50;
+    /** 等待同 key 首个请求加载的最长时间，超时后自行回源 */
+    private static final long SINGLE_FLIGHT_WAIT_MILLIS = 3000;
+
+    /** 本地缓存中的空值占位 */
+    private static final Object LOCAL_NULL = new Object();
+
+    /** Redis 中的空值占位 */
+    private static final byte[] NULL_BYTES = CacheConstants.NULL_VALUE.getBytes(StandardCharsets.UTF_8);
+
+    /** 失效消息：单个 key */
+    private static final String MSG_KEY = "K:";
+    /** 失效消息：key 前缀（空前缀表示全部） */
+    private static final String MSG_PREFIX = "P:";
+
+    /** 逻辑过期值字段：软过期时间戳(ms) */
+    private static final String FIELD_EXPIRE_AT = "expireAt";
+    /** 逻辑过期值字段：缓存数据 */
+    private static final String FIELD_DATA = "data";
+
+    /** 编码对比报告每个前缀抽样的 key 数 */
+    private static final int REPORT_SAMPLE_PER_PREFIX = 5;
+    /** 按前缀删除时每批 DEL 的 key 数 */
+    private static final int EVICT_PREFIX_BATCH = 500;
 
     private final StringRedisTemplate stringRedisTemplate;
+    private final RedisTemplate<String, byte[]> cacheRedisTemplate;
+    private final CacheValueCodec cacheValueCodec;
     private final ObjectMapper objectMapper;
+    private final PerformanceProperties performanceProperties;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final HotKeyDetector hotKeyDetector;
+
+    @Qualifier("cacheRebuildExecutor")
+    private final Executor cacheRebuildExecutor;
+
+    /** 前缀 -> 本地缓存，按前缀长度降序，匹配时取最长前缀 */
+    private final Map<String, LocalLruCache> localTiers = new LinkedHashMap<>();
+
+    /** 未配置本地缓存的热点 key 的短TTL副本，未启用热点探测时为 null */
+    private LocalLruCache hotReplica;
+
+    /**
+     * 失效版本号，每次失效递增。
+     * 回源前记录版本，写入本地缓存时若版本已变化则放弃写入，避免失效与回填交错导致旧值回写。
+     */
+    private final AtomicLong invalidationVersion = new AtomicLong();
+
+    /** 本节点正在加载的 key -> 加载结果，用于合并并发未命中 */
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder localMisses = new LongAdder();
+    private final LongAdder redisHits = new LongAdder();
+    private final LongAdder redisMisses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    @PostConstruct
+    public void initLocalTiers() {
+        PerformanceProperties.LocalTier config = performanceProperties.getCache().getLocal();
+        if (config.isEnabled()) {
+            List<PerformanceProperties.LocalTierPolicy> policies = new ArrayList<>(config.getPolicies());
+            policies.removeIf(policy -> !StringUtils.hasText(policy.getKeyPrefix()));
+            policies.sort(Comparator.comparingInt(
+                    (PerformanceProperties.LocalTierPolicy policy) -> policy.getKeyPrefix().length()).reversed());
+            for (PerformanceProperties.LocalTierPolicy policy : policies) {
+                localTiers.put(policy.getKeyPrefix(),
+                        new LocalLruCache(policy.getMaxSize(), TimeUnit.SECONDS.toMillis(policy.getTtlSec())));
+            }
+            log.info("本地一级缓存已启用, prefixes={}", localTiers.keySet());
+        }
+        if (hotKeyDetector.isEnabled()) {
+            PerformanceProperties.HotKey hotKey = performanceProperties.getCache().getHotKey();
+            hotReplica = new LocalLruCache(hotKey.getMaxHotKeys(),
+                    TimeUnit.SECONDS.toMillis(Math.max(1, hotKey.getReplicaTtlSec())));
+            log.info("热点key探测已启用, hotQps={}, replicaTtlSec={}", hotKey.getHotQps(), hotKey.getReplicaTtlSec());
+        }
+        if (hasLocal()) {
+            redisMessageListenerContainer.addMessageListener(
+                    (message, pattern) -> onInvalidateMessage(message),
+                    new ChannelTopic(CacheConstants.CACHE_INVALIDATE_CHANNEL));
+        }
+    }
 
     public void set(String key, Object value, long ttlSeconds, long jitterSeconds) {
         try {
             long ttl = ttlSeconds + randomJitter(jitterSeconds);
-            String json = objectMapper.writeValueAsString(value);
-            stringRedisTemplate.opsForValue().set(key, json, ttl, TimeUnit.SECONDS);
+            cacheRedisTemplate.opsForValue().set(key, cacheValueCodec.encode(value), ttl, TimeUnit.SECONDS);
         } catch (Exception e) {
             log.warn("写入缓存失败 key={}", key, e);
         }
     }
 
     public void setNull(String key, long ttlSeconds) {
-        stringRedisTemplate.opsForValue().set(key, CacheConstants.NULL_VALUE, ttlSeconds, TimeUnit.SECONDS);
+        cacheRedisTemplate.opsForValue().set(key, NULL_BYTES, ttlSeconds, TimeUnit.SECONDS);
     }
 
     public <T> T queryWithPassThrough(String key,
@@ -47,19 +174,45 @@ public class CacheClient {
                                       long ttlSeconds,
                                       long nullValueTtlSeconds,
                                       long jitterSeconds) {
-        String cacheVal = null;
+        LocalLruCache local = localTier(key);
+        long version = invalidationVersion.get();
+        LocalLruCache.Entry localEntry = getLocal(local, key);
+        if (localEntry != null) {
+            return unwrapLocal(localEntry);
+        }
+
+        // 同一 key 的并发未命中在本节点合并为一次加载，其余请求等待同一结果
+        return singleFlight(key, () -> loadWithPassThrough(key, local, version, type,
+                dbFallback, ttlSeconds, nullValueTtlSeconds, jitterSeconds));
+    }
+
+    private <T> T loadWithPassThrough(String key,
+                                      LocalLruCache local,
+                                      long version,
+                                      TypeReference<T> type,
+                                      Supplier<T> dbFallback,
+                                      long ttlSeconds,
+                                      long nullValueTtlSeconds,
+                                      long jitterSeconds) {
+        byte[] cacheVal = null;
         try {
-            cacheVal = stringRedisTemplate.opsForValue().get(key);
+            cacheVal = cacheRedisTemplate.opsForValue().get(key);
             if (cacheVal != null) {
-                if (CacheConstants.NULL_VALUE.equals(cacheVal)) {
+                redisHits.increment();
+                if (isNullValue(cacheVal)) {
+                    putLocal(local, key, null, nullValueTtlSeconds, version);
                     return null;
                 }
-                return deserialize(cacheVal, type);
+                T value = deserialize(cacheVal, objectMapper.getTypeFactory().constructType(type));
+                putLocal(local, key, value, ttlSeconds, version);
+                return value;
             }
+            redisMisses.increment();
         } catch (Exception e) {
             log.warn("缓存透传读取失败，继续执行回源查询 key={}", key, e);
         }
 
+        loads.increment();
         T dbValue = dbFallback.get();
         if (dbValue == null) {
             try {
@@ -67,6 +220,7 @@ public class CacheClient {
             } catch (Exception e) {
                 log.warn("缓存空值写入失败 key={}", key, e);
             }
+            putLocal(local, key, null, nullValueTtlSeconds, version);
             return null;
         }
 
@@ -75,6 +229,7 @@ public class CacheClient {
         } catch (Exception e) {
             log.warn("缓存写入失败，不影响本次返回 key={}", key, e);
         }
+        putLocal(local, key, dbValue, ttlSeconds, version);
         return dbValue;
     }
 
@@ -85,68 +240,646 @@ public class CacheClient {
                                 long ttlSeconds,
                                 long nullValueTtlSeconds,
                                 long jitterSeconds) {
+        LocalLruCache local = localTier(key);
+        long version = invalidationVersion.get();
+        LocalLruCache.Entry localEntry = getLocal(local, key);
+        if (localEntry != null) {
+            return unwrapLocal(localEntry);
+        }
+
+        // 同一 key 的并发未命中在本节点合并为一次加载，其余请求等待同一结果
+        return singleFlight(key, () -> loadWithMutex(key, lockKey, local, version, type,
+                dbFallback, ttlSeconds, nullValueTtlSeconds, jitterSeconds));
+    }
+
+    private <T> T loadWithMutex(String key,
+                                String lockKey,
+                                LocalLruCache local,
+                                long version,
+                                Class<T> type,
+                                Supplier<T> dbFallback,
+                                long ttlSeconds,
+                                long nullValueTtlSeconds,
+                                long jitterSeconds) {
         try {
-            while (true) {
-                String cacheVal = stringRedisTemplate.opsForValue().get(key);
+            byte[] cacheVal = cacheRedisTemplate.opsForValue().get(key);
+            if (cacheVal != null) {
+                redisHits.increment();
+                return fromRedis(local, key, cacheVal, type, ttlSeconds, nullValueTtlSeconds, version);
+            }
+
+            if (!tryLock(lockKey)) {
+                return loadWithoutLock(local, key, dbFallback, ttlSeconds, nullValueTtlSeconds, version);
+            }
+
+            try {
+                // double check
+                cacheVal = cacheRedisTemplate.opsForValue().get(key);
                 if (cacheVal != null) {
-                    if (CacheConstants.NULL_VALUE.equals(cacheVal)) {
-                        return null;
-                    }
-                    return deserialize(cacheVal, type);
+                    redisHits.increment();
+                    return fromRedis(local, key, cacheVal, type, ttlSeconds, nullValueTtlSeconds, version);
                 }
+                redisMisses.increment();
 
-                boolean locked = tryLock(lockKey);
-                if (!locked) {
-                    sleepBriefly();
-                    continue;
+                loads.increment();
+                T dbValue = dbFallback.get();
+                if (dbValue == null) {
+                    setNull(key, nullValueTtlSeconds);
+                    putLocal(local, key, null, nullValueTtlSeconds, version);
+                    return null;
                 }
 
-                try {
-                    // double check
-                    cacheVal = stringRedisTemplate.opsForValue().get(key);
-                    if (cacheVal != null) {
-                        if (CacheConstants.NULL_VALUE.equals(cacheVal)) {
-                            return null;
-                        }
-                        return deserialize(cacheVal, type);
+                set(key, dbValue, ttlSeconds, jitterSeconds);
+                putLocal(local, key, dbValue, ttlSeconds, version);
+                return dbValue;
+            } finally {
+                unlock(lockKey);
+            }
+        } catch (Exception e) {
+            log.warn("缓存互斥读取失败，降级查询数据库 key={}", key, e);
+            return dbFallback.get();
+        }
+    }
+
+    /**
+     * 逻辑过期读取
+     * 缓存值携带软过期时间，Redis 物理 TTL 额外保留一段宽限期；软过期后立即返回旧值，
+     * 并由抢到重建锁的请求在 cacheRebuildExecutor 中异步回源，热点 key 过期时不再出现请求堆积。
+     * 缓存完全缺失（冷启动或被删除）时按互斥方式同步加载。
+     */
+    public <T> T queryWithLogicalExpire(String key,
+                                        String lockKey,
+                                        TypeReference<T> type,
+                                        Supplier<T> dbFallback,
+                                        long ttlSeconds,
+                                        long nullValueTtlSeconds,
+                                        long jitterSeconds) {
+        return queryWithLogicalExpire(key, lockKey, objectMapper.getTypeFactory().constructType(type),
+                dbFallback, ttlSeconds, nullValueTtlSeconds, jitterSeconds);
+    }
+
+    /**
+     * 逻辑过期读取（按 Class 反序列化）
+     *
+     * @see #queryWithLogicalExpire(String, String, TypeReference, Supplier, long, long, long)
+     */
+    public <T> T queryWithLogicalExpire(String key,
+                                        String lockKey,
+                                        Class<T> type,
+                                        Supplier<T> dbFallback,
+                                        long ttlSeconds,
+                                        long nullValueTtlSeconds,
+                                        long jitterSeconds) {
+        return queryWithLogicalExpire(key, lockKey, objectMapper.getTypeFactory().constructType(type),
+                dbFallback, ttlSeconds, nullValueTtlSeconds, jitterSeconds);
+    }
+
+    private <T> T queryWithLogicalExpire(String key,
+                                         String lockKey,
+                                         JavaType type,
+                                         Supplier<T> dbFallback,
+                                         long ttlSeconds,
+                                         long nullValueTtlSeconds,
+                                         long jitterSeconds) {
+        LocalLruCache local = localTier(key);
+        long version = invalidationVersion.get();
+        LocalLruCache.Entry localEntry = getLocal(local, key);
+        if (localEntry != null) {
+            return unwrapLocal(localEntry);
+        }
+
+        // 同一 key 的并发未命中在本节点合并为一次加载，其余请求等待同一结果
+        return singleFlight(key, () -> loadWithLogicalExpire(key, lockKey, local, version, type,
+                dbFallback, ttlSeconds, nullValueTtlSeconds, jitterSeconds));
+    }
+
+    private <T> T loadWithLogicalExpire(String key,
+                                        String lockKey,
+                                        LocalLruCache local,
+                                        long version,
+                                        JavaType type,
+                                        Supplier<T> dbFallback,
+                                        long ttlSeconds,
+                                        long nullValueTtlSeconds,
+                                        long jitterSeconds) {
+        try {
+            byte[] cacheVal = cacheRedisTemplate.opsForValue().get(key);
+            if (cacheVal != null) {
+                LogicalValue<T> cached = readLogical(cacheVal, type);
+                if (cached != null) {
+                    redisHits.increment();
+                    return fromLogical(local, key, lockKey, cached, dbFallback,
+                            ttlSeconds, nullValueTtlSeconds, jitterSeconds, version);
+                }
+            }
+
+            if (!tryLock(lockKey)) {
+                return loadWithoutLock(local, key, dbFallback, ttlSeconds, nullValueTtlSeconds, version);
+            }
+
+            try {
+                // double check
+                cacheVal = cacheRedisTemplate.opsForValue().get(key);
+                if (cacheVal != null) {
+                    LogicalValue<T> cached = readLogical(cacheVal, type);
+                    if (cached != null && !cached.isExpired()) {
+                        redisHits.increment();
+                        return fromLogical(local, key, lockKey, cached, dbFallback,
+                                ttlSeconds, nullValueTtlSeconds, jitterSeconds, version);
                     }
+                }
+                redisMisses.increment();
 
-                    T dbValue = dbFallback.get();
-                    if (dbValue == null) {
-                        setNull(key, nullValueTtlSeconds);
-                        return null;
+                T dbValue = loadLogical(key, dbFallback, ttlSeconds, nullValueTtlSeconds, jitterSeconds);
+                putLocal(local, key, dbValue, dbValue == null ? nullValueTtlSeconds : ttlSeconds, version);
+                return dbValue;
+            } finally {
+                unlock(lockKey);
+            }
+        } catch (Exception e) {
+            log.warn("缓存逻辑过期读取失败，降级查询数据库 key={}", key, e);
+            return dbFallback.get();
+        }
+    }
+
+    private <T> T fromLogical(LocalLruCache local,
+                              String key,
+                              String lockKey,
+                              LogicalValue<T> cached,
+                              Supplier<T> dbFallback,
+                              long ttlSeconds,
+                              long nullValueTtlSeconds,
+                              long jitterSeconds,
+                              long version) {
+        long remainingMillis = cached.expireAt() - System.currentTimeMillis();
+        if (remainingMillis > 0) {
+            putLocal(local, key, cached.value(), TimeUnit.MILLISECONDS.toSeconds(remainingMillis), version);
+            return cached.value();
+        }
+
+        // 已软过期：直接返回旧值，抢到锁的请求负责异步重建
+        staleHits.increment();
+        if (tryLock(lockKey)) {
+            try {
+                cacheRebuildExecutor.execute(() -> {
+                    try {
+                        rebuilds.increment();
+                        loadLogical(key, dbFallback, ttlSeconds, nullValueTtlSeconds, jitterSeconds);
+                    } catch (Exception e) {
+                        log.warn("缓存异步重建失败，保留旧值 key={}", key, e);
+                    } finally {
+                        unlock(lockKey);
                     }
+                });
+            } catch (Exception e) {
+                unlock(lockKey);
+                log.warn("缓存重建任务提交失败 key={}", key, e);
+            }
+        }
+        return cached.value();
+    }
 
-                    set(key, dbValue, ttlSeconds, jitterSeconds);
-                    return dbValue;
-                } finally {
-                    unlock(lockKey);
+    /**
+     * 重建锁被其他节点持有时直接回源：本节点的并发请求已由 single-flight 合并为一次，
+     * 结果只写入本地缓存，Redis 由持锁节点回写，不再轮询等待
+     */
+    private <T> T loadWithoutLock(LocalLruCache local,
+                                  String key,
+                                  Supplier<T> dbFallback,
+                                  long ttlSeconds,
+                                  long nullValueTtlSeconds,
+                                  long version) {
+        redisMisses.increment();
+        loads.increment();
+        T dbValue = dbFallback.get();
+        putLocal(local, key, dbValue, dbValue == null ? nullValueTtlSeconds : ttlSeconds, version);
+        return dbValue;
+    }
+
+    /**
+     * 回源并写入逻辑过期值：Redis 物理 TTL = 逻辑 TTL + 宽限期，宽限期内过期值仍可作为旧值返回
+     */
+    private <T> T loadLogical(String key,
+                              Supplier<T> dbFallback,
+                              long ttlSeconds,
+                              long nullValueTtlSeconds,
+                              long jitterSeconds) {
+        loads.increment();
+        T dbValue = dbFallback.get();
+        long logicalTtl = (dbValue == null ? nullValueTtlSeconds : ttlSeconds) + randomJitter(jitterSeconds);
+        long physicalTtl = logicalTtl + performanceProperties.getCache().getStaleGraceSec();
+        try {
+            ObjectNode node = objectMapper.createObjectNode();
+            node.put(FIELD_EXPIRE_AT, System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(logicalTtl));
+            node.set(FIELD_DATA, objectMapper.valueToTree(dbValue));
+            cacheRedisTemplate.opsForValue().set(key, cacheValueCodec.encode(node), physicalTtl, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("写入逻辑过期缓存失败 key={}", key, e);
+        }
+        return dbValue;
+    }
+
+    /**
+     * 解析逻辑过期值，不是逻辑过期格式（如旧版普通缓存）时返回 null，按缓存缺失处理
+     */
+    private <T> LogicalValue<T> readLogical(byte[] cacheVal, JavaType type) {
+        try {
+            JsonNode node = cacheValueCodec.decodeTree(cacheVal);
+            if (node == null || !node.isObject() || !node.has(FIELD_EXPIRE_AT)) {
+                return null;
+            }
+            JsonNode data = node.get(FIELD_DATA);
+            T value = data == null || data.isNull() ? null : objectMapper.treeToValue(data, type);
+            return new LogicalValue<>(value, node.get(FIELD_EXPIRE_AT).asLong());
+        } catch (Exception e) {
+            log.warn("逻辑过期缓存解析失败，按缓存缺失处理", e);
+            return null;
+        }
+    }
+
+    /**
+     * 删除缓存（Redis 与所有节点的本地缓存）
+     */
+    public void evict(String key) {
+        try {
+            stringRedisTemplate.delete(key);
+        } catch (Exception e) {
+            log.warn("删除缓存失败 key={}", key, e);
+        }
+        // 先删 Redis 再失效本地：删除前读到旧值的请求持有旧版本号，不会再回填本地缓存
+        invalidateLocal(key, false);
+        publishInvalidation(MSG_KEY + key);
+    }
+
+    /**
+     * 批量删除缓存：Redis 单条 DEL，失效广播走一次管道
+     */
+    public void evictAll(Collection<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.delete(keys);
+        } catch (Exception e) {
+            log.warn("批量删除缓存失败 size={}", keys.size(), e);
+        }
+        keys.forEach(key -> invalidateLocal(key, false));
+        if (!hasLocal()) {
+            return;
+        }
+        byte[] channel = CacheConstants.CACHE_INVALIDATE_CHANNEL.getBytes(StandardCharsets.UTF_8);
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String key : keys) {
+                    connection.publish(channel, (MSG_KEY + key).getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("本地缓存批量失效广播失败，其他节点将在本地TTL到期后更新 size={}", keys.size(), e);
+        }
+    }
+
+    /**
+     * 事务提交后批量删除缓存；无事务时立即删除
+     */
+    public void evictAllAfterCommit(Collection<String> keys) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAll(keys);
+                }
+            });
+        } else {
+            evictAll(keys);
+        }
+    }
+
+    /**
+     * 事务提交后删除缓存；无事务时立即删除
+     */
+    public void evictAfterCommit(String key) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(key);
+                }
+            });
+        } else {
+            evict(key);
+        }
+    }
+
+    /**
+     * 删除指定前缀的全部缓存（SCAN 后分批 DEL，并清空所有节点的本地缓存），
+     * 用于 key 中含查询条件摘要、无法逐个定位的缓存
+     */
+    public void evictPrefix(String prefix) {
+        ScanOptions options = ScanOptions.scanOptions().match(prefix + "*").count(EVICT_PREFIX_BATCH).build();
+        List<String> batch = new ArrayList<>(EVICT_PREFIX_BATCH);
+        try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() >= EVICT_PREFIX_BATCH) {
+                    stringRedisTemplate.delete(batch);
+                    batch.clear();
                 }
             }
+            if (!batch.isEmpty()) {
+                stringRedisTemplate.delete(batch);
+            }
         } catch (Exception e) {
-            log.warn("缓存互斥读取失败，降级查询数据库 key={}", key, e);
-            return dbFallback.get();
+            log.warn("按前缀删除缓存失败 prefix={}", prefix, e);
         }
+        clearLocal(prefix);
+    }
+
+    /**
+     * 事务提交后按前缀删除缓存；无事务时立即删除
+     */
+    public void evictPrefixAfterCommit(String prefix) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictPrefix(prefix);
+                }
+            });
+        } else {
+            evictPrefix(prefix);
+        }
+    }
+
+    /**
+     * 清空所有节点中指定前缀的本地缓存（不影响 Redis）
+     *
+     * @param prefix key 前缀，为空时清空全部本地缓存
+     */
+    public void clearLocal(String prefix) {
+        String value = prefix == null ? "" : prefix;
+        invalidateLocal(value, true);
+        publishInvalidation(MSG_PREFIX + value);
+    }
+
+    /**
+     * 编码对比报告：对指定缓存值分别以 JSON / Smile、压缩 / 不压缩编码，统计字节数与编解码耗时
+     *
+     * @param keys       缓存key，为空时抽样热门、详情、列表缓存
+     * @param iterations 每种编码的计时循环次数
+     */
+    public List<CacheCodecReportItem> codecReport(Collection<String> keys, int iterations) {
+        List<String> sampleKeys = new ArrayList<>();
+        if (keys == null || keys.isEmpty()) {
+            sampleKeys.add(CacheConstants.ATTRACTION_TOP_BROWSE_KEY);
+            sampleKeys.addAll(scanKeys(CacheConstants.ATTRACTION_DETAIL_KEY + "*", REPORT_SAMPLE_PER_PREFIX));
+            sampleKeys.addAll(scanKeys(CacheConstants.ATTRACTION_LIST_KEY + "*", REPORT_SAMPLE_PER_PREFIX));
+        } else {
+            sampleKeys.addAll(keys);
+        }
+        int rounds = Math.max(1, iterations);
+        List<CacheCodecReportItem> items = new ArrayList<>();
+        for (String key : sampleKeys) {
+            byte[] raw = cacheRedisTemplate.opsForValue().get(key);
+            if (raw == null || isNullValue(raw)) {
+                continue;
+            }
+            try {
+                JsonNode value = cacheValueCodec.decodeTree(raw);
+                int jsonBytes = -1;
+                for (CacheValueCodec.Format format : CacheValueCodec.Format.values()) {
+                    for (boolean compress : new boolean[]{false, true}) {
+                        int threshold = compress ? 1 : 0;
+                        byte[] encoded = cacheValueCodec.encode(value, format, threshold);
+                        long encodeStart = System.nanoTime();
+                        for (int i = 0; i < rounds; i++) {
+                            cacheValueCodec.encode(value, format, threshold);
+                        }
+                        long encodeNanos = System.nanoTime() - encodeStart;
+                        long decodeStart = System.nanoTime();
+                        for (int i = 0; i < rounds; i++) {
+                            cacheValueCodec.decodeTree(encoded);
+                        }
+                        long decodeNanos = System.nanoTime() - decodeStart;
+                        if (jsonBytes < 0) {
+                            jsonBytes = encoded.length;
+                        }
+                        items.add(CacheCodecReportItem.builder()
+                                .key(key)
+                                .format(format.name())
+                                .compressed(compress)
+                                .bytes(encoded.length)
+                                .ratio((double) encoded.length / jsonBytes)
+                                .encodeMicros(encodeNanos / 1000D / rounds)
+                                .decodeMicros(decodeNanos / 1000D / rounds)
+                                .build());
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("缓存编码对比失败 key={}", key, e);
+            }
+        }
+        return items;
+    }
+
+    private List<String> scanKeys(String pattern, int limit) {
+        List<String> keys = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(100).build();
+        try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+            while (cursor.hasNext() && keys.size() < limit) {
+                keys.add(cursor.next());
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * 当前节点的热点 key（只统计未配置本地缓存前缀的 key）
+     */
+    public List<CacheHotKeyItem> getHotKeys() {
+        return hotKeyDetector.hotKeys();
     }
 
-    public boolean existsInAttractionIdFilter(Long attractionId) {
-        if (attractionId == null || attractionId <= 0) {
-            return false;
+    /**
+     * 多级缓存命中统计
+     */
+    public CacheStatsResponse getStats() {
+        long l1Hits = localHits.sum();
+        long l1Misses = localMisses.sum();
+        long l2Hits = redisHits.sum();
+        long l2Misses = redisMisses.sum();
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        localTiers.forEach((prefix, cache) -> sizes.put(prefix, cache.size()));
+        if (hotReplica != null) {
+            sizes.put("hot-key-replica", hotReplica.size());
+        }
+        return CacheStatsResponse.builder()
+                .localEnabled(hasLocal())
+                .localHits(l1Hits)
+                .localMisses(l1Misses)
+                .localHitRate(hitRate(l1Hits, l1Misses))
+                .redisHits(l2Hits)
+                .redisMisses(l2Misses)
+                .redisHitRate(hitRate(l2Hits, l2Misses))
+                .loads(loads.sum())
+                .staleHits(staleHits.sum())
+                .rebuilds(rebuilds.sum())
+                .coalesced(coalesced.sum())
+                .localSizes(sizes)
+                .build();
+    }
+
+    /**
+     * 合并同一 key 的并发加载：首个请求执行 loader，其余请求等待同一个 Future
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T singleFlight(String key, Supplier<T> loader) {
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalesced.increment();
+            try {
+                return (T) existing.get(SINGLE_FLIGHT_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                // 与首个请求抛出同样的异常，保持调用方的异常处理语义
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (TimeoutException e) {
+                // 首个请求加载过慢（如数据库卡顿），不再无限等待，直接回源
+                log.warn("等待合并加载超时，直接回源 key={}", key);
+                return loader.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return loader.get();
+            }
         }
         try {
-            Boolean keyExists = stringRedisTemplate.hasKey(CacheConstants.ATTR_ID_FILTER_KEY);
-            // 过滤器未初始化时直接放行，避免误判404
-            if (!Boolean.TRUE.equals(keyExists)) {
-                return true;
+            T value = loader.get();
+            created.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    private LocalLruCache localTier(String key) {
+        for (Map.Entry<String, LocalLruCache> tier : localTiers.entrySet()) {
+            if (key.startsWith(tier.getKey())) {
+                return tier.getValue();
+            }
+        }
+        // 已有前缀一级缓存的 key 不参与热点探测，避免占用热点名额却永远读不到副本；
+        // 其余热点 key 使用短TTL副本，分担 Redis 单 key 压力
+        hotKeyDetector.record(key);
+        if (hotReplica != null && hotKeyDetector.isHot(key)) {
+            return hotReplica;
+        }
+        return null;
+    }
+
+    private boolean hasLocal() {
+        return !localTiers.isEmpty() || hotReplica != null;
+    }
+
+    private LocalLruCache.Entry getLocal(LocalLruCache local, String key) {
+        if (local == null) {
+            return null;
+        }
+        LocalLruCache.Entry entry = local.get(key);
+        if (entry == null) {
+            localMisses.increment();
+        } else {
+            localHits.increment();
+        }
+        return entry;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T unwrapLocal(LocalLruCache.Entry entry) {
+        Object value = entry.value();
+        return value == LOCAL_NULL ? null : (T) value;
+    }
+
+    private void putLocal(LocalLruCache local, String key, Object value, long ttlSeconds, long version) {
+        if (local == null || invalidationVersion.get() != version) {
+            return;
+        }
+        local.put(key, value == null ? LOCAL_NULL : value, TimeUnit.SECONDS.toMillis(ttlSeconds));
+    }
+
+    private <T> T fromRedis(LocalLruCache local, String key, byte[] cacheVal, Class<T> type,
+                            long ttlSeconds, long nullValueTtlSeconds, long version) {
+        if (isNullValue(cacheVal)) {
+            putLocal(local, key, null, nullValueTtlSeconds, version);
+            return null;
+        }
+        T value = deserialize(cacheVal, objectMapper.getTypeFactory().constructType(type));
+        putLocal(local, key, value, ttlSeconds, version);
+        return value;
+    }
+
+    private void invalidateLocal(String keyOrPrefix, boolean prefix) {
+        invalidationVersion.incrementAndGet();
+        if (hotReplica != null) {
+            if (!prefix) {
+                hotReplica.invalidate(keyOrPrefix);
+            } else if (keyOrPrefix.isEmpty()) {
+                hotReplica.clear();
+            } else {
+                hotReplica.invalidatePrefix(keyOrPrefix);
             }
-            return Boolean.TRUE.equals(
-                    stringRedisTemplate.opsForSet().isMember(CacheConstants.ATTR_ID_FILTER_KEY, String.valueOf(attractionId)));
+        }
+        for (Map.Entry<String, LocalLruCache> tier : localTiers.entrySet()) {
+            if (!prefix) {
+                if (keyOrPrefix.startsWith(tier.getKey())) {
+                    tier.getValue().invalidate(keyOrPrefix);
+                    return;
+                }
+            } else if (keyOrPrefix.isEmpty() || tier.getKey().startsWith(keyOrPrefix)) {
+                tier.getValue().clear();
+            } else if (keyOrPrefix.startsWith(tier.getKey())) {
+                tier.getValue().invalidatePrefix(keyOrPrefix);
+            }
+        }
+    }
+
+    private void publishInvalidation(String message) {
+        if (!hasLocal()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.convertAndSend(CacheConstants.CACHE_INVALIDATE_CHANNEL, message);
         } catch (Exception e) {
-            log.warn("景点ID过滤器读取失败，降级放行 attractionId={}", attractionId, e);
-            return true;
+            log.warn("本地缓存失效广播失败，其他节点将在本地TTL到期后更新 message={}", message, e);
+        }
+    }
+
+    private void onInvalidateMessage(Message message) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        // StringRedisTemplate 发送的消息体为原始字符串
+        if (body.startsWith(MSG_KEY)) {
+            invalidateLocal(body.substring(MSG_KEY.length()), false);
+        } else if (body.startsWith(MSG_PREFIX)) {
+            invalidateLocal(body.substring(MSG_PREFIX.length()), true);
+        } else {
+            log.warn("忽略无法识别的缓存失效消息 body={}", body);
         }
     }
 
+    private double hitRate(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0D : (double) hits / total;
+    }
+
     private boolean tryLock(String lockKey) {
         Boolean ok = stringRedisTemplate.opsForValue().setIfAbsent(lockKey, "1", LOCK_TTL_SECONDS, TimeUnit.SECONDS);
         return Boolean.TRUE.equals(ok);
@@ -163,27 +896,28 @@ public class CacheClient {
         return ThreadLocalRandom.current().nextLong(jitterSeconds + 1);
     }
 
-    private void sleepBriefly() {
-        try {
-            Thread.sleep(RETRY_SLEEP_MILLIS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+    private boolean isNullValue(byte[] cacheVal) {
+        return Arrays.equals(NULL_BYTES, cacheVal);
     }
 
-    private <T> T deserialize(String cacheVal, Class<T> type) {
+    private <T> T deserialize(byte[] cacheVal, JavaType type) {
         try {
-            return objectMapper.readValue(cacheVal, type);
+            return cacheValueCodec.decode(cacheVal, type);
         } catch (Exception e) {
             throw new RuntimeException("缓存反序列化失败", e);
         }
     }
 
-    private <T> T deserialize(String cacheVal, TypeReference<T> type) {
-        try {
-            return objectMapper.readValue(cacheVal, type);
-        } catch (Exception e) {
-            throw new RuntimeException("缓存反序列化失败", e);
+    /**
+     * 逻辑过期缓存值
+     *
+     * @param value    缓存数据（null 表示空值缓存）
+     * @param expireAt 软过期时间戳(ms)
+     */
+    private record LogicalValue<T>(T value, long expireAt) {
+
+        boolean isExpired() {
+            return expireAt <= System.currentTimeMillis();
         }
     }
 }
@@ -11,12 +11,60 @@ public final class CacheConstants {
     public static final String NULL_VALUE = "__NULL__";
 
     public static final String LOCK_ATTRACTION_DETAIL = "lock:attraction:detail:";
+    public static final String LOCK_ATTRACTION_LIST = "lock:attraction:list:";
+    public static final String LOCK_COUNTER_FLUSH = "lock:counter:flush";
+    public static final String LOCK_POPULARITY_SCORE = "lock:popularity:score";
+    public static final String LOCK_ITEM_CF = "lock:recommend:itemcf";
+    public static final String LOCK_ATTR_ID_FILTER = "lock:attraction:id:bitmap";
 
     public static final String ATTRACTION_DETAIL_KEY = "cache:attraction:detail:";
     public static final String ATTRACTION_LIST_KEY = "cache:attraction:list:";
+    public static final String ATTRACTION_COUNT_KEY = "cache:attraction:count:";
     public static final String ATTRACTION_TOP_BROWSE_KEY = "cache:attraction:top:browse";
-    public static final String ATTR_ID_FILTER_KEY = "cache:attraction:id:set";
+    /** 已发布景点ID位图（偏移量为景点ID） */
+    public static final String ATTR_ID_FILTER_KEY = "cache:attraction:id:bitmap";
+    /** 景点ID位图增量变更日志（ZSet："景点ID:0/1" -> 变更时间戳），全量重建替换位图后据此补写 */
+    public static final String ATTR_ID_FILTER_CHANGE_KEY = "cache:attraction:id:bitmap:change";
 
-    public static final String RECOMMEND_HOME_KEY = "cache:recommend:home:";
+    /** 本地缓存跨节点失效广播频道 */
+    public static final String CACHE_INVALIDATE_CHANNEL = "channel:cache:invalidate";
+
+    /** 实体版本号（Hash：版本范围 -> 版本号），用于生成 ETag */
+    public static final String ENTITY_VERSION_KEY = "version:entity";
+    /** 实体版本号跨节点同步频道 */
+    public static final String ENTITY_VERSION_CHANNEL = "channel:entity:version";
+
+    /** 推荐会话排序结果，后接 用户ID:requestId（游客用户ID为0） */
+    public static final String RECOMMEND_SESSION_KEY = "cache:recommend:session:";
+    /** 用户行为画像（Hash：天:类型:指标 -> 累计值），后接用户ID */
+    public static final String RECOMMEND_BEHAVIOR_PROFILE_KEY = "profile:behavior:";
+    /** 用户最近点击的景点（ZSet：景点ID -> 最近点击时间戳，只保留最近的若干个），后接用户ID */
+    public static final String RECOMMEND_RECENT_CLICK_KEY = "profile:click:";
     public static final String ROUTE_PLAN_KEY = "cache:route:plan:";
+
+    public static final String COUNTER_ATTRACTION_BROWSE_KEY = "counter:attraction:browse";
+    public static final String COUNTER_ATTRACTION_FAVORITE_KEY = "counter:attraction:favorite";
+    public static final String COUNTER_SLIDESHOW_CLICK_KEY = "counter:slideshow:click";
+    /** 正在落库的增量快照后缀 */
+    public static final String COUNTER_FLUSHING_SUFFIX = ":flushing";
+    /** 快照标识后缀（String：快照ID），接在快照 key 之后，与快照一起删除 */
+    public static final String COUNTER_SNAPSHOT_ID_SUFFIX = ":id";
+
+    /** 景点人气前向衰减得分（Hash：景点ID -> 相对基准时间的得分） */
+    public static final String POPULARITY_SCORE_KEY = "popularity:attraction:score";
+    /** 人气评分任务状态（Hash：基准时间与各数据源水位） */
+    public static final String POPULARITY_STATE_KEY = "popularity:attraction:state";
+    /** 得分已变化、人气尚未写回数据库的景点ID集合 */
+    public static final String POPULARITY_DIRTY_KEY = "popularity:attraction:dirty";
+
+    /** 物品共现权重（Hash：共现景点ID -> 累计权重），后接景点ID */
+    public static final String ITEM_CF_PAIR_KEY = "recommend:itemcf:pair:";
+    /** 景点出现权重（Hash：景点ID -> 累计权重） */
+    public static final String ITEM_CF_COUNT_KEY = "recommend:itemcf:count";
+    /** 景点相似邻居（Hash：景点ID -> "邻居ID:相似度,..."，按相似度降序） */
+    public static final String ITEM_CF_NEIGHBOR_KEY = "recommend:itemcf:neighbor";
+    /** 物品共现任务状态（Hash：构建时间、浏览记录水位、邻居表版本号） */
+    public static final String ITEM_CF_STATE_KEY = "recommend:itemcf:state";
+    /** 全量构建的临时 key 前缀（count / neighbor / pair:{景点ID}），写完后 RENAME 为正式 key */
+    public static final String ITEM_CF_STAGING_PREFIX = "recommend:itemcf:staging:";
 }
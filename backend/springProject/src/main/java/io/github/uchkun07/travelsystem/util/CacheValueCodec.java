@@ -0,0 +1,181 @@
+package io.github.uchkun07.travelsystem.util;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 缓存值编解码器
+ * 编码结果带 4 字节头：魔数、版本、格式、标志位，格式可选 JSON 或 Smile（二进制 JSON），
+ * 超过阈值时再做 deflate 压缩。不带头的数据按旧版纯 JSON 解析。
+ *
+ * <p>JSON 格式且未压缩时不加头，直接写纯 JSON，旧版本节点也能读取，因此滚动发布须先以
+ * JSON、不压缩全量部署，再切换为 Smile 或开启压缩；带头的数据旧版本节点无法解析。</p>
+ *
+ * <p>帧结构：[0xB1][版本][格式][标志位][载荷]。0xB1 不可能出现在合法 UTF-8 文本的首字节，
+ * 因此可以与旧版 JSON 可靠区分。</p>
+ */
+public class CacheValueCodec {
+
+    private static final byte MAGIC = (byte) 0xB1;
+    private static final byte VERSION = 1;
+    private static final int HEADER_LENGTH = 4;
+    private static final byte FLAG_DEFLATE = 1;
+
+    /**
+     * 载荷格式
+     */
+    public enum Format {
+        JSON((byte) 1),
+        SMILE((byte) 2);
+
+        private final byte code;
+
+        Format(byte code) {
+            this.code = code;
+        }
+
+        static Format of(byte code) {
+            for (Format format : values()) {
+                if (format.code == code) {
+                    return format;
+                }
+            }
+            throw new IllegalStateException("未知的缓存编码格式: " + code);
+        }
+    }
+
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper smileMapper;
+    private final Format writeFormat;
+    private final int compressThresholdBytes;
+
+    /**
+     * @param jsonMapper             JSON 映射器，Smile 映射器复制其模块与配置
+     * @param writeFormat            写入格式
+     * @param compressThresholdBytes 载荷达到该字节数时压缩，小于等于 0 表示不压缩
+     */
+    public CacheValueCodec(ObjectMapper jsonMapper, Format writeFormat, int compressThresholdBytes) {
+        this.jsonMapper = jsonMapper;
+        // 开启字符串值回引，重复出现的短字符串（如默认类型信息中的类名）只写一次
+        this.smileMapper = jsonMapper.copyWith(
+                new SmileFactory().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES));
+        this.writeFormat = writeFormat;
+        this.compressThresholdBytes = compressThresholdBytes;
+    }
+
+    public Format getWriteFormat() {
+        return writeFormat;
+    }
+
+    /**
+     * 按配置的写入格式编码
+     */
+    public byte[] encode(Object value) throws IOException {
+        return encode(value, writeFormat, compressThresholdBytes);
+    }
+
+    /**
+     * 按指定格式编码（用于编码对比报告）
+     */
+    public byte[] encode(Object value, Format format, int compressThreshold) throws IOException {
+        byte[] payload = mapper(format).writeValueAsBytes(value);
+        byte flags = 0;
+        if (compressThreshold > 0 && payload.length >= compressThreshold) {
+            byte[] compressed = deflate(payload);
+            if (compressed.length < payload.length) {
+                payload = compressed;
+                flags |= FLAG_DEFLATE;
+            }
+        }
+        if (format == Format.JSON && flags == 0) {
+            return payload;
+        }
+        byte[] frame = new byte[HEADER_LENGTH + payload.length];
+        frame[0] = MAGIC;
+        frame[1] = VERSION;
+        frame[2] = format.code;
+        frame[3] = flags;
+        System.arraycopy(payload, 0, frame, HEADER_LENGTH, payload.length);
+        return frame;
+    }
+
+    public <T> T decode(byte[] bytes, JavaType type) throws IOException {
+        if (!isFramed(bytes)) {
+            return jsonMapper.readValue(bytes, type);
+        }
+        return mapper(Format.of(bytes[2])).readValue(payload(bytes), type);
+    }
+
+    public JsonNode decodeTree(byte[] bytes) throws IOException {
+        if (!isFramed(bytes)) {
+            return jsonMapper.readTree(bytes);
+        }
+        return mapper(Format.of(bytes[2])).readTree(payload(bytes));
+    }
+
+    /**
+     * 是否为带头的编码数据（否则为旧版纯 JSON）
+     */
+    public static boolean isFramed(byte[] bytes) {
+        return bytes != null && bytes.length >= HEADER_LENGTH && bytes[0] == MAGIC;
+    }
+
+    private ObjectMapper mapper(Format format) {
+        return format == Format.SMILE ? smileMapper : jsonMapper;
+    }
+
+    private byte[] payload(byte[] frame) throws IOException {
+        if (frame[1] > VERSION) {
+            throw new IOException("不支持的缓存编码版本: " + frame[1]);
+        }
+        byte[] payload = Arrays.copyOfRange(frame, HEADER_LENGTH, frame.length);
+        return (frame[3] & FLAG_DEFLATE) != 0 ? inflate(payload) : payload;
+    }
+
+    private byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 16);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] inflate(byte[] data) throws IOException {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("缓存数据解压失败：数据不完整");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException("缓存数据解压失败", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.uchkun07.travelsystem.util;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * RedisTemplate 值序列化器
+ * 基于 {@link CacheValueCodec} 编码，能读取旧版 Jackson2JsonRedisSerializer 写入的 JSON。
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    private final CacheValueCodec codec;
+    private final JavaType objectType;
+
+    /**
+     * @param codec  编解码器（其映射器需开启与旧序列化器一致的默认类型信息）
+     * @param mapper 用于构造目标类型
+     */
+    public CompactRedisSerializer(CacheValueCodec codec, ObjectMapper mapper) {
+        this.codec = codec;
+        this.objectType = mapper.getTypeFactory().constructType(Object.class);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        try {
+            return codec.encode(value);
+        } catch (Exception e) {
+            throw new SerializationException("Redis 值序列化失败", e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return codec.decode(bytes, objectType);
+        } catch (Exception e) {
+            throw new SerializationException("Redis 值反序列化失败", e);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package io.github.uchkun07.travelsystem.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 流式 CSV 记录读取器（RFC 4180）
+ * 逐条读取记录，支持双引号包裹的字段、字段内逗号/换行及 "" 转义，自动跳过 UTF-8 BOM 与空行。
+ *
+ * <p>单条记录最多缓冲 maxRecordChars 个字符，超出部分继续扫描但不再保留；超长记录与到文件末尾仍未闭合的
+ * 引号都作为该条记录的错误返回（见 {@link #getRecordError()}），不抛异常中断读取。</p>
+ */
+public class CsvRecordReader implements Closeable {
+
+    private static final char BOM = '\uFEFF';
+
+    private final Reader reader;
+    private final int maxRecordChars;
+    private int pushback = -2;
+    private long line = 1;
+    private long recordLine;
+    private int recordChars;
+    private String recordError;
+    private boolean started;
+
+    /**
+     * @param reader         字符流（建议带缓冲）
+     * @param maxRecordChars 单条记录最多缓冲的字符数
+     */
+    public CsvRecordReader(Reader reader, int maxRecordChars) {
+        this.reader = reader;
+        this.maxRecordChars = Math.max(1, maxRecordChars);
+    }
+
+    /**
+     * 读取下一条记录
+     *
+     * @return 字段列表，已读完时返回 null；记录有错误时字段可能不完整
+     */
+    public List<String> next() throws IOException {
+        int c = read();
+        if (!started) {
+            started = true;
+            if (c == BOM) {
+                c = read();
+            }
+        }
+        // 跳过空行
+        while (c == '\r' || c == '\n') {
+            consumeLineBreak(c);
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        recordLine = line;
+        recordChars = 0;
+        recordError = null;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStart = true;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    fields.add(field.toString());
+                    recordError = "引号未闭合";
+                    return fields;
+                }
+                if (c == '"') {
+                    int nextChar = read();
+                    if (nextChar == '"') {
+                        append(field, '"');
+                    } else {
+                        quoted = false;
+                        c = nextChar;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    append(field, (char) c);
+                }
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+                fieldStart = false;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStart = true;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                fields.add(field.toString());
+                if (c != -1) {
+                    consumeLineBreak(c);
+                }
+                if (recordChars > maxRecordChars) {
+                    recordError = "记录超过" + maxRecordChars + "个字符";
+                }
+                return fields;
+            } else {
+                append(field, (char) c);
+                fieldStart = false;
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * 最近一条记录的起始行号（从1开始）
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    /**
+     * 最近一条记录的错误（超长或引号未闭合），正常时为 null
+     */
+    public String getRecordError() {
+        return recordError;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * 超出单条记录上限的字符只计数不缓冲
+     */
+    private void append(StringBuilder field, char c) {
+        if (recordChars < maxRecordChars) {
+            field.append(c);
+        }
+        recordChars++;
+    }
+
+    private void consumeLineBreak(int c) throws IOException {
+        if (c == '\r') {
+            int nextChar = read();
+            if (nextChar != '\n') {
+                pushback = nextChar;
+            }
+        }
+        line++;
+    }
+
+    private int read() throws IOException {
+        if (pushback != -2) {
+            int c = pushback;
+            pushback = -2;
+            return c;
+        }
+        return reader.read();
+    }
+}
@@ -0,0 +1,192 @@
+package io.github.uchkun07.travelsystem.util;
+
+import java.util.Arrays;
+
+/**
+ * 带类型打散的 Top-K 选择
+ * 排序规则：偏好类型命中在前，其次得分降序，再按候选位置升序（与稳定排序一致）。
+ * 打散规则：每个类型按上述顺序的前 maxPerType 个进入主序列，其余按同样顺序排在主序列之后。
+ *
+ * <p>只选出前 k 个位置：先逐类型保留前 maxPerType 个候选确定主序列，再分别用容量为 k 的小顶堆
+ * 从主序列、溢出序列中选出所需个数，不对全部候选排序。工作数组按线程复用，过程中不创建对象。</p>
+ */
+public final class DiversifiedTopK {
+
+    private static final ThreadLocal<Workspace> WORKSPACE = ThreadLocal.withInitial(Workspace::new);
+
+    private DiversifiedTopK() {
+    }
+
+    /**
+     * 当前线程的工作区，容量不足时扩容；调用方填充 scores、preferred、groups 的前 n 个元素
+     */
+    public static Workspace workspace(int n, int groupCount) {
+        Workspace ws = WORKSPACE.get();
+        ws.ensure(n, groupCount);
+        return ws;
+    }
+
+    /**
+     * 选出前 k 个候选位置
+     *
+     * @param ws         已填充前 n 个元素的工作区
+     * @param n          候选个数
+     * @param groupCount 类型个数（groups 取值范围 [0, groupCount)）
+     * @param maxPerType 每个类型进入主序列的个数
+     * @param k          需要的个数
+     * @return 候选位置（按最终顺序），长度为 min(k, n)
+     */
+    public static int[] select(Workspace ws, int n, int groupCount, int maxPerType, int k) {
+        int limit = Math.min(k, n);
+        int[] result = new int[Math.max(0, limit)];
+        if (limit <= 0) {
+            return result;
+        }
+        ws.ensureSlots(groupCount * maxPerType);
+
+        // 1. 每个类型保留前 maxPerType 个（有序小数组，插入排序）
+        int[] slots = ws.slots;
+        int[] slotCounts = ws.slotCounts;
+        Arrays.fill(slotCounts, 0, groupCount, 0);
+        for (int p = 0; p < n; p++) {
+            int base = ws.groups[p] * maxPerType;
+            int count = slotCounts[ws.groups[p]];
+            if (count == maxPerType && !ws.before(p, slots[base + count - 1])) {
+                continue;
+            }
+            int i = count == maxPerType ? count - 1 : count;
+            while (i > 0 && ws.before(p, slots[base + i - 1])) {
+                slots[base + i] = slots[base + i - 1];
+                i--;
+            }
+            slots[base + i] = p;
+            if (count < maxPerType) {
+                slotCounts[ws.groups[p]] = count + 1;
+            }
+        }
+        boolean[] accepted = ws.accepted;
+        Arrays.fill(accepted, 0, n, false);
+        int acceptedCount = 0;
+        for (int g = 0; g < groupCount; g++) {
+            for (int i = 0; i < slotCounts[g]; i++) {
+                accepted[slots[g * maxPerType + i]] = true;
+                acceptedCount++;
+            }
+        }
+
+        // 2. 主序列取前 min(limit, acceptedCount) 个，不足部分从溢出序列补齐
+        int head = Math.min(limit, acceptedCount);
+        selectInto(ws, n, true, head, result, 0);
+        if (limit > head) {
+            selectInto(ws, n, false, limit - head, result, head);
+        }
+        return result;
+    }
+
+    /**
+     * 用小顶堆（堆顶为当前最差者）从 accepted 标记等于 inAccepted 的候选中选出前 count 个，按顺序写入 out[offset..]
+     */
+    private static void selectInto(Workspace ws, int n, boolean inAccepted, int count, int[] out, int offset) {
+        int[] heap = ws.heap;
+        int size = 0;
+        for (int p = 0; p < n; p++) {
+            if (ws.accepted[p] != inAccepted) {
+                continue;
+            }
+            if (size < count) {
+                heap[size] = p;
+                siftUp(ws, heap, size);
+                size++;
+            } else if (ws.before(p, heap[0])) {
+                heap[0] = p;
+                siftDown(ws, heap, size, 0);
+            }
+        }
+        // 逐个弹出最差者，从后往前填充
+        for (int i = size - 1; i >= 0; i--) {
+            out[offset + i] = heap[0];
+            heap[0] = heap[i];
+            siftDown(ws, heap, i, 0);
+        }
+    }
+
+    private static void siftUp(Workspace ws, int[] heap, int index) {
+        int item = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!ws.before(heap[parent], item)) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = item;
+    }
+
+    private static void siftDown(Workspace ws, int[] heap, int size, int index) {
+        int item = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && ws.before(heap[child], heap[right])) {
+                child = right;
+            }
+            if (!ws.before(item, heap[child])) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = item;
+    }
+
+    /**
+     * 排序所需的列式输入与中间数组，按候选位置访问
+     */
+    public static final class Workspace {
+
+        public double[] scores = new double[0];
+        public boolean[] preferred = new boolean[0];
+        public int[] groups = new int[0];
+
+        private boolean[] accepted = new boolean[0];
+        private int[] heap = new int[0];
+        private int[] slots = new int[0];
+        private int[] slotCounts = new int[0];
+
+        private void ensure(int n, int groupCount) {
+            if (scores.length < n) {
+                int capacity = Math.max(n, scores.length * 2);
+                scores = new double[capacity];
+                preferred = new boolean[capacity];
+                groups = new int[capacity];
+                accepted = new boolean[capacity];
+                heap = new int[capacity];
+            }
+            if (slotCounts.length < groupCount) {
+                slotCounts = new int[Math.max(groupCount, slotCounts.length * 2)];
+            }
+        }
+
+        private void ensureSlots(int size) {
+            if (slots.length < size) {
+                slots = new int[Math.max(size, slots.length * 2)];
+            }
+        }
+
+        /**
+         * 位置 a 是否排在位置 b 之前
+         */
+        private boolean before(int a, int b) {
+            if (preferred[a] != preferred[b]) {
+                return preferred[a];
+            }
+            int cmp = Double.compare(scores[a], scores[b]);
+            if (cmp != 0) {
+                return cmp > 0;
+            }
+            return a < b;
+        }
+    }
+}
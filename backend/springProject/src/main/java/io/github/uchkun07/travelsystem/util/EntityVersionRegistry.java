@@ -0,0 +1,270 @@
+package io.github.uchkun07.travelsystem.util;
+
+import io.github.uchkun07.travelsystem.config.PerformanceProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 实体版本号与 ETag
+ * 每个景点、以及城市、景点类型、景点标签等引用表各维护一个版本号（Redis Hash 计数器），
+ * 由后台写操作在事务提交后递增，并通过 Redis 发布订阅同步到各节点的本地缓存。
+ * C端读接口据此生成强 ETag，命中 If-None-Match 时直接返回 304，不访问缓存与数据库。
+ *
+ * <p>Hash 中另存一个随机纪元值：Redis 数据丢失后计数器归零，纪元随之改变，旧 ETag 不会误命中。</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EntityVersionRegistry {
+
+    /** 所有景点（任一景点变化即递增） */
+    public static final String SCOPE_ATTRACTIONS = "attraction";
+    /** 单个景点，后接景点ID */
+    public static final String SCOPE_ATTRACTION_PREFIX = "attraction:";
+    public static final String SCOPE_CITY = "city";
+    public static final String SCOPE_ATTRACTION_TYPE = "attraction_type";
+    public static final String SCOPE_ATTRACTION_TAG = "attraction_tag";
+
+    private static final String FIELD_EPOCH = "epoch";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final PerformanceProperties performanceProperties;
+
+    /** 版本字段 -> 版本号（纪元为字符串） */
+    private LocalLruCache versions;
+
+    @PostConstruct
+    public void init() {
+        PerformanceProperties.Etag config = performanceProperties.getEtag();
+        versions = new LocalLruCache(config.getVersionCacheSize(),
+                TimeUnit.SECONDS.toMillis(Math.max(1, config.getVersionLocalTtlSec())));
+        if (config.isEnabled()) {
+            redisMessageListenerContainer.addMessageListener(
+                    (message, pattern) -> onVersionMessage(message),
+                    new ChannelTopic(CacheConstants.ENTITY_VERSION_CHANNEL));
+        }
+    }
+
+    /**
+     * 单个景点的版本范围
+     */
+    public static String attractionScope(Long attractionId) {
+        return SCOPE_ATTRACTION_PREFIX + attractionId;
+    }
+
+    /**
+     * 事务提交后递增版本号；无事务时立即递增。
+     * 应在同一写操作的缓存失效之后注册，保证新 ETag 对应的请求读不到旧缓存。
+     */
+    public void bumpAfterCommit(String... scopes) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(scopes);
+                }
+            });
+        } else {
+            bump(scopes);
+        }
+    }
+
+    /**
+     * 递增版本号并广播到所有节点
+     */
+    public void bump(String... scopes) {
+        if (!performanceProperties.getEtag().isEnabled() || scopes.length == 0) {
+            return;
+        }
+        List<String> updates = new ArrayList<>(scopes.length);
+        for (String scope : scopes) {
+            try {
+                Long version = stringRedisTemplate.opsForHash().increment(CacheConstants.ENTITY_VERSION_KEY, scope, 1);
+                putIfNewer(scope, version);
+                updates.add(scope + "=" + version);
+            } catch (Exception e) {
+                // 本节点立即失效，其他节点在本地TTL到期后重新读取
+                versions.invalidate(scope);
+                log.warn("递增实体版本号失败 scope={}", scope, e);
+            }
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.convertAndSend(CacheConstants.ENTITY_VERSION_CHANNEL, String.join(",", updates));
+        } catch (Exception e) {
+            log.warn("实体版本号广播失败，其他节点将在本地TTL到期后更新 updates={}", updates, e);
+        }
+    }
+
+    /**
+     * 生成强 ETag
+     *
+     * @param resource 资源标识（含影响响应内容的请求参数）
+     * @param scopes   响应内容依赖的版本范围
+     * @return ETag（含引号）；未启用或版本号不可用时返回 null
+     */
+    public String etag(String resource, String... scopes) {
+        if (!performanceProperties.getEtag().isEnabled()) {
+            return null;
+        }
+        String fingerprint = fingerprint(scopes);
+        if (fingerprint == null) {
+            return null;
+        }
+        String raw = resource + "|" + fingerprint;
+        return "\"" + DigestUtils.md5DigestAsHex(raw.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * 请求的 If-None-Match 命中 ETag 时设置 304 并返回 true，调用方应直接返回空响应体
+     */
+    public boolean checkNotModified(HttpServletRequest request, HttpServletResponse response, String etag) {
+        if (etag == null) {
+            return false;
+        }
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (!StringUtils.hasText(ifNoneMatch)) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // If-None-Match 使用弱比较
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if ("*".equals(tag) || etag.equals(tag)) {
+                writeEtag(response, etag);
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 成功响应时写出 ETag；no-cache 要求客户端每次携带 If-None-Match 重新验证
+     */
+    public void writeEtag(HttpServletResponse response, String etag) {
+        if (etag == null) {
+            return;
+        }
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+    }
+
+    /**
+     * 纪元与各版本号拼接的指纹，本地未命中的字段一次 HMGET 读取
+     */
+    private String fingerprint(String... scopes) {
+        List<String> fields = new ArrayList<>(scopes.length + 1);
+        fields.add(FIELD_EPOCH);
+        fields.addAll(Arrays.asList(scopes));
+
+        Object[] values = new Object[fields.size()];
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < fields.size(); i++) {
+            LocalLruCache.Entry entry = versions.get(fields.get(i));
+            if (entry != null) {
+                values[i] = entry.value();
+            } else {
+                missing.add(i);
+            }
+        }
+        if (!missing.isEmpty() && !loadVersions(fields, missing, values)) {
+            return null;
+        }
+
+        StringBuilder fingerprint = new StringBuilder();
+        for (Object value : values) {
+            fingerprint.append(value).append('.');
+        }
+        return fingerprint.toString();
+    }
+
+    private boolean loadVersions(List<String> fields, List<Integer> missing, Object[] values) {
+        try {
+            List<Object> keys = new ArrayList<>(missing.size());
+            for (Integer index : missing) {
+                keys.add(fields.get(index));
+            }
+            List<Object> loaded = stringRedisTemplate.opsForHash().multiGet(CacheConstants.ENTITY_VERSION_KEY, keys);
+            for (int i = 0; i < missing.size(); i++) {
+                int index = missing.get(i);
+                Object value = loaded.get(i);
+                if (index == 0) {
+                    values[index] = value != null ? value.toString() : initEpoch();
+                    versions.put(FIELD_EPOCH, values[index], Long.MAX_VALUE);
+                } else {
+                    long version = value == null ? 0L : Long.parseLong(value.toString());
+                    values[index] = putIfNewer(fields.get(index), version);
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            log.warn("读取实体版本号失败，本次不生成 ETag", e);
+            return false;
+        }
+    }
+
+    private String initEpoch() {
+        String epoch = UUID.randomUUID().toString().replace("-", "");
+        stringRedisTemplate.opsForHash().putIfAbsent(CacheConstants.ENTITY_VERSION_KEY, FIELD_EPOCH, epoch);
+        Object current = stringRedisTemplate.opsForHash().get(CacheConstants.ENTITY_VERSION_KEY, FIELD_EPOCH);
+        return current != null ? current.toString() : epoch;
+    }
+
+    /**
+     * 版本号只增不减：加载与广播交错时保留较大者
+     *
+     * @return 写入后的版本号
+     */
+    private synchronized long putIfNewer(String scope, Long version) {
+        long value = version == null ? 0L : version;
+        LocalLruCache.Entry current = versions.get(scope);
+        if (current != null && (Long) current.value() > value) {
+            return (Long) current.value();
+        }
+        versions.put(scope, value, Long.MAX_VALUE);
+        return value;
+    }
+
+    private void onVersionMessage(Message message) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        for (String update : body.split(",")) {
+            int separator = update.lastIndexOf('=');
+            if (separator <= 0) {
+                log.warn("忽略无法识别的版本号消息 body={}", body);
+                return;
+            }
+            try {
+                putIfNewer(update.substring(0, separator), Long.parseLong(update.substring(separator + 1)));
+            } catch (NumberFormatException e) {
+                log.warn("忽略无法识别的版本号消息 body={}", body);
+                return;
+            }
+        }
+    }
+}
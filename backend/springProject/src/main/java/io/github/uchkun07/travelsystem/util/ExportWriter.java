@@ -0,0 +1,219 @@
+package io.github.uchkun07.travelsystem.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.uchkun07.travelsystem.dto.ApiResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.Getter;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 流式导出写入器
+ * 逐行写出 CSV / NDJSON，不在内存中累积结果集；配合 Mapper 的 ResultHandler 流式查询使用，
+ * 导出任意行数时内存占用恒定。
+ *
+ * @param <T> 行数据类型
+ */
+public class ExportWriter<T> implements Closeable {
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * 导出格式
+     */
+    @Getter
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+    }
+
+    private final Format format;
+    private final Writer writer;
+    private final JsonGenerator generator;
+    private final List<String> names = new ArrayList<>();
+    private final List<Function<T, ?>> getters = new ArrayList<>();
+    private boolean headerWritten;
+    private IOException failure;
+    @Getter
+    private long rowCount;
+
+    /**
+     * @param output       输出流，随写入器一起关闭
+     * @param format       导出格式
+     * @param objectMapper NDJSON 序列化使用的 ObjectMapper
+     */
+    public ExportWriter(OutputStream output, Format format, ObjectMapper objectMapper) throws IOException {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 16 * 1024);
+        if (format == Format.NDJSON) {
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // 行之间用换行分隔，而不是默认的空格
+            this.generator.setRootValueSeparator(null);
+        } else {
+            this.generator = null;
+        }
+    }
+
+    /**
+     * 追加一列（按追加顺序输出）
+     */
+    public ExportWriter<T> column(String name, Function<T, ?> getter) {
+        names.add(name);
+        getters.add(getter);
+        return this;
+    }
+
+    /**
+     * 写出一行
+     */
+    public void write(T row) throws IOException {
+        writeHeaderIfNeeded();
+        if (format == Format.NDJSON) {
+            generator.writeStartObject();
+            for (int i = 0; i < names.size(); i++) {
+                generator.writeFieldName(names.get(i));
+                generator.writeObject(getters.get(i).apply(row));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } else {
+            for (int i = 0; i < getters.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCsvValue(getters.get(i).apply(row));
+            }
+            writer.write("\r\n");
+        }
+        rowCount++;
+    }
+
+    /**
+     * 供 Mapper 流式查询使用的 ResultHandler：每读到一行立即写出。
+     * 写出失败（如客户端断开）时停止读取，异常由 {@link #checkError()} 抛出。
+     */
+    public ResultHandler<T> resultHandler() {
+        return context -> {
+            try {
+                write(context.getResultObject());
+            } catch (IOException e) {
+                failure = e;
+                context.stop();
+            }
+        };
+    }
+
+    /**
+     * 流式查询结束后调用，抛出写出过程中的异常
+     */
+    public void checkError() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeHeaderIfNeeded();
+        if (generator != null) {
+            generator.close();
+        }
+        writer.close();
+    }
+
+    private void writeHeaderIfNeeded() throws IOException {
+        if (headerWritten) {
+            return;
+        }
+        headerWritten = true;
+        if (format == Format.CSV) {
+            // BOM 便于 Excel 正确识别 UTF-8 中文
+            writer.write('\uFEFF');
+            for (int i = 0; i < names.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCsvValue(names.get(i));
+            }
+            writer.write("\r\n");
+        }
+    }
+
+    private void writeCsvValue(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text;
+        if (value instanceof LocalDateTime dateTime) {
+            text = dateTime.format(DATE_TIME_FORMATTER);
+        } else if (value instanceof BigDecimal decimal) {
+            text = decimal.toPlainString();
+        } else if (value instanceof String string) {
+            // 防止表格软件将 =、+、-、@ 开头的文本当作公式执行
+            text = !string.isEmpty() && "=+-@".indexOf(string.charAt(0)) >= 0 ? "'" + string : string;
+        } else {
+            text = value.toString();
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(text);
+        }
+    }
+
+    /**
+     * 设置下载响应头并返回响应输出流（可选 gzip 压缩为 .gz 文件）
+     *
+     * @param fileName 不含扩展名的文件名
+     */
+    public static OutputStream openResponse(HttpServletResponse response, String fileName,
+                                            Format format, boolean gzip) throws IOException {
+        String fullName = fileName + "." + format.getExtension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : format.getContentType() + ";charset=UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename*=UTF-8''"
+                + URLEncoder.encode(fullName, StandardCharsets.UTF_8).replace("+", "%20"));
+        OutputStream output = response.getOutputStream();
+        return gzip ? new GZIPOutputStream(output, 16 * 1024) : output;
+    }
+
+    /**
+     * 导出失败时输出错误信息；响应已开始写出时只能中断下载
+     */
+    public static void writeError(HttpServletResponse response, ObjectMapper objectMapper,
+                                  int code, String message) throws IOException {
+        if (response.isCommitted()) {
+            return;
+        }
+        response.reset();
+        response.setStatus(code == 400 ? HttpServletResponse.SC_BAD_REQUEST : HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        response.setContentType("application/json;charset=UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(code, message));
+    }
+}
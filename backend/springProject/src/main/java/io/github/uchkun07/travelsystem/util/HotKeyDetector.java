@@ -0,0 +1,174 @@
+package io.github.uchkun07.travelsystem.util;
+
+import io.github.uchkun07.travelsystem.config.PerformanceProperties;
+import io.github.uchkun07.travelsystem.dto.CacheHotKeyItem;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 热点 key 探测
+ * 按采样率对缓存访问计数，计数存放在 count-min sketch 中（只会高估、不会低估），
+ * 每个窗口结束时全部计数减半，稳态下计数约为每窗口访问量的两倍，据此估算 QPS。
+ * 估算 QPS 达到阈值的 key 提升为热点，窗口结束时低于阈值一半的热点 key 降级。
+ *
+ * <p>计数更新与减半之间不加锁，个别计数的误差不影响热点判断。</p>
+ */
+@Slf4j
+@Component
+public class HotKeyDetector {
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final long windowMs;
+    private final double hotQps;
+    private final int width;
+    private final int depth;
+    private final int maxHotKeys;
+
+    private final AtomicIntegerArray counters;
+    private final int[] seeds;
+    private final AtomicLong windowStart = new AtomicLong(System.currentTimeMillis());
+
+    /** 当前热点 key -> 热点信息 */
+    private final ConcurrentHashMap<String, HotKey> hotKeys = new ConcurrentHashMap<>();
+
+    public HotKeyDetector(PerformanceProperties performanceProperties) {
+        PerformanceProperties.HotKey config = performanceProperties.getCache().getHotKey();
+        this.enabled = config.isEnabled();
+        this.sampleRate = Math.max(0.0001, Math.min(1, config.getSampleRate()));
+        this.windowMs = Math.max(100, config.getWindowMs());
+        this.hotQps = Math.max(1, config.getHotQps());
+        // 宽度取 2 的幂，下标用位与计算
+        this.width = Integer.highestOneBit(Math.max(64, Math.min(1 << 20, config.getSketchWidth())));
+        this.depth = Math.max(1, Math.min(8, config.getSketchDepth()));
+        this.maxHotKeys = Math.max(1, config.getMaxHotKeys());
+        this.counters = new AtomicIntegerArray(enabled ? width * depth : 0);
+        this.seeds = new int[depth];
+        for (int i = 0; i < depth; i++) {
+            seeds[i] = ThreadLocalRandom.current().nextInt() | 1;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 记录一次访问（按采样率）
+     */
+    public void record(String key) {
+        if (!enabled) {
+            return;
+        }
+        rollWindowIfNeeded();
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        int hash = key.hashCode();
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            min = Math.min(min, counters.incrementAndGet(index(i, hash)));
+        }
+        double qps = toQps(min);
+        if (qps < hotQps) {
+            return;
+        }
+        HotKey hot = hotKeys.get(key);
+        if (hot != null) {
+            hot.qps = qps;
+        } else if (hotKeys.size() < maxHotKeys && hotKeys.putIfAbsent(key, new HotKey(qps)) == null) {
+            log.info("热点key提升为本地副本 key={}, qps≈{}", key, Math.round(qps));
+        }
+    }
+
+    /**
+     * 是否为当前热点 key
+     */
+    public boolean isHot(String key) {
+        return enabled && !hotKeys.isEmpty() && hotKeys.containsKey(key);
+    }
+
+    /**
+     * 当前热点 key，按估算 QPS 降序
+     */
+    public List<CacheHotKeyItem> hotKeys() {
+        return hotKeys.entrySet().stream()
+                .map(entry -> CacheHotKeyItem.builder()
+                        .key(entry.getKey())
+                        .qps((double) Math.round(entry.getValue().qps))
+                        .promotedAt(LocalDateTime.ofInstant(
+                                Instant.ofEpochMilli(entry.getValue().promotedAt), ZoneId.systemDefault()))
+                        .build())
+                .sorted(Comparator.comparing(CacheHotKeyItem::getQps).reversed())
+                .toList();
+    }
+
+    /**
+     * 窗口结束时先按本窗口计数降级，再将全部计数减半
+     */
+    private void rollWindowIfNeeded() {
+        long now = System.currentTimeMillis();
+        long start = windowStart.get();
+        if (now - start < windowMs || !windowStart.compareAndSet(start, now)) {
+            return;
+        }
+        hotKeys.entrySet().removeIf(entry -> {
+            double qps = toQps(estimate(entry.getKey()));
+            entry.getValue().qps = qps;
+            if (qps < hotQps / 2) {
+                log.info("热点key降级 key={}, qps≈{}", entry.getKey(), Math.round(qps));
+                return true;
+            }
+            return false;
+        });
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, counters.get(i) >>> 1);
+        }
+    }
+
+    private int estimate(String key) {
+        int hash = key.hashCode();
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            min = Math.min(min, counters.get(index(i, hash)));
+        }
+        return min;
+    }
+
+    /**
+     * 采样计数还原为 QPS：稳态计数约为每窗口采样次数的两倍
+     */
+    private double toQps(int count) {
+        return count / (2 * sampleRate * windowMs / 1000.0);
+    }
+
+    private int index(int row, int hash) {
+        // murmur3 fmix32，每行使用不同种子
+        int h = hash * seeds[row];
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return row * width + (h & (width - 1));
+    }
+
+    private static final class HotKey {
+        private final long promotedAt = System.currentTimeMillis();
+        private volatile double qps;
+
+        private HotKey(double qps) {
+            this.qps = qps;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.uchkun07.travelsystem.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 有界本地 LRU 缓存（带过期时间）
+ * 作为 Redis 之前的进程内一级缓存，容量超限时淘汰最久未访问的条目。
+ *
+ * <p>按 key 的哈希分为若干段，每段是独立加锁的访问顺序 LinkedHashMap，不同段的读写互不阻塞；
+ * 每段容量为总容量的等分，淘汰在段内按 LRU 进行，整体为近似 LRU。</p>
+ */
+public class LocalLruCache {
+
+    /** 最多分段数 */
+    private static final int MAX_SEGMENTS = 16;
+    /** 每段至少保留的条目数，容量较小时减少分段，避免淘汰过于不均 */
+    private static final int MIN_SEGMENT_SIZE = 64;
+
+    private final int maxSize;
+    private final long maxTtlMillis;
+    private final Segment[] segments;
+    private final int segmentMask;
+
+    /**
+     * @param maxSize      最大条目数
+     * @param maxTtlMillis 条目最长存活时间(ms)
+     */
+    public LocalLruCache(int maxSize, long maxTtlMillis) {
+        this.maxSize = Math.max(1, maxSize);
+        this.maxTtlMillis = Math.max(1, maxTtlMillis);
+        int segmentCount = 1;
+        while (segmentCount < MAX_SEGMENTS && segmentCount * 2L * MIN_SEGMENT_SIZE <= this.maxSize) {
+            segmentCount <<= 1;
+        }
+        this.segments = new Segment[segmentCount];
+        this.segmentMask = segmentCount - 1;
+        int segmentSize = (this.maxSize + segmentCount - 1) / segmentCount;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    /**
+     * 读取未过期的条目，未命中或已过期返回 null
+     */
+    public Entry get(String key) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            Entry entry = segment.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expireAt() <= System.currentTimeMillis()) {
+                segment.remove(key);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * 写入条目，实际存活时间取 ttlMillis 与本级上限中的较小值
+     */
+    public void put(String key, Object value, long ttlMillis) {
+        long ttl = Math.min(Math.max(1, ttlMillis), maxTtlMillis);
+        Entry entry = new Entry(value, System.currentTimeMillis() + ttl);
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, entry);
+        }
+    }
+
+    public void invalidate(String key) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    public void invalidatePrefix(String prefix) {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.keySet().removeIf(key -> key.startsWith(prefix));
+            }
+        }
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    private Segment segmentFor(String key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & segmentMask];
+    }
+
+    /**
+     * 缓存条目
+     *
+     * @param value    缓存值（空值占位由调用方约定）
+     * @param expireAt 过期时间戳(ms)
+     */
+    public record Entry(Object value, long expireAt) {
+    }
+
+    /**
+     * 单个分段：访问顺序的 LinkedHashMap，超出段容量时淘汰最久未访问的条目；调用方持有段锁
+     */
+    private static final class Segment extends LinkedHashMap<String, Entry> {
+
+        private final int capacity;
+
+        private Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > capacity;
+        }
+    }
+}
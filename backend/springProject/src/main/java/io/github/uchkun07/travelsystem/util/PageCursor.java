@@ -0,0 +1,45 @@
+package io.github.uchkun07.travelsystem.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 游标分页工具类
+ * 游标记录上一页最后一条数据的排序值和主键，对客户端不透明（Base64URL 编码）。
+ *
+ * @param sortValue 排序字段值
+ * @param id        主键（同排序值时的次级排序）
+ */
+public record PageCursor(long sortValue, long id) {
+
+    private static final String VERSION = "v1";
+
+    /**
+     * 编码为不透明游标字符串
+     */
+    public String encode() {
+        String raw = VERSION + ":" + sortValue + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标字符串
+     *
+     * @param cursor 游标
+     * @return 游标对象
+     * @throws IllegalArgumentException 游标格式不合法
+     */
+    public static PageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("无效的分页游标");
+            }
+            return new PageCursor(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException 也是 IllegalArgumentException 的子类
+            throw new IllegalArgumentException("无效的分页游标", e);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package io.github.uchkun07.travelsystem.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.uchkun07.travelsystem.config.PerformanceProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 预序列化、预压缩的响应体缓存
+ * 以 ETag 为 key 在本地缓存最终的 gzip 编码 ApiResponse 字节，命中时直接写出，
+ * 省去缓存值反序列化、响应序列化和逐请求压缩。ETag 已包含内容依赖的版本号与时间片，
+ * 因此缓存条目无需单独失效。
+ *
+ * <p>只缓存 gzip 编码：不接受 gzip 的客户端走常规序列化路径。</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class ResponseBodyCache {
+
+    private static final String GZIP = "gzip";
+
+    private final ObjectMapper objectMapper;
+    private final EntityVersionRegistry entityVersionRegistry;
+    private final PerformanceProperties performanceProperties;
+
+    private LocalLruCache bodies;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        PerformanceProperties.ResponseCache config = performanceProperties.getResponseCache();
+        bodies = new LocalLruCache(config.getMaxSize(), TimeUnit.SECONDS.toMillis(Math.max(1, config.getTtlSec())));
+    }
+
+    /**
+     * 命中时直接写出缓存的响应字节（连同 ETag）
+     *
+     * @param etag 响应的 ETag，为空时不使用缓存
+     * @return 是否已写出响应（调用方应直接返回 null）
+     */
+    public boolean writeIfCached(HttpServletRequest request, HttpServletResponse response, String etag) throws IOException {
+        if (!usable(etag)) {
+            return false;
+        }
+        // 同一 URL 的响应随 Accept-Encoding 不同，共享缓存须区分
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!acceptsGzip(request)) {
+            return false;
+        }
+        LocalLruCache.Entry entry = bodies.get(etag);
+        if (entry == null) {
+            misses.increment();
+            return false;
+        }
+        hits.increment();
+        entityVersionRegistry.writeEtag(response, etag);
+        writeGzip(response, (byte[]) entry.value());
+        return true;
+    }
+
+    /**
+     * 序列化并压缩响应体后写入缓存；客户端接受 gzip 时直接写出压缩字节。
+     * ETag 由调用方在成功时写出。
+     *
+     * @param etag 响应的 ETag，为空时不缓存
+     * @param body 成功响应（错误响应不应缓存）
+     * @return 是否已写出响应（未写出时调用方照常返回 body）
+     */
+    public boolean cacheAndWrite(HttpServletRequest request, HttpServletResponse response,
+                                 String etag, Object body) throws IOException {
+        if (!usable(etag)) {
+            return false;
+        }
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        byte[] compressed = gzip(objectMapper.writeValueAsBytes(body));
+        bodies.put(etag, compressed, TimeUnit.SECONDS.toMillis(performanceProperties.getResponseCache().getTtlSec()));
+        if (!acceptsGzip(request)) {
+            return false;
+        }
+        writeGzip(response, compressed);
+        return true;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return bodies.size();
+    }
+
+    private boolean usable(String etag) {
+        return etag != null && performanceProperties.getResponseCache().isEnabled();
+    }
+
+    private void writeGzip(HttpServletResponse response, byte[] compressed) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        // 已设置 Content-Encoding 时 Tomcat 不会再次压缩
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        response.setContentLength(compressed.length);
+        response.getOutputStream().write(compressed);
+        response.flushBuffer();
+    }
+
+    private static byte[] gzip(byte[] raw) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(raw);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Accept-Encoding 是否包含 gzip（或 *）且 q 值不为 0
+     */
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (!StringUtils.hasText(header)) {
+            return false;
+        }
+        for (String part : header.toLowerCase(Locale.ROOT).split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim();
+            if (!GZIP.equals(coding) && !"x-gzip".equals(coding) && !"*".equals(coding)) {
+                continue;
+            }
+            boolean rejected = false;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        rejected = Double.parseDouble(param.substring(2)) <= 0;
+                    } catch (NumberFormatException e) {
+                        rejected = true;
+                    }
+                }
+            }
+            if (!rejected) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.uchkun07.travelsystem.catalog;
+
+import io.github.uchkun07.travelsystem.util.PageCursor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 人气游标分页与朴素实现对比：命中结果全量排序后逐页截取
+ */
+class AttractionBitmapIndexTest {
+
+    @Test
+    void seekByPopularityMatchesNaiveSortedPages() {
+        Random random = new Random(20261018L);
+        AttractionBitmapIndex index = new AttractionBitmapIndex();
+        List<AttractionCardEntry> entries = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            entries.add(entry(id, random.nextInt(20), random.nextInt(5)));
+        }
+        index.onReload(entries);
+
+        // 增量更新：部分景点人气变化、部分删除，有序集合需同步调整
+        for (int i = 0; i < 100; i++) {
+            int pos = random.nextInt(entries.size());
+            AttractionCardEntry updated = entries.get(pos).toBuilder().popularity(random.nextInt(20)).build();
+            entries.set(pos, updated);
+            index.onUpsert(updated);
+        }
+        for (int i = 0; i < 20; i++) {
+            AttractionCardEntry removed = entries.remove(random.nextInt(entries.size()));
+            index.onRemove(removed.getAttractionId());
+        }
+
+        BitSet scope = new BitSet();
+        for (int bit = 0; bit <= 500; bit += 3) {
+            scope.set(bit);
+        }
+        for (Integer cityId : new Integer[]{null, 0, 3}) {
+            for (BitSet currentScope : new BitSet[]{null, scope}) {
+                AttractionFilter filter = new AttractionFilter(null, null,
+                        cityId == null ? null : List.of(cityId), null, null, false);
+                List<Long> expected = entries.stream()
+                        .filter(entry -> cityId == null || cityId.equals(entry.getCityId()))
+                        .filter(entry -> currentScope == null || currentScope.get(entry.getAttractionId().intValue()))
+                        .sorted(Comparator.comparing(AttractionCardEntry::getPopularity)
+                                .thenComparing(AttractionCardEntry::getAttractionId)
+                                .reversed())
+                        .map(AttractionCardEntry::getAttractionId)
+                        .toList();
+
+                List<Long> paged = new ArrayList<>();
+                PageCursor cursor = null;
+                while (true) {
+                    AttractionBitmapIndex.PopularitySeek seek = index.seekByPopularity(filter, currentScope, cursor, 7);
+                    assertEquals(expected.size(), seek.total());
+                    if (seek.attractionIds().isEmpty()) {
+                        break;
+                    }
+                    paged.addAll(seek.attractionIds());
+                    long lastId = seek.attractionIds().get(seek.attractionIds().size() - 1);
+                    AttractionCardEntry last = entries.stream()
+                            .filter(entry -> entry.getAttractionId() == lastId)
+                            .findFirst()
+                            .orElseThrow();
+                    cursor = new PageCursor(last.getPopularity(), lastId);
+                }
+                assertEquals(expected, paged, "cityId=" + cityId + ", scope=" + (currentScope != null));
+            }
+        }
+    }
+
+    private static AttractionCardEntry entry(long id, int popularity, int cityId) {
+        return AttractionCardEntry.builder()
+                .attractionId(id)
+                .popularity(popularity)
+                .cityId(cityId)
+                .status(1)
+                .auditStatus(2)
+                .typeIds(List.of())
+                .tagIds(List.of())
+                .build();
+    }
+}
@@ -0,0 +1,183 @@
+package io.github.uchkun07.travelsystem.task;
+
+import io.github.uchkun07.travelsystem.config.PerformanceProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * PairCounter / SessionCollector 与朴素 HashMap 计数对比
+ */
+class PairCounterTest {
+
+    @Test
+    void matchesNaiveCountAcrossResize() {
+        Random random = new Random(20261018L);
+        PairCounter counter = new PairCounter();
+        Naive naive = new Naive();
+        // 景点数超过初始编号容量(256)，景点对数远超开放寻址表初始容量(4096)，覆盖两种扩容
+        long[] items = new long[40];
+        boolean[] fresh = new boolean[40];
+        for (int session = 0; session < 3000; session++) {
+            int size = 2 + random.nextInt(items.length - 1);
+            Set<Long> seen = new HashSet<>();
+            int filled = 0;
+            while (filled < size) {
+                long id = 1 + random.nextInt(2000);
+                if (seen.add(id)) {
+                    items[filled] = id;
+                    fresh[filled] = random.nextInt(4) != 0;
+                    filled++;
+                }
+            }
+            double weight = random.nextBoolean() ? 1.0 : 2.0;
+            counter.addSession(items, fresh, size, weight);
+            naive.addSession(items, fresh, size, weight);
+        }
+        assertMatches(naive, counter);
+    }
+
+    @Test
+    void sessionCollectorSplitsDedupsAndTruncates() {
+        PerformanceProperties.ItemCf config = new PerformanceProperties.ItemCf();
+        config.setSessionGapMinutes(30);
+        config.setMaxSessionItems(5);
+
+        Random random = new Random(7L);
+        PairCounter counter = new PairCounter();
+        SessionCollector collector = new SessionCollector(counter, config, 1.0);
+        Naive naive = new Naive();
+        NaiveSessions sessions = new NaiveSessions(naive, 30 * 60, 5);
+
+        LocalDateTime time = LocalDateTime.of(2026, 1, 1, 0, 0);
+        for (long userId = 1; userId <= 200; userId++) {
+            int events = 1 + random.nextInt(30);
+            for (int e = 0; e < events; e++) {
+                // 多数间隔在阈值内，偶尔超过阈值切分会话；景点取值范围小，会话内必有重复
+                time = time.plusMinutes(random.nextInt(10) == 0 ? 31 + random.nextInt(60) : random.nextInt(30));
+                long attractionId = 1 + random.nextInt(12);
+                boolean isFresh = random.nextInt(3) != 0;
+                collector.accept(userId, attractionId, time, isFresh);
+                sessions.accept(userId, attractionId, time, isFresh);
+            }
+        }
+        collector.flush();
+        sessions.flush();
+        assertMatches(naive, counter);
+    }
+
+    private static void assertMatches(Naive naive, PairCounter counter) {
+        Map<String, Double> pairs = new HashMap<>();
+        counter.forEachPair((a, b, weight) -> {
+            assertTrue(a < b, "景点对编号应满足 a<b");
+            Double previous = pairs.put(Naive.pairKey(counter.id(a), counter.id(b)), weight);
+            assertNull(previous, "景点对重复出现");
+        });
+        assertEquals(naive.pairs, pairs);
+        assertEquals(naive.pairs.size(), counter.pairCount());
+
+        Map<Long, Double> weights = new HashMap<>();
+        for (int i = 0; i < counter.size(); i++) {
+            if (counter.weight(i) > 0) {
+                weights.put(counter.id(i), counter.weight(i));
+            }
+        }
+        assertEquals(naive.weights, weights);
+
+        Set<Long> touched = new HashSet<>();
+        counter.collectTouched(touched);
+        assertEquals(naive.touched(), touched);
+    }
+
+    /**
+     * 朴素计数：景点对以 "小ID:大ID" 为 key
+     */
+    private static final class Naive {
+
+        private final Map<String, Double> pairs = new HashMap<>();
+        private final Map<Long, Double> weights = new HashMap<>();
+
+        private void addSession(long[] items, boolean[] fresh, int size, double weight) {
+            for (int i = 0; i < size; i++) {
+                if (fresh[i]) {
+                    weights.merge(items[i], weight, Double::sum);
+                }
+                for (int j = i + 1; j < size; j++) {
+                    if ((fresh[i] || fresh[j]) && items[i] != items[j]) {
+                        pairs.merge(pairKey(items[i], items[j]), weight, Double::sum);
+                    }
+                }
+            }
+        }
+
+        private Set<Long> touched() {
+            Set<Long> touched = new HashSet<>(weights.keySet());
+            for (String key : pairs.keySet()) {
+                String[] ids = key.split(":");
+                touched.add(Long.parseLong(ids[0]));
+                touched.add(Long.parseLong(ids[1]));
+            }
+            return touched;
+        }
+
+        private static String pairKey(long a, long b) {
+            return Math.min(a, b) + ":" + Math.max(a, b);
+        }
+    }
+
+    /**
+     * 朴素会话切分：换用户或间隔超过阈值时结束会话，会话内按首次出现去重并保留前 maxItems 个
+     */
+    private static final class NaiveSessions {
+
+        private final Naive naive;
+        private final long gapSeconds;
+        private final int maxItems;
+        private final Map<Long, Boolean> current = new LinkedHashMap<>();
+        private Long userId;
+        private LocalDateTime lastTime;
+
+        private NaiveSessions(Naive naive, long gapSeconds, int maxItems) {
+            this.naive = naive;
+            this.gapSeconds = gapSeconds;
+            this.maxItems = maxItems;
+        }
+
+        private void accept(long userId, long attractionId, LocalDateTime time, boolean isFresh) {
+            if (this.userId == null || this.userId != userId
+                    || Duration.between(lastTime, time).getSeconds() > gapSeconds) {
+                flush();
+                this.userId = userId;
+            }
+            lastTime = time;
+            if (current.size() < maxItems) {
+                current.putIfAbsent(attractionId, isFresh);
+            }
+        }
+
+        private void flush() {
+            List<Long> items = new ArrayList<>(current.keySet());
+            long[] ids = new long[items.size()];
+            boolean[] fresh = new boolean[items.size()];
+            for (int i = 0; i < items.size(); i++) {
+                ids[i] = items.get(i);
+                fresh[i] = current.get(items.get(i));
+            }
+            naive.addSession(ids, fresh, ids.length, 1.0);
+            current.clear();
+        }
+    }
+}
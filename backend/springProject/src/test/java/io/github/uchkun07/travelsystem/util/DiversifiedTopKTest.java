@@ -0,0 +1,82 @@
+package io.github.uchkun07.travelsystem.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * DiversifiedTopK 与朴素实现对比：全部候选稳定排序后按类型配额拆分主序列与溢出序列，再取前 k 个
+ */
+class DiversifiedTopKTest {
+
+    @Test
+    void matchesNaiveSortWithTiesAndTypeCaps() {
+        Random random = new Random(20261018L);
+        // 同一线程复用工作区，候选数忽大忽小，同时覆盖扩容与残留数据
+        for (int round = 0; round < 2000; round++) {
+            int n = random.nextInt(80);
+            int groupCount = 1 + random.nextInt(6);
+            int maxPerType = 1 + random.nextInt(4);
+            int k = random.nextInt(n + 5);
+            DiversifiedTopK.Workspace ws = DiversifiedTopK.workspace(n, groupCount);
+            for (int p = 0; p < n; p++) {
+                // 得分只取少数几个值，制造大量并列
+                ws.scores[p] = random.nextInt(4) * 0.5;
+                ws.preferred[p] = random.nextInt(5) == 0;
+                ws.groups[p] = random.nextInt(groupCount);
+            }
+            int[] expected = naive(ws.scores, ws.preferred, ws.groups, n, maxPerType, k);
+            int[] actual = DiversifiedTopK.select(ws, n, groupCount, maxPerType, k);
+            assertArrayEquals(expected, actual, "round=" + round);
+        }
+    }
+
+    @Test
+    void allTiedKeepsCandidateOrderAndAppliesCap() {
+        int n = 10;
+        DiversifiedTopK.Workspace ws = DiversifiedTopK.workspace(n, 2);
+        for (int p = 0; p < n; p++) {
+            ws.scores[p] = 1.0;
+            ws.preferred[p] = false;
+            ws.groups[p] = p % 2;
+        }
+        // 每个类型前 2 个进入主序列：0,1,2,3；其余按位置排在后面
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9}, DiversifiedTopK.select(ws, n, 2, 2, n));
+
+        for (int p = 0; p < n; p++) {
+            ws.groups[p] = p < 7 ? 0 : 1;
+        }
+        assertArrayEquals(new int[]{0, 1, 7, 8, 2, 3}, DiversifiedTopK.select(ws, n, 2, 2, 6));
+    }
+
+    private static int[] naive(double[] scores, boolean[] preferred, int[] groups, int n, int maxPerType, int k) {
+        Integer[] order = new Integer[n];
+        for (int p = 0; p < n; p++) {
+            order[p] = p;
+        }
+        Arrays.sort(order, (a, b) -> {
+            if (preferred[a] != preferred[b]) {
+                return preferred[a] ? -1 : 1;
+            }
+            int cmp = Double.compare(scores[b], scores[a]);
+            return cmp != 0 ? cmp : Integer.compare(a, b);
+        });
+        int[] perType = new int[Arrays.stream(groups, 0, n).max().orElse(0) + 1];
+        List<Integer> head = new ArrayList<>();
+        List<Integer> overflow = new ArrayList<>();
+        for (int p : order) {
+            if (perType[groups[p]]++ < maxPerType) {
+                head.add(p);
+            } else {
+                overflow.add(p);
+            }
+        }
+        head.addAll(overflow);
+        return head.stream().limit(Math.min(k, n)).mapToInt(Integer::intValue).toArray();
+    }
+}
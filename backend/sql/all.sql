@@ -267,10 +267,16 @@ CREATE TABLE `user_browse_record` (
   `browse_time` datetime NOT NULL COMMENT '浏览时间',
   `device_info` varchar(100) DEFAULT NULL COMMENT '浏览设备',
   `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `event_type` varchar(16) DEFAULT NULL COMMENT '事件类型（click/stay）',
+  `request_id` varchar(32) DEFAULT NULL COMMENT '推荐请求ID',
+  `position` int DEFAULT NULL COMMENT '推荐列表中的位置',
+  `source_page` varchar(32) DEFAULT NULL COMMENT '来源页面',
+  `rec_version` varchar(32) DEFAULT NULL COMMENT '推荐算法版本',
   PRIMARY KEY (`browse_record_id`),
   KEY `idx_user_id` (`user_id`),
   KEY `idx_attraction_id` (`attraction_id`),
   KEY `idx_browse_time` (`browse_time`),
+  KEY `idx_ubr_user_type_time` (`user_id`, `event_type`, `browse_time`),
   CONSTRAINT `fk_browse_user` FOREIGN KEY (`user_id`) REFERENCES `user` (`user_id`) ON DELETE CASCADE,
   CONSTRAINT `fk_browse_attraction` FOREIGN KEY (`attraction_id`) REFERENCES `attraction` (`attraction_id`) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户浏览记录表';
@@ -428,4 +434,12 @@ CREATE TABLE `operation_log` (
   KEY `idx_operation_time` (`operation_time`),
   KEY `idx_operation_object` (`operation_object`),
   CONSTRAINT `fk_operation_log_admin` FOREIGN KEY (`admin_id`) REFERENCES `admin` (`admin_id`) ON DELETE CASCADE
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='系统操作日志表（管理端操作审计）';
\ No newline at end of file
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='系统操作日志表（管理端操作审计）';
+
+-- 计数快照落库记录
+CREATE TABLE `counter_flush_log` (
+  `snapshot_id` varchar(64) NOT NULL COMMENT '计数快照ID',
+  `applied_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '落库时间',
+  PRIMARY KEY (`snapshot_id`),
+  KEY `idx_applied_time` (`applied_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='计数快照落库记录，避免快照重试重复累加';
@@ -1,8 +1,158 @@
 -- 高并发优化索引脚本（MySQL 8）
--- 执行说明：可重复执行，不会因索引已存在而报错。
+-- 执行说明：可重复执行，不会因索引已存在而报错；回填存储过程使用 DELIMITER，需通过 mysql 命令行客户端执行。
 
 SET @schema_name = DATABASE();
 
+-- counter_flush_log: 计数快照落库记录，与计数累加在同一事务中写入
+CREATE TABLE IF NOT EXISTS counter_flush_log (
+  snapshot_id varchar(64) NOT NULL COMMENT '计数快照ID',
+  applied_time datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '落库时间',
+  PRIMARY KEY (snapshot_id),
+  KEY idx_applied_time (applied_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='计数快照落库记录，避免快照重试重复累加';
+
+-- user_browse_record: 行为事件结构化列（原先以 KV 字符串写入 device_info），已有数据按 device_info 回填
+SET @col := 'event_type';
+SET @sql := (
+    SELECT IF(
+        EXISTS(
+            SELECT 1 FROM information_schema.columns
+            WHERE table_schema = @schema_name
+              AND table_name = 'user_browse_record'
+              AND column_name = @col
+        ),
+        'SELECT ''column event_type exists''',
+        'ALTER TABLE user_browse_record ADD COLUMN event_type varchar(16) NULL DEFAULT NULL COMMENT ''事件类型（click/stay）'''
+    )
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @col := 'request_id';
+SET @sql := (
+    SELECT IF(
+        EXISTS(
+            SELECT 1 FROM information_schema.columns
+            WHERE table_schema = @schema_name
+              AND table_name = 'user_browse_record'
+              AND column_name = @col
+        ),
+        'SELECT ''column request_id exists''',
+        'ALTER TABLE user_browse_record ADD COLUMN request_id varchar(32) NULL DEFAULT NULL COMMENT ''推荐请求ID'''
+    )
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @col := 'position';
+SET @sql := (
+    SELECT IF(
+        EXISTS(
+            SELECT 1 FROM information_schema.columns
+            WHERE table_schema = @schema_name
+              AND table_name = 'user_browse_record'
+              AND column_name = @col
+        ),
+        'SELECT ''column position exists''',
+        'ALTER TABLE user_browse_record ADD COLUMN position int NULL DEFAULT NULL COMMENT ''推荐列表中的位置'''
+    )
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @col := 'source_page';
+SET @sql := (
+    SELECT IF(
+        EXISTS(
+            SELECT 1 FROM information_schema.columns
+            WHERE table_schema = @schema_name
+              AND table_name = 'user_browse_record'
+              AND column_name = @col
+        ),
+        'SELECT ''column source_page exists''',
+        'ALTER TABLE user_browse_record ADD COLUMN source_page varchar(32) NULL DEFAULT NULL COMMENT ''来源页面'''
+    )
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @col := 'rec_version';
+SET @sql := (
+    SELECT IF(
+        EXISTS(
+            SELECT 1 FROM information_schema.columns
+            WHERE table_schema = @schema_name
+              AND table_name = 'user_browse_record'
+              AND column_name = @col
+        ),
+        'SELECT ''column rec_version exists''',
+        'ALTER TABLE user_browse_record ADD COLUMN rec_version varchar(32) NULL DEFAULT NULL COMMENT ''推荐算法版本'''
+    )
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 按主键区间分批回填，每批单独提交，避免单条 UPDATE 长时间持有大量行锁并产生巨大 undo；
+-- 旧格式缺失位置时写 pos=0，与真实的第 0 位无法区分，统一按 0 回填，只有没有 pos 字段时才为 NULL
+DROP PROCEDURE IF EXISTS backfill_ubr_event_columns;
+DELIMITER $$
+CREATE PROCEDURE backfill_ubr_event_columns()
+BEGIN
+    DECLARE batch_size BIGINT DEFAULT 5000;
+    DECLARE cur_id BIGINT;
+    DECLARE max_id BIGINT;
+    SELECT COALESCE(MIN(browse_record_id), 0), COALESCE(MAX(browse_record_id), -1)
+    INTO cur_id, max_id
+    FROM user_browse_record;
+    WHILE cur_id <= max_id DO
+        UPDATE user_browse_record
+        SET event_type = CASE
+                WHEN LOCATE('et=click', device_info) > 0 THEN 'click'
+                WHEN LOCATE('et=stay', device_info) > 0 THEN 'stay'
+            END,
+            request_id = IF(LOCATE('rid=', device_info) > 0,
+                NULLIF(SUBSTRING_INDEX(SUBSTRING_INDEX(device_info, 'rid=', -1), ';', 1), 'na'), NULL),
+            position = IF(LOCATE('pos=', device_info) > 0,
+                CAST(SUBSTRING_INDEX(SUBSTRING_INDEX(device_info, 'pos=', -1), ';', 1) AS UNSIGNED), NULL),
+            source_page = IF(LOCATE('pg=', device_info) > 0,
+                NULLIF(SUBSTRING_INDEX(SUBSTRING_INDEX(device_info, 'pg=', -1), ';', 1), 'na'), NULL),
+            rec_version = IF(LOCATE('rv=', device_info) > 0,
+                NULLIF(SUBSTRING_INDEX(SUBSTRING_INDEX(device_info, 'rv=', -1), ';', 1), 'na'), NULL)
+        WHERE browse_record_id >= cur_id
+          AND browse_record_id < cur_id + batch_size
+          AND event_type IS NULL
+          AND device_info LIKE 'et=%';
+        COMMIT;
+        SET cur_id = cur_id + batch_size;
+    END WHILE;
+END$$
+DELIMITER ;
+
+CALL backfill_ubr_event_columns();
+DROP PROCEDURE IF EXISTS backfill_ubr_event_columns;
+
+SET @idx := 'idx_ubr_user_type_time';
+SET @sql := (
+    SELECT IF(
+        EXISTS(
+            SELECT 1 FROM information_schema.statistics
+            WHERE table_schema = @schema_name
+              AND table_name = 'user_browse_record'
+              AND index_name = @idx
+        ),
+        'SELECT ''index idx_ubr_user_type_time exists''',
+        'CREATE INDEX idx_ubr_user_type_time ON user_browse_record(user_id, event_type, browse_time)'
+    )
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
 -- user_browse_record: 用户行为查询与推荐召回核心表
 SET @idx := 'idx_ubr_user_update';
 SET @sql := (
@@ -119,6 +269,24 @@ PREPARE stmt FROM @sql;
 EXECUTE stmt;
 DEALLOCATE PREPARE stmt;
 
+-- user_collection: 人气评分任务按 (update_time, collection_id) 水位增量读取收藏变更
+SET @idx := 'idx_uc_update_id';
+SET @sql := (
+    SELECT IF(
+        EXISTS(
+            SELECT 1 FROM information_schema.statistics
+            WHERE table_schema = @schema_name
+              AND table_name = 'user_collection'
+              AND index_name = @idx
+        ),
+        'SELECT ''index idx_uc_update_id exists''',
+        'CREATE INDEX idx_uc_update_id ON user_collection(update_time, collection_id)'
+    )
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
 -- attraction: 城市 + 类型 + 审核状态 + 热度 排序/筛选
 SET @idx := 'idx_attr_city_type_audit_browse';
 SET @sql := (
@@ -154,6 +322,24 @@ PREPARE stmt FROM @sql;
 EXECUTE stmt;
 DEALLOCATE PREPARE stmt;
 
+-- attraction: 前台列表 状态 + 审核 + 热度 游标分页（seek: popularity, attraction_id）
+SET @idx := 'idx_attr_status_audit_pop_id';
+SET @sql := (
+    SELECT IF(
+        EXISTS(
+            SELECT 1 FROM information_schema.statistics
+            WHERE table_schema = @schema_name
+              AND table_name = 'attraction'
+              AND index_name = @idx
+        ),
+        'SELECT ''index idx_attr_status_audit_pop_id exists''',
+        'CREATE INDEX idx_attr_status_audit_pop_id ON attraction(status, audit_status, popularity DESC, attraction_id DESC)'
+    )
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
 -- user_preference: 推荐画像读取
 SET @idx := 'idx_up_user_update';
 SET @sql := (
@@ -189,3 +375,136 @@ SET @sql := (
 PREPARE stmt FROM @sql;
 EXECUTE stmt;
 DEALLOCATE PREPARE stmt;
+
+-- 关联表唯一索引：批量绑定使用多行 INSERT IGNORE，依赖唯一索引忽略并发重复写入
+-- 按列检查是否已有唯一索引（建表脚本中可能已以其他名称定义，如 uk_user_tag_dict、uk_attraction_type），
+-- 没有时先清理历史重复关联（保留最早一条）再建索引
+DELETE r1 FROM attraction_tag_relation r1
+JOIN attraction_tag_relation r2
+  ON r1.attraction_id = r2.attraction_id AND r1.tag_id = r2.tag_id AND r1.relation_id > r2.relation_id;
+
+SET @idx := 'uk_atr_attraction_tag';
+SET @sql := (
+    SELECT IF(
+        EXISTS(
+            SELECT 1 FROM (
+                SELECT GROUP_CONCAT(column_name ORDER BY seq_in_index) AS cols
+                FROM information_schema.statistics
+                WHERE table_schema = @schema_name
+                  AND table_name = 'attraction_tag_relation'
+                  AND non_unique = 0
+                GROUP BY index_name
+            ) uk
+            WHERE uk.cols = 'attraction_id,tag_id'
+        ),
+        'SELECT ''unique index on attraction_tag_relation(attraction_id,tag_id) exists''',
+        'CREATE UNIQUE INDEX uk_atr_attraction_tag ON attraction_tag_relation(attraction_id, tag_id)'
+    )
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+DELETE r1 FROM attraction_type_relation r1
+JOIN attraction_type_relation r2
+  ON r1.attraction_id = r2.attraction_id AND r1.type_id = r2.type_id AND r1.relation_id > r2.relation_id;
+
+SET @idx := 'uk_atyr_attraction_type';
+SET @sql := (
+    SELECT IF(
+        EXISTS(
+            SELECT 1 FROM (
+                SELECT GROUP_CONCAT(column_name ORDER BY seq_in_index) AS cols
+                FROM information_schema.statistics
+                WHERE table_schema = @schema_name
+                  AND table_name = 'attraction_type_relation'
+                  AND non_unique = 0
+                GROUP BY index_name
+            ) uk
+            WHERE uk.cols = 'attraction_id,type_id'
+        ),
+        'SELECT ''unique index on attraction_type_relation(attraction_id,type_id) exists''',
+        'CREATE UNIQUE INDEX uk_atyr_attraction_type ON attraction_type_relation(attraction_id, type_id)'
+    )
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+DELETE r1 FROM admin_role_permission r1
+JOIN admin_role_permission r2
+  ON r1.role_id = r2.role_id AND r1.permission_id = r2.permission_id AND r1.role_permission_id > r2.role_permission_id;
+
+SET @idx := 'uk_arp_role_permission';
+SET @sql := (
+    SELECT IF(
+        EXISTS(
+            SELECT 1 FROM (
+                SELECT GROUP_CONCAT(column_name ORDER BY seq_in_index) AS cols
+                FROM information_schema.statistics
+                WHERE table_schema = @schema_name
+                  AND table_name = 'admin_role_permission'
+                  AND non_unique = 0
+                GROUP BY index_name
+            ) uk
+            WHERE uk.cols = 'role_id,permission_id'
+        ),
+        'SELECT ''unique index on admin_role_permission(role_id,permission_id) exists''',
+        'CREATE UNIQUE INDEX uk_arp_role_permission ON admin_role_permission(role_id, permission_id)'
+    )
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+DELETE r1 FROM admin_role_relation r1
+JOIN admin_role_relation r2
+  ON r1.admin_id = r2.admin_id AND r1.role_id = r2.role_id AND r1.admin_role_id > r2.admin_role_id;
+
+SET @idx := 'uk_arr_admin_role';
+SET @sql := (
+    SELECT IF(
+        EXISTS(
+            SELECT 1 FROM (
+                SELECT GROUP_CONCAT(column_name ORDER BY seq_in_index) AS cols
+                FROM information_schema.statistics
+                WHERE table_schema = @schema_name
+                  AND table_name = 'admin_role_relation'
+                  AND non_unique = 0
+                GROUP BY index_name
+            ) uk
+            WHERE uk.cols = 'admin_id,role_id'
+        ),
+        'SELECT ''unique index on admin_role_relation(admin_id,role_id) exists''',
+        'CREATE UNIQUE INDEX uk_arr_admin_role ON admin_role_relation(admin_id, role_id)'
+    )
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+DELETE r1 FROM user_tag r1
+JOIN user_tag r2
+  ON r1.user_id = r2.user_id AND r1.tag_dict_id = r2.tag_dict_id AND r1.user_tag_id > r2.user_tag_id;
+
+SET @idx := 'uk_ut_user_tag_dict';
+SET @sql := (
+    SELECT IF(
+        EXISTS(
+            SELECT 1 FROM (
+                SELECT GROUP_CONCAT(column_name ORDER BY seq_in_index) AS cols
+                FROM information_schema.statistics
+                WHERE table_schema = @schema_name
+                  AND table_name = 'user_tag'
+                  AND non_unique = 0
+                GROUP BY index_name
+            ) uk
+            WHERE uk.cols = 'user_id,tag_dict_id'
+        ),
+        'SELECT ''unique index on user_tag(user_id,tag_dict_id) exists''',
+        'CREATE UNIQUE INDEX uk_ut_user_tag_dict ON user_tag(user_id, tag_dict_id)'
+    )
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
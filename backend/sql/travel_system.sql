@@ -1239,6 +1239,17 @@ INSERT INTO `city` VALUES (2060, '台北市', '中国', 'https://dimg04.c-ctrip.
 INSERT INTO `city` VALUES (2061, '南投县', '中国', 'https://dimg04.c-ctrip.com/images/100j0g00000088aec4E60_C_1180_462.jpg', 20.0, 0, 650, '拥有日月潭、清境农场、溪头妖怪村等。', 355, 1, '2026-03-19 18:43:25', '2026-03-23 20:13:57');
 INSERT INTO `city` VALUES (2062, '嘉义县', '中国', 'https://dimg04.c-ctrip.com/images/0HJ2j12000hcmhmhm4370_C_1180_462.jpg', 22.0, 0, 600, '拥有阿里山国家风景区。', 356, 1, '2026-03-19 18:43:25', '2026-03-23 20:14:05');
 
+-- ----------------------------
+-- Table structure for counter_flush_log
+-- ----------------------------
+DROP TABLE IF EXISTS `counter_flush_log`;
+CREATE TABLE `counter_flush_log`  (
+  `snapshot_id` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NOT NULL COMMENT '计数快照ID',
+  `applied_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '落库时间',
+  PRIMARY KEY (`snapshot_id`) USING BTREE,
+  INDEX `idx_applied_time`(`applied_time` ASC) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '计数快照落库记录，避免快照重试重复累加' ROW_FORMAT = Dynamic;
+
 -- ----------------------------
 -- Table structure for operation_log
 -- ----------------------------
@@ -1400,10 +1411,16 @@ CREATE TABLE `user_browse_record`  (
   `browse_time` datetime NOT NULL COMMENT '浏览时间',
   `device_info` varchar(100) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL COMMENT '浏览设备',
   `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `event_type` varchar(16) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL COMMENT '事件类型（click/stay）',
+  `request_id` varchar(32) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL COMMENT '推荐请求ID',
+  `position` int NULL DEFAULT NULL COMMENT '推荐列表中的位置',
+  `source_page` varchar(32) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL COMMENT '来源页面',
+  `rec_version` varchar(32) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL COMMENT '推荐算法版本',
   PRIMARY KEY (`browse_record_id`) USING BTREE,
   INDEX `idx_user_id`(`user_id` ASC) USING BTREE,
   INDEX `idx_attraction_id`(`attraction_id` ASC) USING BTREE,
   INDEX `idx_browse_time`(`browse_time` ASC) USING BTREE,
+  INDEX `idx_ubr_user_type_time`(`user_id` ASC, `event_type` ASC, `browse_time` ASC) USING BTREE,
   CONSTRAINT `fk_browse_attraction` FOREIGN KEY (`attraction_id`) REFERENCES `attraction` (`attraction_id`) ON DELETE CASCADE ON UPDATE RESTRICT,
   CONSTRAINT `fk_browse_user` FOREIGN KEY (`user_id`) REFERENCES `user` (`user_id`) ON DELETE CASCADE ON UPDATE RESTRICT
 ) ENGINE = InnoDB AUTO_INCREMENT = 1612 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '用户浏览记录表' ROW_FORMAT = Dynamic;
@@ -1411,18 +1428,18 @@ CREATE TABLE `user_browse_record`  (
 -- ----------------------------
 -- Records of user_browse_record
 -- ----------------------------
-INSERT INTO `user_browse_record` VALUES (1600, 13, 4388, 5, '2026-03-24 17:56:11', 'et=stay;rid=f4578bda;pos=3;pg=home;rv=content-py-v;ua=Mozilla/5.0 ', '2026-03-24 17:56:16');
-INSERT INTO `user_browse_record` VALUES (1601, 13, 4388, 17, '2026-03-24 17:56:17', 'et=stay;rid=na;pos=0;pg=detail;rv=na;ua=Mozilla/5.0 ', '2026-03-24 17:56:34');
-INSERT INTO `user_browse_record` VALUES (1602, 13, 4423, 8, '2026-03-24 17:56:47', 'et=stay;rid=na;pos=0;pg=detail;rv=na;ua=Mozilla/5.0 ', '2026-03-24 17:56:55');
-INSERT INTO `user_browse_record` VALUES (1603, 13, 4423, 9, '2026-03-24 18:27:23', 'et=stay;rid=na;pos=0;pg=detail;rv=na;ua=Mozilla/5.0 ', '2026-03-24 18:27:32');
-INSERT INTO `user_browse_record` VALUES (1604, 13, 4620, 9, '2026-03-24 18:56:42', 'et=stay;rid=na;pos=0;pg=detail;rv=na;ua=Mozilla/5.0 ', '2026-03-24 18:56:51');
-INSERT INTO `user_browse_record` VALUES (1605, 13, 4395, 7, '2026-03-24 18:56:53', 'et=stay;rid=6302a1b4;pos=2;pg=home;rv=content-py-v;ua=Mozilla/5.0 ', '2026-03-24 18:57:00');
-INSERT INTO `user_browse_record` VALUES (1606, 13, 4395, 149, '2026-03-24 18:57:01', 'et=stay;rid=6302a1b4;pos=2;pg=home;rv=content-py-v;ua=Mozilla/5.0 ', '2026-03-24 18:59:30');
-INSERT INTO `user_browse_record` VALUES (1607, 13, 4395, 30, '2026-03-24 18:59:30', 'et=stay;rid=6302a1b4;pos=2;pg=home;rv=content-py-v;ua=Mozilla/5.0 ', '2026-03-24 19:00:00');
-INSERT INTO `user_browse_record` VALUES (1608, 13, 4395, 31, '2026-03-24 19:00:01', 'et=stay;rid=na;pos=0;pg=detail;rv=na;ua=Mozilla/5.0 ', '2026-03-24 19:00:32');
-INSERT INTO `user_browse_record` VALUES (1609, 13, 4431, 0, '2026-04-03 12:53:08', 'et=click;rid=na;pos=0;pg=home;rv=na;ua=Mozilla/5.0 ', '2026-04-03 12:53:08');
-INSERT INTO `user_browse_record` VALUES (1610, 13, 4467, 0, '2026-04-03 13:00:46', 'et=click;rid=na;pos=0;pg=home;rv=content-java;ua=Mozilla/5.0 ', '2026-04-03 13:00:46');
-INSERT INTO `user_browse_record` VALUES (1611, 13, 4467, 33, '2026-04-03 13:00:47', 'et=stay;rid=na;pos=0;pg=home;rv=content-java;ua=Mozilla/5.0 ', '2026-04-03 13:01:20');
+INSERT INTO `user_browse_record` VALUES (1600, 13, 4388, 5, '2026-03-24 17:56:11', 'Mozilla/5.0', '2026-03-24 17:56:16', 'stay', 'f4578bda', 3, 'home', 'content-py-v');
+INSERT INTO `user_browse_record` VALUES (1601, 13, 4388, 17, '2026-03-24 17:56:17', 'Mozilla/5.0', '2026-03-24 17:56:34', 'stay', NULL, NULL, 'detail', NULL);
+INSERT INTO `user_browse_record` VALUES (1602, 13, 4423, 8, '2026-03-24 17:56:47', 'Mozilla/5.0', '2026-03-24 17:56:55', 'stay', NULL, NULL, 'detail', NULL);
+INSERT INTO `user_browse_record` VALUES (1603, 13, 4423, 9, '2026-03-24 18:27:23', 'Mozilla/5.0', '2026-03-24 18:27:32', 'stay', NULL, NULL, 'detail', NULL);
+INSERT INTO `user_browse_record` VALUES (1604, 13, 4620, 9, '2026-03-24 18:56:42', 'Mozilla/5.0', '2026-03-24 18:56:51', 'stay', NULL, NULL, 'detail', NULL);
+INSERT INTO `user_browse_record` VALUES (1605, 13, 4395, 7, '2026-03-24 18:56:53', 'Mozilla/5.0', '2026-03-24 18:57:00', 'stay', '6302a1b4', 2, 'home', 'content-py-v');
+INSERT INTO `user_browse_record` VALUES (1606, 13, 4395, 149, '2026-03-24 18:57:01', 'Mozilla/5.0', '2026-03-24 18:59:30', 'stay', '6302a1b4', 2, 'home', 'content-py-v');
+INSERT INTO `user_browse_record` VALUES (1607, 13, 4395, 30, '2026-03-24 18:59:30', 'Mozilla/5.0', '2026-03-24 19:00:00', 'stay', '6302a1b4', 2, 'home', 'content-py-v');
+INSERT INTO `user_browse_record` VALUES (1608, 13, 4395, 31, '2026-03-24 19:00:01', 'Mozilla/5.0', '2026-03-24 19:00:32', 'stay', NULL, NULL, 'detail', NULL);
+INSERT INTO `user_browse_record` VALUES (1609, 13, 4431, 0, '2026-04-03 12:53:08', 'Mozilla/5.0', '2026-04-03 12:53:08', 'click', NULL, NULL, 'home', NULL);
+INSERT INTO `user_browse_record` VALUES (1610, 13, 4467, 0, '2026-04-03 13:00:46', 'Mozilla/5.0', '2026-04-03 13:00:46', 'click', NULL, NULL, 'home', 'content-java');
+INSERT INTO `user_browse_record` VALUES (1611, 13, 4467, 33, '2026-04-03 13:00:47', 'Mozilla/5.0', '2026-04-03 13:01:20', 'stay', NULL, NULL, 'home', 'content-java');
 
 -- ----------------------------
 -- Table structure for user_collection
@@ -5,6 +5,8 @@ import type { AttractionCard } from "./attraction";
 export interface RecommendHomeRequest {
   pageNum: number;
   pageSize: number;
+  /** 推荐会话ID，翻页时传入首页返回的 requestId */
+  requestId?: string;
 }
 
 export interface RecommendHomeResponse {